@@ -0,0 +1,97 @@
+package com.logistics.parcelandcarrier.benchmark;
+
+import com.logistics.parcelandcarrier.dto.request.PackageRequest;
+import com.logistics.parcelandcarrier.entity.Package;
+import com.logistics.parcelandcarrier.entity.User;
+import com.logistics.parcelandcarrier.enums.PackageStatus;
+import com.logistics.parcelandcarrier.enums.PackageType;
+import com.logistics.parcelandcarrier.enums.Role;
+import com.logistics.parcelandcarrier.enums.Specialty;
+import com.logistics.parcelandcarrier.enums.TransporterStatus;
+import com.logistics.parcelandcarrier.security.JwtService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared sample data for the benchmarks, shaped like production documents
+ */
+final class BenchmarkFixtures {
+
+  static final String JWT_SECRET = "benchmark-secret-key-must-be-long-enough-for-hmac256";
+
+  private BenchmarkFixtures() {
+  }
+
+  /**
+   * JwtService configured the way application.yml does it
+   */
+  static JwtService jwtService() {
+    JwtService jwtService = new JwtService();
+    ReflectionTestUtils.setField(jwtService, "secretKey", JWT_SECRET);
+    ReflectionTestUtils.setField(jwtService, "expirationTime", 86_400_000L);
+    ReflectionTestUtils.setField(jwtService, "issuer", "parcel-and-carrier-api");
+    return jwtService;
+  }
+
+  static User transporter(int index) {
+    return User.builder()
+      .id(String.format("65f1c0de00000000%08x", index))
+      .login("transporter_" + index)
+      .password("$2a$12$e0MYzXyjpJS7Pd0RVvHwHeFtR3cJ0S5rM1kZ8wYfYkz8uQ0c9uH5W")
+      .role(Role.TRANSPORTER)
+      .active(true)
+      .specialty(Specialty.values()[index % Specialty.values().length])
+      .status(TransporterStatus.AVAILABLE)
+      .createdAt(LocalDateTime.now())
+      .updatedAt(LocalDateTime.now())
+      .build();
+  }
+
+  static Package pkg(int index) {
+    PackageType type = PackageType.values()[index % PackageType.values().length];
+
+    return Package.builder()
+      .id(String.format("65f1c0de10000000%08x", index))
+      .type(type)
+      .weight(1.5 + index % 40)
+      .destinationAddress(index + " Rue de la Republique, 69002 Lyon, France")
+      .status(PackageStatus.IN_TRANSIT)
+      .transporterId(String.format("65f1c0de00000000%08x", index % 50))
+      .handlingInstructions(type.isFragile() ? "Handle with care, keep upright" : null)
+      .minTemperature(type.isRefrigerated() ? 2.0 : null)
+      .maxTemperature(type.isRefrigerated() ? 8.0 : null)
+      .createdAt(LocalDateTime.now())
+      .updatedAt(LocalDateTime.now())
+      .build();
+  }
+
+  static List<Package> packages(int count) {
+    List<Package> packages = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      packages.add(pkg(i));
+    }
+    return packages;
+  }
+
+  static List<User> transporters(int count) {
+    List<User> users = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      users.add(transporter(i));
+    }
+    return users;
+  }
+
+  static PackageRequest request(PackageType type) {
+    return PackageRequest.builder()
+      .type(type)
+      .weight(12.5)
+      .destinationAddress("12 Avenue des Champs-Elysees, 75008 Paris, France")
+      .handlingInstructions(type.isFragile() ? "Handle with care, keep upright" : null)
+      .minTemperature(type.isRefrigerated() ? 2.0 : null)
+      .maxTemperature(type.isRefrigerated() ? 8.0 : null)
+      .build();
+  }
+}
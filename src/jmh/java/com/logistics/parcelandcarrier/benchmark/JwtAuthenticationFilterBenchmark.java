@@ -0,0 +1,80 @@
+package com.logistics.parcelandcarrier.benchmark;
+
+import com.logistics.parcelandcarrier.entity.User;
+import com.logistics.parcelandcarrier.repository.RevokedTokenRepository;
+import com.logistics.parcelandcarrier.security.JwtAuthenticationFilter;
+import com.logistics.parcelandcarrier.security.JwtService;
+import com.logistics.parcelandcarrier.security.RevokedTokenRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request authentication cost of JwtAuthenticationFilter: token verification, the revocation
+ * check against an empty deny list, and the security context.
+ * Request/response/chain objects are created per invocation because OncePerRequestFilter
+ * marks the request as filtered.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+  private JwtAuthenticationFilter filter;
+  private String authorizationHeader;
+
+  @Setup
+  public void setUp() {
+    JwtService jwtService = BenchmarkFixtures.jwtService();
+    User user = BenchmarkFixtures.transporter(1);
+
+    RevokedTokenRegistry revokedTokenRegistry = new RevokedTokenRegistry(
+      Mockito.mock(RevokedTokenRepository.class), new SimpleMeterRegistry(), 86_400_000L, 100_000);
+
+    filter = new JwtAuthenticationFilter(jwtService, revokedTokenRegistry);
+    authorizationHeader = "Bearer " + jwtService.generateToken(user);
+  }
+
+  @Benchmark
+  public MockHttpServletResponse authenticatedRequest() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/transporter/packages");
+    request.addHeader("Authorization", authorizationHeader);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    try {
+      filter.doFilter(request, response, new MockFilterChain());
+    } finally {
+      SecurityContextHolder.clearContext();
+    }
+
+    return response;
+  }
+
+  @Benchmark
+  public MockHttpServletResponse publicRequest() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    filter.doFilter(request, response, new MockFilterChain());
+
+    return response;
+  }
+}
@@ -0,0 +1,54 @@
+package com.logistics.parcelandcarrier.benchmark;
+
+import com.logistics.parcelandcarrier.entity.User;
+import com.logistics.parcelandcarrier.security.JwtService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT cost paid on login (generate) and on every authenticated request (validate + extract)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+  private JwtService jwtService;
+  private User user;
+  private String token;
+
+  @Setup
+  public void setUp() {
+    jwtService = BenchmarkFixtures.jwtService();
+    user = BenchmarkFixtures.transporter(1);
+    token = jwtService.generateToken(user);
+  }
+
+  @Benchmark
+  public String generateToken() {
+    return jwtService.generateToken(user);
+  }
+
+  @Benchmark
+  public boolean validateToken() {
+    return jwtService.validateToken(token);
+  }
+
+  @Benchmark
+  public String extractUsername() {
+    return jwtService.extractUsername(token);
+  }
+}
@@ -0,0 +1,91 @@
+package com.logistics.parcelandcarrier.benchmark;
+
+import com.logistics.parcelandcarrier.dto.response.PackageResponse;
+import com.logistics.parcelandcarrier.dto.response.UserResponse;
+import com.logistics.parcelandcarrier.entity.Package;
+import com.logistics.parcelandcarrier.entity.User;
+import com.logistics.parcelandcarrier.mapper.PackageMapper;
+import com.logistics.parcelandcarrier.mapper.PackageMapperImpl;
+import com.logistics.parcelandcarrier.mapper.UserMapper;
+import com.logistics.parcelandcarrier.mapper.UserMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct entity to response mapping, per entity and per page
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+  @Param({"10", "100"})
+  private int pageSize;
+
+  private PackageMapper packageMapper;
+  private UserMapper userMapper;
+
+  private Package pkg;
+  private Page<Package> packagePage;
+  private User user;
+  private Page<User> userPage;
+  private List<User> users;
+
+  @Setup
+  public void setUp() {
+    packageMapper = new PackageMapperImpl();
+    userMapper = new UserMapperImpl();
+
+    pkg = BenchmarkFixtures.pkg(1);
+    packagePage = new PageImpl<>(
+      BenchmarkFixtures.packages(pageSize), PageRequest.of(0, pageSize), 10_000
+    );
+
+    user = BenchmarkFixtures.transporter(1);
+    users = BenchmarkFixtures.transporters(pageSize);
+    userPage = new PageImpl<>(users, PageRequest.of(0, pageSize), 10_000);
+  }
+
+  @Benchmark
+  public PackageResponse packageToResponse() {
+    return packageMapper.toResponse(pkg);
+  }
+
+  @Benchmark
+  public Page<PackageResponse> packageToResponsePage() {
+    return packageMapper.toResponsePage(packagePage);
+  }
+
+  @Benchmark
+  public UserResponse userToResponse() {
+    return userMapper.toResponse(user);
+  }
+
+  @Benchmark
+  public Page<UserResponse> userToResponsePage() {
+    return userMapper.toResponsePage(userPage);
+  }
+
+  @Benchmark
+  public List<UserResponse> userToResponseList() {
+    return userMapper.toResponseList(users);
+  }
+}
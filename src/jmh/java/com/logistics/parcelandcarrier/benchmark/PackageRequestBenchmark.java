@@ -0,0 +1,45 @@
+package com.logistics.parcelandcarrier.benchmark;
+
+import com.logistics.parcelandcarrier.dto.request.PackageRequest;
+import com.logistics.parcelandcarrier.enums.PackageType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Business-rule validation run on every package create and update
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PackageRequestBenchmark {
+
+  @Param({"STANDARD", "FRAGILE", "REFRIGERATED"})
+  private PackageType type;
+
+  private PackageRequest request;
+
+  @Setup
+  public void setUp() {
+    request = BenchmarkFixtures.request(type);
+  }
+
+  @Benchmark
+  public PackageRequest validate() {
+    request.validate();
+    return request;
+  }
+}
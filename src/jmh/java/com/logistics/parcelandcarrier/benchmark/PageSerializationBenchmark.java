@@ -0,0 +1,73 @@
+package com.logistics.parcelandcarrier.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.logistics.parcelandcarrier.dto.response.PackageResponse;
+import com.logistics.parcelandcarrier.dto.response.UserResponse;
+import com.logistics.parcelandcarrier.mapper.PackageMapperImpl;
+import com.logistics.parcelandcarrier.mapper.UserMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the paged responses returned by the list endpoints,
+ * using the same ObjectMapper settings as application.yml (spring.jackson.*)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageSerializationBenchmark {
+
+  @Param({"10", "100"})
+  private int pageSize;
+
+  private ObjectMapper objectMapper;
+  private Page<PackageResponse> packagePage;
+  private Page<UserResponse> userPage;
+
+  @Setup
+  public void setUp() {
+    objectMapper = Jackson2ObjectMapperBuilder.json()
+      .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+      .serializationInclusion(JsonInclude.Include.NON_NULL)
+      .timeZone(TimeZone.getTimeZone("UTC"))
+      .build();
+
+    packagePage = new PackageMapperImpl().toResponsePage(new PageImpl<>(
+      BenchmarkFixtures.packages(pageSize), PageRequest.of(0, pageSize), 10_000
+    ));
+    userPage = new UserMapperImpl().toResponsePage(new PageImpl<>(
+      BenchmarkFixtures.transporters(pageSize), PageRequest.of(0, pageSize), 10_000
+    ));
+  }
+
+  @Benchmark
+  public byte[] serializePackagePage() throws Exception {
+    return objectMapper.writeValueAsBytes(packagePage);
+  }
+
+  @Benchmark
+  public byte[] serializeUserPage() throws Exception {
+    return objectMapper.writeValueAsBytes(userPage);
+  }
+}
@@ -0,0 +1,80 @@
+package com.logistics.parcelandcarrier.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and outcome counters for one operation of the traffic mix
+ */
+class EndpointStats {
+
+  private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+  private final Histogram latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+  private final LongAdder errors = new LongAdder();
+  private final LongAdder skipped = new LongAdder();
+  private final Map<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+
+  void record(long startNanos, int statusCode) {
+    long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+    latencies.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+    statusCodes.computeIfAbsent(statusCode, code -> new LongAdder()).increment();
+    if (statusCode >= 400) {
+      errors.increment();
+    }
+  }
+
+  void recordFailure(long startNanos) {
+    record(startNanos, 599);
+  }
+
+  /**
+   * The operation had nothing to work on (e.g. no pending package to assign)
+   */
+  void recordSkipped() {
+    skipped.increment();
+  }
+
+  void reset() {
+    latencies.reset();
+    errors.reset();
+    skipped.reset();
+    statusCodes.clear();
+  }
+
+  Map<String, Object> summary(double elapsedSeconds) {
+    Map<String, Object> summary = new LinkedHashMap<>();
+    long count = latencies.getTotalCount();
+
+    summary.put("count", count);
+    summary.put("errors", errors.sum());
+    summary.put("skipped", skipped.sum());
+    summary.put("throughputPerSecond", round(count / elapsedSeconds));
+    summary.put("meanMs", round(latencies.getMean() / 1000.0));
+    summary.put("p50Ms", percentileMillis(50.0));
+    summary.put("p99Ms", percentileMillis(99.0));
+    summary.put("p999Ms", percentileMillis(99.9));
+    summary.put("maxMs", round(latencies.getMaxValue() / 1000.0));
+
+    Map<String, Long> codes = new TreeMap<>();
+    statusCodes.forEach((code, adder) -> codes.put(String.valueOf(code), adder.sum()));
+    summary.put("statusCodes", codes);
+
+    return summary;
+  }
+
+  private double percentileMillis(double percentile) {
+    return round(latencies.getValueAtPercentile(percentile) / 1000.0);
+  }
+
+  private static double round(double value) {
+    return Math.round(value * 1000.0) / 1000.0;
+  }
+}
@@ -0,0 +1,33 @@
+package com.logistics.parcelandcarrier.loadtest;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+
+import java.time.Duration;
+
+/**
+ * Command listener that delays every MongoDB command issued by the application.
+ * The synchronous driver notifies {@code commandStarted} on the calling thread, so sleeping here
+ * holds the request thread exactly like a slow query would. Disabled (zero) while seeding.
+ */
+class InducedMongoLatency implements CommandListener {
+
+  private volatile long latencyNanos;
+
+  void set(Duration latency) {
+    latencyNanos = latency.toNanos();
+  }
+
+  @Override
+  public void commandStarted(CommandStartedEvent event) {
+    long nanos = latencyNanos;
+    if (nanos <= 0) {
+      return;
+    }
+    try {
+      Thread.sleep(Duration.ofNanos(nanos));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package com.logistics.parcelandcarrier.loadtest;
+
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Harness settings, read from the {@code load.*} Spring properties
+ * (application-loadtest.yml, overridable on the command line: --load.concurrency=200),
+ * plus the server threading mode under test (spring.threads.virtual.enabled)
+ */
+record LoadTestConfig(
+  int transporters,
+  int packages,
+  int concurrency,
+  Duration warmup,
+  Duration duration,
+  Duration mongoLatency,
+  Map<String, Integer> mix,
+  String reportDir,
+  boolean virtualThreads
+) {
+
+  static LoadTestConfig from(Environment env) {
+    return new LoadTestConfig(
+      env.getRequiredProperty("load.transporters", Integer.class),
+      env.getRequiredProperty("load.packages", Integer.class),
+      env.getRequiredProperty("load.concurrency", Integer.class),
+      env.getRequiredProperty("load.warmup", Duration.class),
+      env.getRequiredProperty("load.duration", Duration.class),
+      env.getProperty("load.mongo-latency", Duration.class, Duration.ZERO),
+      parseMix(env.getRequiredProperty("load.mix")),
+      env.getRequiredProperty("load.report-dir"),
+      env.getProperty("spring.threads.virtual.enabled", Boolean.class, false)
+    );
+  }
+
+  /**
+   * Parse "operation:weight,operation:weight" into an ordered map
+   */
+  static Map<String, Integer> parseMix(String mix) {
+    Map<String, Integer> weights = new LinkedHashMap<>();
+    for (String entry : mix.split(",")) {
+      String[] parts = entry.trim().split(":");
+      if (parts.length != 2) {
+        throw new IllegalArgumentException("Invalid load.mix entry: " + entry);
+      }
+      int weight = Integer.parseInt(parts[1].trim());
+      if (weight > 0) {
+        weights.put(parts[0].trim(), weight);
+      }
+    }
+    if (weights.isEmpty()) {
+      throw new IllegalArgumentException("load.mix must contain at least one positive weight");
+    }
+    return weights;
+  }
+}
@@ -0,0 +1,133 @@
+package com.logistics.parcelandcarrier.loadtest;
+
+import com.logistics.parcelandcarrier.dto.request.PackageRequest;
+import com.logistics.parcelandcarrier.dto.request.TransporterRequest;
+import com.logistics.parcelandcarrier.dto.response.PackageResponse;
+import com.logistics.parcelandcarrier.dto.response.UserResponse;
+import com.logistics.parcelandcarrier.entity.User;
+import com.logistics.parcelandcarrier.enums.PackageType;
+import com.logistics.parcelandcarrier.enums.Specialty;
+import com.logistics.parcelandcarrier.repository.PackageRepository;
+import com.logistics.parcelandcarrier.repository.UserRepository;
+import com.logistics.parcelandcarrier.security.JwtService;
+import com.logistics.parcelandcarrier.service.PackageService;
+import com.logistics.parcelandcarrier.service.TransporterService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Data seeded through the domain services, plus the mutable pools the traffic mix draws from:
+ * pending packages per type, available transporters per specialty and in-flight assignments.
+ */
+@Slf4j
+class LoadTestDataSet {
+
+  static final String TRANSPORTER_PASSWORD = "load-pass";
+  static final String[] CITIES = {
+    "Paris", "Lyon", "Marseille", "Toulouse", "Nantes", "Lille", "Bordeaux", "Strasbourg"
+  };
+
+  record Transporter(String id, String login, Specialty specialty, String token) {
+  }
+
+  record Assignment(String packageId, Transporter transporter) {
+  }
+
+  final List<Transporter> transporters = new ArrayList<>();
+  final Map<PackageType, Queue<String>> pendingByType = new EnumMap<>(PackageType.class);
+  final Map<Specialty, Queue<Transporter>> availableBySpecialty = new EnumMap<>(Specialty.class);
+  final Queue<Assignment> inTransit = new ConcurrentLinkedQueue<>();
+  String adminToken;
+
+  private LoadTestDataSet() {
+    for (PackageType type : PackageType.values()) {
+      pendingByType.put(type, new ConcurrentLinkedQueue<>());
+    }
+    for (Specialty specialty : Specialty.values()) {
+      availableBySpecialty.put(specialty, new ConcurrentLinkedQueue<>());
+    }
+  }
+
+  /**
+   * Wipe the load-test database and seed it: transporters, packages, and one in-flight
+   * assignment for half of the transporters so transporter endpoints have data from the start
+   */
+  static LoadTestDataSet seed(ConfigurableApplicationContext context, LoadTestConfig config) {
+    PackageRepository packageRepository = context.getBean(PackageRepository.class);
+    UserRepository userRepository = context.getBean(UserRepository.class);
+    TransporterService transporterService = context.getBean(TransporterService.class);
+    PackageService packageService = context.getBean(PackageService.class);
+    JwtService jwtService = context.getBean(JwtService.class);
+
+    packageRepository.deleteAll();
+    userRepository.findAll().stream()
+      .filter(User::isTransporter)
+      .forEach(userRepository::delete);
+
+    LoadTestDataSet dataSet = new LoadTestDataSet();
+
+    User admin = userRepository.findByLogin("admin")
+      .orElseThrow(() -> new IllegalStateException("Admin user was not bootstrapped"));
+    dataSet.adminToken = jwtService.generateToken(admin);
+
+    log.info("Seeding {} transporters", config.transporters());
+    for (int i = 0; i < config.transporters(); i++) {
+      Specialty specialty = Specialty.values()[i % Specialty.values().length];
+      UserResponse created = transporterService.createTransporter(
+        new TransporterRequest("load_t" + i, TRANSPORTER_PASSWORD, specialty)
+      );
+      User user = userRepository.findById(created.getId()).orElseThrow();
+      Transporter transporter = new Transporter(
+        created.getId(), created.getLogin(), specialty, jwtService.generateToken(user)
+      );
+      dataSet.transporters.add(transporter);
+      dataSet.availableBySpecialty.get(specialty).add(transporter);
+    }
+
+    log.info("Seeding {} packages", config.packages());
+    for (int i = 0; i < config.packages(); i++) {
+      PackageType type = PackageType.values()[i % PackageType.values().length];
+      PackageResponse created = packageService.createPackage(packageRequest(type, i));
+      dataSet.pendingByType.get(type).add(created.getId());
+    }
+
+    for (int i = 0; i < dataSet.transporters.size() / 2; i++) {
+      Transporter transporter = dataSet.transporters.get(i);
+      PackageType type = PackageType.valueOf(transporter.specialty().name());
+      String packageId = dataSet.pendingByType.get(type).poll();
+      if (packageId == null) {
+        break;
+      }
+      packageService.assignPackageToTransporter(packageId, transporter.id());
+      dataSet.availableBySpecialty.get(transporter.specialty()).remove(transporter);
+      dataSet.inTransit.add(new Assignment(packageId, transporter));
+    }
+
+    return dataSet;
+  }
+
+  static PackageRequest packageRequest(PackageType type, int index) {
+    String city = CITIES[index % CITIES.length];
+
+    return PackageRequest.builder()
+      .type(type)
+      .weight(0.5 + ThreadLocalRandom.current().nextDouble(50.0))
+      .destinationAddress(index + " Rue de la Gare, " + (10000 + index % 89999) + " " + city + ", France")
+      .handlingInstructions(type.isFragile() ? "Handle with care, keep upright" : null)
+      .minTemperature(type.isRefrigerated() ? 2.0 : null)
+      .maxTemperature(type.isRefrigerated() ? 8.0 : null)
+      .build();
+  }
+
+  Transporter randomTransporter() {
+    return transporters.get(ThreadLocalRandom.current().nextInt(transporters.size()));
+  }
+}
@@ -0,0 +1,218 @@
+package com.logistics.parcelandcarrier.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.logistics.parcelandcarrier.ParcelandcarrierApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * In-JVM end-to-end load harness.
+ * Boots the application on embedded MongoDB, seeds transporters and packages through the
+ * domain services, then drives the configured traffic mix over HTTP from a pool of virtual-thread
+ * clients (closed loop: each client issues its next request when the previous one completes).
+ * Per-operation HdrHistogram latencies and throughput are written as JSON to load.report-dir,
+ * together with the virtual-thread pinning events observed during the measurement.
+ * Set load.mongo-latency to add a fixed delay to every MongoDB command once seeding is done.
+ */
+@Slf4j
+public final class LoadTestHarness {
+
+  private static final DateTimeFormatter FILE_TIMESTAMP =
+    DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+  private LoadTestHarness() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    // A system property takes precedence over spring.profiles.active=dev from application.yml
+    System.setProperty("spring.profiles.active", "loadtest");
+
+    InducedMongoLatency mongoLatency = new InducedMongoLatency();
+
+    try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ParcelandcarrierApplication.class)
+      .initializers(ctx -> ctx.getBeanFactory().registerSingleton(
+        "inducedMongoLatencyCustomizer",
+        (MongoClientSettingsBuilderCustomizer) settings -> settings.addCommandListener(mongoLatency)
+      ))
+      .run(args)) {
+
+      LoadTestConfig config = LoadTestConfig.from(context.getEnvironment());
+      int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+      ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+
+      LoadTestDataSet data = LoadTestDataSet.seed(context, config);
+      mongoLatency.set(config.mongoLatency());
+
+      Map<String, Object> report = run(config, data, objectMapper, "http://localhost:" + port);
+
+      writeReport(report, config, objectMapper);
+    }
+  }
+
+  static Map<String, Object> run(LoadTestConfig config, LoadTestDataSet data,
+                                 ObjectMapper objectMapper, String baseUrl) throws Exception {
+    try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+         PinningMonitor pinning = new PinningMonitor();
+         HttpClient httpClient = HttpClient.newBuilder()
+           .executor(clients)
+           .connectTimeout(Duration.ofSeconds(5))
+           .build()) {
+
+      TrafficScenario scenario = new TrafficScenario(httpClient, objectMapper, baseUrl, data);
+      WeightedMix mix = new WeightedMix(config.mix(), scenario);
+
+      pinning.start();
+      log.info("Warming up for {}", config.warmup());
+      drive(clients, mix, config.concurrency(), config.warmup());
+      mix.resetStats();
+      pinning.reset();
+
+      log.info("Measuring {} with {} concurrent clients", config.duration(), config.concurrency());
+      long start = System.nanoTime();
+      drive(clients, mix, config.concurrency(), config.duration());
+      double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+      Map<String, Object> report = report(config, mix, elapsedSeconds);
+      report.put("virtualThreadPinning", pinning.summary());
+      return report;
+    }
+  }
+
+  /**
+   * Run {@code concurrency} virtual-thread clients in a closed loop until the deadline
+   */
+  private static void drive(ExecutorService clients, WeightedMix mix, int concurrency, Duration duration)
+    throws Exception {
+    long deadline = System.nanoTime() + duration.toNanos();
+    List<Future<?>> futures = new ArrayList<>(concurrency);
+
+    for (int i = 0; i < concurrency; i++) {
+      futures.add(clients.submit(() -> {
+        while (System.nanoTime() < deadline) {
+          mix.next().run();
+        }
+        return null;
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+  }
+
+  private static Map<String, Object> report(LoadTestConfig config, WeightedMix mix, double elapsedSeconds) {
+    Map<String, Object> report = new LinkedHashMap<>();
+    report.put("timestamp", Instant.now().toString());
+    report.put("javaVersion", Runtime.version().toString());
+    report.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+    report.put("config", Map.of(
+      "transporters", config.transporters(),
+      "packages", config.packages(),
+      "concurrency", config.concurrency(),
+      "warmupSeconds", config.warmup().toSeconds(),
+      "durationSeconds", config.duration().toSeconds(),
+      "mongoLatencyMs", config.mongoLatency().toMillis(),
+      "virtualThreads", config.virtualThreads(),
+      "mix", config.mix()
+    ));
+    report.put("elapsedSeconds", Math.round(elapsedSeconds * 1000.0) / 1000.0);
+
+    Map<String, Object> endpoints = new LinkedHashMap<>();
+    long total = 0;
+    for (Map.Entry<String, EndpointStats> entry : mix.stats().entrySet()) {
+      Map<String, Object> summary = entry.getValue().summary(elapsedSeconds);
+      total += (long) summary.get("count");
+      endpoints.put(entry.getKey(), summary);
+    }
+    report.put("totalThroughputPerSecond", Math.round(total / elapsedSeconds * 1000.0) / 1000.0);
+    report.put("endpoints", endpoints);
+
+    return report;
+  }
+
+  private static void writeReport(Map<String, Object> report, LoadTestConfig config, ObjectMapper objectMapper)
+    throws Exception {
+    String json = objectMapper.copy()
+      .enable(SerializationFeature.INDENT_OUTPUT)
+      .writeValueAsString(report);
+
+    Path dir = Path.of(config.reportDir());
+    Files.createDirectories(dir);
+    Path file = dir.resolve("load-test-" + FILE_TIMESTAMP.format(Instant.now()) + ".json");
+    Files.writeString(file, json);
+
+    System.out.println(json);
+    log.info("Load test report written to {}", file.toAbsolutePath());
+  }
+
+  /**
+   * Picks the next operation according to the configured weights
+   */
+  static final class WeightedMix {
+
+    private final String[] names;
+    private final int[] cumulativeWeights;
+    private final TrafficScenario.Operation[] operations;
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+
+    WeightedMix(Map<String, Integer> weights, TrafficScenario scenario) {
+      names = weights.keySet().toArray(String[]::new);
+      cumulativeWeights = new int[names.length];
+      operations = new TrafficScenario.Operation[names.length];
+
+      int sum = 0;
+      for (int i = 0; i < names.length; i++) {
+        sum += weights.get(names[i]);
+        cumulativeWeights[i] = sum;
+        operations[i] = scenario.operation(names[i]);
+        stats.put(names[i], new EndpointStats());
+      }
+    }
+
+    Runnable next() {
+      int ticket = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+      int index = 0;
+      while (cumulativeWeights[index] <= ticket) {
+        index++;
+      }
+
+      TrafficScenario.Operation operation = operations[index];
+      EndpointStats endpointStats = stats.get(names[index]);
+      return () -> {
+        long start = System.nanoTime();
+        try {
+          operation.execute(endpointStats);
+        } catch (Exception e) {
+          endpointStats.recordFailure(start);
+        }
+      };
+    }
+
+    Map<String, EndpointStats> stats() {
+      return stats;
+    }
+
+    void resetStats() {
+      stats.values().forEach(EndpointStats::reset);
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package com.logistics.parcelandcarrier.loadtest;
+
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Streams JFR {@code jdk.VirtualThreadPinned} events while the measurement runs: a virtual thread
+ * that blocks inside a {@code synchronized} block or a native frame keeps its carrier thread.
+ * Events are grouped by the top frame of the pinning stack so offenders show up in the report.
+ */
+class PinningMonitor implements AutoCloseable {
+
+  private static final int TOP_OFFENDERS = 10;
+
+  private final RecordingStream stream = new RecordingStream();
+  private final LongAdder events = new LongAdder();
+  private final Map<String, LongAdder> byFrame = new ConcurrentHashMap<>();
+  private final LongAdder pinnedNanos = new LongAdder();
+
+  PinningMonitor() {
+    stream.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+    stream.onEvent("jdk.VirtualThreadPinned", event -> {
+      events.increment();
+      pinnedNanos.add(event.getDuration().toNanos());
+      byFrame.computeIfAbsent(topFrame(event.getStackTrace()), frame -> new LongAdder()).increment();
+    });
+  }
+
+  void start() {
+    stream.startAsync();
+  }
+
+  void reset() {
+    events.reset();
+    byFrame.clear();
+    pinnedNanos.reset();
+  }
+
+  Map<String, Object> summary() {
+    Map<String, Object> summary = new LinkedHashMap<>();
+    summary.put("events", events.sum());
+    summary.put("totalPinnedMs", Math.round(pinnedNanos.sum() / 1_000.0) / 1000.0);
+
+    Map<String, Long> offenders = new LinkedHashMap<>();
+    byFrame.entrySet().stream()
+      .sorted((a, b) -> Long.compare(b.getValue().sum(), a.getValue().sum()))
+      .limit(TOP_OFFENDERS)
+      .forEach(entry -> offenders.put(entry.getKey(), entry.getValue().sum()));
+    summary.put("topFrames", offenders);
+
+    return summary;
+  }
+
+  @Override
+  public void close() {
+    stream.close();
+  }
+
+  /**
+   * First frame outside java.* / jdk.*, i.e. the library or application code that pinned
+   */
+  private static String topFrame(RecordedStackTrace stackTrace) {
+    if (stackTrace == null) {
+      return "<no stack trace>";
+    }
+    List<RecordedFrame> frames = stackTrace.getFrames();
+    for (RecordedFrame frame : frames) {
+      String type = frame.getMethod().getType().getName();
+      if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+        return type + "." + frame.getMethod().getName();
+      }
+    }
+    return frames.isEmpty() ? "<empty stack trace>" : frames.get(0).getMethod().getType().getName()
+      + "." + frames.get(0).getMethod().getName();
+  }
+}
@@ -0,0 +1,178 @@
+package com.logistics.parcelandcarrier.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Time to readiness of the packaged application, per launch mode.
+ * Starts the jar in a fresh JVM for each run and measures the wall-clock time until
+ * /actuator/health/readiness answers UP, i.e. after the startup runners. Modes:
+ * {@code jar} (plain fat jar), {@code cds} (extracted layout with the AppCDS archive) and
+ * {@code cds-aot} (plus the AOT-processed context). The last two need {@code mvn -Pfast-startup package};
+ * modes whose files are missing are skipped. Run with:
+ * mvn -Pload-test test-compile exec:exec -Dload.main=com.logistics.parcelandcarrier.loadtest.StartupBenchmark
+ *   -Dload.args="--startup.mongo-uri=mongodb://localhost:27017/startup-benchmark --startup.runs=5"
+ */
+@Slf4j
+public final class StartupBenchmark {
+
+  private static final DateTimeFormatter FILE_TIMESTAMP =
+    DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+  private static final Duration POLL_INTERVAL = Duration.ofMillis(20);
+
+  private StartupBenchmark() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    SimpleCommandLinePropertySource options = new SimpleCommandLinePropertySource(args);
+    String mongoUri = option(options, "startup.mongo-uri", "mongodb://localhost:27017/startup-benchmark");
+    int runs = Integer.parseInt(option(options, "startup.runs", "5"));
+    Duration timeout = DurationStyle.detectAndParse(option(options, "startup.timeout", "120s"));
+    Path target = Path.of(option(options, "startup.target-dir", "target"));
+    String reportDir = option(options, "startup.report-dir", "target/startup-benchmark");
+
+    Path jar = findJar(target);
+    Path extracted = jar == null ? null : target.resolve("extracted").resolve(jar.getFileName());
+    Path archive = target.resolve("extracted").resolve("application.jsa");
+
+    Map<String, List<String>> modes = new LinkedHashMap<>();
+    if (jar != null) {
+      modes.put("jar", List.of("-jar", jar.toString()));
+    }
+    if (extracted != null && Files.exists(extracted) && Files.exists(archive)) {
+      modes.put("cds", List.of("-XX:SharedArchiveFile=" + archive, "-jar", extracted.toString()));
+      modes.put("cds-aot", List.of("-XX:SharedArchiveFile=" + archive, "-Dspring.aot.enabled=true",
+        "-jar", extracted.toString()));
+    } else {
+      log.warn("No AppCDS archive under {}, cds modes skipped (mvn -Pfast-startup package)", target.resolve("extracted"));
+    }
+    if (modes.isEmpty()) {
+      throw new IllegalStateException("No application jar in " + target.toAbsolutePath() + ", run mvn package first");
+    }
+
+    Map<String, Object> report = new LinkedHashMap<>();
+    report.put("runs", runs);
+    report.put("mongoUri", mongoUri);
+    try (HttpClient httpClient = HttpClient.newHttpClient()) {
+      for (Map.Entry<String, List<String>> mode : modes.entrySet()) {
+        List<Long> millis = new ArrayList<>();
+        for (int run = 0; run < runs; run++) {
+          millis.add(timeToReady(mode.getValue(), mongoUri, timeout, httpClient).toMillis());
+          log.info("{} run {}: ready in {} ms", mode.getKey(), run + 1, millis.get(millis.size() - 1));
+        }
+        report.put(mode.getKey(), summary(millis));
+      }
+    }
+    writeReport(report, reportDir);
+  }
+
+  // =========================================================================
+  // Private helper methods
+  // =========================================================================
+
+  private static Duration timeToReady(List<String> launch, String mongoUri, Duration timeout, HttpClient httpClient)
+    throws Exception {
+    int port = freePort();
+    List<String> command = new ArrayList<>();
+    command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+    command.addAll(launch);
+    command.add("--spring.data.mongodb.uri=" + mongoUri);
+    command.add("--server.port=" + port);
+    HttpRequest readiness = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health/readiness"))
+      .timeout(Duration.ofSeconds(1))
+      .build();
+
+    long start = System.nanoTime();
+    Process process = new ProcessBuilder(command)
+      .redirectErrorStream(true)
+      .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+      .start();
+    try {
+      while (System.nanoTime() - start < timeout.toNanos()) {
+        if (!process.isAlive()) {
+          throw new IllegalStateException("Application exited with code " + process.exitValue() + ": " + command);
+        }
+        try {
+          if (httpClient.send(readiness, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+            return Duration.ofNanos(System.nanoTime() - start);
+          }
+        } catch (IOException e) {
+          // Not listening yet
+        }
+        Thread.sleep(POLL_INTERVAL.toMillis());
+      }
+      throw new IllegalStateException("Not ready after " + timeout + ": " + command);
+    } finally {
+      process.destroy();
+      process.waitFor();
+    }
+  }
+
+  private static Map<String, Object> summary(List<Long> millis) {
+    List<Long> sorted = millis.stream().sorted().toList();
+    Map<String, Object> summary = new LinkedHashMap<>();
+    summary.put("medianMillis", sorted.get(sorted.size() / 2));
+    summary.put("minMillis", sorted.get(0));
+    summary.put("maxMillis", sorted.get(sorted.size() - 1));
+    summary.put("runsMillis", millis);
+    return summary;
+  }
+
+  private static Path findJar(Path target) throws IOException {
+    if (!Files.isDirectory(target)) {
+      return null;
+    }
+    try (var files = Files.list(target)) {
+      return files
+        .filter(file -> file.getFileName().toString().endsWith(".jar"))
+        .filter(file -> !file.getFileName().toString().endsWith("-plain.jar"))
+        .findFirst()
+        .orElse(null);
+    }
+  }
+
+  private static int freePort() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+
+  private static String option(SimpleCommandLinePropertySource options, String name, String defaultValue) {
+    String value = options.getProperty(name);
+    return value != null ? value : defaultValue;
+  }
+
+  private static void writeReport(Map<String, Object> report, String reportDir) throws IOException {
+    String json = new ObjectMapper()
+      .enable(SerializationFeature.INDENT_OUTPUT)
+      .writeValueAsString(report);
+
+    Path dir = Path.of(reportDir);
+    Files.createDirectories(dir);
+    Path file = dir.resolve("startup-" + FILE_TIMESTAMP.format(Instant.now()) + ".json");
+    Files.writeString(file, json);
+
+    System.out.println(json);
+    log.info("Startup benchmark report written to {}", file.toAbsolutePath());
+  }
+}
@@ -0,0 +1,236 @@
+package com.logistics.parcelandcarrier.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.parcelandcarrier.enums.PackageStatus;
+import com.logistics.parcelandcarrier.enums.PackageType;
+import com.logistics.parcelandcarrier.enums.Specialty;
+import com.logistics.parcelandcarrier.loadtest.LoadTestDataSet.Assignment;
+import com.logistics.parcelandcarrier.loadtest.LoadTestDataSet.Transporter;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The operations of the traffic mix, each issuing one HTTP call against the running application
+ * and recording its latency. Operations that need a pending package, an available transporter
+ * or an in-flight assignment draw it from the shared data set and put it back when they fail.
+ */
+class TrafficScenario {
+
+  @FunctionalInterface
+  interface Operation {
+    void execute(EndpointStats stats) throws Exception;
+  }
+
+  private final HttpClient httpClient;
+  private final ObjectMapper objectMapper;
+  private final String baseUrl;
+  private final LoadTestDataSet data;
+  private final AtomicInteger createdPackages = new AtomicInteger(1_000_000);
+
+  private final Map<String, Operation> operations = new LinkedHashMap<>();
+
+  TrafficScenario(HttpClient httpClient, ObjectMapper objectMapper, String baseUrl, LoadTestDataSet data) {
+    this.httpClient = httpClient;
+    this.objectMapper = objectMapper;
+    this.baseUrl = baseUrl;
+    this.data = data;
+
+    operations.put("login", this::login);
+    operations.put("admin.list", this::adminList);
+    operations.put("admin.search", this::adminSearch);
+    operations.put("admin.create", this::adminCreate);
+    operations.put("admin.assign", this::adminAssign);
+    operations.put("admin.deliver", this::adminDeliver);
+    operations.put("transporter.list", this::transporterList);
+    operations.put("transporter.status", this::transporterStatus);
+  }
+
+  Operation operation(String name) {
+    Operation operation = operations.get(name);
+    if (operation == null) {
+      throw new IllegalArgumentException(
+        "Unknown operation '" + name + "', expected one of " + operations.keySet()
+      );
+    }
+    return operation;
+  }
+
+  // =========================================================================
+  // Operations
+  // =========================================================================
+
+  private void login(EndpointStats stats) throws Exception {
+    Transporter transporter = data.randomTransporter();
+    String body = objectMapper.writeValueAsString(Map.of(
+      "login", transporter.login(),
+      "password", LoadTestDataSet.TRANSPORTER_PASSWORD
+    ));
+    send(stats, post("/api/auth/login", null, body));
+  }
+
+  private void adminList(EndpointStats stats) throws Exception {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    String path = "/api/admin/packages?size=20&page=" + random.nextInt(5);
+    if (random.nextBoolean()) {
+      path += "&status=" + PackageStatus.values()[random.nextInt(PackageStatus.values().length)];
+    }
+    send(stats, get(path, data.adminToken));
+  }
+
+  private void adminSearch(EndpointStats stats) throws Exception {
+    String city = LoadTestDataSet.CITIES[ThreadLocalRandom.current().nextInt(LoadTestDataSet.CITIES.length)];
+    send(stats, get("/api/admin/packages/search?size=20&address=" + encode(city), data.adminToken));
+  }
+
+  private void adminCreate(EndpointStats stats) throws Exception {
+    PackageType type = PackageType.values()[ThreadLocalRandom.current().nextInt(PackageType.values().length)];
+    String body = objectMapper.writeValueAsString(
+      LoadTestDataSet.packageRequest(type, createdPackages.incrementAndGet())
+    );
+
+    HttpResponse<String> response = send(stats, post("/api/admin/packages", data.adminToken, body));
+    if (response != null && response.statusCode() == 201) {
+      JsonNode created = objectMapper.readTree(response.body());
+      data.pendingByType.get(type).add(created.get("id").asText());
+    }
+  }
+
+  private void adminAssign(EndpointStats stats) throws Exception {
+    PackageType type = PackageType.values()[ThreadLocalRandom.current().nextInt(PackageType.values().length)];
+    Queue<String> pending = data.pendingByType.get(type);
+    Queue<Transporter> available = data.availableBySpecialty.get(Specialty.valueOf(type.name()));
+
+    String packageId = pending.poll();
+    if (packageId == null) {
+      stats.recordSkipped();
+      return;
+    }
+    Transporter transporter = available.poll();
+    if (transporter == null) {
+      pending.add(packageId);
+      stats.recordSkipped();
+      return;
+    }
+
+    HttpResponse<String> response = send(stats, patch(
+      "/api/admin/packages/" + packageId + "/assign/" + transporter.id(), data.adminToken, null
+    ));
+    if (isSuccess(response)) {
+      data.inTransit.add(new Assignment(packageId, transporter));
+    } else {
+      pending.add(packageId);
+      available.add(transporter);
+    }
+  }
+
+  private void adminDeliver(EndpointStats stats) throws Exception {
+    Assignment assignment = data.inTransit.poll();
+    if (assignment == null) {
+      stats.recordSkipped();
+      return;
+    }
+
+    HttpResponse<String> response = send(stats, patch(
+      "/api/admin/packages/" + assignment.packageId() + "/status", data.adminToken, statusBody()
+    ));
+    completeDelivery(assignment, response);
+  }
+
+  private void transporterList(EndpointStats stats) throws Exception {
+    Transporter transporter = data.randomTransporter();
+    send(stats, get("/api/transporter/packages?size=20", transporter.token()));
+  }
+
+  private void transporterStatus(EndpointStats stats) throws Exception {
+    Assignment assignment = data.inTransit.poll();
+    if (assignment == null) {
+      stats.recordSkipped();
+      return;
+    }
+
+    HttpResponse<String> response = send(stats, patch(
+      "/api/transporter/packages/" + assignment.packageId() + "/status",
+      assignment.transporter().token(),
+      statusBody()
+    ));
+    completeDelivery(assignment, response);
+  }
+
+  // =========================================================================
+  // HTTP helpers
+  // =========================================================================
+
+  private void completeDelivery(Assignment assignment, HttpResponse<String> response) {
+    if (isSuccess(response)) {
+      Transporter transporter = assignment.transporter();
+      data.availableBySpecialty.get(transporter.specialty()).add(transporter);
+    } else {
+      data.inTransit.add(assignment);
+    }
+  }
+
+  private String statusBody() throws Exception {
+    return objectMapper.writeValueAsString(Map.of("status", PackageStatus.DELIVERED));
+  }
+
+  private HttpResponse<String> send(EndpointStats stats, HttpRequest request) {
+    long start = System.nanoTime();
+    try {
+      HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+      stats.record(start, response.statusCode());
+      return response;
+    } catch (Exception e) {
+      stats.recordFailure(start);
+      return null;
+    }
+  }
+
+  private static boolean isSuccess(HttpResponse<String> response) {
+    return response != null && response.statusCode() / 100 == 2;
+  }
+
+  private HttpRequest get(String path, String token) {
+    return request(path, token).GET().build();
+  }
+
+  private HttpRequest post(String path, String token, String body) {
+    return request(path, token)
+      .header("Content-Type", "application/json")
+      .POST(HttpRequest.BodyPublishers.ofString(body))
+      .build();
+  }
+
+  private HttpRequest patch(String path, String token, String body) {
+    HttpRequest.Builder builder = request(path, token);
+    if (body == null) {
+      return builder.method("PATCH", HttpRequest.BodyPublishers.noBody()).build();
+    }
+    return builder
+      .header("Content-Type", "application/json")
+      .method("PATCH", HttpRequest.BodyPublishers.ofString(body))
+      .build();
+  }
+
+  private HttpRequest.Builder request(String path, String token) {
+    HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path));
+    if (token != null) {
+      builder.header("Authorization", "Bearer " + token);
+    }
+    return builder;
+  }
+
+  private static String encode(String value) {
+    return URLEncoder.encode(value, StandardCharsets.UTF_8);
+  }
+}
@@ -2,12 +2,18 @@ package com.logistics.parcelandcarrier;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class ParcelandcarrierApplication {
 
+	/** Startup steps kept for the startup report and /actuator/startup */
+	private static final int STARTUP_STEPS = 4096;
+
 	public static void main(String[] args) {
-		SpringApplication.run(ParcelandcarrierApplication.class, args);
+		SpringApplication application = new SpringApplication(ParcelandcarrierApplication.class);
+		application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+		application.run(args);
 	}
 
 }
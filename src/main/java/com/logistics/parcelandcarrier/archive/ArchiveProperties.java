@@ -0,0 +1,24 @@
+package com.logistics.parcelandcarrier.archive;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Package archival settings ({@code packages.archive.*})
+ * @param enabled run the archiver
+ * @param minAge finished packages last updated longer ago than this are archived
+ * @param batchSize packages moved per chunk
+ * @param pause delay between two chunks, to leave room for the request traffic
+ * @param maxDuration a run stops after this long and resumes at the next interval
+ */
+@ConfigurationProperties("packages.archive")
+public record ArchiveProperties(
+  @DefaultValue("false") boolean enabled,
+  @DefaultValue("30d") Duration minAge,
+  @DefaultValue("500") int batchSize,
+  @DefaultValue("100ms") Duration pause,
+  @DefaultValue("10m") Duration maxDuration
+) {
+}
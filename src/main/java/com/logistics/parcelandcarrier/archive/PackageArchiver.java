@@ -0,0 +1,178 @@
+package com.logistics.parcelandcarrier.archive;
+
+import com.logistics.parcelandcarrier.cache.PackageCache;
+import com.logistics.parcelandcarrier.config.IndexMigration;
+import com.logistics.parcelandcarrier.entity.Package;
+import com.logistics.parcelandcarrier.repository.PackageQueries;
+import com.logistics.parcelandcarrier.repository.PackageShardKey;
+import com.mongodb.client.result.DeleteResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Moves finished packages out of {@code packages} into {@value PackageQueries#ARCHIVE_COLLECTION}.
+ * DELIVERED and CANCELLED packages last updated more than {@code min-age} ago are moved in chunks:
+ * each chunk is copied with idempotent upserts by id, then deleted from {@code packages} if still
+ * finished and unchanged. The collections themselves are the progress marker, so a run that dies
+ * between the two steps is resumed by the next one, and nodes running concurrently repeat work
+ * rather than lose packages. A package changed between the copy and the delete stays in
+ * {@code packages} and its copy is withdrawn from the archive. Archived packages are read-only:
+ * admin listings asking for a finished status read both collections.
+ * A run lasts up to {@code max-duration}, so it runs on its own thread: the scheduler only starts it,
+ * and the other scheduled jobs (token revocation sync, registry reconciliation...) are never held up.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "packages.archive.enabled", havingValue = "true")
+public class PackageArchiver {
+
+  private final MongoTemplate mongoTemplate;
+  private final PackageCache packageCache;
+  private final IndexMigration indexMigration;
+  private final ArchiveProperties properties;
+  private final SimpleAsyncTaskExecutor executor;
+  private final Counter archived;
+  private final Counter withdrawn;
+  private final ReentrantLock running = new ReentrantLock();
+  private final AtomicBoolean indexed = new AtomicBoolean();
+
+  public PackageArchiver(
+    MongoTemplate mongoTemplate,
+    PackageCache packageCache,
+    IndexMigration indexMigration,
+    ArchiveProperties properties,
+    SimpleAsyncTaskExecutorBuilder executorBuilder,
+    MeterRegistry meterRegistry
+  ) {
+    this.mongoTemplate = mongoTemplate;
+    this.packageCache = packageCache;
+    this.indexMigration = indexMigration;
+    this.properties = properties;
+    this.executor = executorBuilder.threadNamePrefix("package-archiver-").build();
+    this.archived = Counter.builder("packages.archive.moved")
+      .description("Packages moved to the archive collection")
+      .register(meterRegistry);
+    this.withdrawn = Counter.builder("packages.archive.withdrawn")
+      .description("Archive copies withdrawn because the package changed during the move")
+      .register(meterRegistry);
+  }
+
+  /**
+   * Start a run on the archiver's thread, unless the previous one is still going
+   */
+  @Scheduled(initialDelayString = "${packages.archive.initial-delay:5m}",
+    fixedDelayString = "${packages.archive.interval:1h}")
+  public void scheduleRun() {
+    if (!running.isLocked()) {
+      executor.execute(this::archive);
+    }
+  }
+
+  /**
+   * Archive every eligible package, chunk by chunk, within the run's time limit
+   * @return packages moved
+   */
+  public long archive() {
+    if (!running.tryLock()) {
+      return 0;
+    }
+    try {
+      if (indexed.compareAndSet(false, true)) {
+        indexMigration.ensureIndexes(Package.class, PackageQueries.ARCHIVE_COLLECTION);
+      }
+      LocalDateTime cutoff = LocalDateTime.now().minus(properties.minAge());
+      long deadline = System.nanoTime() + properties.maxDuration().toNanos();
+      long moved = 0;
+      int chunk;
+      do {
+        chunk = archiveChunk(cutoff);
+        moved += chunk;
+        if (chunk == properties.batchSize() && !properties.pause().isZero()) {
+          Thread.sleep(properties.pause().toMillis());
+        }
+      } while (chunk == properties.batchSize() && System.nanoTime() - deadline < 0);
+      if (moved > 0) {
+        log.info("Archived {} packages finished before {}", moved, cutoff);
+      }
+      return moved;
+    } catch (DataAccessException e) {
+      // Nothing is lost: the next run copies again what was not deleted
+      indexed.set(false);
+      log.warn("Package archival interrupted: {}", e.getMessage());
+      return 0;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return 0;
+    } finally {
+      running.unlock();
+    }
+  }
+
+  /**
+   * Copy, then delete, one chunk of eligible packages
+   * @return packages removed from the primary collection
+   */
+  int archiveChunk(LocalDateTime cutoff) {
+    Query eligible = new Query(PackageQueries.archivable(cutoff))
+      .limit(properties.batchSize())
+      .withHint(PackageQueries.STATUS_TYPE_CREATED);
+    List<Package> chunk = mongoTemplate.find(eligible, Package.class);
+    if (chunk.isEmpty()) {
+      return 0;
+    }
+    List<String> ids = chunk.stream().map(Package::getId).toList();
+
+    BulkOperations copy = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Package.class,
+      PackageQueries.ARCHIVE_COLLECTION);
+    for (Package pkg : chunk) {
+      // An upsert into a sharded archive needs the full shard key in its filter
+      pkg.setRoutingKey(PackageShardKey.of(pkg));
+      copy.replaceOne(Query.query(Criteria.where("id").is(pkg.getId()).and("routingKey").is(pkg.getRoutingKey())),
+        pkg, FindAndReplaceOptions.options().upsert());
+    }
+    copy.execute();
+
+    DeleteResult deleted = mongoTemplate.remove(
+      new Query(Criteria.where("id").in(ids).andOperator(PackageQueries.archivable(cutoff))), Package.class);
+    if (deleted.getDeletedCount() < ids.size()) {
+      withdrawChanged(ids);
+    }
+    ids.forEach(packageCache::evict);
+    archived.increment(deleted.getDeletedCount());
+    return (int) deleted.getDeletedCount();
+  }
+
+  // =========================================================================
+  // Private helper methods
+  // =========================================================================
+
+  /**
+   * Remove the archive copies of packages that were updated during the move and stayed in place
+   */
+  private void withdrawChanged(List<String> ids) {
+    Query remaining = Query.query(Criteria.where("id").in(ids));
+    remaining.fields().include("id");
+    List<String> kept = mongoTemplate.find(remaining, Package.class).stream().map(Package::getId).toList();
+    if (!kept.isEmpty()) {
+      mongoTemplate.remove(Query.query(Criteria.where("id").in(kept)), Package.class, PackageQueries.ARCHIVE_COLLECTION);
+      withdrawn.increment(kept.size());
+    }
+  }
+}
@@ -0,0 +1,41 @@
+package com.logistics.parcelandcarrier.cache;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Published after a cached entity was written or deleted on this node
+ * @param region the cache holding the entity
+ * @param id the changed entity
+ */
+public record CacheInvalidatedEvent(Region region, String id) {
+
+  /**
+   * Node-local caches whose writes are shared across nodes
+   */
+  public enum Region {
+    PACKAGES("packages"),
+    TRANSPORTERS("users");
+
+    private final String collection;
+
+    Region(String collection) {
+      this.collection = collection;
+    }
+
+    /**
+     * @return collection whose changes invalidate the region
+     */
+    public String collection() {
+      return collection;
+    }
+
+    /**
+     * @param collection collection name
+     * @return region invalidated by changes to the collection, if any
+     */
+    public static Optional<Region> ofCollection(String collection) {
+      return Arrays.stream(values()).filter(region -> region.collection.equals(collection)).findFirst();
+    }
+  }
+}
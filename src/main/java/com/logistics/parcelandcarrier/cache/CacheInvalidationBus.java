@@ -0,0 +1,395 @@
+package com.logistics.parcelandcarrier.cache;
+
+import com.mongodb.CursorType;
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the {@link CoherentCache}s of every node coherent, e.g. {@link PackageCache} and
+ * {@link TransporterRegistry}.
+ * On a replica set or sharded cluster the bus watches a change stream on the cached collections: every
+ * write, from any node or from outside the application, invalidates the entry on every node, including
+ * the one that made it (one extra read after its own writes). On a standalone server, which has no
+ * change streams, each write on this node appends {node, region, key} to a capped collection that
+ * every node tails, resuming after the server-assigned insertion timestamp of the last entry seen (the
+ * ObjectIds of entries written by different nodes are not in insertion order).
+ * A lost change stream is reopened after its last resume token, so no change is missed; if the token is
+ * no longer in the oplog, or the capped tail is lost, every cache is reset since invalidations may have
+ * been missed. The delay between a write and its invalidation is recorded in
+ * {@code cache.invalidation.lag}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "cache.invalidation.enabled", havingValue = "true")
+public class CacheInvalidationBus implements SmartLifecycle {
+
+  private static final String NODE_FIELD = "node";
+  private static final String REGION_FIELD = "region";
+  private static final String KEY_FIELD = "key";
+  private static final String AT_FIELD = "at";
+  /**
+   * Insertion position: an empty timestamp among the first two fields is replaced by the server with
+   * its current timestamp, unique and increasing on a mongod, whichever node wrote the entry
+   */
+  private static final String SEQ_FIELD = "seq";
+  private static final Duration MAX_AWAIT = Duration.ofSeconds(1);
+  private static final Duration RETRY_DELAY = Duration.ofSeconds(1);
+  /** ChangeStreamHistoryLost: the resume token has left the oplog */
+  private static final int HISTORY_LOST = 286;
+  private static final List<String> OPERATION_TYPES = List.of("insert", "update", "replace", "delete");
+
+  /**
+   * Where invalidations come from
+   */
+  public enum Source {
+    /** Change stream if the deployment supports it, capped collection otherwise */
+    AUTO,
+    CHANGE_STREAM,
+    CAPPED
+  }
+
+  private final MongoTemplate mongoTemplate;
+  private final Map<CacheInvalidatedEvent.Region, List<CoherentCache>> caches =
+    new EnumMap<>(CacheInvalidatedEvent.Region.class);
+  private final SimpleAsyncTaskExecutor executor;
+  private final Source configuredSource;
+  private final String collectionName;
+  private final long cappedSizeBytes;
+  private final String nodeId = UUID.randomUUID().toString();
+  private final MeterRegistry meterRegistry;
+  private final Counter resets;
+  // Registered once the source is known, read by the listener thread only
+  private final Map<CacheInvalidatedEvent.Region, Timer> lags = new EnumMap<>(CacheInvalidatedEvent.Region.class);
+
+  private volatile Source source;
+  private volatile boolean running;
+
+  public CacheInvalidationBus(
+    MongoTemplate mongoTemplate,
+    List<CoherentCache> coherentCaches,
+    SimpleAsyncTaskExecutorBuilder executorBuilder,
+    MeterRegistry meterRegistry,
+    @Value("${cache.invalidation.source:auto}") Source configuredSource,
+    @Value("${cache.invalidation.collection:cache_invalidations}") String collectionName,
+    @Value("${cache.invalidation.capped-size-bytes:1048576}") long cappedSizeBytes
+  ) {
+    this.mongoTemplate = mongoTemplate;
+    for (CacheInvalidatedEvent.Region region : CacheInvalidatedEvent.Region.values()) {
+      caches.put(region, coherentCaches.stream().filter(cache -> cache.region() == region).toList());
+    }
+    this.executor = executorBuilder.threadNamePrefix("cache-bus-").build();
+    this.configuredSource = configuredSource;
+    this.collectionName = collectionName;
+    this.cappedSizeBytes = cappedSizeBytes;
+    this.meterRegistry = meterRegistry;
+    this.resets = Counter.builder("cache.invalidation.resets")
+      .description("Caches reset because invalidations may have been missed")
+      .register(meterRegistry);
+  }
+
+  /**
+   * Broadcast a write made on this node; change streams see it without help
+   */
+  @EventListener
+  public void onLocalInvalidation(CacheInvalidatedEvent event) {
+    if (source != Source.CAPPED) {
+      return;
+    }
+    try {
+      // Right after _id, so that the server assigns it
+      collection().insertOne(new Document(SEQ_FIELD, new BsonTimestamp())
+        .append(NODE_FIELD, nodeId)
+        .append(REGION_FIELD, event.region().name())
+        .append(KEY_FIELD, event.id())
+        .append(AT_FIELD, new Date()));
+    } catch (MongoException e) {
+      // Other nodes keep the stale entry until expiry (packages) or the next reconciliation (transporters)
+      log.warn("Failed to broadcast {} invalidation for {}: {}", event.region(), event.id(), e.getMessage());
+    }
+  }
+
+  @Override
+  public void start() {
+    Document hello = hello();
+    source = configuredSource == Source.AUTO
+      ? (supportsChangeStreams(hello) ? Source.CHANGE_STREAM : Source.CAPPED)
+      : configuredSource;
+    if (source == Source.CAPPED) {
+      ensureCappedCollection();
+    }
+    for (CacheInvalidatedEvent.Region region : CacheInvalidatedEvent.Region.values()) {
+      lags.put(region, Timer.builder("cache.invalidation.lag")
+        .description("Delay between a write and its invalidation on this node")
+        .tags("region", region.name(), "source", source.name())
+        .publishPercentileHistogram()
+        .register(meterRegistry));
+    }
+    running = true;
+    if (source == Source.CHANGE_STREAM) {
+      // Changes made once started are seen, even before the stream is open
+      BsonTimestamp startedAt = hello != null ? hello.get("operationTime", BsonTimestamp.class) : null;
+      executor.execute(() -> watch(startedAt));
+    } else {
+      executor.execute(this::tail);
+    }
+    log.info("Cache invalidation bus started from {} (node {})", source, nodeId);
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  /**
+   * @return where invalidations come from once started
+   */
+  public Source source() {
+    return source;
+  }
+
+  // =========================================================================
+  // Private helper methods
+  // =========================================================================
+
+  private void watch(BsonTimestamp startedAt) {
+    // Reopened after the last change seen
+    BsonDocument resumeToken = null;
+
+    while (running) {
+      try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor =
+             changeStream(resumeToken, startedAt).cursor()) {
+        while (running) {
+          ChangeStreamDocument<Document> change = cursor.tryNext();
+          // Advances on empty batches too, so a reopened stream does not rescan idle oplog
+          if (cursor.getResumeToken() != null) {
+            resumeToken = cursor.getResumeToken();
+          }
+          if (change != null) {
+            apply(change);
+          }
+        }
+      } catch (MongoException e) {
+        if ((resumeToken != null || startedAt != null) && !isHistoryLost(e)) {
+          log.warn("Cache invalidation stream lost, resuming: {}", e.getMessage());
+        } else {
+          log.warn("Cache invalidation stream lost, resetting local caches: {}", e.getMessage());
+          resetAll();
+          resumeToken = null;
+          startedAt = null;
+        }
+      }
+
+      if (running) {
+        sleep(RETRY_DELAY);
+      }
+    }
+  }
+
+  private ChangeStreamIterable<Document> changeStream(BsonDocument resumeToken, BsonTimestamp startedAt) {
+    List<Bson> pipeline = List.of(
+      Aggregates.match(Filters.and(
+        Filters.in("ns.coll", Arrays.stream(CacheInvalidatedEvent.Region.values())
+          .map(CacheInvalidatedEvent.Region::collection).toList()),
+        Filters.in("operationType", OPERATION_TYPES))),
+      // The document key is enough, leave out update descriptions and full documents
+      Aggregates.project(Projections.include("operationType", "ns", "documentKey", "clusterTime", "wallTime"))
+    );
+    ChangeStreamIterable<Document> stream = mongoTemplate.getDb().watch(pipeline)
+      .maxAwaitTime(MAX_AWAIT.toMillis(), TimeUnit.MILLISECONDS);
+    if (resumeToken != null) {
+      return stream.resumeAfter(resumeToken);
+    }
+    return startedAt != null ? stream.startAtOperationTime(startedAt) : stream;
+  }
+
+  private void apply(ChangeStreamDocument<Document> change) {
+    if (change.getNamespace() == null || change.getDocumentKey() == null) {
+      return;
+    }
+    String id = idOf(change.getDocumentKey().get("_id"));
+    if (id == null) {
+      return;
+    }
+    CacheInvalidatedEvent.Region.ofCollection(change.getNamespace().getCollectionName()).ifPresent(region -> {
+      recordLag(region, writtenAt(change));
+      invalidate(region, id);
+    });
+  }
+
+  private void tail() {
+    // Start from the current end: entries written before this node started are irrelevant
+    BsonTimestamp lastSeen = latestSeqOr(null);
+
+    while (running) {
+      try (MongoCursor<Document> cursor = collection()
+        .find(lastSeen == null ? new Document() : Filters.gt(SEQ_FIELD, lastSeen))
+        .cursorType(CursorType.TailableAwait)
+        .maxAwaitTime(MAX_AWAIT.toMillis(), TimeUnit.MILLISECONDS)
+        .iterator()) {
+
+        while (running) {
+          Document invalidation = cursor.tryNext();
+          if (invalidation == null) {
+            if (cursor.getServerCursor() == null) {
+              break; // cursor died (e.g. empty collection), reopen after the delay
+            }
+            continue;
+          }
+          BsonTimestamp seq = invalidation.get(SEQ_FIELD, BsonTimestamp.class);
+          if (seq != null) {
+            lastSeen = seq;
+          }
+          if (!nodeId.equals(invalidation.getString(NODE_FIELD))) {
+            CacheInvalidatedEvent.Region region = CacheInvalidatedEvent.Region.valueOf(invalidation.getString(REGION_FIELD));
+            Date at = invalidation.getDate(AT_FIELD);
+            recordLag(region, at != null ? at.getTime() : invalidation.getObjectId("_id").getDate().getTime());
+            invalidate(region, invalidation.getString(KEY_FIELD));
+          }
+        }
+      } catch (MongoException e) {
+        log.warn("Cache invalidation tail lost, resetting local caches: {}", e.getMessage());
+        resetAll();
+        lastSeen = latestSeqOr(lastSeen);
+      }
+
+      sleep(RETRY_DELAY);
+    }
+  }
+
+  private void invalidate(CacheInvalidatedEvent.Region region, String id) {
+    meterRegistry.counter("cache.invalidation.events", "region", region.name()).increment();
+    for (CoherentCache cache : caches.get(region)) {
+      cache.invalidateLocal(id);
+    }
+  }
+
+  private void resetAll() {
+    resets.increment();
+    caches.values().forEach(regionCaches -> regionCaches.forEach(CoherentCache::invalidateAllLocal));
+  }
+
+  private void recordLag(CacheInvalidatedEvent.Region region, long writtenAtMillis) {
+    lags.get(region).record(Math.max(0, System.currentTimeMillis() - writtenAtMillis), TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Wall clock time of the write (MongoDB 6.0+), or its cluster time to the second
+   */
+  private static long writtenAt(ChangeStreamDocument<Document> change) {
+    if (change.getWallTime() != null) {
+      return change.getWallTime().getValue();
+    }
+    return change.getClusterTime() != null ? change.getClusterTime().getTime() * 1000L : System.currentTimeMillis();
+  }
+
+  private static String idOf(BsonValue id) {
+    if (id == null) {
+      return null;
+    }
+    if (id.isObjectId()) {
+      return id.asObjectId().getValue().toHexString();
+    }
+    return id.isString() ? id.asString().getValue() : id.toString();
+  }
+
+  private static boolean isHistoryLost(MongoException e) {
+    return e instanceof MongoCommandException && e.getCode() == HISTORY_LOST;
+  }
+
+  private Document hello() {
+    try {
+      return mongoTemplate.getDb().runCommand(new Document("hello", 1));
+    } catch (MongoException e) {
+      log.warn("Cannot tell whether change streams are supported: {}", e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Replica set members and mongos routers support change streams, standalone servers do not
+   */
+  private static boolean supportsChangeStreams(Document hello) {
+    return hello != null && (hello.containsKey("setName") || "isdbgrid".equals(hello.getString("msg")));
+  }
+
+  private void ensureCappedCollection() {
+    if (mongoTemplate.collectionExists(collectionName)) {
+      return;
+    }
+    try {
+      mongoTemplate.createCollection(collectionName, CollectionOptions.empty().capped().size(cappedSizeBytes));
+    } catch (RuntimeException e) {
+      // Another node created it first
+      log.debug("Capped collection {} not created: {}", collectionName, e.getMessage());
+    }
+  }
+
+  /**
+   * Insertion timestamp of the last entry, null when empty or written before the field existed
+   */
+  private BsonTimestamp latestSeq() {
+    Document latest = collection().find().sort(Sorts.descending("$natural")).limit(1).first();
+    return latest == null ? null : latest.get(SEQ_FIELD, BsonTimestamp.class);
+  }
+
+  private BsonTimestamp latestSeqOr(BsonTimestamp fallback) {
+    try {
+      return latestSeq();
+    } catch (MongoException e) {
+      return fallback;
+    }
+  }
+
+  private MongoCollection<Document> collection() {
+    return mongoTemplate.getCollection(collectionName);
+  }
+
+  private static void sleep(Duration duration) {
+    try {
+      Thread.sleep(duration);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package com.logistics.parcelandcarrier.cache;
+
+/**
+ * Node-local cache kept coherent across nodes by the {@link CacheInvalidationBus}
+ */
+public interface CoherentCache {
+
+  /**
+   * @return region whose invalidations this cache receives
+   */
+  CacheInvalidatedEvent.Region region();
+
+  /**
+   * Drop or reload an entry changed on another node or outside the services, without re-broadcasting
+   * @param id the changed entity
+   */
+  void invalidateLocal(String id);
+
+  /**
+   * Drop or reload every entry, when invalidations may have been missed
+   */
+  void invalidateAllLocal();
+}
@@ -0,0 +1,194 @@
+package com.logistics.parcelandcarrier.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.logistics.parcelandcarrier.entity.Package;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Bounded read cache of {@link Package} by id, weighted by estimated heap size.
+ * Concurrent misses for the same id share a single Mongo read; the load runs on the caller's
+ * thread and the others wait on its future. No loader or cache write runs inside a map operation,
+ * so no monitor is held while loading or publishing and virtual threads are not pinned.
+ * Packages are mutable entities, so every read and write goes through a copy.
+ * Entries may lag behind other nodes until invalidated or expired, so the cache only serves reads
+ * that tolerate it (the admin and transporter lookups by id): mutations read the package from Mongo
+ * and write through.
+ */
+@Slf4j
+@Component
+public class PackageCache implements CoherentCache {
+
+  /** Object header, references and primitive fields of a Package plus its LocalDateTimes */
+  private static final int PACKAGE_BASE_BYTES = 200;
+  /** String header and backing array header */
+  private static final int STRING_BASE_BYTES = 40;
+
+  private final Cache<String, Package> cache;
+  private final ConcurrentMap<String, CompletableFuture<Optional<Package>>> inFlight = new ConcurrentHashMap<>();
+  private final ApplicationEventPublisher eventPublisher;
+
+  public PackageCache(
+    @Value("${packages.cache.max-weight-bytes:16777216}") long maxWeightBytes,
+    @Value("${packages.cache.expire-after-write:10m}") Duration expireAfterWrite,
+    ApplicationEventPublisher eventPublisher,
+    MeterRegistry meterRegistry
+  ) {
+    this.eventPublisher = eventPublisher;
+    this.cache = Caffeine.newBuilder()
+      .maximumWeight(maxWeightBytes)
+      .weigher((String id, Package pkg) -> estimateSize(pkg))
+      .expireAfterWrite(expireAfterWrite)
+      .recordStats()
+      .build();
+
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "packages");
+  }
+
+  /**
+   * Get a package from the cache, loading it on a miss
+   * @param id package ID
+   * @param loader Mongo read, called at most once per id across concurrent misses
+   * @return a copy of the package, or empty if the loader found none
+   */
+  public Optional<Package> get(String id, Supplier<Optional<Package>> loader) {
+    Package cached = cache.getIfPresent(id);
+    if (cached != null) {
+      return Optional.of(copy(cached));
+    }
+
+    CompletableFuture<Optional<Package>> load = new CompletableFuture<>();
+    CompletableFuture<Optional<Package>> existing = inFlight.putIfAbsent(id, load);
+    if (existing != null) {
+      return join(existing).map(PackageCache::copy);
+    }
+
+    try {
+      Optional<Package> loaded = loader.get();
+      publish(id, load, loaded);
+      load.complete(loaded);
+      return loaded.map(PackageCache::copy);
+    } catch (RuntimeException e) {
+      inFlight.remove(id, load);
+      load.completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  /**
+   * Write-through after a package has been saved
+   * @param pkg the saved package
+   */
+  public void put(Package pkg) {
+    inFlight.remove(pkg.getId());
+    cache.put(pkg.getId(), copy(pkg));
+    eventPublisher.publishEvent(new CacheInvalidatedEvent(CacheInvalidatedEvent.Region.PACKAGES, pkg.getId()));
+  }
+
+  /**
+   * Remove a package after it has been deleted
+   * @param id package ID
+   */
+  public void evict(String id) {
+    evictLocal(id);
+    eventPublisher.publishEvent(new CacheInvalidatedEvent(CacheInvalidatedEvent.Region.PACKAGES, id));
+  }
+
+  /**
+   * Remove a package changed on another node, without re-broadcasting
+   * @param id package ID
+   */
+  public void evictLocal(String id) {
+    inFlight.remove(id);
+    cache.invalidate(id);
+  }
+
+  /**
+   * Drop every entry (e.g. when cross-node invalidations may have been missed)
+   */
+  public void clear() {
+    inFlight.clear();
+    cache.invalidateAll();
+  }
+
+  @Override
+  public CacheInvalidatedEvent.Region region() {
+    return CacheInvalidatedEvent.Region.PACKAGES;
+  }
+
+  @Override
+  public void invalidateLocal(String id) {
+    evictLocal(id);
+  }
+
+  @Override
+  public void invalidateAllLocal() {
+    clear();
+  }
+
+  /**
+   * Estimated number of cached packages
+   */
+  public long size() {
+    return cache.estimatedSize();
+  }
+
+  // =========================================================================
+  // Private helper methods
+  // =========================================================================
+
+  /**
+   * Cache a loaded package, then drop the load's marker, without a map operation running either step.
+   * A put or evict removes the marker before writing the cache: if the marker is already gone the
+   * value, possibly stale, is withdrawn again; if it is removed after, the put or evict lands after
+   * the value and overwrites or invalidates it.
+   */
+  private void publish(String id, CompletableFuture<Optional<Package>> load, Optional<Package> loaded) {
+    Package published = loaded.map(PackageCache::copy).orElse(null);
+    boolean cached = published != null && cache.asMap().putIfAbsent(id, published) == null;
+    if (!inFlight.remove(id, load) && cached) {
+      cache.asMap().remove(id, published);
+    }
+  }
+
+  static int estimateSize(Package pkg) {
+    return PACKAGE_BASE_BYTES
+      + stringSize(pkg.getId())
+      + stringSize(pkg.getDestinationAddress())
+      + stringSize(pkg.getTransporterId())
+      + stringSize(pkg.getHandlingInstructions())
+      + stringSize(pkg.getRoutingKey());
+  }
+
+  private static int stringSize(String value) {
+    return value == null ? 0 : STRING_BASE_BYTES + value.length() * 2;
+  }
+
+  private static Package copy(Package pkg) {
+    return pkg.toBuilder().build();
+  }
+
+  private static Optional<Package> join(CompletableFuture<Optional<Package>> load) {
+    try {
+      return load.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+}
@@ -0,0 +1,343 @@
+package com.logistics.parcelandcarrier.cache;
+
+import com.logistics.parcelandcarrier.entity.User;
+import com.logistics.parcelandcarrier.enums.Role;
+import com.logistics.parcelandcarrier.enums.Specialty;
+import com.logistics.parcelandcarrier.enums.TransporterStatus;
+import com.logistics.parcelandcarrier.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory copy of every transporter, indexed by specialty and status.
+ * The fleet is small and read on every listing and available-transporter lookup, so it is kept whole on each
+ * node: writes go through {@link #put(User)} after the Mongo save, and a scheduled reconciliation
+ * repairs any drift (writes made outside the services, missed cross-node invalidations).
+ * It may lag behind other nodes, so it serves read-only views: a write that changes a transporter
+ * (availability, activation, profile) reads it from Mongo first.
+ * Until the first reconciliation completes the registry is not ready and callers read Mongo.
+ * Readers never lock; writers are serialized with a {@link ReentrantLock} so that the id map and
+ * the index sets change together (no monitor is held, so virtual threads are not pinned).
+ */
+@Slf4j
+@Component
+public class TransporterRegistry implements CoherentCache {
+
+  private final UserRepository userRepository;
+  private final ApplicationEventPublisher eventPublisher;
+  private final Counter driftCounter;
+
+  private final ConcurrentHashMap<String, User> byId = new ConcurrentHashMap<>();
+  /** Ids in ObjectId order, i.e. creation order, like an unsorted Mongo scan */
+  private final NavigableSet<String> allIds = new ConcurrentSkipListSet<>();
+  private final Map<Specialty, NavigableSet<String>> bySpecialty = new EnumMap<>(Specialty.class);
+  /** Active transporters only; the unmodifiable views are created once and handed out as-is */
+  private final Map<Specialty, Map<TransporterStatus, Set<String>>> activeIndex = new EnumMap<>(Specialty.class);
+  private final Map<Specialty, Map<TransporterStatus, Set<String>>> activeViews = new EnumMap<>(Specialty.class);
+  private final ReentrantLock writeLock = new ReentrantLock();
+
+  private volatile boolean ready;
+
+  public TransporterRegistry(
+    UserRepository userRepository,
+    ApplicationEventPublisher eventPublisher,
+    MeterRegistry meterRegistry
+  ) {
+    this.userRepository = userRepository;
+    this.eventPublisher = eventPublisher;
+
+    for (Specialty specialty : Specialty.values()) {
+      bySpecialty.put(specialty, new ConcurrentSkipListSet<>());
+      Map<TransporterStatus, Set<String>> sets = new EnumMap<>(TransporterStatus.class);
+      Map<TransporterStatus, Set<String>> views = new EnumMap<>(TransporterStatus.class);
+      for (TransporterStatus status : TransporterStatus.values()) {
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        sets.put(status, ids);
+        views.put(status, Collections.unmodifiableSet(ids));
+      }
+      activeIndex.put(specialty, sets);
+      activeViews.put(specialty, views);
+    }
+
+    this.driftCounter = Counter.builder("transporters.registry.drift")
+      .description("Registry entries corrected by reconciliation")
+      .register(meterRegistry);
+    Gauge.builder("transporters.registry.size", byId, Map::size)
+      .description("Transporters held in memory")
+      .register(meterRegistry);
+  }
+
+  /**
+   * Whether the registry holds the full fleet
+   */
+  public boolean isReady() {
+    return ready;
+  }
+
+  /**
+   * Ids of the active transporters with a specialty and status
+   * O(1) and allocation-free: the returned set is a live read-only view, valid until the next write
+   * @param specialty transporter specialty
+   * @param status transporter status
+   * @return read-only set of transporter ids
+   */
+  public Set<String> activeIds(Specialty specialty, TransporterStatus status) {
+    return activeViews.get(specialty).get(status);
+  }
+
+  /**
+   * Active transporters of a specialty with the given status
+   * In-memory equivalent of {@code UserRepository.findAvailableTransportersForPackageType}
+   * @param specialty transporter specialty
+   * @param status transporter status
+   * @return copies of the matching transporters
+   */
+  public List<User> findActive(Specialty specialty, TransporterStatus status) {
+    Set<String> ids = activeIds(specialty, status);
+    List<User> transporters = new ArrayList<>(ids.size());
+    for (String id : ids) {
+      User transporter = byId.get(id);
+      if (transporter != null) {
+        transporters.add(copy(transporter));
+      }
+    }
+    return transporters;
+  }
+
+  /**
+   * Page through transporters in creation order
+   * @param specialty specialty filter (optional)
+   * @param pageable page number and size; any sort is ignored
+   * @return page of transporter copies
+   */
+  public Page<User> findAll(Specialty specialty, Pageable pageable) {
+    NavigableSet<String> ids = specialty != null ? bySpecialty.get(specialty) : allIds;
+    int total = ids.size();
+    List<User> content = new ArrayList<>(Math.min(pageable.getPageSize(), total));
+
+    Iterator<String> iterator = ids.iterator();
+    for (long skipped = 0; skipped < pageable.getOffset() && iterator.hasNext(); skipped++) {
+      iterator.next();
+    }
+    while (iterator.hasNext() && content.size() < pageable.getPageSize()) {
+      User transporter = byId.get(iterator.next());
+      if (transporter != null) {
+        content.add(copy(transporter));
+      }
+    }
+
+    return new PageImpl<>(content, pageable, total);
+  }
+
+  /**
+   * Write-through after a user has been saved; non-transporters are ignored
+   * @param user the saved user
+   */
+  public void put(User user) {
+    if (!user.isTransporter()) {
+      return;
+    }
+    index(user);
+    eventPublisher.publishEvent(new CacheInvalidatedEvent(CacheInvalidatedEvent.Region.TRANSPORTERS, user.getId()));
+  }
+
+  /**
+   * Reload a transporter changed on another node, without re-broadcasting
+   * @param id transporter ID
+   */
+  public void refreshLocal(String id) {
+    Optional<User> loaded = userRepository.findById(id).filter(User::isTransporter);
+    if (loaded.isPresent()) {
+      index(loaded.get());
+    } else {
+      unindex(id);
+    }
+  }
+
+  @Override
+  public CacheInvalidatedEvent.Region region() {
+    return CacheInvalidatedEvent.Region.TRANSPORTERS;
+  }
+
+  @Override
+  public void invalidateLocal(String id) {
+    refreshLocal(id);
+  }
+
+  @Override
+  public void invalidateAllLocal() {
+    reconcileQuietly();
+  }
+
+  /**
+   * Align the registry with Mongo
+   * Entries changed after the scan started are left alone, since the scan may not include them
+   * @return number of entries added, replaced or removed
+   */
+  public int reconcile() {
+    LocalDateTime scanStarted = LocalDateTime.now();
+    Map<String, User> stored = new HashMap<>();
+    for (User transporter : userRepository.findByRole(Role.TRANSPORTER)) {
+      stored.put(transporter.getId(), transporter);
+    }
+
+    int drift = 0;
+    writeLock.lock();
+    try {
+      for (User transporter : stored.values()) {
+        User current = byId.get(transporter.getId());
+        if (current == null || (!sameState(current, transporter) && !changedSince(current, scanStarted))) {
+          replace(current, copy(transporter));
+          drift++;
+        }
+      }
+      for (User current : byId.values()) {
+        if (!stored.containsKey(current.getId()) && !changedSince(current, scanStarted)) {
+          replace(current, null);
+          drift++;
+        }
+      }
+    } finally {
+      writeLock.unlock();
+    }
+
+    // The initial load is not drift
+    if (ready) {
+      driftCounter.increment(drift);
+      if (drift > 0) {
+        log.warn("Transporter registry reconciled {} drifted entries", drift);
+      }
+    } else {
+      ready = true;
+      log.info("Transporter registry loaded {} transporters", byId.size());
+    }
+    return drift;
+  }
+
+  /**
+   * Scheduled reconciliation; the first run loads the registry
+   */
+  @Scheduled(
+    initialDelayString = "${transporters.registry.initial-delay:0s}",
+    fixedDelayString = "${transporters.registry.reconcile-interval:5m}"
+  )
+  public void reconcileQuietly() {
+    try {
+      reconcile();
+    } catch (RuntimeException e) {
+      // Keep serving the current state; the next run retries
+      log.warn("Transporter registry reconciliation failed: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Number of transporters held in memory
+   */
+  public int size() {
+    return byId.size();
+  }
+
+  // =========================================================================
+  // Private helper methods
+  // =========================================================================
+
+  private void index(User transporter) {
+    User snapshot = copy(transporter);
+    writeLock.lock();
+    try {
+      replace(byId.get(snapshot.getId()), snapshot);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  private void unindex(String id) {
+    writeLock.lock();
+    try {
+      User current = byId.get(id);
+      if (current != null) {
+        replace(current, null);
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Swap an entry and its index memberships; caller holds the write lock
+   */
+  private void replace(User previous, User next) {
+    if (previous != null) {
+      indexSets(previous, false);
+    }
+    if (next != null) {
+      byId.put(next.getId(), next);
+      indexSets(next, true);
+    } else if (previous != null) {
+      byId.remove(previous.getId());
+    }
+  }
+
+  private void indexSets(User transporter, boolean add) {
+    String id = transporter.getId();
+    update(allIds, id, add);
+    if (transporter.getSpecialty() == null) {
+      return;
+    }
+    update(bySpecialty.get(transporter.getSpecialty()), id, add);
+    if (transporter.isActive() && transporter.getStatus() != null) {
+      update(activeIndex.get(transporter.getSpecialty()).get(transporter.getStatus()), id, add);
+    }
+  }
+
+  private static void update(Set<String> ids, String id, boolean add) {
+    if (add) {
+      ids.add(id);
+    } else {
+      ids.remove(id);
+    }
+  }
+
+  /**
+   * Compare the indexed and displayed fields (timestamps lose precision in Mongo)
+   */
+  private static boolean sameState(User a, User b) {
+    return a.isActive() == b.isActive()
+      && a.getSpecialty() == b.getSpecialty()
+      && a.getStatus() == b.getStatus()
+      && Objects.equals(a.getLogin(), b.getLogin())
+      && Objects.equals(a.getPassword(), b.getPassword());
+  }
+
+  private static boolean changedSince(User transporter, LocalDateTime instant) {
+    return transporter.getUpdatedAt() != null && !transporter.getUpdatedAt().isBefore(instant);
+  }
+
+  private static User copy(User user) {
+    return user.toBuilder().build();
+  }
+}
@@ -0,0 +1,13 @@
+package com.logistics.parcelandcarrier.config;
+
+import com.logistics.parcelandcarrier.archive.ArchiveProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Binds the package archival settings ({@code packages.archive.*})
+ */
+@Configuration
+@EnableConfigurationProperties(ArchiveProperties.class)
+public class ArchiveConfig {
+}
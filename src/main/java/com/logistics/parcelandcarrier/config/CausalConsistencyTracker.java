@@ -0,0 +1,76 @@
+package com.logistics.parcelandcarrier.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Remembers, per authenticated user, the cluster time of their latest write.
+ * The blocking driver notifies listeners on the calling thread, so a write's response is matched
+ * to the user of the request that issued it. A routed read of that user then starts a causally
+ * consistent session advanced to this time, and the secondary waits until it has applied the write
+ * before answering. Entries expire after the maximum staleness: by then no eligible secondary lags
+ * behind the write.
+ */
+public class CausalConsistencyTracker implements CommandListener {
+
+  private static final Set<String> WRITES = Set.of("insert", "update", "delete", "findAndModify");
+
+  private final Cache<String, ClusterTime> latestWrites;
+
+  public CausalConsistencyTracker(Duration retention) {
+    this.latestWrites = Caffeine.newBuilder()
+      .expireAfterWrite(retention)
+      .maximumSize(100_000)
+      .build();
+  }
+
+  @Override
+  public void commandSucceeded(CommandSucceededEvent event) {
+    if (!WRITES.contains(event.getCommandName())) {
+      return;
+    }
+    BsonDocument response = event.getResponse();
+    if (!response.isTimestamp("operationTime") || !response.isDocument("$clusterTime")) {
+      // Standalone servers do not report cluster times
+      return;
+    }
+    String user = currentUser();
+    if (user != null) {
+      ClusterTime written = new ClusterTime(response.getTimestamp("operationTime"), response.getDocument("$clusterTime"));
+      latestWrites.asMap().merge(user, written, ClusterTime::latest);
+    }
+  }
+
+  /**
+   * Cluster time of the current user's latest write, if recent enough to matter
+   */
+  public Optional<ClusterTime> forCurrentUser() {
+    String user = currentUser();
+    return user != null ? Optional.ofNullable(latestWrites.getIfPresent(user)) : Optional.empty();
+  }
+
+  private static String currentUser() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+  }
+
+  /**
+   * Operation time of a write and the signed cluster time gossiped with it
+   */
+  public record ClusterTime(BsonTimestamp operationTime, BsonDocument clusterTime) {
+
+    static ClusterTime latest(ClusterTime a, ClusterTime b) {
+      return a.operationTime().compareTo(b.operationTime()) >= 0 ? a : b;
+    }
+  }
+}
@@ -3,32 +3,71 @@ package com.logistics.parcelandcarrier.config;
 import com.logistics.parcelandcarrier.entity.User;
 import com.logistics.parcelandcarrier.enums.Role;
 import com.logistics.parcelandcarrier.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
+
 import java.time.LocalDateTime;
 
+/**
+ * Creates the default admin account if it does not exist.
+ * An existing admin is left untouched, so a restart costs one indexed lookup and no BCrypt hash.
+ * Creation is an upsert on the unique login index, created first on a fresh database:
+ * instances starting together create one admin, and the others find it.
+ */
+@Slf4j
 @Component
-@RequiredArgsConstructor
 public class DataInitializer implements CommandLineRunner {
 
   private final UserRepository userRepository;
+  private final MongoTemplate mongoTemplate;
   private final PasswordEncoder passwordEncoder;
+  private final IndexMigration indexMigration;
+  private final String adminLogin;
+  private final String adminPassword;
+
+  public DataInitializer(
+    UserRepository userRepository,
+    MongoTemplate mongoTemplate,
+    PasswordEncoder passwordEncoder,
+    IndexMigration indexMigration,
+    @Value("${bootstrap.admin.login:admin}") String adminLogin,
+    @Value("${bootstrap.admin.password:admin123}") String adminPassword
+  ) {
+    this.userRepository = userRepository;
+    this.mongoTemplate = mongoTemplate;
+    this.passwordEncoder = passwordEncoder;
+    this.indexMigration = indexMigration;
+    this.adminLogin = adminLogin;
+    this.adminPassword = adminPassword;
+  }
 
   @Override
   public void run(String... args) {
-    userRepository.findByLogin("admin").ifPresent(userRepository::delete);
-
-    User admin = User.builder()
-      .login("admin")
-      .password(passwordEncoder.encode("admin123"))
-      .role(Role.ADMIN)
-      .active(true)
-      .createdAt(LocalDateTime.now())
-      .build();
+    if (userRepository.existsByLogin(adminLogin)) {
+      log.debug("Admin account {} already exists", adminLogin);
+      return;
+    }
 
-    userRepository.save(admin);
-    System.out.println("✅ DEFAULT ADMIN CREATED: admin / admin123");
+    // Without the unique index, two instances could both insert
+    indexMigration.ensureIndexes(User.class);
+    Update admin = new Update()
+      .setOnInsert("password", passwordEncoder.encode(adminPassword))
+      .setOnInsert("role", Role.ADMIN)
+      .setOnInsert("active", true)
+      .setOnInsert("createdAt", LocalDateTime.now());
+    try {
+      mongoTemplate.upsert(Query.query(Criteria.where("login").is(adminLogin)), admin, User.class);
+      log.info("Default admin account {} created", adminLogin);
+    } catch (DuplicateKeyException e) {
+      log.debug("Admin account {} created concurrently by another instance", adminLogin);
+    }
   }
 }
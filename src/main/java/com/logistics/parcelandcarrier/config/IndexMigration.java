@@ -0,0 +1,160 @@
+package com.logistics.parcelandcarrier.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates the indexes declared on the entities, in the background once the application is ready.
+ * Replaces {@code spring.data.mongodb.auto-index-creation}, which creates them synchronously while
+ * the context refreshes. The version of the index set is a fingerprint of the declarations, stored
+ * in {@code schema_migrations}: a restart with unchanged declarations issues a single read, and a
+ * changed annotation is applied by the next start. Creating an existing index is a no-op, so
+ * instances starting together are harmless.
+ */
+@Slf4j
+@Component
+public class IndexMigration {
+
+  static final String MIGRATIONS_COLLECTION = "schema_migrations";
+  static final String INDEXES_ID = "indexes";
+
+  private final MongoTemplate mongoTemplate;
+  private final SimpleAsyncTaskExecutor executor;
+  private final boolean migrateOnStartup;
+
+  public IndexMigration(
+    MongoTemplate mongoTemplate,
+    SimpleAsyncTaskExecutorBuilder executorBuilder,
+    @Value("${mongo.indexes.migrate-on-startup:true}") boolean migrateOnStartup
+  ) {
+    this.mongoTemplate = mongoTemplate;
+    this.executor = executorBuilder.threadNamePrefix("index-migration-").build();
+    this.migrateOnStartup = migrateOnStartup;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onReady() {
+    if (migrateOnStartup) {
+      executor.execute(this::migrate);
+    }
+  }
+
+  /**
+   * Create the declared indexes unless this version of them was already applied
+   * @return true if indexes were created
+   */
+  public boolean migrate() {
+    Map<Class<?>, List<IndexDefinition>> indexes = declaredIndexes();
+    String version = fingerprint(indexes);
+    Query applied = Query.query(Criteria.where("_id").is(INDEXES_ID).and("version").is(version));
+    if (mongoTemplate.exists(applied, MIGRATIONS_COLLECTION)) {
+      log.debug("Indexes up to date (version {})", version);
+      return false;
+    }
+
+    long start = System.nanoTime();
+    try {
+      indexes.forEach(this::create);
+    } catch (DataAccessException e) {
+      // Not recorded, so the next start retries
+      log.error("Index migration to version {} failed: {}", version, e.getMessage());
+      return false;
+    }
+    mongoTemplate.upsert(Query.query(Criteria.where("_id").is(INDEXES_ID)),
+      new Update().set("version", version).set("applied_at", Instant.now()),
+      MIGRATIONS_COLLECTION);
+    log.info("Indexes migrated to version {} in {} ms", version, (System.nanoTime() - start) / 1_000_000);
+    return true;
+  }
+
+  /**
+   * Create the declared indexes of one entity now, for callers that rely on one before the
+   * background migration has run (e.g. a unique constraint on a fresh database)
+   */
+  public void ensureIndexes(Class<?> entityType) {
+    create(entityType, toList(resolver().resolveIndexFor(entityType)));
+  }
+
+  /**
+   * Create the declared indexes of an entity on another collection holding the same documents
+   * (e.g. an archive), for the component that owns that collection
+   */
+  public void ensureIndexes(Class<?> entityType, String collectionName) {
+    for (IndexDefinition definition : resolver().resolveIndexFor(entityType)) {
+      mongoTemplate.indexOps(collectionName, entityType).createIndex(definition);
+    }
+  }
+
+  /**
+   * Stable fingerprint of an index set: collection, keys and options of every index
+   */
+  static String fingerprint(Map<Class<?>, List<IndexDefinition>> indexes) {
+    StringBuilder declarations = new StringBuilder();
+    indexes.forEach((type, definitions) -> definitions.stream()
+      .map(index -> type.getName() + index.getIndexKeys().toJson() + index.getIndexOptions().toJson())
+      .sorted()
+      .forEach(declaration -> declarations.append(declaration).append('\n')));
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(declarations.toString().getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(digest, 0, 8);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+
+  // =========================================================================
+  // Private helper methods
+  // =========================================================================
+
+  private Map<Class<?>, List<IndexDefinition>> declaredIndexes() {
+    IndexResolver resolver = resolver();
+    Map<Class<?>, List<IndexDefinition>> indexes = new LinkedHashMap<>();
+    mongoTemplate.getConverter().getMappingContext().getPersistentEntities().stream()
+      .filter(entity -> entity.isAnnotationPresent(Document.class))
+      .map(MongoPersistentEntity::getType)
+      .sorted(Comparator.comparing(Class::getName))
+      .forEach(type -> indexes.put(type, toList(resolver.resolveIndexFor(type))));
+    return indexes;
+  }
+
+  private IndexResolver resolver() {
+    return IndexResolver.create(mongoTemplate.getConverter().getMappingContext());
+  }
+
+  private void create(Class<?> entityType, List<IndexDefinition> definitions) {
+    for (IndexDefinition definition : definitions) {
+      mongoTemplate.indexOps(entityType).createIndex(definition);
+    }
+  }
+
+  private static List<IndexDefinition> toList(Iterable<? extends IndexDefinition> definitions) {
+    List<IndexDefinition> list = new ArrayList<>();
+    definitions.forEach(list::add);
+    return list;
+  }
+}
@@ -0,0 +1,20 @@
+package com.logistics.parcelandcarrier.config;
+
+import ch.qos.logback.classic.LoggerContext;
+import com.logistics.parcelandcarrier.monitoring.DroppedLogEvents;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metrics of the logging pipeline configured in logback-spring.xml
+ * (async appenders and INFO sampling).
+ */
+@Configuration
+public class LoggingConfig {
+
+  @Bean
+  public DroppedLogEvents droppedLogEvents() {
+    return DroppedLogEvents.of((LoggerContext) LoggerFactory.getILoggerFactory());
+  }
+}
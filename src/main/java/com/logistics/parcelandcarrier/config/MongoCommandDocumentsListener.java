@@ -0,0 +1,111 @@
+package com.logistics.parcelandcarrier.config;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mongo command listener recording how many documents each command returned or touched.
+ * Complements the driver latency timers auto-configured by Spring Boot
+ * ({@code mongodb.driver.commands}) with a per-command, per-collection
+ * {@code mongodb.driver.commands.documents} summary.
+ */
+public class MongoCommandDocumentsListener implements CommandListener {
+
+  static final String METRIC_NAME = "mongodb.driver.commands.documents";
+  private static final String UNKNOWN_COLLECTION = "unknown";
+
+  private final MeterRegistry meterRegistry;
+  private final Map<Integer, String> collectionsByRequestId = new ConcurrentHashMap<>();
+
+  public MongoCommandDocumentsListener(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public void commandStarted(CommandStartedEvent event) {
+    String collection = collectionName(event.getCommandName(), event.getCommand());
+    if (collection != null) {
+      collectionsByRequestId.put(event.getRequestId(), collection);
+    }
+  }
+
+  @Override
+  public void commandSucceeded(CommandSucceededEvent event) {
+    String collection = collectionsByRequestId.remove(event.getRequestId());
+    long documents = documentCount(event.getCommandName(), event.getResponse());
+
+    if (documents < 0) {
+      return;
+    }
+
+    DistributionSummary.builder(METRIC_NAME)
+      .description("Number of documents returned or affected by a Mongo command")
+      .baseUnit("documents")
+      .tag("command", event.getCommandName())
+      .tag("collection", collection != null ? collection : UNKNOWN_COLLECTION)
+      .register(meterRegistry)
+      .record(documents);
+  }
+
+  @Override
+  public void commandFailed(CommandFailedEvent event) {
+    collectionsByRequestId.remove(event.getRequestId());
+  }
+
+  /**
+   * Resolve the target collection of a command.
+   * Most commands carry it as the value of their first key ({ find: "packages" }),
+   * getMore carries it in the "collection" field.
+   */
+  static String collectionName(String commandName, BsonDocument command) {
+    BsonValue value = "getMore".equals(commandName)
+      ? command.get("collection")
+      : command.get(commandName);
+
+    return value != null && value.isString() ? value.asString().getValue() : null;
+  }
+
+  /**
+   * Extract the number of documents returned or affected from a command reply
+   * @return document count, or -1 when the command does not report one
+   */
+  static long documentCount(String commandName, BsonDocument response) {
+    return switch (commandName) {
+      case "find", "aggregate" -> batchSize(response, "firstBatch");
+      case "getMore" -> batchSize(response, "nextBatch");
+      case "insert", "update", "delete", "count" -> numberOrMissing(response, "n");
+      case "findAndModify" -> {
+        BsonValue value = response.get("value");
+        yield value != null && value.isDocument() ? 1 : 0;
+      }
+      case "distinct" -> {
+        BsonValue values = response.get("values");
+        yield values != null && values.isArray() ? values.asArray().size() : -1;
+      }
+      default -> -1;
+    };
+  }
+
+  private static long batchSize(BsonDocument response, String batchField) {
+    BsonValue cursor = response.get("cursor");
+    if (cursor == null || !cursor.isDocument()) {
+      return -1;
+    }
+    BsonValue batch = cursor.asDocument().get(batchField);
+    return batch != null && batch.isArray() ? batch.asArray().size() : -1;
+  }
+
+  private static long numberOrMissing(BsonDocument response, String field) {
+    BsonValue value = response.get(field);
+    return value != null && value.isNumber() ? value.asNumber().longValue() : -1;
+  }
+}
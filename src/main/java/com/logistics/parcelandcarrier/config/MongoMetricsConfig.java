@@ -0,0 +1,21 @@
+package com.logistics.parcelandcarrier.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Mongo driver instrumentation.
+ * Command latency ({@code mongodb.driver.commands}) and connection pool gauges
+ * ({@code mongodb.driver.pool.*}) are registered by Spring Boot's MongoMetricsAutoConfiguration;
+ * this adds the per-collection document counts.
+ */
+@Configuration
+public class MongoMetricsConfig {
+
+  @Bean
+  public MongoClientSettingsBuilderCustomizer mongoCommandDocumentsCustomizer(MeterRegistry meterRegistry) {
+    return builder -> builder.addCommandListener(new MongoCommandDocumentsListener(meterRegistry));
+  }
+}
@@ -0,0 +1,129 @@
+package com.logistics.parcelandcarrier.config;
+
+import com.logistics.parcelandcarrier.entity.Package;
+import com.logistics.parcelandcarrier.repository.PackageQueries;
+import com.logistics.parcelandcarrier.repository.PackageShardKey;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Routing key backfill and sharding of {@code packages} and {@value PackageQueries#ARCHIVE_COLLECTION}.
+ * Transporter reads filter on the routing key whether or not the cluster is sharded, so documents
+ * written before it existed are backfilled on every start, as an application runner: runners complete
+ * before readiness, so no request reads the collections half backfilled. The pipeline update computes
+ * the key from {@code transporter_id} and {@code _id} like {@link PackageShardKey#of}, and once done it
+ * matches nothing through the shard key index. A failed backfill stops the startup rather than serve
+ * listings missing those packages.
+ * When {@code mongo.sharding.enabled}, both collections are then sharded on {@link PackageShardKey#KEY}
+ * once the application is ready. Every step is idempotent, so every instance runs it on every start.
+ */
+@Slf4j
+@Component
+public class PackageSharding implements ApplicationRunner {
+
+  private final MongoTemplate mongoTemplate;
+  private final IndexMigration indexMigration;
+  private final ShardingProperties properties;
+  private final SimpleAsyncTaskExecutor executor;
+
+  public PackageSharding(
+    MongoTemplate mongoTemplate,
+    IndexMigration indexMigration,
+    ShardingProperties properties,
+    SimpleAsyncTaskExecutorBuilder executorBuilder
+  ) {
+    this.mongoTemplate = mongoTemplate;
+    this.indexMigration = indexMigration;
+    this.properties = properties;
+    this.executor = executorBuilder.threadNamePrefix("package-sharding-").build();
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    backfill();
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onReady() {
+    if (properties.enabled()) {
+      executor.execute(this::shard);
+    }
+  }
+
+  /**
+   * Set the routing key on the packages, live and archived, stored without one
+   */
+  public void backfill() {
+    backfill(mongoTemplate.getCollectionName(Package.class));
+    backfill(PackageQueries.ARCHIVE_COLLECTION);
+  }
+
+  /**
+   * Backfill the routing key, create the supporting index and shard both collections
+   * @return true if both collections are sharded
+   */
+  public boolean shard() {
+    try {
+      String packages = mongoTemplate.getCollectionName(Package.class);
+      backfill();
+      indexMigration.ensureIndexes(Package.class);
+      indexMigration.ensureIndexes(Package.class, PackageQueries.ARCHIVE_COLLECTION);
+      shardCollection(packages);
+      shardCollection(PackageQueries.ARCHIVE_COLLECTION);
+      return true;
+    } catch (DataAccessException | MongoException e) {
+      // Retried by the next start
+      log.error("Sharding of packages failed: {}", e.getMessage());
+      return false;
+    }
+  }
+
+  /**
+   * Routing key of stored packages, as a pipeline expression on their fields
+   */
+  static Document routingKeyExpression() {
+    Document assigned = new Document("$ne",
+      List.of(new Document("$ifNull", List.of("$transporter_id", "")), ""));
+    return new Document("$cond", List.of(
+      assigned,
+      new Document("$concat", List.of("t:", "$transporter_id")),
+      new Document("$concat", List.of("p:", new Document("$toString", "$_id")))
+    ));
+  }
+
+  // =========================================================================
+  // Private helper methods
+  // =========================================================================
+
+  private void backfill(String collectionName) {
+    MongoCollection<Document> collection = mongoTemplate.getCollection(collectionName);
+    // Equality on null matches missing keys and can use the shard key index
+    long updated = collection.updateMany(
+      new Document(PackageShardKey.FIELD, null),
+      List.of(new Document("$set", new Document(PackageShardKey.FIELD, routingKeyExpression())))
+    ).getModifiedCount();
+    if (updated > 0) {
+      log.info("Routing key backfilled on {} documents of {}", updated, collectionName);
+    }
+  }
+
+  private void shardCollection(String collectionName) {
+    String namespace = mongoTemplate.getDb().getName() + "." + collectionName;
+    mongoTemplate.getMongoDatabaseFactory().getMongoDatabase("admin").runCommand(
+      new Document("shardCollection", namespace).append("key", PackageShardKey.KEY));
+    log.info("{} sharded on {}", namespace, PackageShardKey.KEY.toJson());
+  }
+}
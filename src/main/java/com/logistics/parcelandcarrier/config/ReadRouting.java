@@ -0,0 +1,94 @@
+package com.logistics.parcelandcarrier.config;
+
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.ReadPreference;
+import com.mongodb.client.ClientSession;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Per-operation read preference.
+ * List and search reads run through {@link #listing}, on a template whose read preference is
+ * {@code mongo.read-routing.read-preference} bounded by {@code max-staleness}; every other read,
+ * including the by-id lookups inside mutations, goes through the application's MongoTemplate and
+ * stays on the primary. When the current user wrote recently, the routed read runs in a causally
+ * consistent session advanced to that write (see {@link CausalConsistencyTracker}), so a transporter
+ * listing their packages right after a status change sees it. Streamed listings take the same read
+ * preference through {@link #streaming}.
+ */
+public class ReadRouting {
+
+  private static final ClientSessionOptions CAUSAL = ClientSessionOptions.builder()
+    .causallyConsistent(true)
+    .build();
+
+  private final MongoOperations primary;
+  private final MongoTemplate routed;
+  private final MongoDatabaseFactory databaseFactory;
+  private final CausalConsistencyTracker tracker;
+  private final ReadRoutingProperties properties;
+
+  public ReadRouting(
+    MongoTemplate mongoTemplate,
+    MongoDatabaseFactory databaseFactory,
+    CausalConsistencyTracker tracker,
+    ReadRoutingProperties properties
+  ) {
+    this.primary = mongoTemplate;
+    this.databaseFactory = databaseFactory;
+    this.tracker = tracker;
+    this.properties = properties;
+    this.routed = new MongoTemplate(databaseFactory, mongoTemplate.getConverter());
+    this.routed.setReadPreference(readPreference(properties));
+  }
+
+  /**
+   * Run a list or search read
+   * @param read the read, given the operations to issue it with
+   * @return the read's result
+   */
+  public <T> T listing(Function<MongoOperations, T> read) {
+    if (!properties.enabled()) {
+      return read.apply(primary);
+    }
+    Optional<CausalConsistencyTracker.ClusterTime> latestWrite = properties.causalConsistency()
+      ? tracker.forCurrentUser()
+      : Optional.empty();
+    if (latestWrite.isEmpty()) {
+      return read.apply(routed);
+    }
+    try (ClientSession session = databaseFactory.getSession(CAUSAL)) {
+      session.advanceClusterTime(latestWrite.get().clusterTime());
+      session.advanceOperationTime(latestWrite.get().operationTime());
+      return read.apply(routed.withSession(session));
+    }
+  }
+
+  /**
+   * Read preference of a streamed list read, issued on the reactive driver.
+   * Streams are not run in the causally consistent session: they are admin exports, bounded
+   * by {@code max-staleness} like any routed read.
+   * @return the routed read preference, or the primary when routing is off
+   */
+  public ReadPreference streaming() {
+    return properties.enabled() ? readPreference(properties) : ReadPreference.primary();
+  }
+
+  /**
+   * Read preference of the routed reads
+   */
+  static ReadPreference readPreference(ReadRoutingProperties properties) {
+    ReadPreference mode = ReadPreference.valueOf(properties.readPreference());
+    if (mode.equals(ReadPreference.primary())) {
+      return mode;
+    }
+    return ReadPreference.valueOf(properties.readPreference(), List.of(),
+      properties.maxStaleness().toSeconds(), TimeUnit.SECONDS);
+  }
+}
@@ -0,0 +1,45 @@
+package com.logistics.parcelandcarrier.config;
+
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Read routing to secondaries ({@code mongo.read-routing.*}), off by default.
+ * The beans always exist and {@code enabled} is read per call, so the list and search paths have a
+ * single code path whether or not routing is on.
+ */
+@Configuration
+@EnableConfigurationProperties(ReadRoutingProperties.class)
+public class ReadRoutingConfig {
+
+  @Bean
+  public CausalConsistencyTracker causalConsistencyTracker(ReadRoutingProperties properties) {
+    return new CausalConsistencyTracker(properties.maxStaleness());
+  }
+
+  @Bean
+  public MongoClientSettingsBuilderCustomizer causalConsistencyCustomizer(
+    CausalConsistencyTracker tracker,
+    ReadRoutingProperties properties
+  ) {
+    return builder -> {
+      if (properties.enabled() && properties.causalConsistency()) {
+        builder.addCommandListener(tracker);
+      }
+    };
+  }
+
+  @Bean
+  public ReadRouting readRouting(
+    MongoTemplate mongoTemplate,
+    MongoDatabaseFactory databaseFactory,
+    CausalConsistencyTracker tracker,
+    ReadRoutingProperties properties
+  ) {
+    return new ReadRouting(mongoTemplate, databaseFactory, tracker, properties);
+  }
+}
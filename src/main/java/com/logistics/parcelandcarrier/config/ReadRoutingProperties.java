@@ -0,0 +1,22 @@
+package com.logistics.parcelandcarrier.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Read routing settings ({@code mongo.read-routing.*})
+ * @param enabled send list and search reads to {@code readPreference}; everything else stays on the primary
+ * @param readPreference read preference mode of the routed reads (secondaryPreferred, secondary, nearest)
+ * @param maxStaleness secondaries lagging the primary by more than this are not read from (at least 90s)
+ * @param causalConsistency a user's routed reads wait until the secondary has applied that user's own writes
+ */
+@ConfigurationProperties("mongo.read-routing")
+public record ReadRoutingProperties(
+  @DefaultValue("false") boolean enabled,
+  @DefaultValue("secondaryPreferred") String readPreference,
+  @DefaultValue("90s") Duration maxStaleness,
+  @DefaultValue("true") boolean causalConsistency
+) {
+}
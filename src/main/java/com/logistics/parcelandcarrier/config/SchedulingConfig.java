@@ -0,0 +1,16 @@
+package com.logistics.parcelandcarrier.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} jobs: transporter registry reconciliation, JWT revocation sync and purge,
+ * API key refresh, webhook outbox polling and package archival.
+ * The scheduler is Spring Boot's, so it follows {@code spring.threads.virtual.enabled}; on platform
+ * threads its pool is sized by {@code spring.task.scheduling.pool.size}, so that a slow job does not
+ * delay the others. Long jobs hand off to their own executor (the archiver runs for minutes).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,5 +1,6 @@
 package com.logistics.parcelandcarrier.config;
 
+import com.logistics.parcelandcarrier.security.ApiKeyAuthenticationFilter;
 import com.logistics.parcelandcarrier.security.JwtAuthenticationFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
@@ -33,6 +34,7 @@ import java.util.List;
 public class SecurityConfig {
 
   private final JwtAuthenticationFilter jwtAuthenticationFilter;
+  private final ApiKeyAuthenticationFilter apiKeyAuthenticationFilter;
   private final UserDetailsService userDetailsService;
 
   @Bean
@@ -44,6 +46,7 @@ public class SecurityConfig {
         session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)
       )
       .authorizeHttpRequests(auth -> auth
+        .requestMatchers("/api/auth/logout").authenticated()
         .requestMatchers(
           "/api/auth/**",
           "/v3/api-docs",
@@ -54,13 +57,17 @@ public class SecurityConfig {
           "/swagger-ui.html",
           "/webjars/**",
           "/actuator/health",
+          "/actuator/health/**",
           "/error"
         ).permitAll()
-        .requestMatchers("/api/admin/**").hasRole("ADMIN")
+        .requestMatchers("/api/admin/**", "/actuator/slowqueries", "/actuator/startup").hasRole("ADMIN")
+        // Scraped with an API key holding the ADMIN scope
+        .requestMatchers("/actuator/prometheus").hasRole("ADMIN")
         .requestMatchers("/api/transporter/**").hasRole("TRANSPORTER")
         .anyRequest().authenticated()
       )
       .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+      .addFilterBefore(apiKeyAuthenticationFilter, JwtAuthenticationFilter.class)
       .authenticationProvider(authenticationProvider());
 
     return http.build();
@@ -0,0 +1,25 @@
+package com.logistics.parcelandcarrier.config;
+
+import com.logistics.parcelandcarrier.repository.ScatterGather;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Sharding of {@code packages} ({@code mongo.sharding.*}).
+ * The fan-out of untargeted reads exists whether or not the collection is sharded, so admin listings
+ * have a single code path; on a replica set it still overlaps the page and count reads.
+ */
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+  @Bean
+  public ScatterGather scatterGather(SimpleAsyncTaskExecutorBuilder executorBuilder, ShardingProperties properties) {
+    return new ScatterGather(executorBuilder
+      .threadNamePrefix("package-fan-out-")
+      .concurrencyLimit(properties.fanOutParallelism())
+      .build());
+  }
+}
@@ -0,0 +1,16 @@
+package com.logistics.parcelandcarrier.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Sharding settings ({@code mongo.sharding.*})
+ * @param enabled shard {@code packages} and its archive on startup (the deployment must be a sharded cluster)
+ * @param fanOutParallelism untargeted package reads in flight at once, across requests
+ */
+@ConfigurationProperties("mongo.sharding")
+public record ShardingProperties(
+  @DefaultValue("false") boolean enabled,
+  @DefaultValue("8") int fanOutParallelism
+) {
+}
@@ -0,0 +1,50 @@
+package com.logistics.parcelandcarrier.config;
+
+import com.logistics.parcelandcarrier.monitoring.SlowQueryBuffer;
+import com.logistics.parcelandcarrier.monitoring.SlowQueryEndpoint;
+import com.logistics.parcelandcarrier.monitoring.SlowQueryExplainer;
+import com.logistics.parcelandcarrier.monitoring.SlowQueryListener;
+import com.logistics.parcelandcarrier.monitoring.SlowQueryProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Slow Mongo command detection ({@code mongo.slow-queries.*}), on by default.
+ * The explainer reaches the MongoTemplate lazily: the template depends on the client this
+ * listener is registered on.
+ */
+@Configuration
+@EnableConfigurationProperties(SlowQueryProperties.class)
+@ConditionalOnProperty(name = "mongo.slow-queries.enabled", matchIfMissing = true)
+public class SlowQueryConfig {
+
+  @Bean
+  public SlowQueryBuffer slowQueryBuffer(SlowQueryProperties properties) {
+    return new SlowQueryBuffer(properties.bufferSize());
+  }
+
+  @Bean
+  public SlowQueryEndpoint slowQueryEndpoint(SlowQueryBuffer buffer) {
+    return new SlowQueryEndpoint(buffer);
+  }
+
+  @Bean
+  public MongoClientSettingsBuilderCustomizer slowQueryCustomizer(
+    SlowQueryProperties properties,
+    SlowQueryBuffer buffer,
+    ObjectProvider<MongoTemplate> mongoTemplate,
+    SimpleAsyncTaskExecutorBuilder executorBuilder,
+    MeterRegistry meterRegistry
+  ) {
+    SlowQueryExplainer explainer = new SlowQueryExplainer(mongoTemplate, buffer, properties, executorBuilder);
+    SlowQueryListener listener = new SlowQueryListener(properties, buffer, explainer, meterRegistry);
+    return builder -> builder.addCommandListener(listener);
+  }
+}
@@ -0,0 +1,59 @@
+package com.logistics.parcelandcarrier.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Executor of the streaming endpoints (NDJSON / SSE).
+ * Spring MVC writes each element of a returned Flux with a blocking servlet write on its async
+ * executor, so a slow client holds a thread for as long as its socket buffer is full. By default
+ * that executor is the application's shared task pool, where a few slow clients would hold up every
+ * other stream and {@code @Async} task. The writes get their own pool instead: at most
+ * {@code packages.stream.max-concurrent-writes} writes run at once, on virtual threads when
+ * {@code spring.threads.virtual.enabled} is set, and the others wait in the queue. A stream has at
+ * most one write pending, so the queue is bounded by the open streams; a write is never rejected,
+ * which would end its stream without a terminator, and the driver thread handing it over never blocks.
+ */
+@Configuration
+public class StreamingConfig implements WebMvcConfigurer, DisposableBean {
+
+  private final ThreadPoolTaskExecutor executor;
+
+  public StreamingConfig(
+    @Value("${packages.stream.max-concurrent-writes:64}") int maxConcurrentWrites,
+    @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+  ) {
+    this.executor = writeExecutor(maxConcurrentWrites, virtualThreads);
+  }
+
+  @Override
+  public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+    configurer.setTaskExecutor(executor);
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdown();
+  }
+
+  /**
+   * Fixed pool of writers in front of an unbounded queue
+   * @param maxConcurrentWrites writes running at once
+   * @param virtualThreads run the writers on virtual threads
+   * @return initialized executor
+   */
+  static ThreadPoolTaskExecutor writeExecutor(int maxConcurrentWrites, boolean virtualThreads) {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setThreadNamePrefix("stream-writer-");
+    executor.setCorePoolSize(maxConcurrentWrites);
+    executor.setMaxPoolSize(maxConcurrentWrites);
+    executor.setAllowCoreThreadTimeOut(true);
+    executor.setVirtualThreads(virtualThreads);
+    executor.initialize();
+    return executor;
+  }
+}
@@ -0,0 +1,44 @@
+package com.logistics.parcelandcarrier.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.parcelandcarrier.mapper.PackageMapper;
+import com.logistics.parcelandcarrier.mapper.UserMapper;
+import com.logistics.parcelandcarrier.security.JwtService;
+import com.logistics.parcelandcarrier.warmup.JitWarmup;
+import com.logistics.parcelandcarrier.warmup.WarmupProperties;
+import com.logistics.parcelandcarrier.warmup.WarmupWorkload;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.Validator;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+/**
+ * JIT warm-up before readiness ({@code startup.warmup.*}), off by default.
+ * Meant for deployments whose load balancer follows the readiness probe: the first requests
+ * after a deploy then hit compiled code rather than the interpreter. The beans are always
+ * registered and {@code enabled} is read when the runner starts, so an AOT-built image can turn
+ * the warm-up on or off without a rebuild.
+ */
+@Configuration
+@EnableConfigurationProperties(WarmupProperties.class)
+public class WarmupConfig {
+
+  @Bean
+  public WarmupWorkload warmupWorkload(
+    JwtService jwtService,
+    ObjectMapper objectMapper,
+    Validator validator,
+    PackageMapper packageMapper,
+    UserMapper userMapper,
+    MongoConverter mongoConverter
+  ) {
+    return new WarmupWorkload(jwtService, objectMapper, validator, packageMapper, userMapper, mongoConverter);
+  }
+
+  @Bean
+  public JitWarmup jitWarmup(WarmupProperties properties, WarmupWorkload workload, MeterRegistry meterRegistry) {
+    return new JitWarmup(properties, workload, meterRegistry);
+  }
+}
@@ -0,0 +1,14 @@
+package com.logistics.parcelandcarrier.config;
+
+import com.logistics.parcelandcarrier.outbox.WebhookProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Binds the webhook subscribers and delivery settings ({@code webhooks.*}).
+ * A subscriber list does not fit {@code @Value}, hence the properties record.
+ */
+@Configuration
+@EnableConfigurationProperties(WebhookProperties.class)
+public class WebhookConfig {
+}
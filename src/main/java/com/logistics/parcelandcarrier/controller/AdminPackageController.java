@@ -1,11 +1,19 @@
 package com.logistics.parcelandcarrier.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.logistics.parcelandcarrier.dto.request.BulkAssignmentRequest;
+import com.logistics.parcelandcarrier.dto.request.BulkStatusChangeRequest;
 import com.logistics.parcelandcarrier.dto.request.PackageRequest;
 import com.logistics.parcelandcarrier.dto.request.UpdateStatusRequest;
+import com.logistics.parcelandcarrier.dto.response.BulkOperationResponse;
 import com.logistics.parcelandcarrier.dto.response.PackageResponse;
 import com.logistics.parcelandcarrier.enums.PackageStatus;
 import com.logistics.parcelandcarrier.enums.PackageType;
+import com.logistics.parcelandcarrier.mapper.JsonMergePatch;
+import com.logistics.parcelandcarrier.repository.PackageFilter;
+import com.logistics.parcelandcarrier.service.BulkPackageService;
 import com.logistics.parcelandcarrier.service.PackageService;
+import com.logistics.parcelandcarrier.service.ReactivePackageService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -18,10 +26,18 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 /**
  * REST Controller for package management (Admin only)
@@ -36,6 +52,8 @@ import org.springframework.web.bind.annotation.*;
 public class AdminPackageController {
 
   private final PackageService packageService;
+  private final ReactivePackageService reactivePackageService;
+  private final BulkPackageService bulkPackageService;
 
   @Operation(summary = "Create package", description = "Create a new package")
   @ApiResponses(value = {
@@ -54,26 +72,59 @@ public class AdminPackageController {
     return ResponseEntity.status(HttpStatus.CREATED).body(response);
   }
 
-  @Operation(summary = "List packages", description = "List all packages with optional filters")
+  @Operation(summary = "List packages",
+    description = "List all packages with any combination of filters; unsorted pages are newest first")
   @ApiResponses(value = {
     @ApiResponse(responseCode = "200", description = "Packages retrieved successfully"),
-    @ApiResponse(responseCode = "403", description = "Access denied")
+    @ApiResponse(responseCode = "400", description = "Contradictory or inverted filters, or archived listing paged too deep"),
+    @ApiResponse(responseCode = "403", description = "Access denied"),
+    @ApiResponse(responseCode = "503", description = "Query exceeded its time limit")
   })
   @GetMapping
   public ResponseEntity<Page<PackageResponse>> listPackages(
     @Parameter(description = "Filter by package type")
     @RequestParam(required = false) PackageType type,
 
-    @Parameter(description = "Filter by package status")
-    @RequestParam(required = false) PackageStatus status,
+    @Parameter(description = "Filter by package status (repeat or comma-separate for several); "
+      + "DELIVERED and CANCELLED also search archived packages")
+    @RequestParam(required = false) List<PackageStatus> status,
+
+    @Parameter(description = "Also list archived packages: by default only when a finished status is asked; "
+      + "true includes them in a listing without status filter, false leaves them out. Such listings "
+      + "reach at most the first " + PackageFilter.MAX_ARCHIVE_DEPTH + " packages")
+    @RequestParam(required = false) Boolean includeArchived,
+
+    @Parameter(description = "Filter by assigned transporter ID")
+    @RequestParam(required = false) String transporterId,
+
+    @Parameter(description = "Assigned to any transporter (true) or to none (false)")
+    @RequestParam(required = false) Boolean assigned,
+
+    @Parameter(description = "Created at or after (ISO date-time)")
+    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+
+    @Parameter(description = "Created at or before (ISO date-time)")
+    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+
+    @Parameter(description = "Updated at or after (ISO date-time)")
+    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedFrom,
+
+    @Parameter(description = "Updated at or before (ISO date-time)")
+    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedTo,
+
+    @Parameter(description = "Minimum weight")
+    @RequestParam(required = false) Double minWeight,
+
+    @Parameter(description = "Maximum weight")
+    @RequestParam(required = false) Double maxWeight,
 
     @PageableDefault(size = 10) Pageable pageable
   ) {
-    log.debug("Listing packages with filters - type: {}, status: {}", type, status);
+    PackageFilter filter = filter(type, status, includeArchived, transporterId, assigned,
+      createdFrom, createdTo, updatedFrom, updatedTo, minWeight, maxWeight);
+    log.debug("Listing packages with filters: {}", filter);
 
-    Page<PackageResponse> packages = packageService.findAllWithFilters(
-      type, status, pageable
-    );
+    Page<PackageResponse> packages = packageService.findAllWithFilters(filter, pageable);
 
     return ResponseEntity.ok(packages);
   }
@@ -98,6 +149,98 @@ public class AdminPackageController {
     return ResponseEntity.ok(packages);
   }
 
+  @Operation(summary = "Stream packages",
+    description = "Stream the packages of the listing, with the same filters and order, as NDJSON or "
+      + "server-sent events (no total count)")
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "200", description = "Packages streamed successfully"),
+    @ApiResponse(responseCode = "400", description = "Contradictory or inverted filters"),
+    @ApiResponse(responseCode = "403", description = "Access denied")
+  })
+  @GetMapping(value = "/stream",
+    produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+  public Flux<PackageResponse> streamPackages(
+    @Parameter(description = "Filter by package type")
+    @RequestParam(required = false) PackageType type,
+
+    @Parameter(description = "Filter by package status (repeat or comma-separate for several); "
+      + "DELIVERED and CANCELLED also search archived packages")
+    @RequestParam(required = false) List<PackageStatus> status,
+
+    @Parameter(description = "Also list archived packages: by default only when a finished status is asked; "
+      + "true includes them in a listing without status filter, false leaves them out")
+    @RequestParam(required = false) Boolean includeArchived,
+
+    @Parameter(description = "Filter by assigned transporter ID")
+    @RequestParam(required = false) String transporterId,
+
+    @Parameter(description = "Assigned to any transporter (true) or to none (false)")
+    @RequestParam(required = false) Boolean assigned,
+
+    @Parameter(description = "Created at or after (ISO date-time)")
+    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+
+    @Parameter(description = "Created at or before (ISO date-time)")
+    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+
+    @Parameter(description = "Updated at or after (ISO date-time)")
+    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedFrom,
+
+    @Parameter(description = "Updated at or before (ISO date-time)")
+    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedTo,
+
+    @Parameter(description = "Minimum weight")
+    @RequestParam(required = false) Double minWeight,
+
+    @Parameter(description = "Maximum weight")
+    @RequestParam(required = false) Double maxWeight,
+
+    @PageableDefault(size = 500) Pageable pageable
+  ) {
+    PackageFilter filter = filter(type, status, includeArchived, transporterId, assigned,
+      createdFrom, createdTo, updatedFrom, updatedTo, minWeight, maxWeight);
+    log.debug("Streaming packages with filters: {}", filter);
+
+    return reactivePackageService.streamAllWithFilters(filter, pageable);
+  }
+
+  @Operation(summary = "Stream packages by address",
+    description = "Stream packages matching a destination address as NDJSON or server-sent events")
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "200", description = "Packages streamed successfully"),
+    @ApiResponse(responseCode = "403", description = "Access denied")
+  })
+  @GetMapping(value = "/search/stream",
+    produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+  public Flux<PackageResponse> streamByAddress(
+    @Parameter(description = "Address to search", required = true)
+    @RequestParam String address,
+
+    @PageableDefault(size = 500) Pageable pageable
+  ) {
+    log.debug("Streaming packages by address: {}", address);
+
+    return reactivePackageService.streamByAddress(address, pageable);
+  }
+
+  @Operation(summary = "Get package", description = "Get a package by ID, including archived packages")
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "200", description = "Package retrieved successfully"),
+    @ApiResponse(responseCode = "404", description = "Package not found"),
+    @ApiResponse(responseCode = "403", description = "Access denied")
+  })
+  @GetMapping("/{id}")
+  public ResponseEntity<PackageResponse> getPackage(
+    @Parameter(description = "Package ID", required = true)
+    @PathVariable String id
+  ) {
+    log.debug("Getting package: {}", id);
+
+    PackageResponse response = packageService.findById(id);
+
+    return ResponseEntity.ok(response);
+  }
+
   @Operation(summary = "Update package", description = "Update an existing package")
   @ApiResponses(value = {
     @ApiResponse(responseCode = "200", description = "Package updated successfully"),
@@ -119,6 +262,28 @@ public class AdminPackageController {
     return ResponseEntity.ok(response);
   }
 
+  @Operation(summary = "Patch package",
+    description = "Update some fields of a package with a JSON Merge Patch (RFC 7396); null removes a field")
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "200", description = "Package updated successfully"),
+    @ApiResponse(responseCode = "404", description = "Package not found"),
+    @ApiResponse(responseCode = "400", description = "Validation error"),
+    @ApiResponse(responseCode = "403", description = "Access denied")
+  })
+  @PatchMapping(value = "/{id}", consumes = JsonMergePatch.MEDIA_TYPE)
+  public ResponseEntity<PackageResponse> patchPackage(
+    @Parameter(description = "Package ID", required = true)
+    @PathVariable String id,
+
+    @RequestBody JsonNode patch
+  ) {
+    log.info("Patching package: {}", id);
+
+    PackageResponse response = packageService.patchPackage(id, patch);
+
+    return ResponseEntity.ok(response);
+  }
+
   @Operation(summary = "Assign package to transporter",
     description = "Assign a package to a specific transporter")
   @ApiResponses(value = {
@@ -144,6 +309,42 @@ public class AdminPackageController {
     return ResponseEntity.ok(response);
   }
 
+  @Operation(summary = "Assign packages in bulk",
+    description = "Assign up to 500 packages, each to its transporter; items succeed or fail independently")
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "200", description = "Assignments processed, see per-item results"),
+    @ApiResponse(responseCode = "400", description = "Validation error"),
+    @ApiResponse(responseCode = "403", description = "Access denied")
+  })
+  @PatchMapping("/assign")
+  public ResponseEntity<BulkOperationResponse> assignPackages(
+    @Valid @RequestBody BulkAssignmentRequest request
+  ) {
+    log.info("Bulk assigning {} packages", request.getAssignments().size());
+
+    BulkOperationResponse response = bulkPackageService.assignPackages(request.getAssignments());
+
+    return ResponseEntity.ok(response);
+  }
+
+  @Operation(summary = "Update package statuses in bulk",
+    description = "Change the status of up to 500 packages; items succeed or fail independently")
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "200", description = "Status changes processed, see per-item results"),
+    @ApiResponse(responseCode = "400", description = "Validation error"),
+    @ApiResponse(responseCode = "403", description = "Access denied")
+  })
+  @PatchMapping("/status")
+  public ResponseEntity<BulkOperationResponse> updateStatuses(
+    @Valid @RequestBody BulkStatusChangeRequest request
+  ) {
+    log.info("Bulk changing status of {} packages to {}", request.getPackageIds().size(), request.getStatus());
+
+    BulkOperationResponse response = bulkPackageService.changeStatus(request.getPackageIds(), request.getStatus());
+
+    return ResponseEntity.ok(response);
+  }
+
   @Operation(summary = "Update package status", description = "Change the status of a package")
   @ApiResponses(value = {
     @ApiResponse(responseCode = "200", description = "Status updated successfully"),
@@ -182,4 +383,42 @@ public class AdminPackageController {
 
     return ResponseEntity.noContent().build();
   }
+
+  // =========================================================================
+  // Private helper methods
+  // =========================================================================
+
+  /**
+   * Filters of the paged and streamed listings, from their query parameters
+   */
+  private static PackageFilter filter(
+    PackageType type,
+    List<PackageStatus> status,
+    Boolean includeArchived,
+    String transporterId,
+    Boolean assigned,
+    LocalDateTime createdFrom,
+    LocalDateTime createdTo,
+    LocalDateTime updatedFrom,
+    LocalDateTime updatedTo,
+    Double minWeight,
+    Double maxWeight
+  ) {
+    return PackageFilter.builder()
+      // A blank repeated value (status=PENDING&status=) binds as null
+      .statuses(status != null
+        ? status.stream().filter(Objects::nonNull).collect(Collectors.toUnmodifiableSet())
+        : null)
+      .type(type)
+      .transporterId(transporterId)
+      .assigned(assigned)
+      .createdFrom(createdFrom)
+      .createdTo(createdTo)
+      .updatedFrom(updatedFrom)
+      .updatedTo(updatedTo)
+      .minWeight(minWeight)
+      .maxWeight(maxWeight)
+      .includeArchived(includeArchived)
+      .build();
+  }
 }
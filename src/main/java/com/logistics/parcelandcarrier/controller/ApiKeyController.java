@@ -0,0 +1,80 @@
+package com.logistics.parcelandcarrier.controller;
+
+import com.logistics.parcelandcarrier.dto.request.ApiKeyRequest;
+import com.logistics.parcelandcarrier.dto.response.ApiKeyResponse;
+import com.logistics.parcelandcarrier.service.ApiKeyService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST Controller for service-to-service API keys (Admin only)
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/api-keys")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@SecurityRequirement(name = "bearer-jwt")
+@Tag(name = "Admin - API keys", description = "Service-to-service API key management endpoints for admins")
+public class ApiKeyController {
+
+  private final ApiKeyService apiKeyService;
+
+  @Operation(summary = "Create API key",
+    description = "Create a scoped API key; the key is only returned in this response")
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "201", description = "API key created successfully"),
+    @ApiResponse(responseCode = "400", description = "Invalid input data"),
+    @ApiResponse(responseCode = "403", description = "Access denied"),
+    @ApiResponse(responseCode = "404", description = "Transporter not found")
+  })
+  @PostMapping
+  public ResponseEntity<ApiKeyResponse> createApiKey(@Valid @RequestBody ApiKeyRequest request) {
+    log.info("Creating API key: {}", request.getName());
+
+    ApiKeyResponse response = apiKeyService.createApiKey(request);
+
+    return ResponseEntity.status(HttpStatus.CREATED).body(response);
+  }
+
+  @Operation(summary = "List API keys", description = "List active and revoked API keys, without the keys")
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "200", description = "API keys retrieved successfully"),
+    @ApiResponse(responseCode = "403", description = "Access denied")
+  })
+  @GetMapping
+  public ResponseEntity<List<ApiKeyResponse>> listApiKeys() {
+    return ResponseEntity.ok(apiKeyService.findApiKeys());
+  }
+
+  @Operation(summary = "Revoke API key", description = "Revoke an API key")
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "204", description = "API key revoked successfully"),
+    @ApiResponse(responseCode = "403", description = "Access denied"),
+    @ApiResponse(responseCode = "404", description = "API key not found")
+  })
+  @DeleteMapping("/{id}")
+  public ResponseEntity<Void> revokeApiKey(
+    @Parameter(description = "API key ID", required = true)
+    @PathVariable String id
+  ) {
+    log.info("Revoking API key: {}", id);
+
+    apiKeyService.revokeApiKey(id);
+
+    return ResponseEntity.noContent().build();
+  }
+}
@@ -5,15 +5,18 @@ package com.logistics.parcelandcarrier.controller;
 
 import com.logistics.parcelandcarrier.dto.request.LoginRequest;
 import com.logistics.parcelandcarrier.dto.response.LoginResponse;
+import com.logistics.parcelandcarrier.security.JwtAuthenticationDetails;
 import com.logistics.parcelandcarrier.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 /**
@@ -42,6 +45,22 @@ public class AuthController {
 
     return ResponseEntity.ok(response);
   }
-}
 
+  @Operation(summary = "Logout", description = "Revoke the JWT token used for this request")
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "204", description = "Token revoked"),
+    @ApiResponse(responseCode = "400", description = "Not authenticated with a JWT token"),
+    @ApiResponse(responseCode = "403", description = "Access denied")
+  })
+  @SecurityRequirement(name = "bearer-jwt")
+  @PostMapping("/logout")
+  public ResponseEntity<Void> logout(Authentication authentication) {
+    if (!(authentication.getDetails() instanceof JwtAuthenticationDetails details) || details.getTokenId() == null) {
+      throw new IllegalArgumentException("Only JWT sessions can be logged out");
+    }
+
+    authService.logout(details.getTokenId(), details.getExpiresAt());
 
+    return ResponseEntity.noContent().build();
+  }
+}
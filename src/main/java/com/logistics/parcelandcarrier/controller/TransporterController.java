@@ -1,8 +1,18 @@
 package com.logistics.parcelandcarrier.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.logistics.parcelandcarrier.dto.request.BulkTransporterRequest;
 import com.logistics.parcelandcarrier.dto.request.TransporterRequest;
+import com.logistics.parcelandcarrier.dto.response.BulkTransporterResponse;
+import com.logistics.parcelandcarrier.dto.response.CursorPageResponse;
 import com.logistics.parcelandcarrier.dto.response.UserResponse;
+import com.logistics.parcelandcarrier.enums.PackageType;
+import com.logistics.parcelandcarrier.enums.Role;
 import com.logistics.parcelandcarrier.enums.Specialty;
+import com.logistics.parcelandcarrier.mapper.JsonMergePatch;
+import com.logistics.parcelandcarrier.repository.UserFilter;
+import com.logistics.parcelandcarrier.service.BulkTransporterService;
+import com.logistics.parcelandcarrier.service.ReactiveUserService;
 import com.logistics.parcelandcarrier.service.TransporterService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -17,9 +27,11 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
 
@@ -36,21 +48,65 @@ import java.util.List;
 public class TransporterController {
 
   private final TransporterService transporterService;
+  private final ReactiveUserService reactiveUserService;
+  private final BulkTransporterService bulkTransporterService;
 
-  @Operation(summary = "List all users", description = "Get all users (admins and transporters)")
+  @Operation(summary = "List users",
+    description = "List users (admins and transporters) with optional filters, one cursor page at a time")
   @ApiResponses(value = {
     @ApiResponse(responseCode = "200", description = "Users retrieved successfully"),
+    @ApiResponse(responseCode = "400", description = "Invalid cursor or page size"),
     @ApiResponse(responseCode = "403", description = "Access denied")
   })
   @GetMapping("/users")
-  public ResponseEntity<List<UserResponse>> listUsers() {
-    log.debug("Listing all users");
+  public ResponseEntity<CursorPageResponse<UserResponse>> listUsers(
+    @Parameter(description = "Filter by role")
+    @RequestParam(required = false) Role role,
 
-    List<UserResponse> users = transporterService.findAllUsers();
+    @Parameter(description = "Filter by account state")
+    @RequestParam(required = false) Boolean active,
+
+    @Parameter(description = "Filter by specialty")
+    @RequestParam(required = false) Specialty specialty,
+
+    @Parameter(description = "Cursor returned as nextCursor by the previous page")
+    @RequestParam(required = false) String after,
+
+    @Parameter(description = "Page size (max 500)")
+    @RequestParam(defaultValue = "50") int size
+  ) {
+    log.debug("Listing users - role: {}, active: {}, specialty: {}", role, active, specialty);
+
+    CursorPageResponse<UserResponse> users = transporterService.findUsers(
+      new UserFilter(role, active, specialty), after, size
+    );
 
     return ResponseEntity.ok(users);
   }
 
+  @Operation(summary = "Stream users",
+    description = "Stream every matching user as NDJSON or server-sent events (full dump)")
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "200", description = "Users streamed successfully"),
+    @ApiResponse(responseCode = "403", description = "Access denied")
+  })
+  @GetMapping(value = "/users/stream",
+    produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+  public Flux<UserResponse> streamUsers(
+    @Parameter(description = "Filter by role")
+    @RequestParam(required = false) Role role,
+
+    @Parameter(description = "Filter by account state")
+    @RequestParam(required = false) Boolean active,
+
+    @Parameter(description = "Filter by specialty")
+    @RequestParam(required = false) Specialty specialty
+  ) {
+    log.debug("Streaming users - role: {}, active: {}, specialty: {}", role, active, specialty);
+
+    return reactiveUserService.streamUsers(new UserFilter(role, active, specialty));
+  }
+
   @Operation(summary = "List transporters",
     description = "List all transporters with optional specialty filter")
   @ApiResponses(value = {
@@ -73,6 +129,24 @@ public class TransporterController {
     return ResponseEntity.ok(transporters);
   }
 
+  @Operation(summary = "List available transporters",
+    description = "List the active, available transporters whose specialty can carry a package type")
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "200", description = "Transporters retrieved successfully"),
+    @ApiResponse(responseCode = "403", description = "Access denied")
+  })
+  @GetMapping("/transporters/available")
+  public ResponseEntity<List<UserResponse>> listAvailableTransporters(
+    @Parameter(description = "Package type to carry", required = true)
+    @RequestParam PackageType packageType
+  ) {
+    log.debug("Listing available transporters for package type: {}", packageType);
+
+    List<UserResponse> transporters = transporterService.findAvailableTransporters(packageType);
+
+    return ResponseEntity.ok(transporters);
+  }
+
   @Operation(summary = "Create transporter", description = "Create a new transporter")
   @ApiResponses(value = {
     @ApiResponse(responseCode = "201", description = "Transporter created successfully"),
@@ -90,6 +164,24 @@ public class TransporterController {
     return ResponseEntity.status(HttpStatus.CREATED).body(response);
   }
 
+  @Operation(summary = "Create transporters in bulk",
+    description = "Create up to 500 transporters; items succeed or fail independently")
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "200", description = "Creations processed, see per-item results"),
+    @ApiResponse(responseCode = "400", description = "Validation error"),
+    @ApiResponse(responseCode = "403", description = "Access denied")
+  })
+  @PostMapping("/transporters/bulk")
+  public ResponseEntity<BulkTransporterResponse> createTransporters(
+    @Valid @RequestBody BulkTransporterRequest request
+  ) {
+    log.info("Bulk creating {} transporters", request.getTransporters().size());
+
+    BulkTransporterResponse response = bulkTransporterService.createTransporters(request.getTransporters());
+
+    return ResponseEntity.ok(response);
+  }
+
   @Operation(summary = "Update transporter", description = "Update an existing transporter")
   @ApiResponses(value = {
     @ApiResponse(responseCode = "200", description = "Transporter updated successfully"),
@@ -111,6 +203,28 @@ public class TransporterController {
     return ResponseEntity.ok(response);
   }
 
+  @Operation(summary = "Patch transporter",
+    description = "Update some fields of a transporter with a JSON Merge Patch (RFC 7396); the password is kept unless given")
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "200", description = "Transporter updated successfully"),
+    @ApiResponse(responseCode = "404", description = "Transporter not found"),
+    @ApiResponse(responseCode = "400", description = "Validation error"),
+    @ApiResponse(responseCode = "403", description = "Access denied")
+  })
+  @PatchMapping(value = "/transporters/{id}", consumes = JsonMergePatch.MEDIA_TYPE)
+  public ResponseEntity<UserResponse> patchTransporter(
+    @Parameter(description = "Transporter ID", required = true)
+    @PathVariable String id,
+
+    @RequestBody JsonNode patch
+  ) {
+    log.info("Patching transporter: {}", id);
+
+    UserResponse response = transporterService.patchTransporter(id, patch);
+
+    return ResponseEntity.ok(response);
+  }
+
   @Operation(summary = "Delete transporter",
     description = "Deactivate a transporter (soft delete)")
   @ApiResponses(value = {
@@ -1,9 +1,14 @@
 package com.logistics.parcelandcarrier.controller;
 
+import com.logistics.parcelandcarrier.dto.request.BulkStatusChangeRequest;
 import com.logistics.parcelandcarrier.dto.request.UpdateStatusRequest;
+import com.logistics.parcelandcarrier.dto.response.BulkOperationResponse;
 import com.logistics.parcelandcarrier.dto.response.PackageResponse;
 import com.logistics.parcelandcarrier.enums.PackageStatus;
+import com.logistics.parcelandcarrier.security.JwtAuthenticationDetails;
+import com.logistics.parcelandcarrier.service.BulkPackageService;
 import com.logistics.parcelandcarrier.service.PackageService;
+import com.logistics.parcelandcarrier.service.ReactivePackageService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -16,11 +21,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
 /**
  * REST Controller for package management (Transporter only)
@@ -35,6 +41,8 @@ import org.springframework.web.bind.annotation.*;
 public class TransporterPackageController {
 
   private final PackageService packageService;
+  private final ReactivePackageService reactivePackageService;
+  private final BulkPackageService bulkPackageService;
 
   @Operation(summary = "List my packages",
     description = "List packages assigned to the authenticated transporter")
@@ -87,6 +95,74 @@ public class TransporterPackageController {
     return ResponseEntity.ok(packages);
   }
 
+  @Operation(summary = "Stream my packages",
+    description = "Stream packages assigned to the authenticated transporter as NDJSON or server-sent events")
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "200", description = "Packages streamed successfully"),
+    @ApiResponse(responseCode = "403", description = "Access denied")
+  })
+  @GetMapping(value = "/stream",
+    produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+  public Flux<PackageResponse> streamMyPackages(
+    @Parameter(description = "Filter by package status")
+    @RequestParam(required = false) PackageStatus status,
+
+    @PageableDefault(size = 500) Pageable pageable,
+
+    Authentication authentication
+  ) {
+    String transporterId = extractTransporterId(authentication);
+    log.debug("Streaming packages for transporter: {}", transporterId);
+
+    return reactivePackageService.streamMyPackagesWithFilters(transporterId, status, pageable);
+  }
+
+  @Operation(summary = "Stream my packages by address",
+    description = "Stream transporter's packages matching a destination address as NDJSON or server-sent events")
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "200", description = "Packages streamed successfully"),
+    @ApiResponse(responseCode = "403", description = "Access denied")
+  })
+  @GetMapping(value = "/search/stream",
+    produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+  public Flux<PackageResponse> streamMyPackagesByAddress(
+    @Parameter(description = "Address to search", required = true)
+    @RequestParam String address,
+
+    @PageableDefault(size = 500) Pageable pageable,
+
+    Authentication authentication
+  ) {
+    String transporterId = extractTransporterId(authentication);
+    log.debug("Streaming packages for transporter {} by address: {}",
+      transporterId, address);
+
+    return reactivePackageService.streamMyPackagesByAddress(transporterId, address, pageable);
+  }
+
+  @Operation(summary = "Get my package",
+    description = "Get a package assigned to the authenticated transporter")
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "200", description = "Package retrieved successfully"),
+    @ApiResponse(responseCode = "404", description = "Package not found"),
+    @ApiResponse(responseCode = "400", description = "Not authorized"),
+    @ApiResponse(responseCode = "403", description = "Access denied")
+  })
+  @GetMapping("/{id}")
+  public ResponseEntity<PackageResponse> getMyPackage(
+    @Parameter(description = "Package ID", required = true)
+    @PathVariable String id,
+
+    Authentication authentication
+  ) {
+    String transporterId = extractTransporterId(authentication);
+    log.debug("Transporter {} getting package {}", transporterId, id);
+
+    PackageResponse response = packageService.findMyPackage(id, transporterId);
+
+    return ResponseEntity.ok(response);
+  }
+
   @Operation(summary = "Update my package status",
     description = "Update the status of a package assigned to the transporter")
   @ApiResponses(value = {
@@ -115,17 +191,38 @@ public class TransporterPackageController {
     return ResponseEntity.ok(response);
   }
 
+  @Operation(summary = "Update my package statuses in bulk",
+    description = "Change the status of up to 500 packages assigned to the transporter; items succeed or fail independently")
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "200", description = "Status changes processed, see per-item results"),
+    @ApiResponse(responseCode = "400", description = "Validation error"),
+    @ApiResponse(responseCode = "403", description = "Access denied")
+  })
+  @PatchMapping("/status")
+  public ResponseEntity<BulkOperationResponse> updateMyPackageStatuses(
+    @Valid @RequestBody BulkStatusChangeRequest request,
+
+    Authentication authentication
+  ) {
+    String transporterId = extractTransporterId(authentication);
+    log.info("Transporter {} bulk changing status of {} packages to {}",
+      transporterId, request.getPackageIds().size(), request.getStatus());
+
+    BulkOperationResponse response = bulkPackageService.changeStatusMyPackages(
+      request.getPackageIds(), transporterId, request.getStatus()
+    );
+
+    return ResponseEntity.ok(response);
+  }
+
   /**
    * Extract transporter ID from authentication
-   * Note: In a real implementation, you would extract this from the JWT token
-   * For now, we use the username as the transporter login
+   * The user ID comes from the JWT userId claim; packages store it, not the login
    */
   private String extractTransporterId(Authentication authentication) {
-    if (authentication != null && authentication.getPrincipal() instanceof UserDetails) {
-      UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-      // In a real scenario, you'd fetch the user ID from UserDetails or JWT
-      // For this implementation, return the username (login)
-      return userDetails.getUsername();
+    if (authentication != null && authentication.getDetails() instanceof JwtAuthenticationDetails details
+      && details.getUserId() != null) {
+      return details.getUserId();
     }
     throw new IllegalStateException("Unable to extract transporter ID from authentication");
   }
@@ -0,0 +1,32 @@
+package com.logistics.parcelandcarrier.dto.request;
+
+import com.logistics.parcelandcarrier.enums.Role;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+/**
+ * DTO for API key creation
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApiKeyRequest {
+
+    @NotBlank(message = "Name is required")
+    @Size(max = 100, message = "Name cannot exceed 100 characters")
+    private String name;
+
+    @NotEmpty(message = "At least one scope is required")
+    private Set<Role> scopes;
+
+    // Transporter the key acts for, required with the TRANSPORTER scope
+    private String userId;
+}
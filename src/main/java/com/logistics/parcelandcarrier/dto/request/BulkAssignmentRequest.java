@@ -0,0 +1,42 @@
+package com.logistics.parcelandcarrier.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for assigning many packages in one request
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkAssignmentRequest {
+
+    @NotEmpty(message = "Assignments are required")
+    @Size(max = 500, message = "At most 500 assignments per request")
+    private List<@Valid Assignment> assignments;
+
+    /**
+     * One (package, transporter) pair
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Assignment {
+
+        @NotBlank(message = "Package ID is required")
+        private String packageId;
+
+        @NotBlank(message = "Transporter ID is required")
+        private String transporterId;
+    }
+}
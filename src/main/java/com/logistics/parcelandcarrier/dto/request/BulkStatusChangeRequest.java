@@ -0,0 +1,30 @@
+package com.logistics.parcelandcarrier.dto.request;
+
+import com.logistics.parcelandcarrier.enums.PackageStatus;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for changing the status of many packages at once
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusChangeRequest {
+
+    @NotEmpty(message = "Package IDs are required")
+    @Size(max = 500, message = "At most 500 packages per request")
+    private List<@NotBlank String> packageIds;
+
+    @NotNull(message = "Status is required")
+    private PackageStatus status;
+}
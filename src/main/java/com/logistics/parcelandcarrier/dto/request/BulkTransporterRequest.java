@@ -0,0 +1,25 @@
+package com.logistics.parcelandcarrier.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for creating many transporters in one request
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTransporterRequest {
+
+    @NotEmpty(message = "Transporters are required")
+    @Size(max = 500, message = "At most 500 transporters per request")
+    private List<@Valid TransporterRequest> transporters;
+}
@@ -0,0 +1,30 @@
+package com.logistics.parcelandcarrier.dto.response;
+
+import com.logistics.parcelandcarrier.enums.Role;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * DTO for API key response
+ * The key itself is only returned once, on creation
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApiKeyResponse {
+
+    private String id;
+    private String name;
+    private String prefix;
+    private Set<Role> scopes;
+    private String userId;
+    private boolean active;
+    private LocalDateTime createdAt;
+    private String key;
+}
@@ -0,0 +1,56 @@
+package com.logistics.parcelandcarrier.dto.response;
+
+import com.logistics.parcelandcarrier.enums.PackageStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for the outcome of a bulk package operation
+ * Items are applied independently; results follow the order of the request
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOperationResponse {
+
+    private int requested;
+    private int succeeded;
+    private int failed;
+    private List<ItemResult> results;
+
+    /**
+     * Outcome of one item
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+
+        private String packageId;
+        private boolean success;
+        // Package status after the operation (successful items only)
+        private PackageStatus status;
+        private String error;
+    }
+
+    /**
+     * Build the response from per-item results
+     * @param results one result per requested item, in request order
+     * @return response with the counts
+     */
+    public static BulkOperationResponse of(List<ItemResult> results) {
+        int succeeded = (int) results.stream().filter(ItemResult::isSuccess).count();
+        return BulkOperationResponse.builder()
+            .requested(results.size())
+            .succeeded(succeeded)
+            .failed(results.size() - succeeded)
+            .results(results)
+            .build();
+    }
+}
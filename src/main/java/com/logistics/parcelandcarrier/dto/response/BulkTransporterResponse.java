@@ -0,0 +1,55 @@
+package com.logistics.parcelandcarrier.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for the outcome of a bulk transporter creation
+ * Items are created independently; results follow the order of the request
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTransporterResponse {
+
+    private int requested;
+    private int succeeded;
+    private int failed;
+    private List<ItemResult> results;
+
+    /**
+     * Outcome of one item
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+
+        private String login;
+        private boolean success;
+        // Created transporter (successful items only)
+        private UserResponse transporter;
+        private String error;
+    }
+
+    /**
+     * Build the response from per-item results
+     * @param results one result per requested item, in request order
+     * @return response with the counts
+     */
+    public static BulkTransporterResponse of(List<ItemResult> results) {
+        int succeeded = (int) results.stream().filter(ItemResult::isSuccess).count();
+        return BulkTransporterResponse.builder()
+            .requested(results.size())
+            .succeeded(succeeded)
+            .failed(results.size() - succeeded)
+            .results(results)
+            .build();
+    }
+}
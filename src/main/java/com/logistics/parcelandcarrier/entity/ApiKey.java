@@ -0,0 +1,66 @@
+package com.logistics.parcelandcarrier.entity;
+
+import com.logistics.parcelandcarrier.enums.Role;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Service-to-service API key.
+ * Only the SHA-256 of the key is stored: keys are long random strings, so a fast hash is enough
+ * and, unlike BCrypt, costs nothing per request.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "api_keys")
+public class ApiKey {
+
+    @Id
+    private String id;
+
+    @Field("name")
+    private String name;
+
+    // Hex SHA-256 of the key
+    @Indexed(unique = true)
+    @Field("key_hash")
+    private String keyHash;
+
+    // First characters of the key, to recognize it in listings
+    @Field("prefix")
+    private String prefix;
+
+    @Field("scopes")
+    private Set<Role> scopes;
+
+    // Transporter the key acts for, required with the TRANSPORTER scope
+    @Field("user_id")
+    private String userId;
+
+    @Field("active")
+    private boolean active;
+
+    @Field("created_at")
+    private LocalDateTime createdAt;
+
+    @Field("updated_at")
+    private LocalDateTime updatedAt;
+
+    /**
+     * Revoke the key
+     */
+    public void revoke() {
+        this.active = false;
+        this.updatedAt = LocalDateTime.now();
+    }
+}
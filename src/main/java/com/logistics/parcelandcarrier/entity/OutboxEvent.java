@@ -0,0 +1,72 @@
+package com.logistics.parcelandcarrier.entity;
+
+import com.logistics.parcelandcarrier.dto.response.PackageResponse;
+import com.logistics.parcelandcarrier.enums.OutboxEventType;
+import com.logistics.parcelandcarrier.enums.OutboxStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDateTime;
+
+/**
+ * Package event waiting to be delivered to one webhook subscriber.
+ * One record is written per subscriber, so each delivers and retries on its own.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "outbox_events")
+@CompoundIndex(name = "subscriber_status_next_attempt", def = "{'subscriber': 1, 'status': 1, 'next_attempt_at': 1}")
+public class OutboxEvent {
+
+    @Id
+    private String id;
+
+    @Field("subscriber")
+    private String subscriber;
+
+    @Field("type")
+    private OutboxEventType type;
+
+    @Field("package_id")
+    private String packageId;
+
+    // Package as it was right after the change
+    @Field("payload")
+    private PackageResponse payload;
+
+    @Field("status")
+    private OutboxStatus status;
+
+    @Field("attempts")
+    private int attempts;
+
+    @Field("next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    // Dispatcher batch holding the record, until claimed_until
+    @Field("claim")
+    private String claim;
+
+    @Field("claimed_until")
+    private LocalDateTime claimedUntil;
+
+    @Field("last_error")
+    private String lastError;
+
+    @Field("created_at")
+    private LocalDateTime createdAt;
+
+    // Delivered records are removed a week later
+    @Indexed(expireAfter = "7d")
+    @Field("delivered_at")
+    private LocalDateTime deliveredAt;
+}
@@ -7,17 +7,24 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.Sharded;
+import org.springframework.data.mongodb.core.mapping.ShardingStrategy;
 
 import java.time.LocalDateTime;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "packages")
+@CompoundIndex(name = "status_type_created", def = "{'status': 1, 'type': 1, 'created_at': -1}")
+@CompoundIndex(name = "transporter_status_created", def = "{'transporter_id': 1, 'status': 1, 'created_at': -1}")
+@CompoundIndex(name = "shard_key", def = "{'routing_key': 'hashed', '_id': 1}")
+@Sharded(shardKey = {"routingKey", "id"}, shardingStrategy = ShardingStrategy.HASH, immutableKey = false)
 public class Package {
 
     @Id
@@ -58,6 +65,10 @@ public class Package {
     @Field("updated_at")
     private LocalDateTime updatedAt;
 
+    // Shard routing key, derived from the transporter on every write (see PackageShardKey)
+    @Field("routing_key")
+    private String routingKey;
+
     // =========================================================================
     // Business Logic Methods
     // =========================================================================
@@ -0,0 +1,50 @@
+package com.logistics.parcelandcarrier.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+
+/**
+ * Revoked JWT, or every JWT of a user issued up to a point in time.
+ * Entries are removed by a TTL index once the tokens they revoke have expired anyway.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "revoked_tokens")
+public class RevokedToken {
+
+    @Id
+    private String id;
+
+    @Field("kind")
+    private Kind kind;
+
+    // Token ID (jti) for TOKEN, user ID for SUBJECT
+    @Field("key")
+    private String key;
+
+    // Nodes pick up the revocations written since their last sync
+    @Indexed
+    @Field("revoked_at")
+    private Instant revokedAt;
+
+    @Indexed(expireAfter = "0s")
+    @Field("expires_at")
+    private Instant expiresAt;
+
+    public enum Kind {
+        /** One token, e.g. on logout */
+        TOKEN,
+        /** Every token of a user issued up to revokedAt, e.g. on deactivation */
+        SUBJECT
+    }
+}
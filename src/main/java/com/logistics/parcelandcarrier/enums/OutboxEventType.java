@@ -0,0 +1,10 @@
+package com.logistics.parcelandcarrier.enums;
+
+public enum OutboxEventType {
+
+    PACKAGE_CREATED,
+    PACKAGE_UPDATED,
+    PACKAGE_ASSIGNED,
+    PACKAGE_STATUS_CHANGED,
+    PACKAGE_DELETED
+}
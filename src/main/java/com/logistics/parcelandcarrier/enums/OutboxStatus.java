@@ -0,0 +1,9 @@
+package com.logistics.parcelandcarrier.enums;
+
+public enum OutboxStatus {
+
+    PENDING,
+    DELIVERED,
+    // Gave up after webhooks.max-attempts; kept for inspection and manual replay
+    DEAD
+}
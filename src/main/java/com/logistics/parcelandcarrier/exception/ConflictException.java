@@ -0,0 +1,22 @@
+package com.logistics.parcelandcarrier.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a resource was changed concurrently, between its read and a conditional write
+ */
+@Getter
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConflictException extends RuntimeException {
+
+  private final String resourceName;
+  private final Object resourceId;
+
+  public ConflictException(String resourceName, Object resourceId) {
+    super(String.format("%s '%s' was changed concurrently, retry the request", resourceName, resourceId));
+    this.resourceName = resourceName;
+    this.resourceId = resourceId;
+  }
+}
@@ -2,6 +2,7 @@ package com.logistics.parcelandcarrier.exception;
 
 import com.logistics.parcelandcarrier.dto.response.ErrorResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -98,6 +99,25 @@ public class GlobalExceptionHandler {
     return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
   }
 
+  /**
+   * Handle ConflictException
+   */
+  @ExceptionHandler(ConflictException.class)
+  public ResponseEntity<ErrorResponse> handleConflict(
+    ConflictException ex,
+    WebRequest request
+  ) {
+    log.error("Concurrent change: {}", ex.getMessage());
+
+    ErrorResponse errorResponse = ErrorResponse.of(
+      HttpStatus.CONFLICT.value(),
+      ex.getMessage(),
+      getPath(request)
+    );
+
+    return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+  }
+
   /**
    * Handle validation errors (Bean Validation)
    */
@@ -162,6 +182,25 @@ public class GlobalExceptionHandler {
     return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
   }
 
+  /**
+   * Handle QueryTimeoutException (query over its maxTimeMS)
+   */
+  @ExceptionHandler(QueryTimeoutException.class)
+  public ResponseEntity<ErrorResponse> handleQueryTimeout(
+    QueryTimeoutException ex,
+    WebRequest request
+  ) {
+    log.warn("Query timeout: {}", ex.getMessage());
+
+    ErrorResponse errorResponse = ErrorResponse.of(
+      HttpStatus.SERVICE_UNAVAILABLE.value(),
+      ex.getMessage(),
+      getPath(request)
+    );
+
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+  }
+
   /**
    * Handle AccessDeniedException (Spring Security)
    */
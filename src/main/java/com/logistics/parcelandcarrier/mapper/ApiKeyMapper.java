@@ -0,0 +1,23 @@
+package com.logistics.parcelandcarrier.mapper;
+
+import com.logistics.parcelandcarrier.dto.response.ApiKeyResponse;
+import com.logistics.parcelandcarrier.entity.ApiKey;
+import org.mapstruct.*;
+
+import java.util.List;
+
+/**
+ * MapStruct mapper for ApiKey entity and DTOs
+ */
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface ApiKeyMapper {
+
+  /**
+   * Convert ApiKey entity to ApiKeyResponse
+   * Excludes the key, which is only known on creation
+   */
+  @Mapping(target = "key", ignore = true)
+  ApiKeyResponse toResponse(ApiKey entity);
+
+  List<ApiKeyResponse> toResponseList(List<ApiKey> entities);
+}
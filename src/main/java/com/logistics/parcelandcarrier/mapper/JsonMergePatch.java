@@ -0,0 +1,87 @@
+package com.logistics.parcelandcarrier.mapper;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JSON Merge Patch (RFC 7396) of request DTOs, for the {@code application/merge-patch+json}
+ * update endpoints: the stored state is mapped to its request DTO, the patch is merged into it
+ * (members set to null are removed) and the result is read back as the DTO.
+ * Only the patched fields are validated; the others come from the stored state.
+ */
+@Component
+@RequiredArgsConstructor
+public class JsonMergePatch {
+
+  public static final String MEDIA_TYPE = "application/merge-patch+json";
+
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
+
+  /**
+   * Apply a merge patch to a request DTO
+   * @param target current state as a request DTO
+   * @param patch merge patch, a JSON object
+   * @param type request DTO class
+   * @return patched copy of the DTO
+   * @throws IllegalArgumentException if the patch is not an object, names an unknown field or
+   * sets an invalid value
+   */
+  public <T> T apply(T target, JsonNode patch, Class<T> type) {
+    if (patch == null || !patch.isObject()) {
+      throw new IllegalArgumentException("Merge patch must be a JSON object");
+    }
+
+    T patched;
+    try {
+      patched = objectMapper.treeToValue(merge(objectMapper.valueToTree(target), patch), type);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Invalid merge patch: " + e.getOriginalMessage(), e);
+    }
+
+    BeanWrapperImpl properties = new BeanWrapperImpl(patched);
+    for (Iterator<String> fields = patch.fieldNames(); fields.hasNext(); ) {
+      String field = fields.next();
+      if (!properties.isWritableProperty(field)) {
+        throw new IllegalArgumentException("Unknown field: " + field);
+      }
+      Set<ConstraintViolation<T>> violations = validator.validateProperty(patched, field);
+      if (!violations.isEmpty()) {
+        throw new IllegalArgumentException(violations.iterator().next().getMessage());
+      }
+    }
+    return patched;
+  }
+
+  /**
+   * RFC 7396 MergePatch(Target, Patch)
+   */
+  static JsonNode merge(JsonNode target, JsonNode patch) {
+    if (!patch.isObject()) {
+      return patch;
+    }
+    ObjectNode result = target != null && target.isObject()
+      ? ((ObjectNode) target).deepCopy()
+      : JsonNodeFactory.instance.objectNode();
+    for (Map.Entry<String, JsonNode> field : patch.properties()) {
+      if (field.getValue().isNull()) {
+        result.remove(field.getKey());
+      } else {
+        result.set(field.getKey(), merge(result.get(field.getKey()), field.getValue()));
+      }
+    }
+    return result;
+  }
+}
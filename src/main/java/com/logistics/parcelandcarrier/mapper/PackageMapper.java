@@ -30,6 +30,12 @@ public interface PackageMapper {
     @Mapping(target = "transporterLogin", ignore = true)
     PackageResponse toResponse(Package entity);
 
+    /**
+     * Convert Package entity to the PackageRequest it could have been created from
+     * Used as the target of a merge patch
+     */
+    PackageRequest toRequest(Package entity);
+
     /**
      * Update existing Package entity from PackageRequest
      * Preserves: id, status, transporterId, createdAt
@@ -36,6 +36,13 @@ public interface UserMapper {
    */
   UserResponse toResponse(User entity);
 
+  /**
+   * Convert User entity to a TransporterRequest without password
+   * Used as the target of a merge patch; a patch without password keeps the existing one
+   */
+  @Mapping(target = "password", ignore = true)
+  TransporterRequest toRequest(User entity);
+
   /**
    * Update existing User entity from TransporterRequest
    * Preserves: id, role, active, status, createdAt
@@ -0,0 +1,86 @@
+package com.logistics.parcelandcarrier.monitoring;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.core.Context;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Log events that never reached an appender, as {@code logging.events.dropped{reason, level}}.
+ * Logback builds its filters and appenders before the Spring context exists, so the counters
+ * live in the logback context, where the binder finds them once the registry is up. They are
+ * plain {@link LongAdder}s so that both sides can share them across class loaders (devtools).
+ */
+public class DroppedLogEvents implements MeterBinder {
+
+  static final String METRIC_NAME = "logging.events.dropped";
+  private static final String CONTEXT_KEY = DroppedLogEvents.class.getName();
+
+  /** Why an event was dropped */
+  public enum Reason {
+    /** Left out by per-logger sampling */
+    SAMPLED,
+    /** Async appender queue full, or past its discarding threshold for TRACE to INFO */
+    OVERFLOW
+  }
+
+  private static final List<Level> LEVELS = List.of(Level.TRACE, Level.DEBUG, Level.INFO, Level.WARN, Level.ERROR);
+
+  private final LongAdder[][] counts;
+
+  private DroppedLogEvents(LongAdder[][] counts) {
+    this.counts = counts;
+  }
+
+  /**
+   * Counters of a logback context, created on first use
+   */
+  public static DroppedLogEvents of(Context context) {
+    context.getConfigurationLock().lock();
+    try {
+      if (context.getObject(CONTEXT_KEY) instanceof LongAdder[][] counts) {
+        return new DroppedLogEvents(counts);
+      }
+      LongAdder[][] counts = new LongAdder[Reason.values().length][LEVELS.size()];
+      for (LongAdder[] byLevel : counts) {
+        for (int i = 0; i < byLevel.length; i++) {
+          byLevel[i] = new LongAdder();
+        }
+      }
+      context.putObject(CONTEXT_KEY, counts);
+      return new DroppedLogEvents(counts);
+    } finally {
+      context.getConfigurationLock().unlock();
+    }
+  }
+
+  void record(Reason reason, Level level) {
+    counter(reason, level).increment();
+  }
+
+  long count(Reason reason, Level level) {
+    return counter(reason, level).sum();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    for (Reason reason : Reason.values()) {
+      for (Level level : LEVELS) {
+        FunctionCounter.builder(METRIC_NAME, counter(reason, level), LongAdder::sum)
+          .description("Log events dropped before reaching an appender")
+          .tag("reason", reason.name().toLowerCase())
+          .tag("level", level.levelStr)
+          .register(registry);
+      }
+    }
+  }
+
+  private LongAdder counter(Reason reason, Level level) {
+    int index = LEVELS.indexOf(level);
+    return counts[reason.ordinal()][index >= 0 ? index : 0];
+  }
+}
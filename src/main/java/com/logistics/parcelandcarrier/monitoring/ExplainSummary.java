@@ -0,0 +1,28 @@
+package com.logistics.parcelandcarrier.monitoring;
+
+import java.util.List;
+
+/**
+ * The part of an explain("executionStats") result worth keeping
+ * @param stages stages of the winning plan, outermost first
+ * @param indexes indexes used by the winning plan
+ * @param returned documents returned
+ * @param keysExamined index keys examined
+ * @param docsExamined documents examined
+ * @param executionTimeMillis execution time measured by the explain
+ * @param error why the explain failed, if it did
+ */
+public record ExplainSummary(
+  List<String> stages,
+  List<String> indexes,
+  long returned,
+  long keysExamined,
+  long docsExamined,
+  long executionTimeMillis,
+  String error
+) {
+
+  static ExplainSummary failed(String error) {
+    return new ExplainSummary(List.of(), List.of(), 0, 0, 0, 0, error);
+  }
+}
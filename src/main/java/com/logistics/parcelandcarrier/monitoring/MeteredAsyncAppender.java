@@ -0,0 +1,32 @@
+package com.logistics.parcelandcarrier.monitoring;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/**
+ * Logback async appender that counts the events it drops.
+ * Same policy as {@link AsyncAppender}: past the discarding threshold TRACE to INFO events are
+ * discarded, and with {@code neverBlock} any event is discarded once the queue is full, so the
+ * calling thread never waits on the output. The count is read from the queue before appending,
+ * which is exact for a single producer and close enough under contention.
+ */
+public class MeteredAsyncAppender extends AsyncAppender {
+
+  private DroppedLogEvents dropped;
+
+  @Override
+  public void start() {
+    dropped = DroppedLogEvents.of(getContext());
+    super.start();
+  }
+
+  @Override
+  protected void append(ILoggingEvent event) {
+    int remaining = getRemainingCapacity();
+    boolean discarded = remaining < getDiscardingThreshold() && isDiscardable(event);
+    if (discarded || (remaining == 0 && isNeverBlock())) {
+      dropped.record(DroppedLogEvents.Reason.OVERFLOW, event.getLevel());
+    }
+    super.append(event);
+  }
+}
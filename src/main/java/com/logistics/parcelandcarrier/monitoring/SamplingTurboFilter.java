@@ -0,0 +1,80 @@
+package com.logistics.parcelandcarrier.monitoring;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps a fraction of the INFO lines of high-frequency loggers.
+ * A turbo filter runs before the logging event is created, so a line left out costs no
+ * formatting and no queue slot. WARN and ERROR always pass, and so do level checks
+ * ({@code isInfoEnabled()}), so guarded code keeps running.
+ * Configured from logback-spring.xml, one {@code <sample>logger=rate</sample>} per logger;
+ * a logger's rate also applies to its children.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+  private final Map<String, Double> rates = new ConcurrentHashMap<>();
+  /** Rate resolved per logger, child loggers included (1.0 when not sampled) */
+  private final Map<String, Double> resolved = new ConcurrentHashMap<>();
+  private DroppedLogEvents dropped;
+
+  /**
+   * Add a sampled logger
+   * @param sample {@code <logger name>=<rate>}, rate in [0, 1]
+   */
+  public void addSample(String sample) {
+    int separator = sample.lastIndexOf('=');
+    if (separator <= 0) {
+      addError("Invalid sample '" + sample + "', expected <logger>=<rate>");
+      return;
+    }
+    try {
+      double rate = Double.parseDouble(sample.substring(separator + 1).trim());
+      rates.put(sample.substring(0, separator).trim(), Math.max(0, Math.min(1, rate)));
+      resolved.clear();
+    } catch (NumberFormatException e) {
+      addError("Invalid rate in sample '" + sample + "'");
+    }
+  }
+
+  @Override
+  public void start() {
+    dropped = DroppedLogEvents.of(getContext());
+    super.start();
+  }
+
+  @Override
+  public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+    if (!isStarted() || format == null || level != Level.INFO || rates.isEmpty()) {
+      return FilterReply.NEUTRAL;
+    }
+    double rate = resolved.computeIfAbsent(logger.getName(), this::rateOf);
+    if (rate >= 1 || ThreadLocalRandom.current().nextDouble() < rate) {
+      return FilterReply.NEUTRAL;
+    }
+    // Only count lines the logger would have written
+    if (level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+      dropped.record(DroppedLogEvents.Reason.SAMPLED, level);
+    }
+    return FilterReply.DENY;
+  }
+
+  private double rateOf(String loggerName) {
+    for (String name = loggerName; ; name = name.substring(0, name.lastIndexOf('.'))) {
+      Double rate = rates.get(name);
+      if (rate != null) {
+        return rate;
+      }
+      if (name.lastIndexOf('.') < 0) {
+        return 1.0;
+      }
+    }
+  }
+}
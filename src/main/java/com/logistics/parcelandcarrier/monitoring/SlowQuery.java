@@ -0,0 +1,39 @@
+package com.logistics.parcelandcarrier.monitoring;
+
+import java.time.Instant;
+
+/**
+ * A Mongo command slower than the threshold
+ * @param sequence position in the buffer, increasing
+ * @param timestamp when the command completed
+ * @param command command name (find, aggregate, update, ...)
+ * @param collection target collection, if any
+ * @param durationMillis elapsed time reported by the driver
+ * @param error error message if the command failed
+ * @param route HTTP method and route pattern of the request that issued it, if any
+ * @param repositoryMethod repository method that issued it, if any
+ * @param caller first application frame outside the repositories (usually a service method)
+ * @param shape command with literal values replaced by {@code ?}
+ * @param explainSampled whether an explain was scheduled for this command
+ * @param explain plan and execution statistics, once captured
+ */
+public record SlowQuery(
+  long sequence,
+  Instant timestamp,
+  String command,
+  String collection,
+  long durationMillis,
+  String error,
+  String route,
+  String repositoryMethod,
+  String caller,
+  String shape,
+  boolean explainSampled,
+  ExplainSummary explain
+) {
+
+  SlowQuery withExplain(ExplainSummary summary) {
+    return new SlowQuery(sequence, timestamp, command, collection, durationMillis, error, route,
+      repositoryMethod, caller, shape, explainSampled, summary);
+  }
+}
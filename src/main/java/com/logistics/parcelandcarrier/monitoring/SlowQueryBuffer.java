@@ -0,0 +1,82 @@
+package com.logistics.parcelandcarrier.monitoring;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongFunction;
+
+/**
+ * Fixed-size ring of the most recent slow queries.
+ * Lock-free: a slot is claimed by sequence number, so a burst of slow queries overwrites the
+ * oldest entries instead of growing memory or blocking the threads that issued them.
+ */
+public class SlowQueryBuffer {
+
+  private final AtomicReferenceArray<SlowQuery> slots;
+  private final AtomicLong sequence = new AtomicLong();
+
+  public SlowQueryBuffer(int size) {
+    if (size <= 0) {
+      throw new IllegalArgumentException("Buffer size must be positive");
+    }
+    this.slots = new AtomicReferenceArray<>(size);
+  }
+
+  /**
+   * Store a slow query, overwriting the oldest one when full
+   * @param factory builds the entry from its sequence number
+   * @return the stored entry
+   */
+  public SlowQuery add(LongFunction<SlowQuery> factory) {
+    long next = sequence.getAndIncrement();
+    SlowQuery entry = factory.apply(next);
+    slots.set(slot(next), entry);
+    return entry;
+  }
+
+  /**
+   * Attach an explain result, unless the entry has been overwritten meanwhile
+   * @param sequenceNumber sequence of the entry
+   * @param summary explain result
+   */
+  public void attachExplain(long sequenceNumber, ExplainSummary summary) {
+    int slot = slot(sequenceNumber);
+    SlowQuery current = slots.get(slot);
+    while (current != null && current.sequence() == sequenceNumber) {
+      if (slots.compareAndSet(slot, current, current.withExplain(summary))) {
+        return;
+      }
+      current = slots.get(slot);
+    }
+  }
+
+  /**
+   * Entries currently held, newest first
+   */
+  public List<SlowQuery> snapshot() {
+    List<SlowQuery> entries = new ArrayList<>(slots.length());
+    for (int i = 0; i < slots.length(); i++) {
+      SlowQuery entry = slots.get(i);
+      if (entry != null) {
+        entries.add(entry);
+      }
+    }
+    entries.sort(Comparator.comparingLong(SlowQuery::sequence).reversed());
+    return entries;
+  }
+
+  /**
+   * Drop every entry
+   */
+  public void clear() {
+    for (int i = 0; i < slots.length(); i++) {
+      slots.set(i, null);
+    }
+  }
+
+  private int slot(long sequenceNumber) {
+    return (int) (sequenceNumber % slots.length());
+  }
+}
@@ -0,0 +1,31 @@
+package com.logistics.parcelandcarrier.monitoring;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/**
+ * Actuator endpoint ({@code /actuator/slowqueries}) listing the buffered slow Mongo commands,
+ * newest first, with their explain summary once captured. DELETE empties the buffer.
+ */
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+
+  private final SlowQueryBuffer buffer;
+
+  public SlowQueryEndpoint(SlowQueryBuffer buffer) {
+    this.buffer = buffer;
+  }
+
+  @ReadOperation
+  public List<SlowQuery> slowQueries() {
+    return buffer.snapshot();
+  }
+
+  @DeleteOperation
+  public void clear() {
+    buffer.clear();
+  }
+}
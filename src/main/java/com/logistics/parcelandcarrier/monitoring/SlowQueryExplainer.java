@@ -0,0 +1,184 @@
+package com.logistics.parcelandcarrier.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonInt64;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Captures explain("executionStats") of sampled slow commands, off the thread that issued them.
+ * At most {@code maxExplainsInFlight} explains run at once; a sample arriving while they are all
+ * busy is skipped rather than queued, so a slow-query storm cannot pile extra load on the server.
+ */
+@Slf4j
+public class SlowQueryExplainer {
+
+  /** Commands explain accepts */
+  static final Set<String> EXPLAINABLE = Set.of(
+    "find", "aggregate", "count", "distinct", "update", "delete", "findAndModify");
+
+  /** Fields added by the driver that explain rejects or that belong to the outer command */
+  private static final Set<String> GENERIC_FIELDS = Set.of(
+    "$db", "lsid", "$clusterTime", "txnNumber", "autocommit", "startTransaction", "$readPreference",
+    "readConcern", "writeConcern", "apiVersion", "apiStrict", "apiDeprecationErrors", "maxTimeMS", "comment");
+
+  private final ObjectProvider<MongoTemplate> mongoTemplate;
+  private final SlowQueryBuffer buffer;
+  private final SimpleAsyncTaskExecutor executor;
+  private final int maxInFlight;
+  private final long timeoutMillis;
+  private final AtomicInteger inFlight = new AtomicInteger();
+
+  public SlowQueryExplainer(
+    ObjectProvider<MongoTemplate> mongoTemplate,
+    SlowQueryBuffer buffer,
+    SlowQueryProperties properties,
+    SimpleAsyncTaskExecutorBuilder executorBuilder
+  ) {
+    this.mongoTemplate = mongoTemplate;
+    this.buffer = buffer;
+    this.executor = executorBuilder.threadNamePrefix("slow-query-explain-").build();
+    this.maxInFlight = properties.maxExplainsInFlight();
+    this.timeoutMillis = properties.explainTimeout().toMillis();
+  }
+
+  /**
+   * Schedule an explain whose result is attached to a buffered slow query
+   * @param sequence buffer entry to attach the result to
+   * @param database database the command ran against
+   * @param command copy of the command document
+   * @return false if every explain slot was busy
+   */
+  public boolean submit(long sequence, String database, BsonDocument command) {
+    if (inFlight.incrementAndGet() > maxInFlight) {
+      inFlight.decrementAndGet();
+      return false;
+    }
+    executor.execute(() -> {
+      try {
+        buffer.attachExplain(sequence, explain(database, command));
+      } finally {
+        inFlight.decrementAndGet();
+      }
+    });
+    return true;
+  }
+
+  /**
+   * Wrap a command into an explain command
+   * @param command command document as sent by the driver
+   * @param timeoutMillis server-side time limit of the explain
+   * @return explain command, the first statement only for batched update and delete
+   */
+  static BsonDocument explainCommand(BsonDocument command, long timeoutMillis) {
+    BsonDocument explained = new BsonDocument();
+    for (var entry : command.entrySet()) {
+      if (GENERIC_FIELDS.contains(entry.getKey())) {
+        continue;
+      }
+      BsonValue value = entry.getValue();
+      if (("updates".equals(entry.getKey()) || "deletes".equals(entry.getKey()))
+        && value.isArray() && value.asArray().size() > 1) {
+        value = new BsonArray(List.of(value.asArray().get(0)));
+      }
+      explained.append(entry.getKey(), value);
+    }
+    return new BsonDocument("explain", explained)
+      .append("verbosity", new BsonString("executionStats"))
+      .append("maxTimeMS", new BsonInt64(timeoutMillis));
+  }
+
+  /**
+   * Keep the winning plan stages and execution counters of an explain result.
+   * Aggregations nest the query plan under their first stage, so both are looked up recursively.
+   */
+  static ExplainSummary summarize(Document result) {
+    List<String> stages = new ArrayList<>();
+    Set<String> indexes = new LinkedHashSet<>();
+    Document planner = find(result, "queryPlanner");
+    if (planner != null) {
+      collectStages(planner.get("winningPlan", Document.class), stages, indexes);
+    }
+    Document stats = find(result, "executionStats");
+    return new ExplainSummary(stages, List.copyOf(indexes),
+      number(stats, "nReturned"), number(stats, "totalKeysExamined"),
+      number(stats, "totalDocsExamined"), number(stats, "executionTimeMillis"), null);
+  }
+
+  // =========================================================================
+  // Private helper methods
+  // =========================================================================
+
+  private ExplainSummary explain(String database, BsonDocument command) {
+    try {
+      Document result = mongoTemplate.getObject()
+        .getMongoDatabaseFactory()
+        .getMongoDatabase(database)
+        .runCommand(explainCommand(command, timeoutMillis));
+      return summarize(result);
+    } catch (RuntimeException e) {
+      log.debug("Explain of slow {} failed: {}", command.getFirstKey(), e.getMessage());
+      return ExplainSummary.failed(e.getMessage());
+    }
+  }
+
+  private static Document find(Object node, String key) {
+    if (node instanceof Document document) {
+      if (document.get(key) instanceof Document found) {
+        return found;
+      }
+      for (Object child : document.values()) {
+        Document found = find(child, key);
+        if (found != null) {
+          return found;
+        }
+      }
+    } else if (node instanceof List<?> list) {
+      for (Object child : list) {
+        Document found = find(child, key);
+        if (found != null) {
+          return found;
+        }
+      }
+    }
+    return null;
+  }
+
+  private static void collectStages(Document plan, List<String> stages, Set<String> indexes) {
+    if (plan == null) {
+      return;
+    }
+    Document stage = plan.get("queryPlan", Document.class) != null ? plan.get("queryPlan", Document.class) : plan;
+    if (stage.getString("stage") != null) {
+      stages.add(stage.getString("stage"));
+    }
+    if (stage.getString("indexName") != null) {
+      indexes.add(stage.getString("indexName"));
+    }
+    collectStages(stage.get("inputStage", Document.class), stages, indexes);
+    if (stage.get("inputStages") instanceof List<?> children) {
+      for (Object child : children) {
+        if (child instanceof Document document) {
+          collectStages(document, stages, indexes);
+        }
+      }
+    }
+  }
+
+  private static long number(Document document, String key) {
+    return document != null && document.get(key) instanceof Number value ? value.longValue() : 0;
+  }
+}
@@ -0,0 +1,267 @@
+package com.logistics.parcelandcarrier.monitoring;
+
+import com.mongodb.event.CommandEvent;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mongo command listener reporting commands slower than a threshold.
+ * A slow command is logged with its redacted shape, the repository method and HTTP route that
+ * issued it, counted ({@code mongodb.driver.commands.slow}) and kept in the {@link SlowQueryBuffer};
+ * a sampled subset is explained asynchronously, and reported with its shape. The sample is drawn
+ * when the command starts: its document lives in a pooled buffer released once sent, so the copy
+ * behind the shape and the explain is taken for sampled explainable commands only, and every other
+ * command costs a map entry.
+ * The sync driver fires events on the calling thread, which is what makes the route and the
+ * stack available; commands from the reactive client are reported without them.
+ */
+@Slf4j
+public class SlowQueryListener implements CommandListener {
+
+  static final String METRIC_NAME = "mongodb.driver.commands.slow";
+
+  private static final String APPLICATION_PACKAGE = "com.logistics.parcelandcarrier.";
+  private static final String REPOSITORY_PACKAGE = APPLICATION_PACKAGE + "repository.";
+  private static final String MONITORING_PACKAGE = APPLICATION_PACKAGE + "monitoring.";
+  private static final int MAX_SHAPE_LENGTH = 1000;
+  private static final BsonString REDACTED = new BsonString("?");
+
+  /** Command fields holding user data, replaced by their shape */
+  private static final Set<String> DATA_FIELDS = Set.of(
+    "filter", "query", "q", "u", "update", "pipeline");
+  /** Driver fields with no diagnostic value */
+  private static final Set<String> NOISE_FIELDS = Set.of(
+    "$db", "lsid", "$clusterTime", "txnNumber", "$readPreference", "apiVersion", "apiStrict", "apiDeprecationErrors");
+
+  private static final StackWalker STACK_WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+  private final long thresholdNanos;
+  private final double explainSampleRate;
+  private final SlowQueryBuffer buffer;
+  private final SlowQueryExplainer explainer;
+  private final MeterRegistry meterRegistry;
+  private final Map<Integer, Started> startedByRequestId = new ConcurrentHashMap<>();
+
+  public SlowQueryListener(
+    SlowQueryProperties properties,
+    SlowQueryBuffer buffer,
+    SlowQueryExplainer explainer,
+    MeterRegistry meterRegistry
+  ) {
+    this.thresholdNanos = properties.threshold().toNanos();
+    this.explainSampleRate = properties.explainSampleRate();
+    this.buffer = buffer;
+    this.explainer = explainer;
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public void commandStarted(CommandStartedEvent event) {
+    String commandName = event.getCommandName();
+    if ("explain".equals(commandName)) {
+      return;
+    }
+    // The event's document is backed by a pooled buffer released after this call, hence the copy
+    boolean sampled = SlowQueryExplainer.EXPLAINABLE.contains(commandName)
+      && ThreadLocalRandom.current().nextDouble() < explainSampleRate;
+    BsonDocument command = sampled ? event.getCommand().clone() : null;
+    startedByRequestId.put(event.getRequestId(), new Started(collectionName(commandName, event.getCommand()), command));
+  }
+
+  @Override
+  public void commandSucceeded(CommandSucceededEvent event) {
+    complete(event, event.getElapsedTime(TimeUnit.NANOSECONDS), null);
+  }
+
+  @Override
+  public void commandFailed(CommandFailedEvent event) {
+    complete(event, event.getElapsedTime(TimeUnit.NANOSECONDS), event.getThrowable().getMessage());
+  }
+
+  /**
+   * Redacted command: literal values under data fields become {@code ?} (arrays of literals
+   * collapse to one), inserted documents are counted, and driver session fields are dropped.
+   * Operators and field names are kept, which is what identifies the query and its index.
+   */
+  static String shape(BsonDocument command) {
+    String json = shape(command, command.isEmpty() ? null : command.getFirstKey()).toJson();
+    return json.length() > MAX_SHAPE_LENGTH ? json.substring(0, MAX_SHAPE_LENGTH) + "..." : json;
+  }
+
+  // =========================================================================
+  // Private helper methods
+  // =========================================================================
+
+  private void complete(CommandEvent event, long elapsedNanos, String error) {
+    Started started = startedByRequestId.remove(event.getRequestId());
+    if (started == null || elapsedNanos < thresholdNanos) {
+      return;
+    }
+
+    String commandName = event.getCommandName();
+    String collection = started.collection() != null ? started.collection() : "unknown";
+    Origin origin = origin();
+    String route = route();
+    String shape = started.command() != null ? shape(started.command()) : null;
+    boolean sampled = started.command() != null;
+    long durationMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+
+    SlowQuery entry = buffer.add(sequence -> new SlowQuery(sequence, Instant.now(), commandName, collection,
+      durationMillis, error, route, origin.repositoryMethod(), origin.caller(), shape, sampled, null));
+    if (sampled && !explainer.submit(entry.sequence(), event.getDatabaseName(), started.command())) {
+      log.debug("Explain of slow {} on {} skipped, all explain slots busy", commandName, collection);
+    }
+
+    Counter.builder(METRIC_NAME)
+      .description("Mongo commands slower than mongo.slow-queries.threshold")
+      .tag("command", commandName)
+      .tag("collection", collection)
+      .register(meterRegistry)
+      .increment();
+    log.warn("Slow Mongo {} on {}: {} ms{} [route={}, repository={}, caller={}] {}",
+      commandName, collection, durationMillis, error != null ? " (failed: " + error + ")" : "",
+      route, origin.repositoryMethod(), origin.caller(), shape != null ? shape : "");
+  }
+
+  /**
+   * @param commandName first key of a command, which names it and its collection ({ update: "packages" });
+   *                    null for the statements of a batched update or delete
+   */
+  private static BsonDocument shape(BsonDocument document, String commandName) {
+    BsonDocument shape = new BsonDocument();
+    for (var entry : document.entrySet()) {
+      String key = entry.getKey();
+      BsonValue value = entry.getValue();
+      if (NOISE_FIELDS.contains(key)) {
+        continue;
+      }
+      if ("documents".equals(key) && value.isArray()) {
+        shape.append(key, new BsonString(value.asArray().size() + " documents"));
+      } else if (("updates".equals(key) || "deletes".equals(key)) && value.isArray()) {
+        BsonArray statements = new BsonArray();
+        for (BsonValue statement : value.asArray()) {
+          statements.add(statement.isDocument() ? shape(statement.asDocument(), null) : REDACTED);
+        }
+        shape.append(key, statements);
+      } else {
+        shape.append(key, DATA_FIELDS.contains(key) && !key.equals(commandName) ? redact(value) : value);
+      }
+    }
+    return shape;
+  }
+
+  private static BsonValue redact(BsonValue value) {
+    if (value.isDocument()) {
+      BsonDocument redacted = new BsonDocument();
+      value.asDocument().forEach((key, child) -> redacted.append(key, redact(child)));
+      return redacted;
+    }
+    if (value.isArray()) {
+      BsonArray redacted = new BsonArray();
+      boolean literals = true;
+      for (BsonValue child : value.asArray()) {
+        literals &= !child.isDocument() && !child.isArray();
+        redacted.add(redact(child));
+      }
+      return literals && !redacted.isEmpty() ? new BsonArray(List.of(REDACTED)) : redacted;
+    }
+    // "$field" strings in pipelines and pipeline updates are field paths, not values
+    return value.isString() && value.asString().getValue().startsWith("$") ? value : REDACTED;
+  }
+
+  private static String collectionName(String commandName, BsonDocument command) {
+    BsonValue value = "getMore".equals(commandName) ? command.get("collection") : command.get(commandName);
+    return value != null && value.isString() ? value.asString().getValue() : null;
+  }
+
+  /**
+   * HTTP method and route pattern of the current request, if the command was issued by one
+   */
+  private static String route() {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+      return null;
+    }
+    HttpServletRequest request = servletAttributes.getRequest();
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+  }
+
+  /**
+   * Repository method and first application caller outside the repositories, from the stack.
+   * Derived query methods run on a JDK proxy of the repository interface, custom fragments in
+   * classes of the repository package.
+   */
+  private static Origin origin() {
+    return STACK_WALKER.walk(frames -> {
+      String repositoryMethod = null;
+      for (StackWalker.StackFrame frame : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+        Class<?> type = frame.getDeclaringClass();
+        if (Proxy.isProxyClass(type)) {
+          for (Class<?> contract : type.getInterfaces()) {
+            if (repositoryMethod == null && contract.getName().startsWith(REPOSITORY_PACKAGE)) {
+              repositoryMethod = contract.getSimpleName() + "." + methodName(frame);
+            }
+          }
+        } else if (type.getName().startsWith(REPOSITORY_PACKAGE)) {
+          if (repositoryMethod == null) {
+            repositoryMethod = type.getSimpleName() + "." + methodName(frame);
+          }
+        } else if (type.getName().startsWith(APPLICATION_PACKAGE) && !type.getName().startsWith(MONITORING_PACKAGE)) {
+          return new Origin(repositoryMethod, userClassName(type) + "." + methodName(frame) + ":" + frame.getLineNumber());
+        }
+      }
+      return new Origin(repositoryMethod, null);
+    });
+  }
+
+  /**
+   * Enclosing method of a lambda frame ({@code lambda$findWithFilter$0} is findWithFilter)
+   */
+  private static String methodName(StackWalker.StackFrame frame) {
+    String name = frame.getMethodName();
+    if (!name.startsWith("lambda$")) {
+      return name;
+    }
+    int end = name.indexOf('$', "lambda$".length());
+    return end > 0 ? name.substring("lambda$".length(), end) : name;
+  }
+
+  private static String userClassName(Class<?> type) {
+    String name = type.getSimpleName();
+    int proxySuffix = name.indexOf("$$");
+    return proxySuffix > 0 ? name.substring(0, proxySuffix) : name;
+  }
+
+  /**
+   * @param command copy of a sampled command, null otherwise
+   */
+  private record Started(String collection, BsonDocument command) {
+  }
+
+  private record Origin(String repositoryMethod, String caller) {
+  }
+}
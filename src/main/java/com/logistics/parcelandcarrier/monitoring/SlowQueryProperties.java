@@ -0,0 +1,26 @@
+package com.logistics.parcelandcarrier.monitoring;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Slow Mongo command detection settings ({@code mongo.slow-queries.*})
+ * @param enabled register the slow-command listener on the Mongo clients
+ * @param threshold commands taking at least this long are logged and buffered
+ * @param explainSampleRate fraction of slow queries whose plan is captured with explain("executionStats")
+ * @param maxExplainsInFlight concurrent explains; further samples are skipped rather than queued
+ * @param explainTimeout server-side time limit of an explain
+ * @param bufferSize slow queries kept for the actuator endpoint (oldest are overwritten)
+ */
+@ConfigurationProperties("mongo.slow-queries")
+public record SlowQueryProperties(
+  @DefaultValue("true") boolean enabled,
+  @DefaultValue("200ms") Duration threshold,
+  @DefaultValue("0.1") double explainSampleRate,
+  @DefaultValue("2") int maxExplainsInFlight,
+  @DefaultValue("5s") Duration explainTimeout,
+  @DefaultValue("100") int bufferSize
+) {
+}
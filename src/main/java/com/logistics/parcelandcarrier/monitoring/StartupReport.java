@@ -0,0 +1,83 @@
+package com.logistics.parcelandcarrier.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Logs where startup time went once the application is ready.
+ * Reads the steps recorded by {@link BufferingApplicationStartup} (set in the main class) and
+ * reports the slowest ones by self time, i.e. minus the time of their nested steps, so that a
+ * slow bean is not hidden behind the context refresh that contains it. The full timeline stays
+ * available at {@code /actuator/startup}.
+ */
+@Slf4j
+@Component
+public class StartupReport {
+
+  private final int topSteps;
+
+  public StartupReport(@Value("${startup.report.top-steps:10}") int topSteps) {
+    this.topSteps = topSteps;
+  }
+
+  @EventListener
+  public void onReady(ApplicationReadyEvent event) {
+    if (!(event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup)) {
+      return;
+    }
+    List<StepTime> slowest = selfTimes(startup.getBufferedTimeline().getEvents()).stream()
+      .sorted(Comparator.comparing(StepTime::selfTime).reversed())
+      .limit(topSteps)
+      .toList();
+    log.info("Ready in {} ms; slowest startup steps: {}", event.getTimeTaken().toMillis(),
+      slowest.stream().map(StepTime::toString).collect(Collectors.joining(", ")));
+  }
+
+  /**
+   * Duration of each step minus the duration of its direct children
+   */
+  static List<StepTime> selfTimes(List<StartupTimeline.TimelineEvent> events) {
+    Map<Long, Duration> childTime = new HashMap<>();
+    for (StartupTimeline.TimelineEvent event : events) {
+      Long parentId = event.getStartupStep().getParentId();
+      if (parentId != null) {
+        childTime.merge(parentId, event.getDuration(), Duration::plus);
+      }
+    }
+    return events.stream()
+      .map(event -> new StepTime(describe(event.getStartupStep()),
+        event.getDuration().minus(childTime.getOrDefault(event.getStartupStep().getId(), Duration.ZERO))))
+      .toList();
+  }
+
+  private static String describe(StartupStep step) {
+    StringBuilder description = new StringBuilder(step.getName());
+    for (StartupStep.Tag tag : step.getTags()) {
+      if ("beanName".equals(tag.getKey())) {
+        description.append('[').append(tag.getValue()).append(']');
+      }
+    }
+    return description.toString();
+  }
+
+  record StepTime(String step, Duration selfTime) {
+
+    @Override
+    public String toString() {
+      return step + " " + selfTime.toMillis() + " ms";
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package com.logistics.parcelandcarrier.outbox;
+
+import com.logistics.parcelandcarrier.dto.response.PackageResponse;
+import com.logistics.parcelandcarrier.entity.OutboxEvent;
+import com.logistics.parcelandcarrier.entity.Package;
+import com.logistics.parcelandcarrier.enums.OutboxEventType;
+import com.logistics.parcelandcarrier.enums.OutboxStatus;
+import com.logistics.parcelandcarrier.mapper.PackageMapper;
+import com.logistics.parcelandcarrier.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Records package changes in the outbox, one event per interested subscriber.
+ * Called right after the package is saved. Without a Mongo transaction manager the two writes
+ * are not atomic: a failed outbox insert is logged and counted, and the package change stands.
+ */
+@Slf4j
+@Component
+public class OutboxWriter {
+
+  private final OutboxEventRepository outboxEventRepository;
+  private final PackageMapper packageMapper;
+  private final WebhookProperties properties;
+  private final Counter writeFailures;
+
+  public OutboxWriter(
+    OutboxEventRepository outboxEventRepository,
+    PackageMapper packageMapper,
+    WebhookProperties properties,
+    MeterRegistry meterRegistry
+  ) {
+    this.outboxEventRepository = outboxEventRepository;
+    this.packageMapper = packageMapper;
+    this.properties = properties;
+    this.writeFailures = Counter.builder("webhooks.outbox.write.failures")
+      .description("Package changes whose outbox events could not be written")
+      .register(meterRegistry);
+  }
+
+  /**
+   * Record a change of one package
+   * @param type what happened
+   * @param pkg the package after the change
+   */
+  public void record(OutboxEventType type, Package pkg) {
+    record(type, List.of(pkg));
+  }
+
+  /**
+   * Record the same change on several packages with a single insert
+   * @param type what happened
+   * @param packages the packages after the change
+   */
+  public void record(OutboxEventType type, List<Package> packages) {
+    if (!properties.enabled() || packages.isEmpty()) {
+      return;
+    }
+    List<WebhookProperties.Subscriber> targets = properties.subscribers().stream()
+      .filter(subscriber -> subscriber.accepts(type))
+      .toList();
+    if (targets.isEmpty()) {
+      return;
+    }
+
+    LocalDateTime now = LocalDateTime.now();
+    List<OutboxEvent> events = packages.stream()
+      .flatMap(pkg -> {
+        PackageResponse payload = packageMapper.toResponse(pkg);
+        return targets.stream().map(subscriber -> OutboxEvent.builder()
+          .subscriber(subscriber.name())
+          .type(type)
+          .packageId(pkg.getId())
+          .payload(payload)
+          .status(OutboxStatus.PENDING)
+          .nextAttemptAt(now)
+          .createdAt(now)
+          .build());
+      })
+      .toList();
+
+    try {
+      outboxEventRepository.insert(events);
+    } catch (DataAccessException e) {
+      writeFailures.increment();
+      log.error("Failed to write {} outbox events for {} package(s): {}", type, packages.size(), e.getMessage());
+    }
+  }
+}
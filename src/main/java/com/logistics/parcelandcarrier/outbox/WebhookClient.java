@@ -0,0 +1,89 @@
+package com.logistics.parcelandcarrier.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.http.client.ClientHttpRequestFactoryBuilder;
+import org.springframework.boot.http.client.ClientHttpRequestFactorySettings;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.HexFormat;
+
+/**
+ * Sends webhook batches.
+ * The body is serialized once so that the signature covers the exact bytes sent.
+ */
+@Component
+public class WebhookClient {
+
+  public static final String SIGNATURE_HEADER = "X-Webhook-Signature";
+  private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+  private final RestClient restClient;
+  private final ObjectMapper objectMapper;
+
+  public WebhookClient(RestClient.Builder restClientBuilder, ObjectMapper objectMapper, WebhookProperties properties) {
+    ClientHttpRequestFactorySettings settings = ClientHttpRequestFactorySettings.defaults()
+      .withConnectTimeout(properties.timeout())
+      .withReadTimeout(properties.timeout());
+    this.restClient = restClientBuilder
+      .requestFactory(ClientHttpRequestFactoryBuilder.jdk().build(settings))
+      .build();
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * POST a batch to a subscriber
+   * @param subscriber target endpoint
+   * @param payload batch body
+   * @throws org.springframework.web.client.RestClientException on I/O errors and non-2xx responses
+   */
+  public void send(WebhookProperties.Subscriber subscriber, WebhookPayload payload) {
+    byte[] body = serialize(payload);
+
+    restClient.post()
+      .uri(subscriber.url())
+      .contentType(MediaType.APPLICATION_JSON)
+      .headers(headers -> {
+        if (subscriber.secret() != null && !subscriber.secret().isEmpty()) {
+          headers.set(SIGNATURE_HEADER, "sha256=" + sign(subscriber.secret(), body));
+        }
+      })
+      .body(body)
+      .retrieve()
+      .toBodilessEntity();
+  }
+
+  /**
+   * HMAC-SHA256 of a body, hex encoded
+   * @param secret subscriber secret
+   * @param body request body
+   * @return signature
+   */
+  static String sign(String secret, byte[] body) {
+    try {
+      Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+      mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+      return HexFormat.of().formatHex(mac.doFinal(body));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("HmacSHA256 unavailable", e);
+    }
+  }
+
+  // =========================================================================
+  // Private helper methods
+  // =========================================================================
+
+  private byte[] serialize(WebhookPayload payload) {
+    try {
+      return objectMapper.writeValueAsBytes(payload);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Cannot serialize webhook payload", e);
+    }
+  }
+}
@@ -0,0 +1,218 @@
+package com.logistics.parcelandcarrier.outbox;
+
+import com.logistics.parcelandcarrier.entity.OutboxEvent;
+import com.logistics.parcelandcarrier.enums.OutboxStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Delivers outbox events to the webhook subscribers, at least once.
+ * Each poll drains every idle subscriber on its own task: due events are claimed in batches
+ * (a lease stored on the records, so several nodes can run the dispatcher), POSTed together, then
+ * marked DELIVERED or rescheduled with exponential backoff. A node that dies mid-batch leaves the
+ * lease to expire and another poll resends the batch. The executor's concurrency limit bounds the
+ * POSTs in flight.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "webhooks.enabled", havingValue = "true")
+public class WebhookDispatcher {
+
+  private static final int MAX_ERROR_LENGTH = 500;
+
+  private final MongoTemplate mongoTemplate;
+  private final WebhookClient webhookClient;
+  private final WebhookProperties properties;
+  private final MeterRegistry meterRegistry;
+  private final SimpleAsyncTaskExecutor executor;
+  private final Set<String> draining = ConcurrentHashMap.newKeySet();
+
+  public WebhookDispatcher(
+    MongoTemplate mongoTemplate,
+    WebhookClient webhookClient,
+    WebhookProperties properties,
+    MeterRegistry meterRegistry,
+    SimpleAsyncTaskExecutorBuilder executorBuilder
+  ) {
+    this.mongoTemplate = mongoTemplate;
+    this.webhookClient = webhookClient;
+    this.properties = properties;
+    this.meterRegistry = meterRegistry;
+    this.executor = executorBuilder
+      .threadNamePrefix("webhook-")
+      .concurrencyLimit(properties.maxInFlight())
+      .build();
+  }
+
+  /**
+   * Start a drain for every subscriber that is not already being drained
+   */
+  @Scheduled(fixedDelayString = "${webhooks.poll-interval:1s}")
+  public void poll() {
+    for (WebhookProperties.Subscriber subscriber : properties.subscribers()) {
+      if (draining.add(subscriber.name())) {
+        executor.execute(() -> {
+          try {
+            drain(subscriber);
+          } finally {
+            draining.remove(subscriber.name());
+          }
+        });
+      }
+    }
+  }
+
+  /**
+   * Retry delay after a failed attempt: doubles per attempt up to the maximum,
+   * with jitter in [delay/2, delay] so that failed subscribers are not retried in lockstep
+   * @param attempts attempts made so far (at least 1)
+   * @param initial delay after the first attempt
+   * @param max upper bound
+   * @return delay before the next attempt
+   */
+  static Duration backoff(int attempts, Duration initial, Duration max) {
+    long exponent = Math.min(attempts - 1, 30);
+    long delayMillis = Math.min(initial.toMillis() << exponent, max.toMillis());
+    long jitter = ThreadLocalRandom.current().nextLong(delayMillis / 2 + 1);
+    return Duration.ofMillis(delayMillis - jitter);
+  }
+
+  // =========================================================================
+  // Private helper methods
+  // =========================================================================
+
+  private void drain(WebhookProperties.Subscriber subscriber) {
+    try {
+      List<OutboxEvent> batch;
+      do {
+        batch = claimBatch(subscriber.name());
+        if (!batch.isEmpty()) {
+          deliver(subscriber, batch);
+        }
+      } while (batch.size() == properties.batchSize());
+    } catch (DataAccessException e) {
+      // Claimed records are picked up again once their lease expires
+      log.warn("Webhook dispatch for {} interrupted: {}", subscriber.name(), e.getMessage());
+    }
+  }
+
+  /**
+   * Claim up to batch-size due events: select ids, lease them to a batch token, read them back
+   */
+  private List<OutboxEvent> claimBatch(String subscriber) {
+    LocalDateTime now = LocalDateTime.now();
+    Criteria unclaimed = new Criteria().orOperator(
+      Criteria.where("claimedUntil").is(null),
+      Criteria.where("claimedUntil").lt(now)
+    );
+
+    Query due = new Query(Criteria.where("subscriber").is(subscriber)
+      .and("status").is(OutboxStatus.PENDING)
+      .and("nextAttemptAt").lte(now)
+      .andOperator(unclaimed))
+      .with(Sort.by("nextAttemptAt"))
+      .limit(properties.batchSize());
+    due.fields().include("id");
+    List<String> ids = mongoTemplate.find(due, OutboxEvent.class).stream().map(OutboxEvent::getId).toList();
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+
+    String claim = UUID.randomUUID().toString();
+    mongoTemplate.updateMulti(
+      new Query(Criteria.where("id").in(ids).and("status").is(OutboxStatus.PENDING).andOperator(unclaimed)),
+      new Update().set("claim", claim).set("claimedUntil", now.plus(properties.claimLease())),
+      OutboxEvent.class
+    );
+    return mongoTemplate.find(
+      new Query(Criteria.where("claim").is(claim)).with(Sort.by("createdAt", "id")),
+      OutboxEvent.class
+    );
+  }
+
+  private void deliver(WebhookProperties.Subscriber subscriber, List<OutboxEvent> batch) {
+    try {
+      webhookClient.send(subscriber, WebhookPayload.of(subscriber.name(), batch));
+    } catch (RuntimeException e) {
+      reschedule(subscriber.name(), batch, e);
+      return;
+    }
+
+    mongoTemplate.updateMulti(
+      new Query(Criteria.where("claim").is(batch.get(0).getClaim())),
+      new Update()
+        .set("status", OutboxStatus.DELIVERED)
+        .set("deliveredAt", LocalDateTime.now())
+        .inc("attempts", 1)
+        .unset("claim")
+        .unset("claimedUntil")
+        .unset("lastError"),
+      OutboxEvent.class
+    );
+    count(subscriber.name(), "delivered", batch.size());
+  }
+
+  /**
+   * Record the failed attempt on every event of the batch with a single bulk write
+   */
+  private void reschedule(String subscriber, List<OutboxEvent> batch, RuntimeException error) {
+    String message = truncate(error.getMessage());
+    LocalDateTime now = LocalDateTime.now();
+    BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OutboxEvent.class);
+    int dead = 0;
+
+    for (OutboxEvent event : batch) {
+      int attempts = event.getAttempts() + 1;
+      Update update = new Update()
+        .set("attempts", attempts)
+        .set("lastError", message)
+        .unset("claim")
+        .unset("claimedUntil");
+      if (attempts >= properties.maxAttempts()) {
+        update.set("status", OutboxStatus.DEAD);
+        dead++;
+      } else {
+        update.set("nextAttemptAt", now.plus(backoff(attempts, properties.initialBackoff(), properties.maxBackoff())));
+      }
+      bulk.updateOne(new Query(Criteria.where("id").is(event.getId()).and("claim").is(event.getClaim())), update);
+    }
+    bulk.execute();
+
+    count(subscriber, "retried", batch.size() - dead);
+    count(subscriber, "dead", dead);
+    log.warn("Webhook delivery of {} events to {} failed ({} dead): {}", batch.size(), subscriber, dead, message);
+  }
+
+  private void count(String subscriber, String result, int events) {
+    if (events > 0) {
+      meterRegistry.counter("webhooks.deliveries", "subscriber", subscriber, "result", result).increment(events);
+    }
+  }
+
+  private static String truncate(String message) {
+    if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+      return message;
+    }
+    return message.substring(0, MAX_ERROR_LENGTH);
+  }
+}
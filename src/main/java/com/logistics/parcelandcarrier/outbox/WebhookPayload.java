@@ -0,0 +1,39 @@
+package com.logistics.parcelandcarrier.outbox;
+
+import com.logistics.parcelandcarrier.dto.response.PackageResponse;
+import com.logistics.parcelandcarrier.entity.OutboxEvent;
+import com.logistics.parcelandcarrier.enums.OutboxEventType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Body of a webhook POST
+ * Delivery is at-least-once: subscribers should skip event ids they have already processed
+ * @param subscriber receiving subscriber
+ * @param events batch of events, oldest first
+ */
+public record WebhookPayload(String subscriber, List<Event> events) {
+
+  /**
+   * Build the body of a batch
+   * @param subscriber receiving subscriber
+   * @param batch outbox events of that subscriber
+   * @return webhook body
+   */
+  public static WebhookPayload of(String subscriber, List<OutboxEvent> batch) {
+    return new WebhookPayload(subscriber, batch.stream()
+      .map(event -> new Event(event.getId(), event.getType(), event.getCreatedAt(), event.getPayload()))
+      .toList());
+  }
+
+  /**
+   * One package event
+   * @param id stable across retries
+   * @param type what happened
+   * @param occurredAt when it happened
+   * @param data package after the change
+   */
+  public record Event(String id, OutboxEventType type, LocalDateTime occurredAt, PackageResponse data) {
+  }
+}
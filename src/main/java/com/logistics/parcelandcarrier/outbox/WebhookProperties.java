@@ -0,0 +1,53 @@
+package com.logistics.parcelandcarrier.outbox;
+
+import com.logistics.parcelandcarrier.enums.OutboxEventType;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Webhook delivery settings ({@code webhooks.*})
+ * @param enabled write outbox events and run the dispatcher
+ * @param batchSize maximum events per POST
+ * @param maxInFlight maximum concurrent POSTs across subscribers
+ * @param maxAttempts attempts before an event is marked DEAD
+ * @param initialBackoff delay before the first retry, doubled on each attempt
+ * @param maxBackoff upper bound of the retry delay
+ * @param claimLease how long a claimed batch is reserved for this node before another may take it
+ * @param timeout connect and read timeout of a POST
+ * @param subscribers webhook endpoints
+ */
+@ConfigurationProperties("webhooks")
+public record WebhookProperties(
+  @DefaultValue("false") boolean enabled,
+  @DefaultValue("100") int batchSize,
+  @DefaultValue("4") int maxInFlight,
+  @DefaultValue("10") int maxAttempts,
+  @DefaultValue("1s") Duration initialBackoff,
+  @DefaultValue("10m") Duration maxBackoff,
+  @DefaultValue("1m") Duration claimLease,
+  @DefaultValue("5s") Duration timeout,
+  List<Subscriber> subscribers
+) {
+
+  public WebhookProperties {
+    subscribers = subscribers == null ? List.of() : List.copyOf(subscribers);
+  }
+
+  /**
+   * A webhook endpoint
+   * @param name unique subscriber name, stored on its outbox events
+   * @param url endpoint receiving the POSTs
+   * @param secret HMAC-SHA256 key of the signature header (optional)
+   * @param events event types to deliver; empty means all
+   */
+  public record Subscriber(String name, String url, String secret, Set<OutboxEventType> events) {
+
+    public boolean accepts(OutboxEventType type) {
+      return events == null || events.isEmpty() || events.contains(type);
+    }
+  }
+}
@@ -0,0 +1,28 @@
+package com.logistics.parcelandcarrier.repository;
+
+import com.logistics.parcelandcarrier.entity.ApiKey;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for ApiKey entity operations
+ * Requests are authenticated from the in-memory copy kept by the API key registry, not from here
+ */
+@Repository
+public interface ApiKeyRepository extends MongoRepository<ApiKey, String> {
+
+    /**
+     * Find the keys that authenticate requests
+     * @return active keys
+     */
+    List<ApiKey> findByActiveTrue();
+
+    /**
+     * Find the active keys acting for a user
+     * @param userId user ID
+     * @return active keys of the user
+     */
+    List<ApiKey> findByUserIdAndActiveTrue(String userId);
+}
@@ -0,0 +1,13 @@
+package com.logistics.parcelandcarrier.repository;
+
+import com.logistics.parcelandcarrier.entity.OutboxEvent;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for OutboxEvent entity operations
+ * Batch claiming and delivery updates are done by the dispatcher through MongoTemplate
+ */
+@Repository
+public interface OutboxEventRepository extends MongoRepository<OutboxEvent, String> {
+}
@@ -0,0 +1,91 @@
+package com.logistics.parcelandcarrier.repository;
+
+import com.logistics.parcelandcarrier.enums.PackageStatus;
+import com.logistics.parcelandcarrier.enums.PackageType;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Optional filters of the package listing; a null field matches every value.
+ * The constructor normalizes the set: an empty status list or blank transporter means no filter,
+ * a transporter implies {@code assigned}, and contradictory or inverted ranges are rejected.
+ * @param statuses any of these statuses
+ * @param type package type
+ * @param transporterId assigned to this transporter
+ * @param assigned assigned to any transporter (true) or to none (false)
+ * @param createdFrom created at or after
+ * @param createdTo created at or before
+ * @param updatedFrom updated at or after
+ * @param updatedTo updated at or before
+ * @param minWeight weight at least
+ * @param maxWeight weight at most
+ * @param includeArchived also list archived packages (true), never (false), or only when a finished
+ *                        status is asked for (null); archived packages are all DELIVERED or CANCELLED
+ */
+@Builder
+public record PackageFilter(
+        Set<PackageStatus> statuses,
+        PackageType type,
+        String transporterId,
+        Boolean assigned,
+        LocalDateTime createdFrom,
+        LocalDateTime createdTo,
+        LocalDateTime updatedFrom,
+        LocalDateTime updatedTo,
+        Double minWeight,
+        Double maxWeight,
+        Boolean includeArchived
+) {
+
+    /** Deepest position (offset + size) a listing reading the archive may reach */
+    public static final int MAX_ARCHIVE_DEPTH = 10_000;
+
+    public PackageFilter {
+        statuses = statuses == null || statuses.isEmpty()
+                ? null
+                : Collections.unmodifiableSet(EnumSet.copyOf(statuses));
+        if (transporterId != null && transporterId.isBlank()) {
+            transporterId = null;
+        }
+        if (transporterId != null) {
+            if (Boolean.FALSE.equals(assigned)) {
+                throw new IllegalArgumentException("A transporter filter cannot be combined with assigned=false");
+            }
+            assigned = null;
+        }
+        if (createdFrom != null && createdTo != null && createdFrom.isAfter(createdTo)) {
+            throw new IllegalArgumentException("createdFrom must not be after createdTo");
+        }
+        if (updatedFrom != null && updatedTo != null && updatedFrom.isAfter(updatedTo)) {
+            throw new IllegalArgumentException("updatedFrom must not be after updatedTo");
+        }
+        if (minWeight != null && maxWeight != null && minWeight > maxWeight) {
+            throw new IllegalArgumentException("minWeight must not be greater than maxWeight");
+        }
+    }
+
+    /**
+     * Whether the listing reads the archive too: by default when the filter asks for a finished status,
+     * whose older packages are archived. Without a status filter the archive is left out unless
+     * {@code includeArchived} is true, and a filter on unfinished statuses never reaches it.
+     */
+    public boolean historical() {
+        if (Boolean.FALSE.equals(includeArchived)) {
+            return false;
+        }
+        return statuses == null
+                ? Boolean.TRUE.equals(includeArchived)
+                : statuses.stream().anyMatch(PackageStatus::isFinished);
+    }
+
+    /**
+     * Filter matching every package
+     */
+    public static PackageFilter none() {
+        return builder().build();
+    }
+}
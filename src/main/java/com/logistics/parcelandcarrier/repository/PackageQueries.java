@@ -0,0 +1,193 @@
+package com.logistics.parcelandcarrier.repository;
+
+import com.logistics.parcelandcarrier.enums.PackageStatus;
+import com.logistics.parcelandcarrier.enums.PackageType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Query builder for the filtered package listing.
+ * Each filter set is served by one of two compound indexes, both ending in {@code created_at}:
+ * {transporter_id, status, created_at} when the transporter is constrained by equality, and
+ * {status, type, created_at} otherwise. As in {@link UserQueries}, omitted status and type filters
+ * are bound to all their values, so the leading keys are always point ranges and the default
+ * newest-first sort is a SORT_MERGE rather than an in-memory sort. Predicates are added in index key
+ * order (equality, then the {@code created_at} range, then residual filters), the chosen index is
+ * passed as a hint, and {@code maxTimeMS} bounds any query the indexes cannot serve well (a client
+ * sort on another field, a weight range over most of the collection). Finished packages past the
+ * archival age live in {@value #ARCHIVE_COLLECTION}, which carries the same indexes. A transporter
+ * filter also constrains the routing key, so a sharded cluster sends the query to that transporter's
+ * shard only (see {@link PackageShardKey}).
+ */
+public final class PackageQueries {
+
+    public static final String STATUS_TYPE_CREATED = "status_type_created";
+    public static final String TRANSPORTER_STATUS_CREATED = "transporter_status_created";
+
+    /** Finished packages moved out of {@code packages} by the archiver, same document shape */
+    public static final String ARCHIVE_COLLECTION = "packages_archive";
+
+    /** Statuses a package is archived in */
+    public static final List<PackageStatus> FINISHED = Arrays.stream(PackageStatus.values())
+            .filter(PackageStatus::isFinished)
+            .toList();
+
+    /** Unassigned packages have no transporter, or an empty one */
+    private static final List<String> NO_TRANSPORTER = Arrays.asList(null, "");
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt");
+
+    private PackageQueries() {
+    }
+
+    /**
+     * Build the listing query
+     * @param filter normalized filters
+     * @param pageable page and sort; unsorted pages are newest first
+     * @param maxTime server-side time limit
+     * @param hint whether to pass the chosen index as a hint
+     * @return query with skip/limit, sort and time limit
+     */
+    public static Query listing(PackageFilter filter, Pageable pageable, Duration maxTime, boolean hint) {
+        return listing(filter, pageable, hint).maxTime(maxTime);
+    }
+
+    /**
+     * Build the listing query without a time limit, for the streaming listing whose cursor stays
+     * open as long as the client reads
+     * @param filter normalized filters
+     * @param pageable page and sort; unsorted pages are newest first
+     * @param hint whether to pass the chosen index as a hint
+     * @return query with skip/limit and sort
+     */
+    public static Query listing(PackageFilter filter, Pageable pageable, boolean hint) {
+        Query query = new Query(criteria(filter)).with(pageable);
+        if (pageable.getSort().isUnsorted()) {
+            query.with(NEWEST_FIRST);
+        }
+        if (hint) {
+            query.withHint(indexFor(filter));
+        }
+        return query;
+    }
+
+    /**
+     * Listing predicates, in the key order of the index serving them
+     * @param filter normalized filters
+     * @return criteria on the entity's property names
+     */
+    public static Criteria criteria(PackageFilter filter) {
+        Criteria criteria = TRANSPORTER_STATUS_CREATED.equals(indexFor(filter))
+                ? byTransporter(filter)
+                : byStatus(filter);
+        addResidual(criteria, filter);
+        if (PackageShardKey.targeted(filter)) {
+            criteria.and("routingKey").is(PackageShardKey.forTransporter(filter.transporterId()));
+        }
+        return criteria;
+    }
+
+    /**
+     * Listing order: the client's sort, newest first when unsorted
+     * @param pageable page and sort
+     * @return sort to apply
+     */
+    public static Sort sort(Pageable pageable) {
+        return pageable.getSort().isUnsorted() ? NEWEST_FIRST : pageable.getSort();
+    }
+
+    /**
+     * Finished packages last updated before a cutoff, the archival candidates.
+     * Served by {@value #STATUS_TYPE_CREATED}: a package is created before it is last updated, so the
+     * redundant {@code created_at} bound narrows the index scan and {@code updated_at} is residual.
+     * @param cutoff packages finished before this time
+     * @return criteria on the entity's property names
+     */
+    public static Criteria archivable(LocalDateTime cutoff) {
+        return Criteria.where("status").in(FINISHED)
+                .and("type").in(List.of(PackageType.values()))
+                .and("createdAt").lt(cutoff)
+                .and("updatedAt").lt(cutoff);
+    }
+
+    /**
+     * Name of the index serving a filter set
+     * @param filter normalized filters
+     * @return index name
+     */
+    public static String indexFor(PackageFilter filter) {
+        boolean transporterEquality = filter.transporterId() != null || Boolean.FALSE.equals(filter.assigned());
+        return transporterEquality ? TRANSPORTER_STATUS_CREATED : STATUS_TYPE_CREATED;
+    }
+
+    // =========================================================================
+    // Private helper methods
+    // =========================================================================
+
+    private static Criteria byTransporter(PackageFilter filter) {
+        Criteria criteria = filter.transporterId() != null
+                ? Criteria.where("transporterId").is(filter.transporterId())
+                : Criteria.where("transporterId").in(NO_TRANSPORTER);
+        criteria.and("status").in(statuses(filter));
+        addCreatedRange(criteria, filter);
+        if (filter.type() != null) {
+            criteria.and("type").is(filter.type());
+        }
+        return criteria;
+    }
+
+    private static Criteria byStatus(PackageFilter filter) {
+        Criteria criteria = Criteria.where("status").in(statuses(filter))
+                .and("type").in(filter.type() != null ? List.of(filter.type()) : List.of(PackageType.values()));
+        addCreatedRange(criteria, filter);
+        if (Boolean.TRUE.equals(filter.assigned())) {
+            criteria.and("transporterId").nin(NO_TRANSPORTER);
+        }
+        return criteria;
+    }
+
+    private static void addCreatedRange(Criteria criteria, PackageFilter filter) {
+        addRange(criteria, "createdAt", filter.createdFrom(), filter.createdTo());
+    }
+
+    /**
+     * Filters outside the index keys, applied to the documents the index scan returns
+     */
+    private static void addResidual(Criteria criteria, PackageFilter filter) {
+        addRange(criteria, "updatedAt", filter.updatedFrom(), filter.updatedTo());
+        if (filter.minWeight() != null || filter.maxWeight() != null) {
+            Criteria weight = criteria.and("weight");
+            if (filter.minWeight() != null) {
+                weight.gte(filter.minWeight());
+            }
+            if (filter.maxWeight() != null) {
+                weight.lte(filter.maxWeight());
+            }
+        }
+    }
+
+    private static void addRange(Criteria criteria, String field, LocalDateTime from, LocalDateTime to) {
+        if (from == null && to == null) {
+            return;
+        }
+        Criteria range = criteria.and(field);
+        if (from != null) {
+            range.gte(from);
+        }
+        if (to != null) {
+            range.lte(to);
+        }
+    }
+
+    private static List<PackageStatus> statuses(PackageFilter filter) {
+        return new ArrayList<>(filter.statuses() != null ? filter.statuses() : List.of(PackageStatus.values()));
+    }
+}
@@ -0,0 +1,67 @@
+package com.logistics.parcelandcarrier.repository;
+
+import com.logistics.parcelandcarrier.entity.Package;
+import com.logistics.parcelandcarrier.enums.PackageStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Optional;
+
+/**
+ * Custom listing queries, shard-targeted lookups and partial updates of {@link PackageRepository}
+ */
+public interface PackageRepositoryCustom {
+
+    /**
+     * Find one page of packages matching any combination of filters
+     * @param filter optional filters
+     * @param pageable page and sort; unsorted pages are newest first
+     * @return page of packages
+     * @throws org.springframework.dao.QueryTimeoutException if the query exceeds its time limit
+     */
+    Page<Package> findWithFilter(PackageFilter filter, Pageable pageable);
+
+    /**
+     * Find one page of a transporter's packages
+     * @param transporterId the transporter ID
+     * @param status status filter (optional)
+     * @param pageable pagination information
+     * @return page of packages
+     */
+    Page<Package> findByTransporter(String transporterId, PackageStatus status, Pageable pageable);
+
+    /**
+     * Search packages by destination address (case-insensitive, contains)
+     * @param transporterId restrict to this transporter's packages (optional)
+     * @param address the address to search
+     * @param pageable pagination information
+     * @return page of packages
+     */
+    Page<Package> searchByAddress(String transporterId, String address, Pageable pageable);
+
+    /**
+     * Find a package by id on the shard it is expected on: that of the given transporter's packages,
+     * or that of an unassigned package when no transporter is given. A package found elsewhere is then
+     * looked up on every shard, so the result is the same as {@code findById}.
+     * @param id the package ID
+     * @param transporterId transporter the package is expected to belong to, null if expected unassigned
+     * @return the package, read from the primary
+     */
+    Optional<Package> findRouted(String id, String transporterId);
+
+    /**
+     * Find a package by id in {@code packages}, then in {@value PackageQueries#ARCHIVE_COLLECTION}
+     * @param id the package ID
+     * @return the package, live or archived, read from the primary
+     */
+    Optional<Package> findIncludingArchive(String id);
+
+    /**
+     * Write the fields of a package that changed since it was read (see {@link PartialUpdate}).
+     * The routing key follows the transporter, and the update is sent to the shard the package was on.
+     * @param before the package as read
+     * @param after the same package after the change
+     * @return false if the package no longer exists, or no longer holds the values read for the changed fields
+     */
+    boolean updateChanged(Package before, Package after);
+}
@@ -0,0 +1,233 @@
+package com.logistics.parcelandcarrier.repository;
+
+import com.logistics.parcelandcarrier.config.ReadRouting;
+import com.logistics.parcelandcarrier.entity.Package;
+import com.logistics.parcelandcarrier.enums.PackageStatus;
+import com.mongodb.MongoExecutionTimeoutException;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * MongoTemplate implementation of {@link PackageRepositoryCustom}.
+ * List and search reads are issued through {@link ReadRouting}. Those filtering by transporter carry
+ * its routing key and reach one shard; the others reach every shard and fork their sub-reads through
+ * {@link ScatterGather}, which only admins may do.
+ */
+public class PackageRepositoryImpl implements PackageRepositoryCustom {
+
+    private final ReadRouting readRouting;
+    private final MongoTemplate mongoTemplate;
+    private final ScatterGather scatterGather;
+    private final Duration maxTime;
+    private final boolean hint;
+
+    public PackageRepositoryImpl(
+            ReadRouting readRouting,
+            MongoTemplate mongoTemplate,
+            ScatterGather scatterGather,
+            @Value("${packages.query.max-time:5s}") Duration maxTime,
+            @Value("${packages.query.hint:true}") boolean hint
+    ) {
+        this.readRouting = readRouting;
+        this.mongoTemplate = mongoTemplate;
+        this.scatterGather = scatterGather;
+        this.maxTime = maxTime;
+        this.hint = hint;
+    }
+
+    @Override
+    public Page<Package> findWithFilter(PackageFilter filter, Pageable pageable) {
+        if (filter.historical()) {
+            return findWithArchive(filter, pageable);
+        }
+        Query query = PackageQueries.listing(filter, pageable, maxTime, hint);
+        if (!PackageShardKey.targeted(filter)) {
+            return gather(query, pageable);
+        }
+        List<Package> content = withTimeout(() -> readRouting.listing(ops -> ops.find(query, Package.class)));
+
+        // The count runs only when the page does not reveal the total; it keeps the hint and time limit
+        return PageableExecutionUtils.getPage(content, pageable, () -> withTimeout(() -> readRouting.listing(
+                ops -> ops.count(Query.of(query).skip(-1).limit(-1), Package.class))));
+    }
+
+    @Override
+    public Page<Package> findByTransporter(String transporterId, PackageStatus status, Pageable pageable) {
+        Criteria criteria = Criteria.where("transporterId").is(transporterId)
+                .and("routingKey").is(PackageShardKey.forTransporter(transporterId));
+        if (status != null) {
+            criteria.and("status").is(status);
+        }
+        return page(new Query(criteria), pageable);
+    }
+
+    @Override
+    public Page<Package> searchByAddress(String transporterId, String address, Pageable pageable) {
+        Criteria criteria = transporterId != null
+                ? Criteria.where("transporterId").is(transporterId)
+                        .and("routingKey").is(PackageShardKey.forTransporter(transporterId))
+                : new Criteria();
+        criteria.and("destinationAddress").regex(Pattern.compile(Pattern.quote(address), Pattern.CASE_INSENSITIVE));
+        if (transporterId == null) {
+            return gather(new Query(criteria).with(pageable).maxTime(maxTime), pageable);
+        }
+        return page(new Query(criteria), pageable);
+    }
+
+    @Override
+    public Optional<Package> findRouted(String id, String transporterId) {
+        Package routed = mongoTemplate.findOne(new Query(PackageShardKey.byId(id, transporterId)), Package.class);
+        return routed != null
+                ? Optional.of(routed)
+                : Optional.ofNullable(mongoTemplate.findById(id, Package.class));
+    }
+
+    @Override
+    public Optional<Package> findIncludingArchive(String id) {
+        Package live = mongoTemplate.findById(id, Package.class);
+        return live != null
+                ? Optional.of(live)
+                : Optional.ofNullable(mongoTemplate.findById(id, Package.class, PackageQueries.ARCHIVE_COLLECTION));
+    }
+
+    @Override
+    public boolean updateChanged(Package before, Package after) {
+        after.setRoutingKey(PackageShardKey.of(after));
+        Update update = PartialUpdate.diff(mongoTemplate.getConverter(), before, after);
+        if (PartialUpdate.isEmpty(update)) {
+            return true;
+        }
+        Criteria criteria = PartialUpdate.expect(mongoTemplate.getConverter(), before, update,
+                Criteria.where("id").is(before.getId()));
+        // A moved routing key is already expected at its old value (null matches the documents
+        // written before the key existed, until the backfill)
+        if (!update.modifies("routing_key") && before.getRoutingKey() != null) {
+            criteria.and("routingKey").is(before.getRoutingKey());
+        }
+        return mongoTemplate.updateFirst(new Query(criteria), update, Package.class).getMatchedCount() > 0;
+    }
+
+    /**
+     * Listing over both collections, for filters that reach archived packages.
+     * Each collection returns at most offset + size documents in the listing order, from its own
+     * index, and the two sorted windows are merged and cut to the page; the count adds both
+     * collections. The pages and the count are read in parallel. The archive is not hinted: its
+     * indexes appear with the first archival run.
+     * The windows grow with the page depth, so it is capped at {@value PackageFilter#MAX_ARCHIVE_DEPTH}:
+     * deeper history is reached by narrowing the filters (e.g. the creation dates), not by paging.
+     */
+    private Page<Package> findWithArchive(PackageFilter filter, Pageable pageable) {
+        long depth = pageable.isPaged() ? pageable.getOffset() + pageable.getPageSize() : Long.MAX_VALUE;
+        if (depth > PackageFilter.MAX_ARCHIVE_DEPTH) {
+            throw new IllegalArgumentException("Listings including archived packages reach at most the first "
+                    + PackageFilter.MAX_ARCHIVE_DEPTH + " packages; narrow the filters (e.g. createdFrom/createdTo)");
+        }
+        Pageable window = PageRequest.of(0, (int) depth, pageable.getSort());
+        Query current = PackageQueries.listing(filter, window, maxTime, hint);
+        Query archived = PackageQueries.listing(filter, window, maxTime, false);
+
+        CompletableFuture<List<Package>> currentPage = scatterGather.fork(
+                () -> withTimeout(() -> readRouting.listing(ops -> ops.find(current, Package.class))));
+        CompletableFuture<List<Package>> archivedPage = scatterGather.fork(() -> withTimeout(() -> readRouting.listing(
+                ops -> ops.find(archived, Package.class, PackageQueries.ARCHIVE_COLLECTION))));
+        CompletableFuture<Long> total = scatterGather.fork(() -> withTimeout(() -> readRouting.listing(
+                ops -> ops.count(Query.of(current).skip(-1).limit(-1), Package.class)
+                        + ops.count(Query.of(archived).skip(-1).limit(-1), Package.class,
+                        PackageQueries.ARCHIVE_COLLECTION))));
+
+        List<Package> merged = new ArrayList<>(ScatterGather.join(currentPage));
+        merged.addAll(ScatterGather.join(archivedPage));
+        merged.sort(comparator(PackageQueries.sort(pageable)));
+        List<Package> content = merged.subList((int) Math.min(pageable.getOffset(), merged.size()), merged.size());
+        if (content.size() > pageable.getPageSize()) {
+            content = content.subList(0, pageable.getPageSize());
+        }
+
+        return new PageImpl<>(content, pageable, ScatterGather.join(total));
+    }
+
+    /**
+     * Java counterpart of a listing sort: enums compare by name as Mongo stores them, and missing
+     * values sort first in ascending order
+     */
+    static Comparator<Package> comparator(Sort sort) {
+        Comparator<Package> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<Package> byProperty = Comparator.comparing(
+                    pkg -> sortKey(pkg, order.getProperty()), Comparator.nullsFirst(Comparator.naturalOrder()));
+            comparator = comparator.thenComparing(order.isAscending() ? byProperty : byProperty.reversed());
+        }
+        return comparator;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> sortKey(Package pkg, String property) {
+        Object value;
+        try {
+            value = new BeanWrapperImpl(pkg).getPropertyValue(property);
+        } catch (BeansException e) {
+            throw new IllegalArgumentException("Unknown sort property: " + property, e);
+        }
+        return (Comparable<Object>) (value instanceof Enum<?> constant ? constant.name() : value);
+    }
+
+    /**
+     * One page of a plain query, counted like a derived query; both reads carry the listing time limit
+     */
+    private Page<Package> page(Query query, Pageable pageable) {
+        Query limited = Query.of(query).maxTime(maxTime);
+        List<Package> content = withTimeout(() -> readRouting.listing(
+                ops -> ops.find(Query.of(limited).with(pageable), Package.class)));
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> withTimeout(() -> readRouting.listing(ops -> ops.count(limited, Package.class))));
+    }
+
+    /**
+     * One page of an untargeted query, read in parallel with its count: on a sharded cluster both
+     * wait for the slowest shard, so the count is not saved for the last page as in {@link #page}
+     */
+    private Page<Package> gather(Query query, Pageable pageable) {
+        CompletableFuture<List<Package>> content = scatterGather.fork(
+                () -> withTimeout(() -> readRouting.listing(ops -> ops.find(query, Package.class))));
+        CompletableFuture<Long> total = scatterGather.fork(() -> withTimeout(() -> readRouting.listing(
+                ops -> ops.count(Query.of(query).skip(-1).limit(-1), Package.class))));
+        return new PageImpl<>(ScatterGather.join(content), pageable, ScatterGather.join(total));
+    }
+
+    /**
+     * Surface the server-side time limit as {@link QueryTimeoutException}; the translator reports
+     * it as an uncategorized error
+     */
+    private static <T> T withTimeout(Supplier<T> operation) {
+        try {
+            return operation.get();
+        } catch (DataAccessException e) {
+            if (e.getCause() instanceof MongoExecutionTimeoutException) {
+                throw new QueryTimeoutException("Package query exceeded its time limit; narrow the filters", e);
+            }
+            throw e;
+        }
+    }
+}
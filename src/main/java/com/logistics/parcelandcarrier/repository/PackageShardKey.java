@@ -0,0 +1,84 @@
+package com.logistics.parcelandcarrier.repository;
+
+import com.logistics.parcelandcarrier.entity.Package;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+/**
+ * Shard key of {@code packages} and {@value PackageQueries#ARCHIVE_COLLECTION}:
+ * {@code {routing_key: "hashed", _id: 1}}.
+ * The routing key of an assigned package is its transporter ({@code t:<transporterId>}), so every
+ * transporter query (listing, search, status change) is sent to one shard; an unassigned package is
+ * routed by its own id ({@code p:<packageId>}), which spreads inserts across the shards and keeps the
+ * assignment lookup targeted. {@code _id} lets a busy transporter's range split into several chunks.
+ * The key changes once in a package's life, on assignment, which moves the document to the
+ * transporter's shard. Queries without a transporter (admin listings and searches) reach every
+ * shard and go through {@link ScatterGather}.
+ */
+public final class PackageShardKey {
+
+    /** Name of the index supporting the shard key */
+    public static final String INDEX = "shard_key";
+
+    /** Stored name of the routing key */
+    public static final String FIELD = "routing_key";
+
+    /** Shard key document, as given to {@code shardCollection} */
+    public static final Document KEY = new Document(FIELD, "hashed").append("_id", 1);
+
+    private static final String TRANSPORTER_PREFIX = "t:";
+    private static final String PACKAGE_PREFIX = "p:";
+
+    private PackageShardKey() {
+    }
+
+    /**
+     * Routing key of a package in a given assignment state
+     * @param packageId package ID
+     * @param transporterId assigned transporter, null or empty when unassigned
+     * @return routing key
+     */
+    public static String of(String packageId, String transporterId) {
+        return transporterId != null && !transporterId.isEmpty()
+                ? forTransporter(transporterId)
+                : PACKAGE_PREFIX + packageId;
+    }
+
+    /**
+     * Routing key of a package as it stands
+     * @param pkg package with an id
+     * @return routing key
+     */
+    public static String of(Package pkg) {
+        return of(pkg.getId(), pkg.getTransporterId());
+    }
+
+    /**
+     * Routing key shared by every package of a transporter
+     * @param transporterId transporter ID
+     * @return routing key
+     */
+    public static String forTransporter(String transporterId) {
+        return TRANSPORTER_PREFIX + transporterId;
+    }
+
+    /**
+     * One package, looked up on the single shard it lives on if it is assigned to the given
+     * transporter, or unassigned when no transporter is given
+     * @param packageId package ID
+     * @param transporterId transporter the package is expected to belong to (optional)
+     * @return criteria on the entity's property names
+     */
+    public static Criteria byId(String packageId, String transporterId) {
+        return Criteria.where("id").is(packageId).and("routingKey").is(of(packageId, transporterId));
+    }
+
+    /**
+     * Whether a listing filter is routed to a single shard
+     * @param filter normalized filters
+     * @return true if the filter constrains the transporter by equality
+     */
+    public static boolean targeted(PackageFilter filter) {
+        return filter.transporterId() != null;
+    }
+}
@@ -0,0 +1,24 @@
+package com.logistics.parcelandcarrier.repository;
+
+import com.logistics.parcelandcarrier.entity.Package;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the routing key of a package in line with its transporter on every save and insert,
+ * including repository saves from tests and data loaders. A new package gets its id here, since an
+ * unassigned package is routed by it.
+ */
+@Component
+public class PackageShardKeyCallback implements BeforeConvertCallback<Package> {
+
+    @Override
+    public Package onBeforeConvert(Package entity, String collection) {
+        if (entity.getId() == null) {
+            entity.setId(new ObjectId().toHexString());
+        }
+        entity.setRoutingKey(PackageShardKey.of(entity));
+        return entity;
+    }
+}
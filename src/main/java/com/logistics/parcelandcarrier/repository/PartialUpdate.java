@@ -0,0 +1,81 @@
+package com.logistics.parcelandcarrier.repository;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Update of the fields that differ between two states of an entity.
+ * Both states are converted as they would be stored and compared field by field, so a status
+ * change writes {@code status} and {@code updated_at} only, instead of the whole document that
+ * {@code save} replaces (and logs to the oplog). Fields that became null are unset.
+ * The update is conditional: its filter expects the values read for every field it writes (see
+ * {@link #expect}), so a change made meanwhile, or a stale snapshot, is not silently overwritten.
+ */
+public final class PartialUpdate {
+
+    private PartialUpdate() {
+    }
+
+    /**
+     * @param converter the template's converter
+     * @param before entity as read
+     * @param after the same entity after the change
+     * @return update setting the changed fields, empty if nothing changed
+     */
+    public static Update diff(MongoConverter converter, Object before, Object after) {
+        Document stored = new Document();
+        Document changed = new Document();
+        converter.write(before, stored);
+        converter.write(after, changed);
+
+        Update update = new Update();
+        for (Map.Entry<String, Object> field : changed.entrySet()) {
+            if (!field.getKey().equals("_id") && !Objects.equals(stored.get(field.getKey()), field.getValue())) {
+                update.set(field.getKey(), field.getValue());
+            }
+        }
+        for (String field : stored.keySet()) {
+            if (!changed.containsKey(field)) {
+                update.unset(field);
+            }
+        }
+        return update;
+    }
+
+    /**
+     * Add to a filter the values read for the fields an update writes, as a compare-and-set.
+     * Every mutator moves {@code updated_at}, which then acts as the version of the document.
+     * A field absent when read is expected null, which also matches a missing field.
+     * @param converter the template's converter
+     * @param before entity as read
+     * @param update result of {@link #diff} for that entity
+     * @param criteria filter selecting the document
+     * @return the same criteria
+     */
+    public static Criteria expect(MongoConverter converter, Object before, Update update, Criteria criteria) {
+        Document stored = new Document();
+        converter.write(before, stored);
+
+        Document updateObject = update.getUpdateObject();
+        for (String operator : new String[] {"$set", "$unset"}) {
+            Document fields = updateObject.get(operator, Document.class);
+            if (fields != null) {
+                fields.keySet().forEach(field -> criteria.and(field).is(stored.get(field)));
+            }
+        }
+        return criteria;
+    }
+
+    /**
+     * @param update result of {@link #diff}
+     * @return true if the update writes nothing
+     */
+    public static boolean isEmpty(Update update) {
+        return update.getUpdateObject().isEmpty();
+    }
+}
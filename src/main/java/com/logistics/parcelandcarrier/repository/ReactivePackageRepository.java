@@ -0,0 +1,67 @@
+package com.logistics.parcelandcarrier.repository;
+
+import com.logistics.parcelandcarrier.entity.Package;
+import com.logistics.parcelandcarrier.enums.PackageStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Reactive counterpart of {@link PackageRepository} for the streaming read endpoints.
+ * Results are emitted as they come off the cursor; the pageable only applies skip/limit/sort (no count query).
+ * Transporter streams also take the transporter's routing key ({@link PackageShardKey#forTransporter}),
+ * so they are read from a single shard. The filtered admin stream is a custom query
+ * ({@link ReactivePackageRepositoryCustom}) sharing the paged listing's filters.
+ */
+@Repository
+public interface ReactivePackageRepository extends ReactiveMongoRepository<Package, String>,
+        ReactivePackageRepositoryCustom {
+
+    /**
+     * Stream packages by destination address (case-insensitive, contains)
+     * @param address the address to search
+     * @param pageable pagination information
+     * @return Flux of packages
+     */
+    Flux<Package> findByDestinationAddressContainingIgnoreCase(String address, Pageable pageable);
+
+    /**
+     * Stream packages assigned to a specific transporter
+     * @param transporterId the transporter ID
+     * @param routingKey the transporter's routing key
+     * @param pageable pagination information
+     * @return Flux of packages
+     */
+    Flux<Package> findByTransporterIdAndRoutingKey(String transporterId, String routingKey, Pageable pageable);
+
+    /**
+     * Stream packages by transporter and status
+     * @param transporterId the transporter ID
+     * @param routingKey the transporter's routing key
+     * @param status the package status
+     * @param pageable pagination information
+     * @return Flux of packages
+     */
+    Flux<Package> findByTransporterIdAndRoutingKeyAndStatus(
+            String transporterId,
+            String routingKey,
+            PackageStatus status,
+            Pageable pageable
+    );
+
+    /**
+     * Stream packages by transporter and destination address
+     * @param transporterId the transporter ID
+     * @param routingKey the transporter's routing key
+     * @param address the address to search
+     * @param pageable pagination information
+     * @return Flux of packages
+     */
+    Flux<Package> findByTransporterIdAndRoutingKeyAndDestinationAddressContainingIgnoreCase(
+            String transporterId,
+            String routingKey,
+            String address,
+            Pageable pageable
+    );
+}
@@ -0,0 +1,21 @@
+package com.logistics.parcelandcarrier.repository;
+
+import com.logistics.parcelandcarrier.entity.Package;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+
+/**
+ * Custom streaming queries of {@link ReactivePackageRepository}
+ */
+public interface ReactivePackageRepositoryCustom {
+
+    /**
+     * Stream the packages of the filtered listing, in the listing order.
+     * Same filters, order and archive rule as {@link PackageRepositoryCustom#findWithFilter},
+     * without the count.
+     * @param filter normalized filters
+     * @param pageable skip/limit and sort; unsorted streams are newest first
+     * @return Flux of packages
+     */
+    Flux<Package> streamWithFilter(PackageFilter filter, Pageable pageable);
+}
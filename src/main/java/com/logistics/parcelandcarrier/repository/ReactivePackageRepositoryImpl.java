@@ -0,0 +1,68 @@
+package com.logistics.parcelandcarrier.repository;
+
+import com.logistics.parcelandcarrier.config.ReadRouting;
+import com.logistics.parcelandcarrier.entity.Package;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+
+/**
+ * ReactiveMongoTemplate implementation of {@link ReactivePackageRepositoryCustom}.
+ * Queries are built by {@link PackageQueries} like the paged listing and carry the routed read
+ * preference ({@link ReadRouting#streaming}); they have no time limit, the cursor staying open as
+ * long as the client reads.
+ */
+public class ReactivePackageRepositoryImpl implements ReactivePackageRepositoryCustom {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final ReadRouting readRouting;
+    private final boolean hint;
+
+    public ReactivePackageRepositoryImpl(
+            ReactiveMongoTemplate reactiveMongoTemplate,
+            ReadRouting readRouting,
+            @Value("${packages.query.hint:true}") boolean hint
+    ) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.readRouting = readRouting;
+        this.hint = hint;
+    }
+
+    @Override
+    public Flux<Package> streamWithFilter(PackageFilter filter, Pageable pageable) {
+        if (filter.historical()) {
+            return streamWithArchive(filter, pageable);
+        }
+        return reactiveMongoTemplate.find(routed(PackageQueries.listing(filter, pageable, hint)), Package.class);
+    }
+
+    /**
+     * Stream over both collections, for filters that reach archived packages.
+     * Each collection streams at most offset + size documents in the listing order and the two
+     * cursors are merged as they are read, so unlike the paged listing the depth is not capped:
+     * nothing is held beyond the merge's prefetch. The archive is not hinted (see
+     * {@link PackageRepositoryImpl}).
+     */
+    private Flux<Package> streamWithArchive(PackageFilter filter, Pageable pageable) {
+        Pageable window = pageable.isPaged()
+                ? PageRequest.of(0, Math.toIntExact(pageable.getOffset() + pageable.getPageSize()), pageable.getSort())
+                : Pageable.unpaged(pageable.getSort());
+        Flux<Package> current = reactiveMongoTemplate.find(
+                routed(PackageQueries.listing(filter, window, hint)), Package.class);
+        Flux<Package> archived = reactiveMongoTemplate.find(
+                routed(PackageQueries.listing(filter, window, false)), Package.class, PackageQueries.ARCHIVE_COLLECTION);
+
+        Flux<Package> merged = Flux.mergeComparing(
+                PackageRepositoryImpl.comparator(PackageQueries.sort(pageable)), current, archived);
+        return pageable.isPaged()
+                ? merged.skip(pageable.getOffset()).take(pageable.getPageSize())
+                : merged;
+    }
+
+    private Query routed(Query query) {
+        return query.withReadPreference(readRouting.streaming());
+    }
+}
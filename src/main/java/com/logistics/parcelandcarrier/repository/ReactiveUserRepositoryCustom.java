@@ -0,0 +1,17 @@
+package com.logistics.parcelandcarrier.repository;
+
+import com.logistics.parcelandcarrier.entity.User;
+import reactor.core.publisher.Flux;
+
+/**
+ * Custom streaming queries of {@link ReactiveUserRepository}
+ */
+public interface ReactiveUserRepositoryCustom {
+
+    /**
+     * Stream every matching user in id order, projected on the response fields
+     * @param filter optional filters
+     * @return Flux of users without their password hash
+     */
+    Flux<User> streamAll(UserFilter filter);
+}
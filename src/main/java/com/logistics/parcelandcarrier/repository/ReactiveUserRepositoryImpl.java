@@ -0,0 +1,20 @@
+package com.logistics.parcelandcarrier.repository;
+
+import com.logistics.parcelandcarrier.entity.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+
+/**
+ * ReactiveMongoTemplate implementation of {@link ReactiveUserRepositoryCustom}
+ */
+@RequiredArgsConstructor
+public class ReactiveUserRepositoryImpl implements ReactiveUserRepositoryCustom {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Override
+    public Flux<User> streamAll(UserFilter filter) {
+        return reactiveMongoTemplate.find(UserQueries.listing(filter, null), User.class);
+    }
+}
@@ -0,0 +1,30 @@
+package com.logistics.parcelandcarrier.repository;
+
+import com.logistics.parcelandcarrier.entity.RevokedToken;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repository for RevokedToken entity operations
+ * Requests are checked against the in-memory copy kept by the revoked token registry, not from here
+ */
+@Repository
+public interface RevokedTokenRepository extends MongoRepository<RevokedToken, String> {
+
+    /**
+     * Find the revocations still in effect
+     * @param now current time
+     * @return revocations whose tokens have not expired yet
+     */
+    List<RevokedToken> findByExpiresAtAfter(Instant now);
+
+    /**
+     * Find the revocations written since a point in time
+     * @param since lower bound, inclusive
+     * @return recent revocations
+     */
+    List<RevokedToken> findByRevokedAtGreaterThanEqual(Instant since);
+}
@@ -0,0 +1,77 @@
+package com.logistics.parcelandcarrier.repository;
+
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Parallel fan-out of the package reads that no shard key targets: admin listings without a
+ * transporter filter and admin address searches. Each such read reaches every shard through mongos,
+ * so the sub-reads of one request (page, count, and the archive's page and count) are forked on a
+ * bounded executor and joined, instead of paying the slowest shard once per sub-read. The caller's
+ * security context follows the forked reads, so read routing still applies the caller's causal
+ * consistency. Only admins may fork: a transporter request reaching an untargeted read is a routing
+ * bug and is refused.
+ */
+public class ScatterGather {
+
+    private static final String ADMIN_AUTHORITY = "ROLE_ADMIN";
+
+    private final Executor executor;
+
+    /**
+     * @param executor bounded executor; its concurrency limit caps the reads in flight across requests
+     */
+    public ScatterGather(SimpleAsyncTaskExecutor executor) {
+        this.executor = new DelegatingSecurityContextExecutor(executor);
+    }
+
+    /**
+     * Start an untargeted read
+     * @param read the read
+     * @return its pending result, see {@link #join}
+     * @throws AccessDeniedException if the current user is authenticated but not an admin
+     */
+    public <T> CompletableFuture<T> fork(Supplier<T> read) {
+        assertAdmin();
+        return CompletableFuture.supplyAsync(read, executor);
+    }
+
+    /**
+     * Wait for a forked read, rethrowing its failure as thrown by the read
+     * @param read pending result
+     * @return the read's result
+     */
+    public static <T> T join(CompletableFuture<T> read) {
+        try {
+            return read.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // =========================================================================
+    // Private helper methods
+    // =========================================================================
+
+    /**
+     * Background jobs run without an authentication and may fan out
+     */
+    private static void assertAdmin() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+            && authentication.getAuthorities().stream().noneMatch(a -> ADMIN_AUTHORITY.equals(a.getAuthority()))) {
+            throw new AccessDeniedException("Package queries across all shards are reserved to admins");
+        }
+    }
+}
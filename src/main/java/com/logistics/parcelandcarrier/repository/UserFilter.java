@@ -0,0 +1,20 @@
+package com.logistics.parcelandcarrier.repository;
+
+import com.logistics.parcelandcarrier.enums.Role;
+import com.logistics.parcelandcarrier.enums.Specialty;
+
+/**
+ * Optional filters of the user listing; a null field matches every value
+ * @param role user role
+ * @param active account state
+ * @param specialty transporter specialty
+ */
+public record UserFilter(Role role, Boolean active, Specialty specialty) {
+
+    /**
+     * Filter matching every user
+     */
+    public static UserFilter none() {
+        return new UserFilter(null, null, null);
+    }
+}
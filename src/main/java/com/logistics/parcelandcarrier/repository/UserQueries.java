@@ -0,0 +1,69 @@
+package com.logistics.parcelandcarrier.repository;
+
+import com.logistics.parcelandcarrier.enums.Role;
+import com.logistics.parcelandcarrier.enums.Specialty;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Query builder for the user listing, shared by the blocking and reactive repositories.
+ * Every filter field is always bound: an omitted filter becomes an {@code $in} over all of its values.
+ * Each combination is then a point range of the {role, active, specialty, _id} index, and MongoDB
+ * merges the ranges in {@code _id} order (SORT_MERGE) instead of sorting in memory, whichever
+ * filters are given.
+ */
+public final class UserQueries {
+
+    /** Fields of UserResponse; the password hash is never read */
+    private static final String[] RESPONSE_FIELDS = {
+            "id", "login", "role", "active", "specialty", "status", "createdAt", "updatedAt"
+    };
+
+    private UserQueries() {
+    }
+
+    /**
+     * Build the listing query in id order
+     * @param filter optional filters
+     * @param afterId exclusive lower bound on the id (cursor), or null for the first page
+     * @return query projected on the response fields
+     * @throws IllegalArgumentException if the cursor is not a valid id
+     */
+    public static Query listing(UserFilter filter, String afterId) {
+        Criteria criteria = Criteria
+                .where("role").in(filter.role() != null ? List.of(filter.role()) : List.of(Role.values()))
+                .and("active").in(filter.active() != null ? List.of(filter.active()) : List.of(true, false))
+                .and("specialty").in(specialties(filter.specialty()));
+
+        if (afterId != null) {
+            criteria = criteria.and("_id").gt(toObjectId(afterId));
+        }
+
+        Query query = new Query(criteria).with(Sort.by(Sort.Direction.ASC, "_id"));
+        query.fields().include(RESPONSE_FIELDS);
+        return query;
+    }
+
+    private static List<Specialty> specialties(Specialty specialty) {
+        if (specialty != null) {
+            return List.of(specialty);
+        }
+        // Admins have no specialty
+        List<Specialty> all = new ArrayList<>(Arrays.asList(Specialty.values()));
+        all.add(null);
+        return all;
+    }
+
+    private static ObjectId toObjectId(String cursor) {
+        if (!ObjectId.isValid(cursor)) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        return new ObjectId(cursor);
+    }
+}
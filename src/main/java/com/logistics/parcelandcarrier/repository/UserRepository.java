@@ -10,6 +10,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,7 +19,7 @@ import java.util.Optional;
  * Provides CRUD operations and custom queries for User management
  */
 @Repository
-public interface UserRepository extends MongoRepository<User, String> {
+public interface UserRepository extends MongoRepository<User, String>, UserRepositoryCustom {
 
     /**
      * Find user by login (unique)
@@ -34,6 +35,15 @@ public interface UserRepository extends MongoRepository<User, String> {
      */
     boolean existsByLogin(String login);
 
+    /**
+     * Find the users holding any of the given logins, projected on the login
+     * One {@code $in} query on the unique login index, for bulk uniqueness checks
+     * @param logins the logins to check
+     * @return users with their id and login only
+     */
+    @Query(value = "{ 'login': { $in: ?0 } }", fields = "{ 'login': 1 }")
+    List<User> findLoginsIn(Collection<String> logins);
+
     /**
      * Find users by role with pagination
      * @param role the role to filter
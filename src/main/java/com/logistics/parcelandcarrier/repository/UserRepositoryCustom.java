@@ -0,0 +1,28 @@
+package com.logistics.parcelandcarrier.repository;
+
+import com.logistics.parcelandcarrier.entity.User;
+
+import java.util.List;
+
+/**
+ * Custom listing queries and partial updates of {@link UserRepository}
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Find one page of users in id order, projected on the response fields
+     * @param filter optional filters
+     * @param afterId id of the last user of the previous page, or null for the first page
+     * @param limit maximum number of users
+     * @return users without their password hash
+     */
+    List<User> findPageAfter(UserFilter filter, String afterId, int limit);
+
+    /**
+     * Write the fields of a user that changed since it was read (see {@link PartialUpdate})
+     * @param before the user as read
+     * @param after the same user after the change
+     * @return false if the user no longer exists, or no longer holds the values read for the changed fields
+     */
+    boolean updateChanged(User before, User after);
+}
@@ -0,0 +1,37 @@
+package com.logistics.parcelandcarrier.repository;
+
+import com.logistics.parcelandcarrier.config.ReadRouting;
+import com.logistics.parcelandcarrier.entity.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+
+/**
+ * MongoTemplate implementation of {@link UserRepositoryCustom}
+ */
+@RequiredArgsConstructor
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    private final ReadRouting readRouting;
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<User> findPageAfter(UserFilter filter, String afterId, int limit) {
+        return readRouting.listing(ops -> ops.find(UserQueries.listing(filter, afterId).limit(limit), User.class));
+    }
+
+    @Override
+    public boolean updateChanged(User before, User after) {
+        Update update = PartialUpdate.diff(mongoTemplate.getConverter(), before, after);
+        if (PartialUpdate.isEmpty(update)) {
+            return true;
+        }
+        Query query = new Query(PartialUpdate.expect(mongoTemplate.getConverter(), before, update,
+                Criteria.where("id").is(before.getId())));
+        return mongoTemplate.updateFirst(query, update, User.class).getMatchedCount() > 0;
+    }
+}
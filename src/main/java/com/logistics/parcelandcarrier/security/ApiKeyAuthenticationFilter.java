@@ -0,0 +1,112 @@
+package com.logistics.parcelandcarrier.security;
+
+import com.logistics.parcelandcarrier.entity.ApiKey;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * API key Authentication Filter
+ * Authenticates requests carrying an {@code X-API-Key} header from {@link ApiKeyRegistry}, with one
+ * role per key scope; a TRANSPORTER key acts as its transporter, and stops working as soon as the
+ * transporter is deactivated (checked against {@link RevokedTokenRegistry}, like its JWTs).
+ * Runs before the JWT filter. Rejected keys are counted by {@code api.keys.rejected} and logged at
+ * most once a minute, so a client retrying a bad key does not flood the logs.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ApiKeyAuthenticationFilter extends OncePerRequestFilter {
+
+  public static final String API_KEY_HEADER = "X-API-Key";
+
+  private static final long REJECTED_LOG_INTERVAL_NANOS = Duration.ofMinutes(1).toNanos();
+
+  private final ApiKeyRegistry apiKeyRegistry;
+  private final RevokedTokenRegistry revokedTokenRegistry;
+
+  private final AtomicLong nextRejectedLog = new AtomicLong(System.nanoTime());
+  private final AtomicLong rejectedSinceLog = new AtomicLong();
+
+  @Override
+  protected void doFilterInternal(
+    @NonNull HttpServletRequest request,
+    @NonNull HttpServletResponse response,
+    @NonNull FilterChain filterChain
+  ) throws ServletException, IOException {
+
+    String rawKey = request.getHeader(API_KEY_HEADER);
+
+    if (rawKey != null && !rawKey.isEmpty() && SecurityContextHolder.getContext().getAuthentication() == null) {
+      Optional<ApiKey> apiKey = apiKeyRegistry.authenticate(rawKey);
+      if (apiKey.isPresent() && !isOwnerRevoked(apiKey.get())) {
+        authenticate(apiKey.get(), request);
+      } else {
+        logRejected();
+      }
+    }
+
+    filterChain.doFilter(request, response);
+  }
+
+  // =========================================================================
+  // Private helper methods
+  // =========================================================================
+
+  /**
+   * Whether the user a key acts for was deactivated after the key was created
+   */
+  private boolean isOwnerRevoked(ApiKey apiKey) {
+    return apiKey.getUserId() != null && revokedTokenRegistry.isSubjectRevoked(
+      apiKey.getUserId(), apiKey.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant());
+  }
+
+  /**
+   * Warn about a rejected key, at most once per interval, with the number of rejections left unlogged
+   */
+  private void logRejected() {
+    long now = System.nanoTime();
+    long next = nextRejectedLog.get();
+    if (now - next >= 0 && nextRejectedLog.compareAndSet(next, now + REJECTED_LOG_INTERVAL_NANOS)) {
+      log.warn("Unknown or revoked API key ({} more since the last warning)", rejectedSinceLog.getAndSet(0));
+    } else {
+      rejectedSinceLog.incrementAndGet();
+    }
+  }
+
+  /**
+   * Authenticate the request as the key
+   */
+  private void authenticate(ApiKey apiKey, HttpServletRequest request) {
+    List<SimpleGrantedAuthority> authorities = apiKey.getScopes().stream()
+      .map(scope -> new SimpleGrantedAuthority("ROLE_" + scope.name()))
+      .toList();
+
+    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+      "api-key:" + apiKey.getName(),
+      null,
+      authorities
+    );
+    authToken.setDetails(new JwtAuthenticationDetails(request, apiKey.getUserId()));
+
+    SecurityContextHolder.getContext().setAuthentication(authToken);
+
+    log.debug("API key authenticated: {} with roles: {}", apiKey.getName(), authorities);
+  }
+}
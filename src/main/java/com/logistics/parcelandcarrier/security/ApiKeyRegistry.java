@@ -0,0 +1,78 @@
+package com.logistics.parcelandcarrier.security;
+
+import com.logistics.parcelandcarrier.entity.ApiKey;
+import com.logistics.parcelandcarrier.repository.ApiKeyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory copy of the active API keys, by key hash.
+ * A presented key is hashed (SHA-256) and looked up in an immutable map swapped on each refresh:
+ * no database access and no secret comparison per request, since only hashes are compared and the
+ * hash of a wrong key tells nothing about a valid one. Keys created or revoked on this node are
+ * applied at once; on other nodes at the next scheduled refresh.
+ * Each authenticated request counts in {@code api.keys.requests}, tagged with the key name.
+ */
+@Slf4j
+@Component
+public class ApiKeyRegistry {
+
+  private final ApiKeyRepository apiKeyRepository;
+  private final MeterRegistry meterRegistry;
+  private final Counter rejected;
+
+  private volatile Map<String, ApiKey> byHash = Map.of();
+
+  public ApiKeyRegistry(ApiKeyRepository apiKeyRepository, MeterRegistry meterRegistry) {
+    this.apiKeyRepository = apiKeyRepository;
+    this.meterRegistry = meterRegistry;
+    this.rejected = Counter.builder("api.keys.rejected")
+      .description("Requests with an unknown or revoked API key")
+      .register(meterRegistry);
+    Gauge.builder("api.keys.active", this, registry -> registry.byHash.size())
+      .description("Active API keys held in memory")
+      .register(meterRegistry);
+  }
+
+  /**
+   * Find the active key matching a presented key, and count its use
+   * @param rawKey key as sent by the client
+   * @return the key, or empty if unknown or revoked
+   */
+  public Optional<ApiKey> authenticate(String rawKey) {
+    ApiKey apiKey = byHash.get(Sha256.hex(rawKey));
+    if (apiKey == null) {
+      rejected.increment();
+      return Optional.empty();
+    }
+    meterRegistry.counter("api.keys.requests", "key", apiKey.getName()).increment();
+    return Optional.of(apiKey);
+  }
+
+  /**
+   * Reload the active keys from Mongo
+   */
+  @Scheduled(
+    initialDelayString = "${api-keys.initial-delay:0s}",
+    fixedDelayString = "${api-keys.refresh-interval:30s}"
+  )
+  public void refresh() {
+    try {
+      byHash = apiKeyRepository.findByActiveTrue().stream()
+        .collect(Collectors.toUnmodifiableMap(ApiKey::getKeyHash, Function.identity()));
+    } catch (DataAccessException e) {
+      // Keep serving the previous keys
+      log.warn("API key refresh failed: {}", e.getMessage());
+    }
+  }
+}
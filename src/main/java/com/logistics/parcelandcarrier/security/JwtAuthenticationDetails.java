@@ -0,0 +1,31 @@
+package com.logistics.parcelandcarrier.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.Getter;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+import java.time.Instant;
+
+/**
+ * Authentication details carrying the user ID from the JWT {@code userId} claim
+ * Packages reference transporters by user ID, not by login
+ * The token ID and expiry let the token be revoked on logout; both are null for API keys
+ */
+@Getter
+public class JwtAuthenticationDetails extends WebAuthenticationDetails {
+
+  private final String userId;
+  private final String tokenId;
+  private final Instant expiresAt;
+
+  public JwtAuthenticationDetails(HttpServletRequest request, String userId) {
+    this(request, userId, null, null);
+  }
+
+  public JwtAuthenticationDetails(HttpServletRequest request, String userId, String tokenId, Instant expiresAt) {
+    super(request);
+    this.userId = userId;
+    this.tokenId = tokenId;
+    this.expiresAt = expiresAt;
+  }
+}
@@ -1,5 +1,6 @@
 package com.logistics.parcelandcarrier.security;
 
+import com.auth0.jwt.interfaces.DecodedJWT;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,18 +9,20 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * JWT Authentication Filter
  * Intercepts all requests and validates JWT tokens
+ * The authentication is built from the token claims; deactivated users and logged out tokens are
+ * rejected by {@link RevokedTokenRegistry}, without loading the user
  */
 @Slf4j
 @Component
@@ -27,7 +30,7 @@ import java.util.List;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
   private final JwtService jwtService;
-  private final CustomUserDetailsService userDetailsService;
+  private final RevokedTokenRegistry revokedTokenRegistry;
 
   private static final String AUTHORIZATION_HEADER = "Authorization";
   private static final String BEARER_PREFIX = "Bearer ";
@@ -35,7 +38,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     "/api/auth/login",
     "/swagger-ui",
     "/v3/api-docs",
-    "/actuator"
+    // Other actuator endpoints (metrics, prometheus, slowqueries) need the caller's token or API key
+    "/actuator/health"
   );
 
   @Override
@@ -55,6 +59,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
       return;
     }
 
+    // Skip filter for requests authenticated by an API key
+    if (SecurityContextHolder.getContext().getAuthentication() != null) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+
     try {
       // Extract JWT token from header
       String token = extractTokenFromRequest(request);
@@ -66,17 +76,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
       }
 
       // Validate token
-      if (!jwtService.validateToken(token)) {
+      Optional<DecodedJWT> decodedJWT = jwtService.verifyToken(token);
+      if (decodedJWT.isEmpty()) {
         log.warn("Invalid JWT token");
         filterChain.doFilter(request, response);
         return;
       }
 
-      // Extract username and authenticate
-      String username = jwtService.extractUsername(token);
+      // Reject revoked tokens
+      DecodedJWT jwt = decodedJWT.get();
+      String tokenId = jwtService.extractTokenId(jwt);
+      String userId = jwt.getClaim("userId").asString();
+      if (revokedTokenRegistry.isRevoked(tokenId, userId, jwt.getIssuedAtAsInstant())) {
+        log.warn("Revoked JWT token");
+        filterChain.doFilter(request, response);
+        return;
+      }
 
-      if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-        authenticateUser(token, username, request);
+      // Authenticate
+      if (jwt.getSubject() != null) {
+        authenticateUser(jwt, tokenId, userId, request);
       }
 
     } catch (Exception e) {
@@ -100,26 +119,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
   }
 
   /**
-   * Authenticate user with JWT token
+   * Authenticate user from the JWT claims
    */
-  private void authenticateUser(String token, String username, HttpServletRequest request) {
+  private void authenticateUser(DecodedJWT jwt, String tokenId, String userId, HttpServletRequest request) {
     try {
-      // Load user details
-      UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+      List<SimpleGrantedAuthority> authorities = List.of(
+        new SimpleGrantedAuthority("ROLE_" + jwt.getClaim("role").asString())
+      );
 
       // Create authentication token
       UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-        userDetails,
+        jwt.getSubject(),
         null,
-        userDetails.getAuthorities()
+        authorities
       );
 
-      authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+      authToken.setDetails(new JwtAuthenticationDetails(request, userId, tokenId, jwt.getExpiresAtAsInstant()));
 
       // Set authentication in SecurityContext
       SecurityContextHolder.getContext().setAuthentication(authToken);
 
-      log.debug("User authenticated: {} with roles: {}", username, userDetails.getAuthorities());
+      log.debug("User authenticated: {} with roles: {}", jwt.getSubject(), authorities);
 
     } catch (Exception e) {
       log.error("Failed to authenticate user: {}", e.getMessage());
@@ -14,6 +14,8 @@ import org.springframework.stereotype.Service;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Service for JWT token generation and validation
@@ -47,6 +49,7 @@ public class JwtService {
 
     return JWT.create()
       .withIssuer(issuer)
+      .withJWTId(UUID.randomUUID().toString())
       .withSubject(user.getLogin())
       .withClaim("userId", user.getId())
       .withClaim("role", user.getRole().name())
@@ -75,6 +78,30 @@ public class JwtService {
     }
   }
 
+  /**
+   * Verify a JWT token once, for callers reading several claims
+   * @param token the JWT token
+   * @return decoded token, or empty if invalid or expired
+   */
+  public Optional<DecodedJWT> verifyToken(String token) {
+    try {
+      return Optional.of(decodeToken(token));
+    } catch (JWTVerificationException e) {
+      log.error("JWT validation failed: {}", e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Token ID, the key of a revocation
+   * Tokens issued without a jti claim are identified by their hash
+   * @param decodedJWT the verified token
+   * @return token ID
+   */
+  public String extractTokenId(DecodedJWT decodedJWT) {
+    return decodedJWT.getId() != null ? decodedJWT.getId() : Sha256.hex(decodedJWT.getToken());
+  }
+
   /**
    * Extract username (login) from token
    * @param token the JWT token
@@ -0,0 +1,209 @@
+package com.logistics.parcelandcarrier.security;
+
+import com.logistics.parcelandcarrier.entity.RevokedToken;
+import com.logistics.parcelandcarrier.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory deny list of revoked JWTs: single tokens (logout) and every token of a user issued up to
+ * a point in time (deactivation).
+ * Each request is checked against a Bloom filter first, which rules out almost every valid token
+ * without touching the exact maps, then against the exact maps on a possible match. No database
+ * access per request.
+ * Revocations are written to {@code revoked_tokens}, whose TTL index drops them once the tokens
+ * have expired anyway; every node applies its own at once and polls the collection for the others.
+ * Readers never lock; additions and the filter rebuild are serialized with a {@link ReentrantLock}
+ * (no monitor is held, so virtual threads are not pinned).
+ */
+@Slf4j
+@Component
+public class RevokedTokenRegistry {
+
+  private static final double FALSE_POSITIVE_RATE = 0.01;
+  /** Tolerated clock skew between the nodes writing revocations */
+  private static final Duration SYNC_OVERLAP = Duration.ofSeconds(10);
+
+  private final RevokedTokenRepository revokedTokenRepository;
+  private final Duration tokenLifetime;
+  private final int expectedEntries;
+  private final Counter rejected;
+
+  // Token ID -> token expiry
+  private final Map<String, Instant> tokens = new ConcurrentHashMap<>();
+  // User ID -> tokens issued up to this instant are revoked
+  private final Map<String, Instant> subjects = new ConcurrentHashMap<>();
+  private final ReentrantLock writeLock = new ReentrantLock();
+  private volatile BloomFilter filter;
+  private Instant lastSync;
+
+  public RevokedTokenRegistry(
+    RevokedTokenRepository revokedTokenRepository,
+    MeterRegistry meterRegistry,
+    @Value("${jwt.expiration}") long expirationTime,
+    @Value("${security.revocation.expected-entries:100000}") int expectedEntries
+  ) {
+    this.revokedTokenRepository = revokedTokenRepository;
+    this.tokenLifetime = Duration.ofMillis(expirationTime);
+    this.expectedEntries = expectedEntries;
+    this.filter = new BloomFilter(expectedEntries, FALSE_POSITIVE_RATE);
+    this.rejected = Counter.builder("jwt.revocations.rejected")
+      .description("Requests with a revoked JWT")
+      .register(meterRegistry);
+    Gauge.builder("jwt.revocations.size", this, registry -> registry.tokens.size() + registry.subjects.size())
+      .description("Revocations held in memory")
+      .register(meterRegistry);
+  }
+
+  /**
+   * Check a verified token against the deny list
+   * @param tokenId token ID
+   * @param userId user ID claim (may be null)
+   * @param issuedAt token issue time
+   * @return true if the token or its user was revoked
+   */
+  public boolean isRevoked(String tokenId, String userId, Instant issuedAt) {
+    BloomFilter current = filter;
+    boolean revoked = (current.mightContain(tokenId) && tokens.containsKey(tokenId))
+      || (userId != null && current.mightContain(userId) && revokedSince(userId, issuedAt));
+    if (revoked) {
+      rejected.increment();
+    }
+    return revoked;
+  }
+
+  /**
+   * Check a credential other than a JWT, e.g. an API key acting for a user, against the user's revocation
+   * @param userId user ID
+   * @param issuedAt credential creation time
+   * @return true if the user was revoked when or after the credential was issued
+   */
+  public boolean isSubjectRevoked(String userId, Instant issuedAt) {
+    boolean revoked = filter.mightContain(userId) && revokedSince(userId, issuedAt);
+    if (revoked) {
+      rejected.increment();
+    }
+    return revoked;
+  }
+
+  /**
+   * Revoke one token, e.g. on logout
+   * @param tokenId token ID
+   * @param expiresAt token expiry, after which the revocation is dropped
+   */
+  public void revokeToken(String tokenId, Instant expiresAt) {
+    revoke(RevokedToken.builder()
+      .kind(RevokedToken.Kind.TOKEN)
+      .key(tokenId)
+      .revokedAt(Instant.now())
+      .expiresAt(expiresAt)
+      .build());
+  }
+
+  /**
+   * Revoke every token issued to a user until now, e.g. on deactivation
+   * Tokens issued later, after a reactivation, are accepted
+   * @param userId user ID
+   */
+  public void revokeSubject(String userId) {
+    Instant now = Instant.now();
+    revoke(RevokedToken.builder()
+      .kind(RevokedToken.Kind.SUBJECT)
+      .key(userId)
+      .revokedAt(now)
+      .expiresAt(now.plus(tokenLifetime))
+      .build());
+  }
+
+  /**
+   * Load the revocations in effect at startup, then the ones written by other nodes since the last sync.
+   * Runs on the shared scheduler, whose long jobs hand off to their own threads (see
+   * {@link com.logistics.parcelandcarrier.config.SchedulingConfig}): a revocation reaches the other
+   * nodes within about one sync interval.
+   */
+  @Scheduled(
+    initialDelayString = "${security.revocation.initial-delay:0s}",
+    fixedDelayString = "${security.revocation.sync-interval:1s}"
+  )
+  public void sync() {
+    Instant now = Instant.now();
+    try {
+      List<RevokedToken> revocations = lastSync == null
+        ? revokedTokenRepository.findByExpiresAtAfter(now)
+        : revokedTokenRepository.findByRevokedAtGreaterThanEqual(lastSync.minus(SYNC_OVERLAP));
+      revocations.forEach(this::apply);
+      lastSync = now;
+    } catch (DataAccessException e) {
+      // Revocations from other nodes are applied by a later sync
+      log.warn("Revoked token sync failed: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Drop the revocations whose tokens have expired, and rebuild the Bloom filter without them
+   */
+  @Scheduled(
+    initialDelayString = "${security.revocation.purge-interval:10m}",
+    fixedDelayString = "${security.revocation.purge-interval:10m}"
+  )
+  public void purge() {
+    Instant now = Instant.now();
+    writeLock.lock();
+    try {
+      tokens.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+      subjects.values().removeIf(revokedAt -> revokedAt.plus(tokenLifetime).isBefore(now));
+
+      BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, 2 * (tokens.size() + subjects.size())),
+        FALSE_POSITIVE_RATE);
+      tokens.keySet().forEach(rebuilt::put);
+      subjects.keySet().forEach(rebuilt::put);
+      filter = rebuilt;
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  // =========================================================================
+  // Private helper methods
+  // =========================================================================
+
+  private void revoke(RevokedToken revocation) {
+    apply(revocation);
+    revokedTokenRepository.insert(revocation);
+  }
+
+  /**
+   * Add a revocation to the exact maps, then to the filter; serialized with the filter rebuild
+   */
+  private void apply(RevokedToken revocation) {
+    writeLock.lock();
+    try {
+      switch (revocation.getKind()) {
+        case TOKEN -> tokens.put(revocation.getKey(), revocation.getExpiresAt());
+        case SUBJECT -> subjects.merge(revocation.getKey(), revocation.getRevokedAt(),
+          (current, added) -> added.isAfter(current) ? added : current);
+      }
+      filter.put(revocation.getKey());
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  private boolean revokedSince(String userId, Instant issuedAt) {
+    Instant revokedAt = subjects.get(userId);
+    return revokedAt != null && (issuedAt == null || !issuedAt.isAfter(revokedAt));
+  }
+}
@@ -0,0 +1,29 @@
+package com.logistics.parcelandcarrier.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 of secrets that are compared or stored by hash: API keys, and JWTs without a token ID.
+ * A fast hash is enough for long random values, unlike passwords.
+ */
+public final class Sha256 {
+
+  private Sha256() {
+  }
+
+  /**
+   * @param value value to hash, e.g. a raw API key
+   * @return lowercase hex SHA-256 of its UTF-8 bytes
+   */
+  public static String hex(String value) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
@@ -0,0 +1,151 @@
+package com.logistics.parcelandcarrier.service;
+
+import com.logistics.parcelandcarrier.dto.request.ApiKeyRequest;
+import com.logistics.parcelandcarrier.dto.response.ApiKeyResponse;
+import com.logistics.parcelandcarrier.entity.ApiKey;
+import com.logistics.parcelandcarrier.entity.User;
+import com.logistics.parcelandcarrier.enums.Role;
+import com.logistics.parcelandcarrier.exception.ResourceNotFoundException;
+import com.logistics.parcelandcarrier.mapper.ApiKeyMapper;
+import com.logistics.parcelandcarrier.repository.ApiKeyRepository;
+import com.logistics.parcelandcarrier.repository.UserRepository;
+import com.logistics.parcelandcarrier.security.ApiKeyRegistry;
+import com.logistics.parcelandcarrier.security.Sha256;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Service for API key management
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Timed(value = "parcelandcarrier.service", histogram = true)
+public class ApiKeyService {
+
+  private static final String KEY_PREFIX = "pck_";
+  private static final int KEY_BYTES = 32;
+  private static final int DISPLAYED_CHARACTERS = 12;
+
+  private final SecureRandom secureRandom = new SecureRandom();
+
+  private final ApiKeyRepository apiKeyRepository;
+  private final ApiKeyMapper apiKeyMapper;
+  private final ApiKeyRegistry apiKeyRegistry;
+  private final UserRepository userRepository;
+
+  /**
+   * Create an API key
+   * @param request name, scopes and, for the TRANSPORTER scope, the transporter the key acts for
+   * @return created key, including the key itself which is not stored
+   */
+  public ApiKeyResponse createApiKey(ApiKeyRequest request) {
+    log.info("Creating API key: {}", request.getName());
+
+    if (request.getScopes().contains(Role.TRANSPORTER)) {
+      verifyTransporter(request.getUserId());
+    } else if (request.getUserId() != null) {
+      throw new IllegalArgumentException("Only keys with the TRANSPORTER scope act for a user");
+    }
+
+    String rawKey = generateKey();
+    LocalDateTime now = LocalDateTime.now();
+    ApiKey apiKey = apiKeyRepository.insert(ApiKey.builder()
+      .name(request.getName())
+      .keyHash(Sha256.hex(rawKey))
+      .prefix(rawKey.substring(0, DISPLAYED_CHARACTERS))
+      .scopes(request.getScopes())
+      .userId(request.getUserId())
+      .active(true)
+      .createdAt(now)
+      .updatedAt(now)
+      .build());
+    apiKeyRegistry.refresh();
+
+    log.info("API key created successfully: {}", apiKey.getId());
+
+    ApiKeyResponse response = apiKeyMapper.toResponse(apiKey);
+    response.setKey(rawKey);
+    return response;
+  }
+
+  /**
+   * List API keys, without the keys themselves
+   * @return every key, active or revoked
+   */
+  public List<ApiKeyResponse> findApiKeys() {
+    return apiKeyMapper.toResponseList(apiKeyRepository.findAll());
+  }
+
+  /**
+   * Revoke an API key
+   * Effective at once on this node, and on the others at their next refresh
+   * @param id API key ID
+   */
+  public void revokeApiKey(String id) {
+    log.info("Revoking API key: {}", id);
+
+    ApiKey apiKey = apiKeyRepository.findById(id)
+      .orElseThrow(() -> new ResourceNotFoundException("ApiKey", "id", id));
+
+    apiKey.revoke();
+    apiKeyRepository.save(apiKey);
+    apiKeyRegistry.refresh();
+
+    log.info("API key revoked successfully: {}", id);
+  }
+
+  /**
+   * Revoke every active key acting for a user, e.g. when the transporter is deactivated
+   * Effective at once on this node, and on the others at their next refresh
+   * @param userId user ID
+   * @return number of keys revoked
+   */
+  public int revokeUserApiKeys(String userId) {
+    List<ApiKey> apiKeys = apiKeyRepository.findByUserIdAndActiveTrue(userId);
+    if (apiKeys.isEmpty()) {
+      return 0;
+    }
+
+    apiKeys.forEach(ApiKey::revoke);
+    apiKeyRepository.saveAll(apiKeys);
+    apiKeyRegistry.refresh();
+
+    log.info("Revoked {} API keys of user {}", apiKeys.size(), userId);
+    return apiKeys.size();
+  }
+
+  // =========================================================================
+  // Private helper methods
+  // =========================================================================
+
+  /**
+   * Random key: 256 bits, URL-safe
+   */
+  private String generateKey() {
+    byte[] bytes = new byte[KEY_BYTES];
+    secureRandom.nextBytes(bytes);
+    return KEY_PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+  }
+
+  private void verifyTransporter(String userId) {
+    if (userId == null || userId.isEmpty()) {
+      throw new IllegalArgumentException("Keys with the TRANSPORTER scope need the transporter's user ID");
+    }
+    User user = userRepository.findById(userId)
+      .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+    if (!user.isTransporter()) {
+      throw new IllegalArgumentException("User is not a transporter");
+    }
+    if (!user.isActive()) {
+      throw new IllegalArgumentException("Transporter is deactivated");
+    }
+  }
+}
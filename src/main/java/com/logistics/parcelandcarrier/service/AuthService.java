@@ -6,22 +6,28 @@ import com.logistics.parcelandcarrier.entity.User;
 import com.logistics.parcelandcarrier.exception.UnauthorizedException;
 import com.logistics.parcelandcarrier.repository.UserRepository;
 import com.logistics.parcelandcarrier.security.JwtService;
+import com.logistics.parcelandcarrier.security.RevokedTokenRegistry;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+
 /**
  * Service for authentication operations
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Timed(value = "parcelandcarrier.service", histogram = true)
 public class AuthService {
 
   private final UserRepository userRepository;
   private final JwtService jwtService;
   private final PasswordEncoder passwordEncoder;
+  private final RevokedTokenRegistry revokedTokenRegistry;
 
   /**
    * Authenticate user and generate JWT token
@@ -56,6 +62,17 @@ public class AuthService {
     return LoginResponse.of(token, user);
   }
 
+  /**
+   * Log out: revoke the token on every node
+   * @param tokenId ID of the token used for the request
+   * @param expiresAt token expiry
+   */
+  public void logout(String tokenId, Instant expiresAt) {
+    revokedTokenRegistry.revokeToken(tokenId, expiresAt);
+
+    log.info("Token revoked on logout");
+  }
+
   /**
    * Validate user credentials (without generating token)
    * @param login user login
@@ -0,0 +1,546 @@
+package com.logistics.parcelandcarrier.service;
+
+import com.logistics.parcelandcarrier.cache.PackageCache;
+import com.logistics.parcelandcarrier.cache.TransporterRegistry;
+import com.logistics.parcelandcarrier.dto.request.BulkAssignmentRequest;
+import com.logistics.parcelandcarrier.dto.response.BulkOperationResponse;
+import com.logistics.parcelandcarrier.dto.response.BulkOperationResponse.ItemResult;
+import com.logistics.parcelandcarrier.entity.Package;
+import com.logistics.parcelandcarrier.entity.User;
+import com.logistics.parcelandcarrier.enums.OutboxEventType;
+import com.logistics.parcelandcarrier.enums.PackageStatus;
+import com.logistics.parcelandcarrier.enums.TransporterStatus;
+import com.logistics.parcelandcarrier.exception.ResourceNotFoundException;
+import com.logistics.parcelandcarrier.exception.SpecialtyIncompatibleException;
+import com.logistics.parcelandcarrier.exception.TransporterUnavailableException;
+import com.logistics.parcelandcarrier.outbox.OutboxWriter;
+import com.logistics.parcelandcarrier.repository.PackageRepository;
+import com.logistics.parcelandcarrier.repository.PackageShardKey;
+import com.logistics.parcelandcarrier.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk package operations.
+ * Entities are prefetched with one {@code $in} query per collection, the same business rules as
+ * {@link PackageService} are checked in memory, and the changes are applied with conditional bulk
+ * writes, so a request costs a handful of round trips instead of several per package. The conditions
+ * re-check the state read by the prefetch: an item changed concurrently fails on its own.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Timed(value = "parcelandcarrier.service", histogram = true)
+public class BulkPackageService {
+
+  /**
+   * Unmapped field holding the token of the bulk request that last claimed or released the
+   * transporter, or changed the package status, so that a request can tell its own writes from
+   * concurrent ones
+   */
+  static final String CLAIM_TOKEN = "claim_token";
+
+  private final PackageRepository packageRepository;
+  private final UserRepository userRepository;
+  private final MongoTemplate mongoTemplate;
+  private final PackageCache packageCache;
+  private final TransporterRegistry transporterRegistry;
+  private final OutboxWriter outboxWriter;
+
+  /**
+   * Assign many packages, each to its transporter
+   * @param assignments (package, transporter) pairs
+   * @return per-item results, in request order
+   */
+  public BulkOperationResponse assignPackages(List<BulkAssignmentRequest.Assignment> assignments) {
+    log.info("Bulk assigning {} packages", assignments.size());
+
+    Map<String, Package> packages = byId(
+      packageRepository.findAllById(distinct(assignments, BulkAssignmentRequest.Assignment::getPackageId)),
+      Package::getId
+    );
+    Map<String, User> transporters = byId(
+      userRepository.findAllById(distinct(assignments, BulkAssignmentRequest.Assignment::getTransporterId)),
+      User::getId
+    );
+
+    ItemResult[] results = new ItemResult[assignments.size()];
+    List<PlannedAssignment> planned = new ArrayList<>();
+    Set<String> seenPackages = new HashSet<>();
+    Set<String> claimedTransporters = new HashSet<>();
+
+    for (int i = 0; i < assignments.size(); i++) {
+      BulkAssignmentRequest.Assignment assignment = assignments.get(i);
+      try {
+        planned.add(new PlannedAssignment(i, validateAssignment(
+          assignment, packages, transporters, seenPackages, claimedTransporters
+        )));
+      } catch (RuntimeException e) {
+        results[i] = failure(assignment.getPackageId(), e.getMessage());
+      }
+    }
+
+    applyAssignments(planned, results);
+
+    BulkOperationResponse response = BulkOperationResponse.of(Arrays.asList(results));
+    log.info("Bulk assignment done: {} succeeded, {} failed", response.getSucceeded(), response.getFailed());
+    return response;
+  }
+
+  /**
+   * Change the status of many packages (admin)
+   * @param packageIds package IDs
+   * @param newStatus new status for every package
+   * @return per-item results, in request order
+   */
+  public BulkOperationResponse changeStatus(List<String> packageIds, PackageStatus newStatus) {
+    log.info("Bulk changing status of {} packages to {}", packageIds.size(), newStatus);
+    return applyStatusChange(packageIds, null, newStatus);
+  }
+
+  /**
+   * Change the status of many packages of the authenticated transporter
+   * Ownership is part of the update filter, so a package reassigned meanwhile is not touched
+   * @param packageIds package IDs
+   * @param transporterId transporter ID
+   * @param newStatus new status for every package
+   * @return per-item results, in request order
+   */
+  public BulkOperationResponse changeStatusMyPackages(
+    List<String> packageIds,
+    String transporterId,
+    PackageStatus newStatus
+  ) {
+    log.info("Transporter {} bulk changing status of {} packages to {}",
+      transporterId, packageIds.size(), newStatus);
+    return applyStatusChange(packageIds, transporterId, newStatus);
+  }
+
+  // =========================================================================
+  // Private helper methods
+  // =========================================================================
+
+  private record PlannedAssignment(int index, ValidAssignment assignment) {
+  }
+
+  private record ValidAssignment(Package pkg, User transporter) {
+  }
+
+  /**
+   * Same checks as {@link PackageService#assignPackageToTransporter}, against the prefetched state
+   * and the assignments already accepted in this request
+   */
+  private ValidAssignment validateAssignment(
+    BulkAssignmentRequest.Assignment assignment,
+    Map<String, Package> packages,
+    Map<String, User> transporters,
+    Set<String> seenPackages,
+    Set<String> claimedTransporters
+  ) {
+    String packageId = assignment.getPackageId();
+    String transporterId = assignment.getTransporterId();
+
+    Package pkg = packages.get(packageId);
+    if (pkg == null) {
+      throw new ResourceNotFoundException("Package", "id", packageId);
+    }
+    if (!seenPackages.add(packageId)) {
+      throw new IllegalArgumentException("Package appears more than once in the request");
+    }
+
+    User transporter = transporters.get(transporterId);
+    if (transporter == null) {
+      throw new ResourceNotFoundException("User", "id", transporterId);
+    }
+    if (!transporter.isTransporter()) {
+      throw new IllegalArgumentException("User is not a transporter");
+    }
+    if (!pkg.canBeAssigned()) {
+      throw new IllegalStateException("Package cannot be assigned in status: " + pkg.getStatus());
+    }
+    if (!transporter.canHandlePackage(pkg.getType())) {
+      throw new SpecialtyIncompatibleException(pkg.getType(), transporter.getSpecialty());
+    }
+    if (claimedTransporters.contains(transporterId)) {
+      // Already taken by an earlier item of this request
+      throw new TransporterUnavailableException(transporterId, TransporterStatus.ON_DELIVERY);
+    }
+    if (!transporter.canTakeNewPackage()) {
+      throw new TransporterUnavailableException(transporterId, transporter.getStatus());
+    }
+
+    claimedTransporters.add(transporterId);
+    return new ValidAssignment(pkg, transporter);
+  }
+
+  /**
+   * Claim the transporters, then assign the packages, each with one conditional bulk write.
+   * When a write matches fewer documents than planned, the affected documents are read back to
+   * find the items that lost a race; transporters claimed for a lost package are released.
+   * The claims carry a token of this request: a transporter claimed at the same moment by another
+   * request or node is ON_DELIVERY too, and only the token tells the two apart.
+   */
+  private void applyAssignments(List<PlannedAssignment> planned, ItemResult[] results) {
+    if (planned.isEmpty()) {
+      return;
+    }
+    LocalDateTime now = LocalDateTime.now();
+    String claimToken = UUID.randomUUID().toString();
+
+    // 1. Transporters: AVAILABLE -> ON_DELIVERY, only if still available and active
+    BulkOperations transporterOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+    for (PlannedAssignment item : planned) {
+      transporterOps.updateOne(
+        new Query(Criteria.where("id").is(item.assignment().transporter().getId())
+          .and("status").is(TransporterStatus.AVAILABLE)
+          .and("active").is(true)),
+        new Update()
+          .set("status", TransporterStatus.ON_DELIVERY)
+          .set("updatedAt", now)
+          .set(CLAIM_TOKEN, claimToken)
+      );
+    }
+    int claimed = transporterOps.execute().getMatchedCount();
+    // Read back only on a shortfall, by claim token
+    Set<String> lostTransporters = claimed == planned.size()
+      ? Set.of()
+      : transportersNotWritten(distinct(planned, item -> item.assignment().transporter().getId()), claimToken);
+
+    List<PlannedAssignment> withTransporter = new ArrayList<>();
+    for (PlannedAssignment item : planned) {
+      User transporter = item.assignment().transporter();
+      if (lostTransporters.contains(transporter.getId())) {
+        results[item.index()] = failure(item.assignment().pkg().getId(),
+          new TransporterUnavailableException(transporter.getId(), TransporterStatus.ON_DELIVERY).getMessage());
+      } else {
+        withTransporter.add(item);
+      }
+    }
+    if (withTransporter.isEmpty()) {
+      return;
+    }
+
+    // 2. Packages: PENDING -> IN_TRANSIT with their transporter, only if still pending.
+    // The filter carries the full shard key and the routing key follows the transporter
+    BulkOperations packageOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Package.class);
+    for (PlannedAssignment item : withTransporter) {
+      Package pkg = item.assignment().pkg();
+      String transporterId = item.assignment().transporter().getId();
+      packageOps.updateOne(
+        new Query(Criteria.where("id").is(pkg.getId())
+          .and("routingKey").is(PackageShardKey.of(pkg))
+          .and("status").is(PackageStatus.PENDING)),
+        new Update()
+          .set("transporterId", transporterId)
+          .set("routingKey", PackageShardKey.forTransporter(transporterId))
+          .set("status", PackageStatus.IN_TRANSIT)
+          .set("updatedAt", now)
+      );
+    }
+    int assigned = packageOps.execute().getMatchedCount();
+    Map<String, String> currentTransporters = assigned == withTransporter.size()
+      ? null
+      : packageTransporters(withTransporter);
+
+    // 3. Results, write-through and release of the transporters whose package was lost
+    List<Package> assignedPackages = new ArrayList<>();
+    List<User> toRelease = new ArrayList<>();
+    for (PlannedAssignment item : withTransporter) {
+      Package pkg = item.assignment().pkg();
+      User transporter = item.assignment().transporter();
+
+      if (currentTransporters != null && !transporter.getId().equals(currentTransporters.get(pkg.getId()))) {
+        // Released as the claim left it
+        transporter.setUpdatedAt(now);
+        toRelease.add(transporter);
+        results[item.index()] = failure(pkg.getId(), "Package was changed concurrently and cannot be assigned");
+        continue;
+      }
+
+      pkg.assignToTransporter(transporter.getId());
+      pkg.setUpdatedAt(now);
+      transporter.setOnDelivery();
+      transporter.setUpdatedAt(now);
+      packageCache.put(pkg);
+      transporterRegistry.put(transporter);
+      assignedPackages.add(pkg);
+      results[item.index()] = success(pkg);
+    }
+
+    releaseTransporters(toRelease, now);
+    outboxWriter.record(OutboxEventType.PACKAGE_ASSIGNED, assignedPackages);
+  }
+
+  /**
+   * Validate against the prefetched packages, apply one {@code updateMulti}, then release the
+   * transporters left without a package in transit, once each
+   * @param owner transporter the packages must belong to, or null for an admin
+   */
+  private BulkOperationResponse applyStatusChange(List<String> packageIds, String owner, PackageStatus newStatus) {
+    Map<String, Package> packages = byId(packageRepository.findAllById(new HashSet<>(packageIds)), Package::getId);
+
+    ItemResult[] results = new ItemResult[packageIds.size()];
+    Map<String, Integer> planned = new HashMap<>();
+    for (int i = 0; i < packageIds.size(); i++) {
+      String packageId = packageIds.get(i);
+      Package pkg = packages.get(packageId);
+      if (pkg == null) {
+        results[i] = failure(packageId, new ResourceNotFoundException("Package", "id", packageId).getMessage());
+      } else if (planned.containsKey(packageId)) {
+        results[i] = failure(packageId, "Package appears more than once in the request");
+      } else if (owner != null && !owner.equals(pkg.getTransporterId())) {
+        results[i] = failure(packageId, "Package does not belong to this transporter");
+      } else {
+        planned.put(packageId, i);
+      }
+    }
+
+    if (!planned.isEmpty()) {
+      applyStatusUpdate(planned, packages, owner, newStatus, results);
+    }
+
+    BulkOperationResponse response = BulkOperationResponse.of(Arrays.asList(results));
+    log.info("Bulk status change done: {} succeeded, {} failed", response.getSucceeded(), response.getFailed());
+    return response;
+  }
+
+  /**
+   * The update carries a token of this request. When it matches fewer packages than planned, the
+   * packages carrying the token are read back: they are the ones it changed, with their current
+   * transporter, and the others are told apart as deleted, reassigned away from the owner, or
+   * changed concurrently (e.g. reassigned, which moves the routing key).
+   */
+  private void applyStatusUpdate(
+    Map<String, Integer> planned,
+    Map<String, Package> packages,
+    String owner,
+    PackageStatus newStatus,
+    ItemResult[] results
+  ) {
+    LocalDateTime now = LocalDateTime.now();
+    String claimToken = UUID.randomUUID().toString();
+    // The routing keys send the update to the shards holding the packages only
+    Criteria filter = Criteria.where("id").in(planned.keySet())
+      .and("routingKey").in(planned.keySet().stream().map(id -> PackageShardKey.of(packages.get(id))).collect(Collectors.toSet()));
+    if (owner != null) {
+      filter.and("transporterId").is(owner);
+    }
+    long matched = mongoTemplate.updateMulti(
+      new Query(filter),
+      new Update().set("status", newStatus).set("updatedAt", now).set(CLAIM_TOKEN, claimToken),
+      Package.class
+    ).getMatchedCount();
+
+    // Read back only on a shortfall: transporter of each package this update changed
+    Map<String, String> written = matched == planned.size()
+      ? null
+      : packagesWritten(planned.keySet(), claimToken);
+    Map<String, String> currentTransporters = written == null || written.size() == planned.size()
+      ? Map.of()
+      : packageTransporters(planned.keySet().stream().filter(id -> !written.containsKey(id)).toList());
+
+    List<Package> changed = new ArrayList<>();
+    Set<String> affectedTransporters = new HashSet<>();
+    for (Map.Entry<String, Integer> item : planned.entrySet()) {
+      Package pkg = packages.get(item.getKey());
+
+      if (written != null && !written.containsKey(pkg.getId())) {
+        results[item.getValue()] = lostStatusChange(pkg.getId(), owner, currentTransporters);
+        continue;
+      }
+      if (written != null) {
+        pkg.setTransporterId(written.get(pkg.getId()));
+      }
+
+      pkg.changeStatus(newStatus);
+      pkg.setUpdatedAt(now);
+      packageCache.put(pkg);
+      changed.add(pkg);
+      results[item.getValue()] = success(pkg);
+      if (pkg.isFinished() && pkg.getTransporterId() != null) {
+        affectedTransporters.add(pkg.getTransporterId());
+      }
+    }
+
+    releaseIdleTransporters(affectedTransporters, now);
+    outboxWriter.record(OutboxEventType.PACKAGE_STATUS_CHANGED, changed);
+  }
+
+  /**
+   * Result of a planned package the status update did not change
+   */
+  private static ItemResult lostStatusChange(String packageId, String owner, Map<String, String> currentTransporters) {
+    if (!currentTransporters.containsKey(packageId)) {
+      return failure(packageId, new ResourceNotFoundException("Package", "id", packageId).getMessage());
+    }
+    if (owner != null && !owner.equals(currentTransporters.get(packageId))) {
+      return failure(packageId, "Package does not belong to this transporter");
+    }
+    return failure(packageId, "Package was changed concurrently and its status was not changed");
+  }
+
+  /**
+   * Release the transporters that no longer have a package in transit, with two queries and one write
+   */
+  private void releaseIdleTransporters(Set<String> transporterIds, LocalDateTime now) {
+    if (transporterIds.isEmpty()) {
+      return;
+    }
+    List<String> busy = mongoTemplate.findDistinct(
+      new Query(Criteria.where("transporterId").in(transporterIds)
+        .and("routingKey").in(busyRoutingKeys(transporterIds))
+        .and("status").is(PackageStatus.IN_TRANSIT)),
+      "transporterId",
+      Package.class,
+      String.class
+    );
+
+    List<String> idleIds = new ArrayList<>();
+    for (String transporterId : transporterIds) {
+      if (!busy.contains(transporterId)) {
+        idleIds.add(transporterId);
+      }
+    }
+    if (idleIds.isEmpty()) {
+      return;
+    }
+    // Current state from Mongo: the registry may lag behind another node's writes
+    List<User> idle = new ArrayList<>();
+    userRepository.findAllById(idleIds).forEach(idle::add);
+    releaseTransporters(idle, now);
+  }
+
+  /**
+   * Routing keys of the transporters' packages, and null for packages stored before the key
+   * existed: a transporter released while one of those is in transit would be handed a second one
+   */
+  private static List<String> busyRoutingKeys(Set<String> transporterIds) {
+    List<String> keys = new ArrayList<>();
+    transporterIds.forEach(id -> keys.add(PackageShardKey.forTransporter(id)));
+    keys.add(null);
+    return keys;
+  }
+
+  /**
+   * Current transporter of each package carrying this request's token (the value is null when unassigned)
+   */
+  private Map<String, String> packagesWritten(Collection<String> ids, String claimToken) {
+    Query query = new Query(Criteria.where("id").in(ids).and(CLAIM_TOKEN).is(claimToken));
+    query.fields().include("transporterId");
+
+    Map<String, String> transporters = new HashMap<>();
+    for (Package pkg : mongoTemplate.find(query, Package.class)) {
+      transporters.put(pkg.getId(), pkg.getTransporterId());
+    }
+    return transporters;
+  }
+
+  /**
+   * Transporters that do not carry this request's token
+   */
+  private Set<String> transportersNotWritten(Set<String> transporterIds, String claimToken) {
+    Set<String> ids = new HashSet<>(transporterIds);
+    Query query = new Query(Criteria.where("id").in(ids).and(CLAIM_TOKEN).is(claimToken));
+    query.fields().include("id");
+
+    mongoTemplate.find(query, User.class).forEach(user -> ids.remove(user.getId()));
+    return ids;
+  }
+
+  private Map<String, String> packageTransporters(List<PlannedAssignment> planned) {
+    return packageTransporters(planned.stream().map(item -> item.assignment().pkg().getId()).toList());
+  }
+
+  /**
+   * Current transporter of each package that still exists (the value is null when unassigned)
+   */
+  private Map<String, String> packageTransporters(Collection<String> ids) {
+    Query query = new Query(Criteria.where("id").in(ids));
+    query.fields().include("transporterId");
+
+    Map<String, String> transporters = new HashMap<>();
+    for (Package pkg : mongoTemplate.find(query, Package.class)) {
+      transporters.put(pkg.getId(), pkg.getTransporterId());
+    }
+    return transporters;
+  }
+
+  /**
+   * Set transporters back to AVAILABLE with one conditional bulk write, each only if it is still
+   * ON_DELIVERY with the {@code updatedAt} it was read with: a transporter claimed again meanwhile by
+   * another request keeps its new package. Only the transporters released are written to the
+   * registry, the others are reloaded from Mongo.
+   * @param transporters transporters as read, or as this request's claim left them
+   */
+  private void releaseTransporters(Collection<User> transporters, LocalDateTime now) {
+    if (transporters.isEmpty()) {
+      return;
+    }
+    String releaseToken = UUID.randomUUID().toString();
+    BulkOperations transporterOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+    for (User transporter : transporters) {
+      transporterOps.updateOne(
+        new Query(Criteria.where("id").is(transporter.getId())
+          .and("status").is(TransporterStatus.ON_DELIVERY)
+          .and("updatedAt").is(transporter.getUpdatedAt())),
+        new Update()
+          .set("status", TransporterStatus.AVAILABLE)
+          .set("updatedAt", now)
+          .set(CLAIM_TOKEN, releaseToken)
+      );
+    }
+    int released = transporterOps.execute().getMatchedCount();
+    Set<String> notReleased = released == transporters.size()
+      ? Set.of()
+      : transportersNotWritten(distinct(List.copyOf(transporters), User::getId), releaseToken);
+
+    for (User transporter : transporters) {
+      if (notReleased.contains(transporter.getId())) {
+        transporterRegistry.refreshLocal(transporter.getId());
+        log.warn("Transporter {} changed concurrently and was not released", transporter.getId());
+        continue;
+      }
+      transporter.setAvailable();
+      transporter.setUpdatedAt(now);
+      transporterRegistry.put(transporter);
+    }
+  }
+
+  private static <T> Set<String> distinct(List<T> items, Function<T, String> id) {
+    return items.stream().map(id).collect(Collectors.toSet());
+  }
+
+  private static <T> Map<String, T> byId(Iterable<T> entities, Function<T, String> id) {
+    Map<String, T> map = new HashMap<>();
+    entities.forEach(entity -> map.put(id.apply(entity), entity));
+    return map;
+  }
+
+  private static ItemResult success(Package pkg) {
+    return ItemResult.builder().packageId(pkg.getId()).success(true).status(pkg.getStatus()).build();
+  }
+
+  private static ItemResult failure(String packageId, String error) {
+    return ItemResult.builder().packageId(packageId).success(false).error(error).build();
+  }
+}
@@ -0,0 +1,173 @@
+package com.logistics.parcelandcarrier.service;
+
+import com.logistics.parcelandcarrier.cache.TransporterRegistry;
+import com.logistics.parcelandcarrier.dto.request.TransporterRequest;
+import com.logistics.parcelandcarrier.dto.response.BulkTransporterResponse;
+import com.logistics.parcelandcarrier.dto.response.BulkTransporterResponse.ItemResult;
+import com.logistics.parcelandcarrier.entity.User;
+import com.logistics.parcelandcarrier.mapper.UserMapper;
+import com.logistics.parcelandcarrier.repository.UserRepository;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk transporter onboarding.
+ * Login uniqueness is checked with one {@code $in} query, the passwords are hashed in parallel
+ * (BCrypt is CPU-bound, about 250 ms each at cost 12) on an executor bounded to the cores and shared
+ * by every bulk request, and the transporters are inserted with one unordered bulk write. A login
+ * taken meanwhile fails its own item on the unique index.
+ */
+@Slf4j
+@Service
+@Timed(value = "parcelandcarrier.service", histogram = true)
+public class BulkTransporterService {
+
+  /** Duplicate key error code, raised by the unique login index */
+  private static final int DUPLICATE_KEY = 11000;
+
+  private final UserRepository userRepository;
+  private final UserMapper userMapper;
+  private final PasswordEncoder passwordEncoder;
+  private final MongoTemplate mongoTemplate;
+  private final TransporterRegistry transporterRegistry;
+  private final SimpleAsyncTaskExecutor hashingExecutor;
+
+  public BulkTransporterService(
+    UserRepository userRepository,
+    UserMapper userMapper,
+    PasswordEncoder passwordEncoder,
+    MongoTemplate mongoTemplate,
+    TransporterRegistry transporterRegistry,
+    SimpleAsyncTaskExecutorBuilder executorBuilder,
+    @Value("${transporters.bulk.hashing-parallelism:0}") int hashingParallelism
+  ) {
+    this.userRepository = userRepository;
+    this.userMapper = userMapper;
+    this.passwordEncoder = passwordEncoder;
+    this.mongoTemplate = mongoTemplate;
+    this.transporterRegistry = transporterRegistry;
+    this.hashingExecutor = executorBuilder
+      .threadNamePrefix("password-hashing-")
+      .concurrencyLimit(hashingParallelism > 0 ? hashingParallelism : Runtime.getRuntime().availableProcessors())
+      .build();
+  }
+
+  /**
+   * Create many transporters
+   * @param requests transporter creation requests
+   * @return per-item results, in request order
+   */
+  public BulkTransporterResponse createTransporters(List<TransporterRequest> requests) {
+    log.info("Bulk creating {} transporters", requests.size());
+
+    ItemResult[] results = new ItemResult[requests.size()];
+    Set<String> taken = userRepository.findLoginsIn(
+      requests.stream().map(TransporterRequest::getLogin).collect(Collectors.toSet())
+    ).stream().map(User::getLogin).collect(Collectors.toSet());
+
+    // Request index of each login to create
+    Map<String, Integer> planned = new LinkedHashMap<>();
+    for (int i = 0; i < requests.size(); i++) {
+      String login = requests.get(i).getLogin();
+      if (taken.contains(login)) {
+        results[i] = failure(login, "Login already exists: " + login);
+      } else if (planned.containsKey(login)) {
+        results[i] = failure(login, "Login appears more than once in the request");
+      } else {
+        planned.put(login, i);
+      }
+    }
+
+    List<Integer> indexes = new ArrayList<>(planned.values());
+    List<User> transporters = build(requests, indexes);
+    Map<Integer, String> rejected = insert(transporters);
+
+    for (int k = 0; k < transporters.size(); k++) {
+      User transporter = transporters.get(k);
+      int index = indexes.get(k);
+      if (rejected.containsKey(k)) {
+        results[index] = failure(transporter.getLogin(), rejected.get(k));
+      } else {
+        transporterRegistry.put(transporter);
+        results[index] = ItemResult.builder()
+          .login(transporter.getLogin())
+          .success(true)
+          .transporter(userMapper.toResponse(transporter))
+          .build();
+      }
+    }
+
+    BulkTransporterResponse response = BulkTransporterResponse.of(Arrays.asList(results));
+    log.info("Bulk creation done: {} succeeded, {} failed", response.getSucceeded(), response.getFailed());
+    return response;
+  }
+
+  // =========================================================================
+  // Private helper methods
+  // =========================================================================
+
+  /**
+   * Hash the passwords in parallel, then map the requests to entities with their ids assigned,
+   * since the bulk insert does not report them back
+   */
+  private List<User> build(List<TransporterRequest> requests, List<Integer> indexes) {
+    List<CompletableFuture<String>> hashes = indexes.stream()
+      .map(i -> CompletableFuture.supplyAsync(
+        () -> passwordEncoder.encode(requests.get(i).getPassword()), hashingExecutor))
+      .toList();
+
+    List<User> transporters = new ArrayList<>(indexes.size());
+    for (int k = 0; k < indexes.size(); k++) {
+      User transporter = userMapper.toEntity(requests.get(indexes.get(k)), hashes.get(k).join());
+      transporter.setId(new ObjectId().toHexString());
+      transporters.add(transporter);
+    }
+    return transporters;
+  }
+
+  /**
+   * One unordered bulk insert
+   * @return error message of each rejected transporter, by position in the list
+   */
+  private Map<Integer, String> insert(List<User> transporters) {
+    if (transporters.isEmpty()) {
+      return Map.of();
+    }
+    try {
+      mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class).insert(transporters).execute();
+      return Map.of();
+    } catch (BulkOperationException e) {
+      Map<Integer, String> rejected = new HashMap<>();
+      for (BulkWriteError error : e.getErrors()) {
+        rejected.put(error.getIndex(), error.getCode() == DUPLICATE_KEY
+          ? "Login already exists: " + transporters.get(error.getIndex()).getLogin()
+          : error.getMessage());
+      }
+      return rejected;
+    }
+  }
+
+  private static ItemResult failure(String login, String error) {
+    return ItemResult.builder().login(login).success(false).error(error).build();
+  }
+}
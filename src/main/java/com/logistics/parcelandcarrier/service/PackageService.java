@@ -1,17 +1,26 @@
 package com.logistics.parcelandcarrier.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.logistics.parcelandcarrier.cache.PackageCache;
+import com.logistics.parcelandcarrier.cache.TransporterRegistry;
 import com.logistics.parcelandcarrier.dto.request.PackageRequest;
 import com.logistics.parcelandcarrier.dto.response.PackageResponse;
 import com.logistics.parcelandcarrier.entity.Package;
 import com.logistics.parcelandcarrier.entity.User;
+import com.logistics.parcelandcarrier.enums.OutboxEventType;
 import com.logistics.parcelandcarrier.enums.PackageStatus;
-import com.logistics.parcelandcarrier.enums.PackageType;
+import com.logistics.parcelandcarrier.exception.ConflictException;
 import com.logistics.parcelandcarrier.exception.ResourceNotFoundException;
 import com.logistics.parcelandcarrier.exception.SpecialtyIncompatibleException;
 import com.logistics.parcelandcarrier.exception.TransporterUnavailableException;
+import com.logistics.parcelandcarrier.mapper.JsonMergePatch;
 import com.logistics.parcelandcarrier.mapper.PackageMapper;
+import com.logistics.parcelandcarrier.outbox.OutboxWriter;
+import com.logistics.parcelandcarrier.repository.PackageFilter;
+import com.logistics.parcelandcarrier.repository.PackageQueries;
 import com.logistics.parcelandcarrier.repository.PackageRepository;
 import com.logistics.parcelandcarrier.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -25,11 +34,16 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Timed(value = "parcelandcarrier.service", histogram = true)
 public class PackageService {
 
   private final PackageRepository packageRepository;
   private final UserRepository userRepository;
   private final PackageMapper packageMapper;
+  private final PackageCache packageCache;
+  private final TransporterRegistry transporterRegistry;
+  private final OutboxWriter outboxWriter;
+  private final JsonMergePatch jsonMergePatch;
 
   /**
    * Create a new package
@@ -48,6 +62,8 @@ public class PackageService {
 
     // Save package
     Package savedPackage = packageRepository.save(packageEntity);
+    packageCache.put(savedPackage);
+    outboxWriter.record(OutboxEventType.PACKAGE_CREATED, savedPackage);
 
     log.info("Package created successfully with ID: {}", savedPackage.getId());
 
@@ -56,33 +72,33 @@ public class PackageService {
 
   /**
    * Find all packages with filters and pagination (Admin view)
-   * @param type package type filter (optional)
-   * @param status package status filter (optional)
-   * @param pageable pagination info
+   * Any combination of filters is served by one indexed query, see {@link PackageQueries}
+   * @param filter optional filters
+   * @param pageable pagination info; unsorted pages are newest first
    * @return page of packages
    */
-  public Page<PackageResponse> findAllWithFilters(
-    PackageType type,
-    PackageStatus status,
-    Pageable pageable
-  ) {
-    log.debug("Finding packages with filters - type: {}, status: {}", type, status);
-
-    Page<Package> packages;
-
-    if (type != null && status != null) {
-      packages = packageRepository.findByTypeAndStatus(status, type, pageable);
-    } else if (type != null) {
-      packages = packageRepository.findByType(type, pageable);
-    } else if (status != null) {
-      packages = packageRepository.findByStatus(status, pageable);
-    } else {
-      packages = packageRepository.findAll(pageable);
-    }
+  public Page<PackageResponse> findAllWithFilters(PackageFilter filter, Pageable pageable) {
+    log.debug("Finding packages with filters: {}", filter);
+
+    Page<Package> packages = packageRepository.findWithFilter(filter, pageable);
 
     return packageMapper.toResponsePage(packages);
   }
 
+  /**
+   * Find a package by id, live or archived, from the package cache
+   * @param id package ID
+   * @return package, possibly lagging behind another node's latest write
+   */
+  public PackageResponse findById(String id) {
+    log.debug("Finding package: {}", id);
+
+    Package packageEntity = packageCache.get(id, () -> packageRepository.findIncludingArchive(id))
+      .orElseThrow(() -> new ResourceNotFoundException("Package", "id", id));
+
+    return packageMapper.toResponse(packageEntity);
+  }
+
   /**
    * Search packages by destination address
    * @param address address to search
@@ -92,8 +108,7 @@ public class PackageService {
   public Page<PackageResponse> searchByAddress(String address, Pageable pageable) {
     log.debug("Searching packages by address: {}", address);
 
-    Page<Package> packages = packageRepository
-      .findByDestinationAddressContainingIgnoreCase(address, pageable);
+    Page<Package> packages = packageRepository.searchByAddress(null, address, pageable);
 
     return packageMapper.toResponsePage(packages);
   }
@@ -108,21 +123,25 @@ public class PackageService {
   public PackageResponse updatePackage(String id, PackageRequest request) {
     log.info("Updating package: {}", id);
 
-    // Validate business rules
-    request.validate();
-
-    // Find existing package
-    Package packageEntity = findPackageById(id);
-
-    // Update entity from DTO
-    packageMapper.updateEntityFromDto(request, packageEntity);
+    return update(findPackageById(id), request);
+  }
 
-    // Save updated package
-    Package updatedPackage = packageRepository.save(packageEntity);
+  /**
+   * Update an existing package from a JSON Merge Patch of its request
+   * @param id package ID
+   * @param patch merge patch; fields it leaves out keep their value
+   * @return updated package
+   */
+  @Transactional
+  public PackageResponse patchPackage(String id, JsonNode patch) {
+    log.info("Patching package: {}", id);
 
-    log.info("Package updated successfully: {}", id);
+    Package packageEntity = findPackageById(id);
+    PackageRequest request = jsonMergePatch.apply(
+      packageMapper.toRequest(packageEntity), patch, PackageRequest.class
+    );
 
-    return packageMapper.toResponse(updatedPackage);
+    return update(packageEntity, request);
   }
 
   /**
@@ -135,8 +154,8 @@ public class PackageService {
   public PackageResponse assignPackageToTransporter(String packageId, String transporterId) {
     log.info("Assigning package {} to transporter {}", packageId, transporterId);
 
-    // Find package and transporter
-    Package packageEntity = findPackageById(packageId);
+    // Find package and transporter; an assignable package is unassigned and routed by its id
+    Package packageEntity = findPackageById(packageId, null);
     User transporter = findTransporterById(transporterId);
 
     // Verify package can be assigned
@@ -153,19 +172,28 @@ public class PackageService {
     verifyTransporterAvailability(transporter);
 
     // Assign package to transporter
-    packageEntity.assignToTransporter(transporterId);
+    Package assignedPackage = packageEntity.toBuilder().build();
+    assignedPackage.assignToTransporter(transporterId);
 
     // Update transporter status to ON_DELIVERY
-    transporter.setOnDelivery();
-
-    // Save both entities
-    packageRepository.save(packageEntity);
-    userRepository.save(transporter);
+    User busyTransporter = transporter.toBuilder().build();
+    busyTransporter.setOnDelivery();
+
+    // Claim the transporter first: a package write that misses is undone by releasing it again.
+    // There is no transaction across the two documents, so the event is recorded once both are written
+    writeChanges(transporter, busyTransporter);
+    try {
+      writeChanges(packageEntity, assignedPackage);
+    } catch (ConflictException e) {
+      releaseClaimed(busyTransporter);
+      throw e;
+    }
+    outboxWriter.record(OutboxEventType.PACKAGE_ASSIGNED, assignedPackage);
 
     log.info("Package {} assigned successfully to transporter {}",
       packageId, transporterId);
 
-    return packageMapper.toResponse(packageEntity);
+    return packageMapper.toResponse(assignedPackage);
   }
 
   /**
@@ -181,15 +209,17 @@ public class PackageService {
     Package packageEntity = findPackageById(id);
 
     // Change status
-    packageEntity.changeStatus(newStatus);
+    Package updatedPackage = packageEntity.toBuilder().build();
+    updatedPackage.changeStatus(newStatus);
 
-    // If package is delivered or cancelled, release transporter
-    if (packageEntity.isFinished() && packageEntity.getTransporterId() != null) {
-      releaseTransporter(packageEntity.getTransporterId());
-    }
+    // Write status and updated_at only
+    writeChanges(packageEntity, updatedPackage);
 
-    // Save package
-    Package updatedPackage = packageRepository.save(packageEntity);
+    // If package is delivered or cancelled, release transporter, once the package is written
+    if (updatedPackage.isFinished() && updatedPackage.getTransporterId() != null) {
+      releaseTransporter(updatedPackage.getTransporterId());
+    }
+    outboxWriter.record(OutboxEventType.PACKAGE_STATUS_CHANGED, updatedPackage);
 
     log.info("Package status changed successfully: {} -> {}", id, newStatus);
 
@@ -206,12 +236,14 @@ public class PackageService {
 
     Package packageEntity = findPackageById(id);
 
-    // If package is assigned, release transporter
+    packageRepository.delete(packageEntity);
+    packageCache.evict(id);
+
+    // If package was assigned, release transporter
     if (packageEntity.isAssigned()) {
       releaseTransporter(packageEntity.getTransporterId());
     }
-
-    packageRepository.delete(packageEntity);
+    outboxWriter.record(OutboxEventType.PACKAGE_DELETED, packageEntity);
 
     log.info("Package deleted successfully: {}", id);
   }
@@ -230,15 +262,7 @@ public class PackageService {
   ) {
     log.debug("Finding packages for transporter: {}", transporterId);
 
-    Page<Package> packages;
-
-    if (status != null) {
-      packages = packageRepository.findByTransporterIdAndStatus(
-        transporterId, status, pageable
-      );
-    } else {
-      packages = packageRepository.findByTransporterId(transporterId, pageable);
-    }
+    Page<Package> packages = packageRepository.findByTransporter(transporterId, status, pageable);
 
     return packageMapper.toResponsePage(packages);
   }
@@ -258,14 +282,29 @@ public class PackageService {
     log.debug("Searching packages for transporter {} by address: {}",
       transporterId, address);
 
-    Page<Package> packages = packageRepository
-      .findByTransporterIdAndDestinationAddressContainingIgnoreCase(
-        transporterId, address, pageable
-      );
+    Page<Package> packages = packageRepository.searchByAddress(transporterId, address, pageable);
 
     return packageMapper.toResponsePage(packages);
   }
 
+  /**
+   * Find one of the transporter's packages by id, from the package cache
+   * @param packageId package ID
+   * @param transporterId transporter ID
+   * @return package, possibly lagging behind another node's latest write
+   */
+  public PackageResponse findMyPackage(String packageId, String transporterId) {
+    log.debug("Transporter {} finding package: {}", transporterId, packageId);
+
+    Package packageEntity = packageCache.get(packageId, () -> packageRepository.findRouted(packageId, transporterId))
+      .orElseThrow(() -> new ResourceNotFoundException("Package", "id", packageId));
+
+    // Verify package ownership
+    verifyPackageOwnership(packageEntity, transporterId);
+
+    return packageMapper.toResponse(packageEntity);
+  }
+
   /**
    * Change status of transporter's package
    * @param packageId package ID
@@ -282,21 +321,23 @@ public class PackageService {
     log.info("Transporter {} changing status of package {} to {}",
       transporterId, packageId, newStatus);
 
-    Package packageEntity = findPackageById(packageId);
+    Package packageEntity = findPackageById(packageId, transporterId);
 
     // Verify package ownership
     verifyPackageOwnership(packageEntity, transporterId);
 
     // Change status
-    packageEntity.changeStatus(newStatus);
+    Package updatedPackage = packageEntity.toBuilder().build();
+    updatedPackage.changeStatus(newStatus);
+
+    // Write status and updated_at only
+    writeChanges(packageEntity, updatedPackage);
 
-    // If package is delivered or cancelled, release transporter
-    if (packageEntity.isFinished()) {
+    // If package is delivered or cancelled, release transporter, once the package is written
+    if (updatedPackage.isFinished()) {
       releaseTransporter(transporterId);
     }
-
-    // Save package
-    Package updatedPackage = packageRepository.save(packageEntity);
+    outboxWriter.record(OutboxEventType.PACKAGE_STATUS_CHANGED, updatedPackage);
 
     log.info("Package status changed successfully by transporter: {} -> {}",
       packageId, newStatus);
@@ -308,11 +349,70 @@ public class PackageService {
   // Private helper methods
   // =========================================================================
 
+  private PackageResponse update(Package packageEntity, PackageRequest request) {
+    // Validate business rules
+    request.validate();
+
+    // Update a copy from DTO, so that the stored state can be diffed against it
+    Package updatedPackage = packageEntity.toBuilder().build();
+    packageMapper.updateEntityFromDto(request, updatedPackage);
+
+    // Write the changed fields only
+    writeChanges(packageEntity, updatedPackage);
+    outboxWriter.record(OutboxEventType.PACKAGE_UPDATED, updatedPackage);
+
+    log.info("Package updated successfully: {}", packageEntity.getId());
+
+    return packageMapper.toResponse(updatedPackage);
+  }
+
+  /**
+   * Write the fields of a package that differ from its stored state, then cache it.
+   * A miss means the package was changed or deleted since it was read: the cached copy is dropped
+   * and the request fails with a conflict, to be retried against the current state.
+   */
+  private void writeChanges(Package stored, Package changed) {
+    if (!packageRepository.updateChanged(stored, changed)) {
+      packageCache.evict(stored.getId());
+      throw new ConflictException("Package", stored.getId());
+    }
+    packageCache.put(changed);
+  }
+
+  /**
+   * Write the fields of a transporter that differ from its stored state, then index it.
+   * A miss means the transporter was changed since it was read: it is reloaded into the registry
+   * and the request fails with a conflict.
+   */
+  private void writeChanges(User stored, User changed) {
+    if (!userRepository.updateChanged(stored, changed)) {
+      transporterRegistry.refreshLocal(stored.getId());
+      throw new ConflictException("User", stored.getId());
+    }
+    transporterRegistry.put(changed);
+  }
+
+  /**
+   * Read from Mongo, not the cache: the business checks run on this state and the write that
+   * follows expects it, while a cached copy may lag behind another node's writes
+   */
   private Package findPackageById(String id) {
     return packageRepository.findById(id)
       .orElseThrow(() -> new ResourceNotFoundException("Package", "id", id));
   }
 
+  /**
+   * Lookup targeted at the shard of the given transporter's packages, or of an unassigned package
+   */
+  private Package findPackageById(String id, String transporterId) {
+    return packageRepository.findRouted(id, transporterId)
+      .orElseThrow(() -> new ResourceNotFoundException("Package", "id", id));
+  }
+
+  /**
+   * Read from Mongo, not the registry: availability is decided on this state and the write that
+   * follows expects it, while the registry may lag behind another node's writes
+   */
   private User findTransporterById(String id) {
     User user = userRepository.findById(id)
       .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
@@ -342,12 +442,27 @@ public class PackageService {
     }
   }
 
+  /**
+   * Set a transporter back to AVAILABLE, after its package was written. The package change stands,
+   * so a transporter changed meanwhile is left as it is rather than failing the request.
+   */
   private void releaseTransporter(String transporterId) {
-    userRepository.findById(transporterId).ifPresent(transporter -> {
-      transporter.setAvailable();
-      userRepository.save(transporter);
-      log.info("Transporter {} released and set to AVAILABLE", transporterId);
-    });
+    userRepository.findById(transporterId).ifPresent(this::releaseClaimed);
+  }
+
+  /**
+   * Set a transporter in the given state back to AVAILABLE, unless it changed since
+   */
+  private void releaseClaimed(User transporter) {
+    User availableTransporter = transporter.toBuilder().build();
+    availableTransporter.setAvailable();
+    if (!userRepository.updateChanged(transporter, availableTransporter)) {
+      transporterRegistry.refreshLocal(transporter.getId());
+      log.warn("Transporter {} changed concurrently and was not released", transporter.getId());
+      return;
+    }
+    transporterRegistry.put(availableTransporter);
+    log.info("Transporter {} released and set to AVAILABLE", transporter.getId());
   }
 
   private void verifyPackageOwnership(Package packageEntity, String transporterId) {
@@ -0,0 +1,125 @@
+package com.logistics.parcelandcarrier.service;
+
+import com.logistics.parcelandcarrier.dto.response.PackageResponse;
+import com.logistics.parcelandcarrier.entity.Package;
+import com.logistics.parcelandcarrier.enums.PackageStatus;
+import com.logistics.parcelandcarrier.mapper.PackageMapper;
+import com.logistics.parcelandcarrier.repository.PackageFilter;
+import com.logistics.parcelandcarrier.repository.PackageShardKey;
+import com.logistics.parcelandcarrier.repository.ReactivePackageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+/**
+ * Streaming read operations on packages, backed by the reactive MongoDB driver.
+ * Mirrors the read side of {@link PackageService}; writes stay on the blocking service.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReactivePackageService {
+
+  private final ReactivePackageRepository reactivePackageRepository;
+  private final PackageMapper packageMapper;
+
+  /**
+   * Number of documents requested from the cursor ahead of the HTTP writer.
+   * The response writer asks for one element at a time; without this the driver would
+   * fetch one document per getMore.
+   */
+  @Value("${packages.stream.prefetch:256}")
+  private int prefetch;
+
+  /**
+   * Stream all packages with filters (Admin view).
+   * Same filters, order and archive rule as {@link PackageService#findAllWithFilters}, so the
+   * stream and the paged listing return the same packages.
+   * @param filter normalized filters
+   * @param pageable skip/limit/sort
+   * @return flux of packages
+   */
+  public Flux<PackageResponse> streamAllWithFilters(PackageFilter filter, Pageable pageable) {
+    log.debug("Streaming packages with filters: {}", filter);
+
+    return toResponses(reactivePackageRepository.streamWithFilter(filter, pageable));
+  }
+
+  /**
+   * Stream packages by destination address
+   * @param address address to search
+   * @param pageable skip/limit/sort
+   * @return flux of packages
+   */
+  public Flux<PackageResponse> streamByAddress(String address, Pageable pageable) {
+    log.debug("Streaming packages by address: {}", address);
+
+    return toResponses(
+      reactivePackageRepository.findByDestinationAddressContainingIgnoreCase(address, pageable)
+    );
+  }
+
+  /**
+   * Stream packages assigned to a transporter (Transporter view)
+   * @param transporterId transporter ID
+   * @param status status filter (optional)
+   * @param pageable skip/limit/sort
+   * @return flux of packages
+   */
+  public Flux<PackageResponse> streamMyPackagesWithFilters(
+    String transporterId,
+    PackageStatus status,
+    Pageable pageable
+  ) {
+    log.debug("Streaming packages for transporter: {}", transporterId);
+
+    Flux<Package> packages;
+
+    if (status != null) {
+      packages = reactivePackageRepository.findByTransporterIdAndRoutingKeyAndStatus(
+        transporterId, PackageShardKey.forTransporter(transporterId), status, pageable
+      );
+    } else {
+      packages = reactivePackageRepository.findByTransporterIdAndRoutingKey(
+        transporterId, PackageShardKey.forTransporter(transporterId), pageable
+      );
+    }
+
+    return toResponses(packages);
+  }
+
+  /**
+   * Stream transporter's packages by address
+   * @param transporterId transporter ID
+   * @param address address to search
+   * @param pageable skip/limit/sort
+   * @return flux of packages
+   */
+  public Flux<PackageResponse> streamMyPackagesByAddress(
+    String transporterId,
+    String address,
+    Pageable pageable
+  ) {
+    log.debug("Streaming packages for transporter {} by address: {}",
+      transporterId, address);
+
+    return toResponses(
+      reactivePackageRepository.findByTransporterIdAndRoutingKeyAndDestinationAddressContainingIgnoreCase(
+        transporterId, PackageShardKey.forTransporter(transporterId), address, pageable
+      )
+    );
+  }
+
+  // =========================================================================
+  // Private helper methods
+  // =========================================================================
+
+  private Flux<PackageResponse> toResponses(Flux<Package> packages) {
+    return packages
+      .limitRate(prefetch)
+      .map(packageMapper::toResponse);
+  }
+}
@@ -0,0 +1,44 @@
+package com.logistics.parcelandcarrier.service;
+
+import com.logistics.parcelandcarrier.dto.response.UserResponse;
+import com.logistics.parcelandcarrier.mapper.UserMapper;
+import com.logistics.parcelandcarrier.repository.ReactiveUserRepository;
+import com.logistics.parcelandcarrier.repository.UserFilter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+/**
+ * Streaming read operations on users, backed by the reactive MongoDB driver.
+ * Used for full dumps; paged reads stay on {@link TransporterService}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReactiveUserService {
+
+  private final ReactiveUserRepository reactiveUserRepository;
+  private final UserMapper userMapper;
+
+  /**
+   * Number of documents requested from the cursor ahead of the HTTP writer
+   * (same read-ahead as the package streams)
+   */
+  @Value("${packages.stream.prefetch:256}")
+  private int prefetch;
+
+  /**
+   * Stream every matching user in id order
+   * @param filter optional role, active and specialty filters
+   * @return flux of users
+   */
+  public Flux<UserResponse> streamUsers(UserFilter filter) {
+    log.debug("Streaming users with filter: {}", filter);
+
+    return reactiveUserRepository.streamAll(filter)
+      .limitRate(prefetch)
+      .map(userMapper::toResponse);
+  }
+}
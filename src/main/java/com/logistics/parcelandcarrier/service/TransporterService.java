@@ -1,13 +1,23 @@
 package com.logistics.parcelandcarrier.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.logistics.parcelandcarrier.cache.TransporterRegistry;
 import com.logistics.parcelandcarrier.dto.request.TransporterRequest;
+import com.logistics.parcelandcarrier.dto.response.CursorPageResponse;
 import com.logistics.parcelandcarrier.dto.response.UserResponse;
 import com.logistics.parcelandcarrier.entity.User;
+import com.logistics.parcelandcarrier.enums.PackageType;
 import com.logistics.parcelandcarrier.enums.Role;
 import com.logistics.parcelandcarrier.enums.Specialty;
+import com.logistics.parcelandcarrier.enums.TransporterStatus;
+import com.logistics.parcelandcarrier.exception.ConflictException;
 import com.logistics.parcelandcarrier.exception.ResourceNotFoundException;
+import com.logistics.parcelandcarrier.mapper.JsonMergePatch;
 import com.logistics.parcelandcarrier.mapper.UserMapper;
+import com.logistics.parcelandcarrier.repository.UserFilter;
 import com.logistics.parcelandcarrier.repository.UserRepository;
+import com.logistics.parcelandcarrier.security.RevokedTokenRegistry;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -16,6 +26,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -24,26 +35,52 @@ import java.util.List;
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Timed(value = "parcelandcarrier.service", histogram = true)
 public class TransporterService {
 
+  /** Upper bound of a user listing page */
+  static final int MAX_PAGE_SIZE = 500;
+
   private final UserRepository userRepository;
   private final UserMapper userMapper;
   private final PasswordEncoder passwordEncoder;
+  private final TransporterRegistry transporterRegistry;
+  private final JsonMergePatch jsonMergePatch;
+  private final RevokedTokenRegistry revokedTokenRegistry;
+  private final ApiKeyService apiKeyService;
 
   /**
-   * Find all users (Admin and Transporters)
-   * @return list of users
+   * Find users (Admin and Transporters) one page at a time, in id order
+   * @param filter optional role, active and specialty filters
+   * @param after cursor returned with the previous page (optional)
+   * @param size page size, at most {@value #MAX_PAGE_SIZE}
+   * @return page of users with the cursor of the next one
    */
-  public List<UserResponse> findAllUsers() {
-    log.debug("Finding all users");
+  public CursorPageResponse<UserResponse> findUsers(UserFilter filter, String after, int size) {
+    log.debug("Finding users with filter: {}, after: {}", filter, after);
+
+    if (size < 1 || size > MAX_PAGE_SIZE) {
+      throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+    }
 
-    List<User> users = userRepository.findAll();
+    // One extra user tells whether another page exists, without a count query
+    List<User> users = userRepository.findPageAfter(filter, after, size + 1);
+    boolean last = users.size() <= size;
+    if (!last) {
+      users = users.subList(0, size);
+    }
 
-    return userMapper.toResponseList(users);
+    return CursorPageResponse.<UserResponse>builder()
+      .content(userMapper.toResponseList(users))
+      .size(size)
+      .nextCursor(last ? null : users.get(users.size() - 1).getId())
+      .last(last)
+      .build();
   }
 
   /**
    * Find transporters with filters and pagination
+   * Served from the transporter registry unless a sort is requested or it is still loading
    * @param specialty specialty filter (optional)
    * @param pageable pagination info
    * @return page of transporters
@@ -56,7 +93,9 @@ public class TransporterService {
 
     Page<User> transporters;
 
-    if (specialty != null) {
+    if (transporterRegistry.isReady() && pageable.isPaged() && pageable.getSort().isUnsorted()) {
+      transporters = transporterRegistry.findAll(specialty, pageable);
+    } else if (specialty != null) {
       transporters = userRepository.findByRoleAndSpecialty(
         Role.TRANSPORTER, specialty, pageable
       );
@@ -67,6 +106,28 @@ public class TransporterService {
     return userMapper.toResponsePage(transporters);
   }
 
+  /**
+   * Find the active, available transporters able to carry a package type (assignment candidates)
+   * Served from the transporter registry's specialty and status index unless it is still loading
+   * @param packageType package type
+   * @return available transporters of the matching specialties
+   */
+  public List<UserResponse> findAvailableTransporters(PackageType packageType) {
+    log.debug("Finding available transporters for package type: {}", packageType);
+
+    List<User> transporters = new ArrayList<>();
+    for (Specialty specialty : Specialty.values()) {
+      if (!specialty.matchesPackageType(packageType)) {
+        continue;
+      }
+      transporters.addAll(transporterRegistry.isReady()
+        ? transporterRegistry.findActive(specialty, TransporterStatus.AVAILABLE)
+        : userRepository.findAvailableTransportersForPackageType(Role.TRANSPORTER, TransporterStatus.AVAILABLE, specialty));
+    }
+
+    return userMapper.toResponseList(transporters);
+  }
+
   /**
    * Create a new transporter
    * @param request transporter creation request
@@ -87,6 +148,7 @@ public class TransporterService {
 
     // Save transporter
     User savedTransporter = userRepository.save(transporter);
+    transporterRegistry.put(savedTransporter);
 
     log.info("Transporter created successfully: {}", savedTransporter.getId());
 
@@ -96,36 +158,32 @@ public class TransporterService {
   /**
    * Update an existing transporter
    * @param id transporter ID
-   * @param request update request
+   * @param request update request; a missing password keeps the existing one
    * @return updated transporter
    */
   @Transactional
   public UserResponse updateTransporter(String id, TransporterRequest request) {
     log.info("Updating transporter: {}", id);
 
-    // Find existing transporter
-    User transporter = verifyTransporterExists(id);
-
-    // Verify new login is unique (if changed)
-    if (!transporter.getLogin().equals(request.getLogin())) {
-      verifyUniqueLogin(request.getLogin());
-    }
-
-    // Hash password if provided
-    String hashedPassword = null;
-    if (request.getPassword() != null && !request.getPassword().isEmpty()) {
-      hashedPassword = hashPassword(request.getPassword());
-    }
-
-    // Update entity from DTO
-    userMapper.updateEntityFromDto(request, hashedPassword, transporter);
+    return update(verifyTransporterExists(id), request);
+  }
 
-    // Save updated transporter
-    User updatedTransporter = userRepository.save(transporter);
+  /**
+   * Update an existing transporter from a JSON Merge Patch of its request
+   * @param id transporter ID
+   * @param patch merge patch; fields it leaves out, including the password, keep their value
+   * @return updated transporter
+   */
+  @Transactional
+  public UserResponse patchTransporter(String id, JsonNode patch) {
+    log.info("Patching transporter: {}", id);
 
-    log.info("Transporter updated successfully: {}", id);
+    User transporter = verifyTransporterExists(id);
+    TransporterRequest request = jsonMergePatch.apply(
+      userMapper.toRequest(transporter), patch, TransporterRequest.class
+    );
 
-    return userMapper.toResponse(updatedTransporter);
+    return update(transporter, request);
   }
 
   /**
@@ -139,9 +197,14 @@ public class TransporterService {
     User transporter = verifyTransporterExists(id);
 
     // Deactivate user
-    transporter.deactivate();
+    User deactivatedTransporter = transporter.toBuilder().build();
+    deactivatedTransporter.deactivate();
+
+    writeChanges(transporter, deactivatedTransporter);
 
-    userRepository.save(transporter);
+    // Log out everywhere at once; the transporter's API keys are rejected from now on too, and revoked
+    revokedTokenRegistry.revokeSubject(id);
+    apiKeyService.revokeUserApiKeys(id);
 
     log.info("Transporter deactivated successfully: {}", id);
   }
@@ -159,9 +222,10 @@ public class TransporterService {
       .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
 
     // Activate user
-    user.activate();
+    User activatedUser = user.toBuilder().build();
+    activatedUser.activate();
 
-    User activatedUser = userRepository.save(user);
+    writeChanges(user, activatedUser);
 
     log.info("User activated successfully: {}", id);
 
@@ -172,6 +236,41 @@ public class TransporterService {
   // Private helper methods
   // =========================================================================
 
+  private UserResponse update(User transporter, TransporterRequest request) {
+    // Verify new login is unique (if changed)
+    if (!transporter.getLogin().equals(request.getLogin())) {
+      verifyUniqueLogin(request.getLogin());
+    }
+
+    // Update a copy from DTO, so that the stored state can be diffed against it
+    User updatedTransporter = transporter.toBuilder().build();
+    if (request.getPassword() != null && !request.getPassword().isEmpty()) {
+      userMapper.updateEntityFromDto(request, hashPassword(request.getPassword()), updatedTransporter);
+    } else {
+      userMapper.updateEntityFromDto(request, transporter.getPassword(), updatedTransporter);
+    }
+
+    // Write the changed fields only
+    writeChanges(transporter, updatedTransporter);
+
+    log.info("Transporter updated successfully: {}", transporter.getId());
+
+    return userMapper.toResponse(updatedTransporter);
+  }
+
+  /**
+   * Write the fields of a user that differ from its stored state, then index it.
+   * A miss means the user was changed since it was read: it is reloaded into the registry and the
+   * request fails with a conflict.
+   */
+  private void writeChanges(User stored, User changed) {
+    if (!userRepository.updateChanged(stored, changed)) {
+      transporterRegistry.refreshLocal(stored.getId());
+      throw new ConflictException("User", stored.getId());
+    }
+    transporterRegistry.put(changed);
+  }
+
   /**
    * Verify that login is unique
    */
@@ -189,7 +288,9 @@ public class TransporterService {
   }
 
   /**
-   * Verify transporter exists and is a transporter
+   * Verify transporter exists and is a transporter.
+   * Read from Mongo, not the registry: the write that follows expects the values read, and the
+   * registry may lag behind another node's writes
    */
   private User verifyTransporterExists(String id) {
     User user = userRepository.findById(id)
@@ -0,0 +1,134 @@
+package com.logistics.parcelandcarrier.warmup;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Runs synthetic requests until the JIT settles, before the application reports ready.
+ * Application runners complete before Spring Boot publishes ReadinessState.ACCEPTING_TRAFFIC, so
+ * /actuator/health/readiness answers 503 for the whole warm-up while liveness is already UP. The
+ * workload runs in batches; after each one the JVM's total compilation time is read, and the
+ * warm-up ends once {@code settleBatches} consecutive batches compiled for less than
+ * {@code settleThreshold}, or at the iteration or time limit. A JVM without compilation time
+ * monitoring runs to the iteration limit. A failing workload ends the warm-up and never the startup.
+ * Duration, iterations and JIT time are published as {@code startup.warmup.*} with an outcome tag.
+ */
+@Slf4j
+public class JitWarmup implements ApplicationRunner {
+
+  private final WarmupProperties properties;
+  private final WarmupWorkload workload;
+  private final MeterRegistry meterRegistry;
+  /** Total JIT compilation time in milliseconds, -1 when unavailable */
+  private final LongSupplier compilationMillis;
+
+  public JitWarmup(WarmupProperties properties, WarmupWorkload workload, MeterRegistry meterRegistry) {
+    this(properties, workload, meterRegistry, compilationTime());
+  }
+
+  JitWarmup(
+    WarmupProperties properties,
+    WarmupWorkload workload,
+    MeterRegistry meterRegistry,
+    LongSupplier compilationMillis
+  ) {
+    this.properties = properties;
+    this.workload = workload;
+    this.meterRegistry = meterRegistry;
+    this.compilationMillis = compilationMillis;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    if (!properties.enabled()) {
+      return;
+    }
+    // Gauges hold their state weakly; the result is only referenced by them
+    Result result = warmUp();
+    log.info("JIT warm-up {}: {} iterations in {} ms, {} ms compiling",
+      result.outcome(), result.iterations(), result.durationNanos() / 1_000_000, result.compilationMillis());
+
+    TimeGauge.builder("startup.warmup.duration", result, TimeUnit.NANOSECONDS, Result::durationNanos)
+      .description("Time spent warming up the JIT before readiness")
+      .tag("outcome", result.outcome())
+      .strongReference(true)
+      .register(meterRegistry);
+    Gauge.builder("startup.warmup.iterations", result, Result::iterations)
+      .description("Synthetic requests run during the warm-up")
+      .tag("outcome", result.outcome())
+      .strongReference(true)
+      .register(meterRegistry);
+    TimeGauge.builder("startup.warmup.compilation", result, TimeUnit.MILLISECONDS, Result::compilationMillis)
+      .description("JIT compilation time during the warm-up")
+      .tag("outcome", result.outcome())
+      .strongReference(true)
+      .register(meterRegistry);
+  }
+
+  Result warmUp() {
+    long start = System.nanoTime();
+    long deadline = start + properties.maxDuration().toNanos();
+    long settleThreshold = properties.settleThreshold().toMillis();
+    long compiledAtStart = compilationMillis.getAsLong();
+    long compiled = compiledAtStart;
+    int iterations = 0;
+    int settled = 0;
+    int sink = 0;
+    String outcome;
+
+    while (true) {
+      try {
+        for (int i = 0; i < properties.batchSize() && iterations < properties.maxIterations(); i++) {
+          sink += workload.run(iterations);
+          iterations++;
+        }
+      } catch (RuntimeException e) {
+        log.warn("JIT warm-up stopped after {} iterations: {}", iterations, e.getMessage());
+        outcome = "failed";
+        break;
+      }
+
+      long compiledNow = compilationMillis.getAsLong();
+      if (compiledNow >= 0) {
+        settled = compiledNow - compiled < settleThreshold ? settled + 1 : 0;
+        compiled = compiledNow;
+      }
+      if (compiledNow >= 0 && settled >= properties.settleBatches()) {
+        outcome = "settled";
+        break;
+      }
+      if (iterations >= properties.maxIterations()) {
+        outcome = "iteration-limit";
+        break;
+      }
+      if (System.nanoTime() - deadline >= 0) {
+        outcome = "time-limit";
+        break;
+      }
+    }
+
+    log.debug("JIT warm-up checksum {}", sink);
+    long compilation = compiledAtStart >= 0 ? compilationMillis.getAsLong() - compiledAtStart : 0;
+    return new Result(outcome, iterations, System.nanoTime() - start, compilation);
+  }
+
+  private static LongSupplier compilationTime() {
+    CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+    if (compilation == null || !compilation.isCompilationTimeMonitoringSupported()) {
+      return () -> -1;
+    }
+    return compilation::getTotalCompilationTime;
+  }
+
+  record Result(String outcome, int iterations, long durationNanos, long compilationMillis) {
+  }
+}
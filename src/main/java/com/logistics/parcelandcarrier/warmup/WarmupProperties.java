@@ -0,0 +1,26 @@
+package com.logistics.parcelandcarrier.warmup;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * JIT warm-up settings ({@code startup.warmup.*})
+ * @param enabled run the warm-up before the readiness probe reports UP
+ * @param batchSize synthetic requests between two reads of the JIT compilation time
+ * @param settleThreshold compilation time per batch below which the JIT is considered settled
+ * @param settleBatches consecutive settled batches that end the warm-up
+ * @param maxIterations upper bound on synthetic requests
+ * @param maxDuration upper bound on the warm-up time
+ */
+@ConfigurationProperties("startup.warmup")
+public record WarmupProperties(
+  @DefaultValue("false") boolean enabled,
+  @DefaultValue("200") int batchSize,
+  @DefaultValue("5ms") Duration settleThreshold,
+  @DefaultValue("3") int settleBatches,
+  @DefaultValue("50000") int maxIterations,
+  @DefaultValue("30s") Duration maxDuration
+) {
+}
@@ -0,0 +1,127 @@
+package com.logistics.parcelandcarrier.warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.parcelandcarrier.dto.request.PackageRequest;
+import com.logistics.parcelandcarrier.dto.response.PackageResponse;
+import com.logistics.parcelandcarrier.dto.response.UserResponse;
+import com.logistics.parcelandcarrier.entity.Package;
+import com.logistics.parcelandcarrier.entity.User;
+import com.logistics.parcelandcarrier.enums.PackageStatus;
+import com.logistics.parcelandcarrier.enums.PackageType;
+import com.logistics.parcelandcarrier.enums.Role;
+import com.logistics.parcelandcarrier.enums.Specialty;
+import com.logistics.parcelandcarrier.enums.TransporterStatus;
+import com.logistics.parcelandcarrier.mapper.PackageMapper;
+import com.logistics.parcelandcarrier.mapper.UserMapper;
+import com.logistics.parcelandcarrier.security.JwtService;
+import com.mongodb.MongoClientSettings;
+import jakarta.validation.Validator;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One synthetic request through the hot paths, without touching a database.
+ * Mirrors what an authenticated package request costs on the CPU: JWT signing and verification,
+ * JSON binding and bean validation of the body, the MapStruct mappers, the entity conversion and
+ * BSON encoding the Mongo driver performs on a save and a read, and the JSON serialization of the
+ * response and of a listing page. Repositories are left out, so the warm-up neither needs nor
+ * writes data.
+ */
+public class WarmupWorkload {
+
+  private static final String PACKAGE_JSON = """
+    {"type":"REFRIGERATED","weight":4.2,"destinationAddress":"12 Rue de la Warm-up, Lyon",
+     "minTemperature":2.0,"maxTemperature":8.0}
+    """;
+
+  private final JwtService jwtService;
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
+  private final PackageMapper packageMapper;
+  private final UserMapper userMapper;
+  private final MongoConverter mongoConverter;
+  private final Codec<Document> documentCodec = MongoClientSettings.getDefaultCodecRegistry().get(Document.class);
+  private final User user = User.builder()
+    .id("000000000000000000000000")
+    .login("warmup")
+    .password("hash")
+    .role(Role.TRANSPORTER)
+    .active(true)
+    .specialty(Specialty.REFRIGERATED)
+    .status(TransporterStatus.AVAILABLE)
+    .createdAt(LocalDateTime.now())
+    .updatedAt(LocalDateTime.now())
+    .build();
+
+  public WarmupWorkload(
+    JwtService jwtService,
+    ObjectMapper objectMapper,
+    Validator validator,
+    PackageMapper packageMapper,
+    UserMapper userMapper,
+    MongoConverter mongoConverter
+  ) {
+    this.jwtService = jwtService;
+    this.objectMapper = objectMapper;
+    this.validator = validator;
+    this.packageMapper = packageMapper;
+    this.userMapper = userMapper;
+    this.mongoConverter = mongoConverter;
+  }
+
+  /**
+   * Run one synthetic request
+   * @param iteration request number, varied into the payload so nothing is constant-folded
+   * @return size of the serialized responses, consumed by the caller
+   */
+  public int run(int iteration) {
+    String token = jwtService.generateToken(user);
+    if (!jwtService.validateToken(token) || !user.getLogin().equals(jwtService.extractUsername(token))) {
+      throw new IllegalStateException("Warm-up token rejected");
+    }
+    jwtService.extractUserId(token);
+
+    try {
+      PackageRequest request = objectMapper.readValue(PACKAGE_JSON, PackageRequest.class);
+      request.setWeight(1.0 + iteration % 100);
+      if (!validator.validate(request).isEmpty()) {
+        throw new IllegalStateException("Warm-up request rejected");
+      }
+      request.validate();
+
+      Package entity = packageMapper.toEntity(request);
+      entity.setId(user.getId());
+      entity.setTransporterId(user.getId());
+      entity.setStatus(PackageStatus.values()[iteration % PackageStatus.values().length]);
+      Package read = roundTrip(entity, Package.class);
+      User transporter = roundTrip(user, User.class);
+
+      PackageResponse response = packageMapper.toResponse(read);
+      response.setTransporterLogin(transporter.getLogin());
+      UserResponse userResponse = userMapper.toResponse(transporter);
+      return objectMapper.writeValueAsString(response).length()
+        + objectMapper.writeValueAsString(userResponse).length()
+        + objectMapper.writeValueAsString(new PageImpl<>(List.of(response), PageRequest.of(0, 20), 1)).length();
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Warm-up serialization failed", e);
+    }
+  }
+
+  /**
+   * Entity to BSON bytes and back, as on a save followed by a find
+   */
+  private <T> T roundTrip(T entity, Class<T> type) {
+    Document document = new Document();
+    mongoConverter.write(entity, document);
+    Document decoded = new RawBsonDocument(document, documentCodec).decode(documentCodec);
+    return mongoConverter.read(type, decoded);
+  }
+}
@@ -0,0 +1,131 @@
+package com.logistics.parcelandcarrier.archive;
+
+import com.logistics.parcelandcarrier.cache.PackageCache;
+import com.logistics.parcelandcarrier.config.IndexMigration;
+import com.logistics.parcelandcarrier.entity.Package;
+import com.logistics.parcelandcarrier.enums.PackageStatus;
+import com.logistics.parcelandcarrier.enums.PackageType;
+import com.logistics.parcelandcarrier.repository.PackageQueries;
+import com.mongodb.client.result.DeleteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PackageArchiverTest {
+
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private MongoTemplate mongoTemplate;
+    private PackageCache packageCache;
+    private IndexMigration indexMigration;
+    private BulkOperations bulk;
+    private SimpleMeterRegistry meterRegistry;
+    private PackageArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        packageCache = mock(PackageCache.class);
+        indexMigration = mock(IndexMigration.class);
+        bulk = mock(BulkOperations.class);
+        meterRegistry = new SimpleMeterRegistry();
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(Package.class),
+                eq(PackageQueries.ARCHIVE_COLLECTION))).thenReturn(bulk);
+
+        archiver = new PackageArchiver(mongoTemplate, packageCache, indexMigration,
+                new ArchiveProperties(true, Duration.ofDays(30), 2, Duration.ZERO, Duration.ofMinutes(1)),
+                new SimpleAsyncTaskExecutorBuilder(), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("A chunk is copied to the archive before it is deleted, and its cache entries evicted")
+    void testChunk() {
+        when(mongoTemplate.find(any(Query.class), eq(Package.class))).thenReturn(packages("p1", "p2"));
+        when(mongoTemplate.remove(any(Query.class), eq(Package.class))).thenReturn(DeleteResult.acknowledged(2));
+
+        assertEquals(2, archiver.archiveChunk(CUTOFF));
+
+        InOrder order = inOrder(bulk, mongoTemplate);
+        order.verify(bulk).execute();
+        order.verify(mongoTemplate).remove(any(Query.class), eq(Package.class));
+        verify(bulk, times(2)).replaceOne(any(Query.class), any(Package.class), any());
+        verify(packageCache).evict("p1");
+        verify(packageCache).evict("p2");
+        assertEquals(2, meterRegistry.get("packages.archive.moved").counter().count());
+    }
+
+    @Test
+    @DisplayName("A package changed during the move stays in place and its copy is withdrawn")
+    void testChangedDuringMove() {
+        when(mongoTemplate.find(any(Query.class), eq(Package.class)))
+                .thenReturn(packages("p1", "p2"))
+                .thenReturn(packages("p2"));
+        when(mongoTemplate.remove(any(Query.class), eq(Package.class))).thenReturn(DeleteResult.acknowledged(1));
+
+        assertEquals(1, archiver.archiveChunk(CUTOFF));
+
+        verify(mongoTemplate).remove(argThat((Query query) -> query.getQueryObject().toJson().contains("p2")
+                && !query.getQueryObject().toJson().contains("p1")), eq(Package.class), eq(PackageQueries.ARCHIVE_COLLECTION));
+        assertEquals(1, meterRegistry.get("packages.archive.withdrawn").counter().count());
+    }
+
+    @Test
+    @DisplayName("A run moves full chunks until a short one, after creating the archive indexes")
+    void testRun() {
+        when(mongoTemplate.find(any(Query.class), eq(Package.class)))
+                .thenReturn(packages("p1", "p2"))
+                .thenReturn(packages("p3"));
+        when(mongoTemplate.remove(any(Query.class), eq(Package.class)))
+                .thenReturn(DeleteResult.acknowledged(2))
+                .thenReturn(DeleteResult.acknowledged(1));
+
+        assertEquals(3, archiver.archive());
+
+        verify(indexMigration).ensureIndexes(Package.class, PackageQueries.ARCHIVE_COLLECTION);
+        verify(bulk, times(2)).execute();
+    }
+
+    @Test
+    @DisplayName("A failed copy deletes nothing and leaves the run to the next interval")
+    void testFailedCopy() {
+        when(mongoTemplate.find(any(Query.class), eq(Package.class))).thenReturn(packages("p1"));
+        when(bulk.execute()).thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertEquals(0, archiver.archive());
+
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(Package.class));
+        verifyNoInteractions(packageCache);
+    }
+
+    private static List<Package> packages(String... ids) {
+        List<Package> packages = new ArrayList<>();
+        for (String id : ids) {
+            packages.add(Package.builder()
+                    .id(id)
+                    .type(PackageType.STANDARD)
+                    .weight(1.0)
+                    .destinationAddress("1 Rue de Paris")
+                    .status(PackageStatus.DELIVERED)
+                    .createdAt(CUTOFF.minusDays(60))
+                    .updatedAt(CUTOFF.minusDays(45))
+                    .build());
+        }
+        return packages;
+    }
+}
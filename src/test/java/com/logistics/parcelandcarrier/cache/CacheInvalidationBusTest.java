@@ -0,0 +1,151 @@
+package com.logistics.parcelandcarrier.cache;
+
+import com.mongodb.CursorType;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CacheInvalidationBusTest {
+
+    private static final String COLLECTION = "cache_invalidations";
+
+    private MongoCollection<Document> collection;
+    private CoherentCache packages;
+    private CacheInvalidationBus bus;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        MongoDatabase db = mock(MongoDatabase.class);
+        collection = mock(MongoCollection.class);
+        packages = mock(CoherentCache.class);
+        when(packages.region()).thenReturn(CacheInvalidatedEvent.Region.PACKAGES);
+        // A standalone server: no setName, so the bus tails the capped collection
+        when(mongoTemplate.getDb()).thenReturn(db);
+        when(db.runCommand(any(Bson.class))).thenReturn(new Document("isWritablePrimary", true));
+        when(mongoTemplate.collectionExists(COLLECTION)).thenReturn(true);
+        when(mongoTemplate.getCollection(COLLECTION)).thenReturn(collection);
+
+        bus = new CacheInvalidationBus(mongoTemplate, List.of(packages), new SimpleAsyncTaskExecutorBuilder(),
+                new SimpleMeterRegistry(), CacheInvalidationBus.Source.AUTO, COLLECTION, 1024);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bus.stop();
+    }
+
+    @Test
+    @DisplayName("Local writes are published with a timestamp for the server to assign")
+    void testPublishedWithServerTimestamp() {
+        emptyCollection();
+        tails(deadCursor());
+        bus.start();
+
+        bus.onLocalInvalidation(new CacheInvalidatedEvent(CacheInvalidatedEvent.Region.PACKAGES, "p1"));
+
+        ArgumentCaptor<Document> entry = ArgumentCaptor.forClass(Document.class);
+        verify(collection).insertOne(entry.capture());
+        assertEquals(new BsonTimestamp(), entry.getValue().get("seq"));
+        assertEquals("seq", entry.getValue().keySet().iterator().next());
+    }
+
+    @Test
+    @DisplayName("A reopened tail resumes after the insertion timestamp, not the ObjectId, of the last entry")
+    void testResumeAcrossPublishers() {
+        emptyCollection();
+        // Node B's ObjectId is lower than node A's, although B's entry was inserted after A's
+        Document fromA = entry(new ObjectId("ffffffffffffffffffffffff"), "node-a", "p1", new BsonTimestamp(100, 1));
+        Document fromB = entry(new ObjectId("000000000000000000000001"), "node-b", "p2", new BsonTimestamp(100, 2));
+        tails(cursorOf(fromA), cursorOf(fromB), deadCursor());
+
+        bus.start();
+
+        verify(packages, timeout(5000)).invalidateLocal("p1");
+        verify(packages, timeout(5000)).invalidateLocal("p2");
+        ArgumentCaptor<Bson> filters = ArgumentCaptor.forClass(Bson.class);
+        verify(collection, atLeast(2)).find(filters.capture());
+        List<Bson> reopened = filters.getAllValues();
+        assertEquals(new Document(), reopened.get(0));
+        assertEquals(render(Filters.gt("seq", new BsonTimestamp(100, 1))), render(reopened.get(1)));
+        verify(packages, never()).invalidateAllLocal();
+    }
+
+    private static Document entry(ObjectId id, String node, String key, BsonTimestamp seq) {
+        return new Document("_id", id)
+                .append("seq", seq)
+                .append("node", node)
+                .append("region", CacheInvalidatedEvent.Region.PACKAGES.name())
+                .append("key", key)
+                .append("at", new Date());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void emptyCollection() {
+        FindIterable<Document> latest = mock(FindIterable.class);
+        when(collection.find()).thenReturn(latest);
+        when(latest.sort(any())).thenReturn(latest);
+        when(latest.limit(anyInt())).thenReturn(latest);
+        when(latest.first()).thenReturn(null);
+    }
+
+    /**
+     * Cursors returned by the successive tail queries
+     */
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    private void tails(MongoCursor<Document>... cursors) {
+        FindIterable<Document>[] finds = new FindIterable[cursors.length];
+        for (int i = 0; i < cursors.length; i++) {
+            finds[i] = mock(FindIterable.class);
+            when(finds[i].cursorType(any(CursorType.class))).thenReturn(finds[i]);
+            when(finds[i].maxAwaitTime(anyLong(), any())).thenReturn(finds[i]);
+            when(finds[i].iterator()).thenReturn(cursors[i]);
+        }
+        when(collection.find(any(Bson.class))).thenReturn(finds[0], Arrays.copyOfRange(finds, 1, finds.length));
+    }
+
+    /**
+     * Tailable cursor returning one entry, then dying as on a lost connection
+     */
+    @SuppressWarnings("unchecked")
+    private static MongoCursor<Document> cursorOf(Document entry) {
+        MongoCursor<Document> cursor = mock(MongoCursor.class);
+        when(cursor.tryNext()).thenReturn(entry, (Document) null);
+        return cursor;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static MongoCursor<Document> deadCursor() {
+        return mock(MongoCursor.class);
+    }
+
+    private static BsonDocument render(Bson filter) {
+        return filter.toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry());
+    }
+}
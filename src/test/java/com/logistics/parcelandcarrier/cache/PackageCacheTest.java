@@ -0,0 +1,159 @@
+package com.logistics.parcelandcarrier.cache;
+
+import com.logistics.parcelandcarrier.entity.Package;
+import com.logistics.parcelandcarrier.enums.PackageStatus;
+import com.logistics.parcelandcarrier.enums.PackageType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackageCacheTest {
+
+    private final List<Object> publishedEvents = new ArrayList<>();
+    private PackageCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new PackageCache(1_000_000, Duration.ofMinutes(10), publishedEvents::add, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Concurrent misses for the same id trigger a single load")
+    void testSingleFlightLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Optional<Package>>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                results.add(executor.submit(() -> cache.get("1", () -> {
+                    loads.incrementAndGet();
+                    loaderStarted.countDown();
+                    await(releaseLoader);
+                    return Optional.of(pkg("1", PackageStatus.PENDING));
+                })));
+            }
+
+            assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+            Thread.sleep(100);
+            releaseLoader.countDown();
+
+            for (Future<Optional<Package>> result : results) {
+                assertEquals("1", result.get(5, TimeUnit.SECONDS).orElseThrow().getId());
+            }
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("Hits do not call the loader")
+    void testHit() {
+        cache.put(pkg("1", PackageStatus.PENDING));
+
+        Optional<Package> result = cache.get("1", () -> fail("loader must not be called"));
+
+        assertTrue(result.isPresent());
+    }
+
+    @Test
+    @DisplayName("Mutating a returned package does not change the cached entry")
+    void testCopyOnRead() {
+        cache.put(pkg("1", PackageStatus.PENDING));
+
+        Package first = cache.get("1", Optional::empty).orElseThrow();
+        first.changeStatus(PackageStatus.CANCELLED);
+
+        assertEquals(PackageStatus.PENDING, cache.get("1", Optional::empty).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("Write-through replaces the entry and is broadcast")
+    void testWriteThrough() {
+        cache.put(pkg("1", PackageStatus.PENDING));
+        cache.put(pkg("1", PackageStatus.IN_TRANSIT));
+
+        assertEquals(PackageStatus.IN_TRANSIT, cache.get("1", Optional::empty).orElseThrow().getStatus());
+        assertEquals(new CacheInvalidatedEvent(CacheInvalidatedEvent.Region.PACKAGES, "1"), publishedEvents.get(1));
+    }
+
+    @Test
+    @DisplayName("A load racing with a write does not overwrite the written value")
+    void testWriteDuringLoadWins() {
+        Optional<Package> loaded = cache.get("1", () -> {
+            // The package is saved while the stale read is in flight
+            cache.put(pkg("1", PackageStatus.DELIVERED));
+            return Optional.of(pkg("1", PackageStatus.IN_TRANSIT));
+        });
+
+        assertEquals(PackageStatus.IN_TRANSIT, loaded.orElseThrow().getStatus());
+        assertEquals(PackageStatus.DELIVERED, cache.get("1", Optional::empty).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("An eviction during a load keeps the stale value out of the cache")
+    void testEvictDuringLoad() {
+        cache.get("1", () -> {
+            cache.evictLocal("1");
+            return Optional.of(pkg("1", PackageStatus.IN_TRANSIT));
+        });
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Missing packages are not cached")
+    void testMissNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("404", () -> { loads.incrementAndGet(); return Optional.empty(); });
+        cache.get("404", () -> { loads.incrementAndGet(); return Optional.empty(); });
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Weight grows with the variable-length fields")
+    void testEstimateSize() {
+        Package small = pkg("1", PackageStatus.PENDING);
+        Package large = small.toBuilder().handlingInstructions("x".repeat(500)).build();
+
+        assertTrue(PackageCache.estimateSize(large) >= PackageCache.estimateSize(small) + 1000);
+    }
+
+    private static Package pkg(String id, PackageStatus status) {
+        return Package.builder()
+                .id(id)
+                .type(PackageType.STANDARD)
+                .weight(1.0)
+                .destinationAddress("1 Rue de Paris")
+                .status(status)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.logistics.parcelandcarrier.cache;
+
+import com.logistics.parcelandcarrier.entity.User;
+import com.logistics.parcelandcarrier.enums.Role;
+import com.logistics.parcelandcarrier.enums.Specialty;
+import com.logistics.parcelandcarrier.enums.TransporterStatus;
+import com.logistics.parcelandcarrier.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TransporterRegistryTest {
+
+    private final List<Object> publishedEvents = new ArrayList<>();
+    private UserRepository userRepository;
+    private TransporterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        registry = new TransporterRegistry(userRepository, publishedEvents::add, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("First reconciliation loads the fleet into the indexes")
+    void testInitialLoad() {
+        when(userRepository.findByRole(Role.TRANSPORTER)).thenReturn(List.of(
+                transporter("1", Specialty.REFRIGERATED, TransporterStatus.AVAILABLE),
+                transporter("2", Specialty.REFRIGERATED, TransporterStatus.ON_DELIVERY),
+                transporter("3", Specialty.STANDARD, TransporterStatus.AVAILABLE)
+        ));
+
+        assertFalse(registry.isReady());
+        registry.reconcile();
+
+        assertTrue(registry.isReady());
+        assertEquals(Set.of("1"), registry.activeIds(Specialty.REFRIGERATED, TransporterStatus.AVAILABLE));
+        assertEquals(Set.of("2"), registry.activeIds(Specialty.REFRIGERATED, TransporterStatus.ON_DELIVERY));
+        assertEquals(3, registry.size());
+    }
+
+    @Test
+    @DisplayName("Index lookups return the same live view without allocating")
+    void testIndexViewIsLive() {
+        Set<String> available = registry.activeIds(Specialty.FRAGILE, TransporterStatus.AVAILABLE);
+
+        registry.put(transporter("1", Specialty.FRAGILE, TransporterStatus.AVAILABLE));
+
+        assertSame(available, registry.activeIds(Specialty.FRAGILE, TransporterStatus.AVAILABLE));
+        assertEquals(Set.of("1"), available);
+        assertThrows(UnsupportedOperationException.class, () -> available.add("2"));
+    }
+
+    @Test
+    @DisplayName("Status changes move the transporter between index sets")
+    void testStatusChangeMovesIndex() {
+        User transporter = transporter("1", Specialty.STANDARD, TransporterStatus.AVAILABLE);
+        registry.put(transporter);
+
+        transporter.setOnDelivery();
+        registry.put(transporter);
+
+        assertTrue(registry.activeIds(Specialty.STANDARD, TransporterStatus.AVAILABLE).isEmpty());
+        assertEquals(Set.of("1"), registry.activeIds(Specialty.STANDARD, TransporterStatus.ON_DELIVERY));
+        assertEquals(new CacheInvalidatedEvent(CacheInvalidatedEvent.Region.TRANSPORTERS, "1"), publishedEvents.get(1));
+    }
+
+    @Test
+    @DisplayName("Deactivated transporters leave the availability index but stay listed")
+    void testDeactivate() {
+        User transporter = transporter("1", Specialty.STANDARD, TransporterStatus.AVAILABLE);
+        registry.put(transporter);
+
+        transporter.deactivate();
+        registry.put(transporter);
+
+        assertTrue(registry.activeIds(Specialty.STANDARD, TransporterStatus.AVAILABLE).isEmpty());
+        assertEquals(1, registry.findAll(Specialty.STANDARD, PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    @DisplayName("Specialty changes move the transporter between specialties")
+    void testSpecialtyChange() {
+        User transporter = transporter("1", Specialty.STANDARD, TransporterStatus.AVAILABLE);
+        registry.put(transporter);
+
+        transporter.setSpecialty(Specialty.FRAGILE);
+        registry.put(transporter);
+
+        assertTrue(registry.activeIds(Specialty.STANDARD, TransporterStatus.AVAILABLE).isEmpty());
+        assertEquals(Set.of("1"), registry.activeIds(Specialty.FRAGILE, TransporterStatus.AVAILABLE));
+        assertEquals(0, registry.findAll(Specialty.STANDARD, PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    @DisplayName("Admins are not indexed")
+    void testAdminIgnored() {
+        registry.put(User.builder().id("admin").login("admin").role(Role.ADMIN).active(true).build());
+
+        assertEquals(0, registry.size());
+        assertTrue(publishedEvents.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Pages follow id order with the total of the filter")
+    void testFindAllPaging() {
+        for (int i = 1; i <= 5; i++) {
+            registry.put(transporter("id" + i, i % 2 == 0 ? Specialty.FRAGILE : Specialty.STANDARD, TransporterStatus.AVAILABLE));
+        }
+
+        Page<User> page = registry.findAll(null, PageRequest.of(1, 2));
+        Page<User> standard = registry.findAll(Specialty.STANDARD, PageRequest.of(0, 10));
+
+        assertEquals(List.of("id3", "id4"), page.map(User::getId).getContent());
+        assertEquals(5, page.getTotalElements());
+        assertEquals(List.of("id1", "id3", "id5"), standard.map(User::getId).getContent());
+    }
+
+    @Test
+    @DisplayName("Reconciliation repairs changed and removed entries and counts the drift")
+    void testReconcileDrift() {
+        User stale = transporter("1", Specialty.STANDARD, TransporterStatus.AVAILABLE);
+        stale.setUpdatedAt(LocalDateTime.now().minusHours(1));
+        User removed = transporter("2", Specialty.STANDARD, TransporterStatus.AVAILABLE);
+        removed.setUpdatedAt(LocalDateTime.now().minusHours(1));
+        when(userRepository.findByRole(Role.TRANSPORTER)).thenReturn(List.of(stale, removed));
+        registry.reconcile();
+
+        User onDelivery = transporter("1", Specialty.STANDARD, TransporterStatus.ON_DELIVERY);
+        when(userRepository.findByRole(Role.TRANSPORTER)).thenReturn(List.of(onDelivery));
+
+        assertEquals(2, registry.reconcile());
+        assertEquals(Set.of("1"), registry.activeIds(Specialty.STANDARD, TransporterStatus.ON_DELIVERY));
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    @DisplayName("Reconciliation keeps entries written after its scan started")
+    void testReconcileKeepsNewerWrites() {
+        when(userRepository.findByRole(Role.TRANSPORTER)).thenAnswer(invocation -> {
+            // Saved while the scan is running, so missing from its result
+            registry.put(transporter("new", Specialty.FRAGILE, TransporterStatus.AVAILABLE));
+            return List.of();
+        });
+
+        registry.reconcile();
+
+        assertEquals(Set.of("new"), registry.activeIds(Specialty.FRAGILE, TransporterStatus.AVAILABLE));
+    }
+
+    private static User transporter(String id, Specialty specialty, TransporterStatus status) {
+        return User.builder()
+                .id(id)
+                .login("login-" + id)
+                .password("hash")
+                .role(Role.TRANSPORTER)
+                .active(true)
+                .specialty(specialty)
+                .status(status)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,67 @@
+package com.logistics.parcelandcarrier.config;
+
+import com.logistics.parcelandcarrier.entity.User;
+import com.logistics.parcelandcarrier.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DataInitializerTest {
+
+    private UserRepository userRepository;
+    private MongoTemplate mongoTemplate;
+    private PasswordEncoder passwordEncoder;
+    private IndexMigration indexMigration;
+    private DataInitializer initializer;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        mongoTemplate = mock(MongoTemplate.class);
+        passwordEncoder = mock(PasswordEncoder.class);
+        indexMigration = mock(IndexMigration.class);
+        when(passwordEncoder.encode("admin123")).thenReturn("hash");
+
+        initializer = new DataInitializer(userRepository, mongoTemplate, passwordEncoder, indexMigration,
+                "admin", "admin123");
+    }
+
+    @Test
+    @DisplayName("An existing admin is left untouched and its password is not re-hashed")
+    void testExistingAdmin() {
+        when(userRepository.existsByLogin("admin")).thenReturn(true);
+
+        initializer.run();
+
+        verifyNoInteractions(passwordEncoder, mongoTemplate, indexMigration);
+        verify(userRepository, never()).delete(any());
+    }
+
+    @Test
+    @DisplayName("A missing admin is upserted on the unique login index")
+    void testMissingAdmin() {
+        initializer.run();
+
+        verify(indexMigration).ensureIndexes(User.class);
+        verify(mongoTemplate).upsert(any(Query.class),
+                argThat((Update update) -> update.getUpdateObject().containsKey("$setOnInsert")), eq(User.class));
+    }
+
+    @Test
+    @DisplayName("An admin created concurrently by another instance is not an error")
+    void testConcurrentCreation() {
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(User.class)))
+                .thenThrow(new DuplicateKeyException("E11000"));
+
+        assertDoesNotThrow(() -> initializer.run());
+    }
+}
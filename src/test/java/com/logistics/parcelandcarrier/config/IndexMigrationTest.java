@@ -0,0 +1,91 @@
+package com.logistics.parcelandcarrier.config;
+
+import com.logistics.parcelandcarrier.entity.Package;
+import com.logistics.parcelandcarrier.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class IndexMigrationTest {
+
+    private MongoTemplate mongoTemplate;
+    private IndexOperations indexOps;
+    private IndexMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.setInitialEntitySet(Set.of(Package.class, User.class));
+        mappingContext.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+
+        mongoTemplate = mock(MongoTemplate.class);
+        indexOps = mock(IndexOperations.class);
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        when(mongoTemplate.indexOps(any(Class.class))).thenReturn(indexOps);
+
+        migration = new IndexMigration(mongoTemplate, new SimpleAsyncTaskExecutorBuilder(), true);
+    }
+
+    @Test
+    @DisplayName("Declared indexes are created and their version recorded")
+    void testMigrate() {
+        when(mongoTemplate.exists(any(Query.class), eq(IndexMigration.MIGRATIONS_COLLECTION))).thenReturn(false);
+
+        assertTrue(migration.migrate());
+
+        verify(indexOps, atLeast(5)).createIndex(any(IndexDefinition.class));
+        verify(mongoTemplate).upsert(any(Query.class), any(Update.class), eq(IndexMigration.MIGRATIONS_COLLECTION));
+    }
+
+    @Test
+    @DisplayName("An applied version costs one read and no index command")
+    void testUpToDate() {
+        when(mongoTemplate.exists(any(Query.class), eq(IndexMigration.MIGRATIONS_COLLECTION))).thenReturn(true);
+
+        assertFalse(migration.migrate());
+
+        verify(indexOps, never()).createIndex(any(IndexDefinition.class));
+        verify(mongoTemplate, never()).upsert(any(Query.class), any(Update.class), anyString());
+    }
+
+    @Test
+    @DisplayName("The version changes with the declarations, not with their order")
+    void testFingerprint() {
+        Index login = new Index("login", org.springframework.data.domain.Sort.Direction.ASC).unique();
+        Index role = new Index("role", org.springframework.data.domain.Sort.Direction.ASC);
+
+        Map<Class<?>, List<IndexDefinition>> declared = new LinkedHashMap<>();
+        declared.put(User.class, List.of(login, role));
+        Map<Class<?>, List<IndexDefinition>> reordered = new LinkedHashMap<>();
+        reordered.put(User.class, List.of(role, login));
+        Map<Class<?>, List<IndexDefinition>> changed = new LinkedHashMap<>();
+        changed.put(User.class, List.of(login));
+
+        assertEquals(IndexMigration.fingerprint(declared), IndexMigration.fingerprint(reordered));
+        assertNotEquals(IndexMigration.fingerprint(declared), IndexMigration.fingerprint(changed));
+    }
+}
@@ -0,0 +1,89 @@
+package com.logistics.parcelandcarrier.config;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MongoCommandDocumentsListenerTest {
+
+    private static final ConnectionDescription CONNECTION = new ConnectionDescription(
+            new ServerId(new ClusterId(), new ServerAddress())
+    );
+
+    private SimpleMeterRegistry registry;
+    private MongoCommandDocumentsListener listener;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        listener = new MongoCommandDocumentsListener(registry);
+    }
+
+    @Test
+    @DisplayName("Should record returned documents per command and collection")
+    void testFindRecordsFirstBatchSize() {
+        execute(1, "find", "{ find: 'packages', filter: {} }",
+                "{ cursor: { id: 0, ns: 'db.packages', firstBatch: [ {}, {}, {} ] }, ok: 1 }");
+
+        DistributionSummary summary = registry.get(MongoCommandDocumentsListener.METRIC_NAME)
+                .tag("command", "find")
+                .tag("collection", "packages")
+                .summary();
+
+        assertEquals(1, summary.count());
+        assertEquals(3.0, summary.totalAmount());
+    }
+
+    @Test
+    @DisplayName("Should resolve getMore collection from the collection field")
+    void testGetMoreUsesCollectionField() {
+        execute(2, "getMore", "{ getMore: NumberLong(42), collection: 'users' }",
+                "{ cursor: { id: 0, ns: 'db.users', nextBatch: [ {}, {} ] }, ok: 1 }");
+
+        assertEquals(2.0, registry.get(MongoCommandDocumentsListener.METRIC_NAME)
+                .tag("command", "getMore")
+                .tag("collection", "users")
+                .summary()
+                .totalAmount());
+    }
+
+    @Test
+    @DisplayName("Should record affected documents for writes")
+    void testUpdateRecordsN() {
+        execute(3, "update", "{ update: 'packages', updates: [] }", "{ n: 5, nModified: 4, ok: 1 }");
+
+        assertEquals(5.0, registry.get(MongoCommandDocumentsListener.METRIC_NAME)
+                .tag("command", "update")
+                .summary()
+                .totalAmount());
+    }
+
+    @Test
+    @DisplayName("Should ignore commands without a document count")
+    void testIgnoresAdminCommands() {
+        execute(4, "ping", "{ ping: 1 }", "{ ok: 1 }");
+
+        assertTrue(registry.find(MongoCommandDocumentsListener.METRIC_NAME).summaries().isEmpty());
+    }
+
+    private void execute(int requestId, String commandName, String command, String response) {
+        BsonDocument commandDocument = BsonDocument.parse(command);
+        listener.commandStarted(new CommandStartedEvent(
+                null, 0L, requestId, CONNECTION, "db", commandName, commandDocument
+        ));
+        listener.commandSucceeded(new CommandSucceededEvent(
+                null, 0L, requestId, CONNECTION, "db", commandName, BsonDocument.parse(response), 1_000L
+        ));
+    }
+}
@@ -0,0 +1,61 @@
+package com.logistics.parcelandcarrier.config;
+
+import com.logistics.parcelandcarrier.entity.Package;
+import com.logistics.parcelandcarrier.repository.PackageQueries;
+import com.logistics.parcelandcarrier.repository.PackageShardKey;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PackageShardingTest {
+
+    private MongoTemplate mongoTemplate;
+    private MongoCollection<Document> packages;
+    private MongoCollection<Document> archive;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        packages = mock(MongoCollection.class);
+        archive = mock(MongoCollection.class);
+        when(mongoTemplate.getCollectionName(Package.class)).thenReturn("packages");
+        when(mongoTemplate.getCollection("packages")).thenReturn(packages);
+        when(mongoTemplate.getCollection(PackageQueries.ARCHIVE_COLLECTION)).thenReturn(archive);
+        when(packages.updateMany(any(Document.class), anyList())).thenReturn(UpdateResult.acknowledged(3, 3L, null));
+        when(archive.updateMany(any(Document.class), anyList())).thenReturn(UpdateResult.acknowledged(0, 0L, null));
+    }
+
+    @Test
+    @DisplayName("The routing key is backfilled at startup even without sharding")
+    @SuppressWarnings("unchecked")
+    void testBackfillWithoutSharding() {
+        PackageSharding sharding = new PackageSharding(mongoTemplate, mock(IndexMigration.class),
+                new ShardingProperties(false, 8), new SimpleAsyncTaskExecutorBuilder());
+
+        sharding.run(new DefaultApplicationArguments());
+
+        ArgumentCaptor<Document> filter = ArgumentCaptor.forClass(Document.class);
+        ArgumentCaptor<List<Document>> pipeline = ArgumentCaptor.forClass(List.class);
+        verify(packages).updateMany(filter.capture(), pipeline.capture());
+        verify(archive).updateMany(any(Document.class), anyList());
+        assertTrue(filter.getValue().containsKey(PackageShardKey.FIELD));
+        assertNull(filter.getValue().get(PackageShardKey.FIELD));
+        assertEquals(PackageSharding.routingKeyExpression(),
+                pipeline.getValue().get(0).get("$set", Document.class).get(PackageShardKey.FIELD));
+        verify(mongoTemplate, never()).getDb();
+    }
+}
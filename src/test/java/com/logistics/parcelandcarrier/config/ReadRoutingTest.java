@@ -0,0 +1,152 @@
+package com.logistics.parcelandcarrier.config;
+
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.ReadPreference;
+import com.mongodb.client.ClientSession;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandSucceededEvent;
+import com.mongodb.ServerAddress;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonTimestamp;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoExceptionTranslator;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ReadRoutingTest {
+
+    private static final ReadRoutingProperties ENABLED =
+            new ReadRoutingProperties(true, "secondaryPreferred", Duration.ofSeconds(120), true);
+
+    private MongoTemplate mongoTemplate;
+    private MongoDatabaseFactory databaseFactory;
+    private ClientSession session;
+    private CausalConsistencyTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        databaseFactory = mock(MongoDatabaseFactory.class);
+        session = mock(ClientSession.class);
+        when(databaseFactory.getSession(any(ClientSessionOptions.class))).thenReturn(session);
+        when(databaseFactory.getExceptionTranslator()).thenReturn(new MongoExceptionTranslator());
+        when(databaseFactory.withSession(session)).thenReturn(databaseFactory);
+        mongoTemplate = new MongoTemplate(databaseFactory,
+                new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext()));
+        tracker = new CausalConsistencyTracker(Duration.ofSeconds(120));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Routed reads use the configured mode bounded by the maximum staleness")
+    void testReadPreference() {
+        assertEquals(ReadPreference.secondaryPreferred(120, TimeUnit.SECONDS), ReadRouting.readPreference(ENABLED));
+        assertEquals(ReadPreference.primary(), ReadRouting.readPreference(
+                new ReadRoutingProperties(true, "primary", Duration.ofSeconds(120), true)));
+    }
+
+    @Test
+    @DisplayName("Without routing, list reads use the application's template on the primary")
+    void testDisabled() {
+        ReadRouting routing = new ReadRouting(mongoTemplate, databaseFactory, tracker,
+                new ReadRoutingProperties(false, "secondaryPreferred", Duration.ofSeconds(90), true));
+
+        assertSame(mongoTemplate, routing.listing(ops -> ops));
+    }
+
+    @Test
+    @DisplayName("A user without recent writes reads from secondaries outside any session")
+    void testRoutedWithoutSession() {
+        ReadRouting routing = new ReadRouting(mongoTemplate, databaseFactory, tracker, ENABLED);
+        authenticate("transporter");
+
+        MongoOperations ops = routing.listing(operations -> operations);
+
+        assertNotSame(mongoTemplate, ops);
+        assertEquals(ReadRouting.readPreference(ENABLED), ((MongoTemplate) ops).getReadPreference());
+        verify(databaseFactory, never()).getSession(any(ClientSessionOptions.class));
+    }
+
+    @Test
+    @DisplayName("A user's reads after their own write run in a causal session advanced to that write")
+    void testCausalSession() {
+        ReadRouting routing = new ReadRouting(mongoTemplate, databaseFactory, tracker, ENABLED);
+        authenticate("transporter");
+        BsonDocument clusterTime = new BsonDocument("clusterTime", new BsonTimestamp(42, 1));
+        tracker.commandSucceeded(succeeded("update", new BsonDocument("ok", new BsonInt32(1))
+                .append("operationTime", new BsonTimestamp(42, 1))
+                .append("$clusterTime", clusterTime)));
+
+        AtomicReference<MongoOperations> used = new AtomicReference<>();
+        routing.listing(ops -> {
+            used.set(ops);
+            return null;
+        });
+
+        verify(databaseFactory).getSession(argThat(ClientSessionOptions::isCausallyConsistent));
+        verify(session).advanceClusterTime(clusterTime);
+        verify(session).advanceOperationTime(new BsonTimestamp(42, 1));
+        verify(session).close();
+        assertNotSame(mongoTemplate, used.get());
+    }
+
+    @Test
+    @DisplayName("Only writes with cluster times are tracked, per user, keeping the latest")
+    void testTracker() {
+        authenticate("alice");
+        tracker.commandSucceeded(succeeded("find", withTimes(new BsonTimestamp(10, 1))));
+        tracker.commandSucceeded(succeeded("insert", new BsonDocument("ok", new BsonInt32(1))));
+        assertTrue(tracker.forCurrentUser().isEmpty());
+
+        tracker.commandSucceeded(succeeded("update", withTimes(new BsonTimestamp(20, 1))));
+        tracker.commandSucceeded(succeeded("insert", withTimes(new BsonTimestamp(15, 1))));
+        assertEquals(new BsonTimestamp(20, 1), tracker.forCurrentUser().orElseThrow().operationTime());
+
+        authenticate("bob");
+        assertTrue(tracker.forCurrentUser().isEmpty());
+        SecurityContextHolder.clearContext();
+        tracker.commandSucceeded(succeeded("update", withTimes(new BsonTimestamp(30, 1))));
+        assertTrue(tracker.forCurrentUser().isEmpty());
+    }
+
+    private static void authenticate(String login) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                login, null, List.of(new SimpleGrantedAuthority("ROLE_TRANSPORTER"))));
+    }
+
+    private static BsonDocument withTimes(BsonTimestamp operationTime) {
+        return new BsonDocument("ok", new BsonInt32(1))
+                .append("operationTime", operationTime)
+                .append("$clusterTime", new BsonDocument("clusterTime", operationTime));
+    }
+
+    private static CommandSucceededEvent succeeded(String command, BsonDocument response) {
+        ConnectionDescription connection = new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+        return new CommandSucceededEvent(null, 1, 1, connection, "test", command, response, 1000);
+    }
+}
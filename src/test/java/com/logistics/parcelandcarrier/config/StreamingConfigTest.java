@@ -0,0 +1,72 @@
+package com.logistics.parcelandcarrier.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingConfigTest {
+
+    private ThreadPoolTaskExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Writes past the limit wait for a writer instead of being rejected or blocking the caller")
+    void testWritesPastLimitAreQueued() throws InterruptedException {
+        executor = StreamingConfig.writeExecutor(2, false);
+        CountDownLatch slowClients = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(6);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 6; i++) {
+            executor.execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    // A write blocked on a full socket buffer
+                    slowClients.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    running.decrementAndGet();
+                    done.countDown();
+                }
+            });
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1), "submitting must not block");
+        assertEquals(4, executor.getQueueSize());
+
+        slowClients.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS), "every queued write runs");
+        assertEquals(2, maxRunning.get());
+    }
+
+    @Test
+    @DisplayName("Writers run on virtual threads when enabled")
+    void testVirtualThreads() throws InterruptedException {
+        executor = StreamingConfig.writeExecutor(2, true);
+        CountDownLatch ran = new CountDownLatch(1);
+        AtomicInteger virtual = new AtomicInteger();
+
+        executor.execute(() -> {
+            if (Thread.currentThread().isVirtual()) {
+                virtual.incrementAndGet();
+            }
+            ran.countDown();
+        });
+
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        assertEquals(1, virtual.get());
+    }
+}
@@ -0,0 +1,87 @@
+package com.logistics.parcelandcarrier.controller;
+
+import com.logistics.parcelandcarrier.enums.PackageStatus;
+import com.logistics.parcelandcarrier.exception.GlobalExceptionHandler;
+import com.logistics.parcelandcarrier.repository.PackageFilter;
+import com.logistics.parcelandcarrier.service.BulkPackageService;
+import com.logistics.parcelandcarrier.service.PackageService;
+import com.logistics.parcelandcarrier.service.ReactivePackageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AdminColisControllerTest {
+
+    private PackageService packageService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        packageService = mock(PackageService.class);
+        when(packageService.findAllWithFilters(any(), any())).thenReturn(new PageImpl<>(List.of(), PageRequest.of(0, 20), 0));
+        AdminPackageController controller = new AdminPackageController(
+                packageService, mock(ReactivePackageService.class), mock(BulkPackageService.class));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Repeated status values filter on all of them")
+    void testRepeatedStatus() throws Exception {
+        mockMvc.perform(get("/api/admin/packages").param("status", "PENDING", "IN_TRANSIT"))
+                .andExpect(status().isOk());
+
+        assertEquals(Set.of(PackageStatus.PENDING, PackageStatus.IN_TRANSIT), listedFilter().statuses());
+    }
+
+    @Test
+    @DisplayName("A blank repeated status value is ignored instead of failing the request")
+    void testBlankStatusIgnored() throws Exception {
+        mockMvc.perform(get("/api/admin/packages?status=PENDING&status="))
+                .andExpect(status().isOk());
+
+        assertEquals(Set.of(PackageStatus.PENDING), listedFilter().statuses());
+    }
+
+    @Test
+    @DisplayName("Only blank status values mean no status filter")
+    void testOnlyBlankStatus() throws Exception {
+        mockMvc.perform(get("/api/admin/packages?status="))
+                .andExpect(status().isOk());
+
+        assertNull(listedFilter().statuses());
+    }
+
+    @Test
+    @DisplayName("Contradictory filters are a bad request")
+    void testContradictoryFilters() throws Exception {
+        mockMvc.perform(get("/api/admin/packages").param("transporterId", "t1").param("assigned", "false"))
+                .andExpect(status().isBadRequest());
+
+        verify(packageService, never()).findAllWithFilters(any(), any());
+    }
+
+    private PackageFilter listedFilter() {
+        ArgumentCaptor<PackageFilter> filter = ArgumentCaptor.forClass(PackageFilter.class);
+        verify(packageService).findAllWithFilters(filter.capture(), any(Pageable.class));
+        return filter.getValue();
+    }
+}
@@ -0,0 +1,113 @@
+package com.logistics.parcelandcarrier.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.parcelandcarrier.cache.TransporterRegistry;
+import com.logistics.parcelandcarrier.entity.User;
+import com.logistics.parcelandcarrier.enums.Role;
+import com.logistics.parcelandcarrier.enums.Specialty;
+import com.logistics.parcelandcarrier.enums.TransporterStatus;
+import com.logistics.parcelandcarrier.repository.UserRepository;
+import com.logistics.parcelandcarrier.support.MongoBudget;
+import com.logistics.parcelandcarrier.support.MongoBudgetTestConfig;
+import com.logistics.parcelandcarrier.support.MongoCommandRecorder;
+import com.logistics.parcelandcarrier.support.MongoPlanExplainer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Mongo command budgets of authentication: the login and a request carrying the issued token
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(MongoBudgetTestConfig.class)
+class AuthIntegrationTest {
+
+    private static final String LOGIN = "budget-auth-transporter";
+    private static final String PASSWORD = "secret123";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private TransporterRegistry transporterRegistry;
+
+    @Autowired
+    private MongoCommandRecorder recorder;
+
+    @Autowired
+    private MongoPlanExplainer explainer;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.findByLogin(LOGIN).ifPresent(userRepository::delete);
+        userRepository.save(User.builder()
+                .login(LOGIN)
+                .password(passwordEncoder.encode(PASSWORD))
+                .role(Role.TRANSPORTER)
+                .active(true)
+                .specialty(Specialty.STANDARD)
+                .status(TransporterStatus.AVAILABLE)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build());
+        transporterRegistry.reconcile();
+    }
+
+    @Test
+    @DisplayName("Login reads the user once through the login index")
+    void testLoginBudget() throws Exception {
+        MongoBudget.record(recorder, this::login)
+                .issuesAtMost(1)
+                .withoutCollectionScans(explainer);
+    }
+
+    @Test
+    @DisplayName("An authenticated listing issues at most a user lookup, a find and a count")
+    void testAuthenticatedRequestBudget() throws Exception {
+        String token = login();
+
+        MongoBudget.record(recorder, () -> mockMvc
+                        .perform(get("/api/transporter/packages").header("Authorization", "Bearer " + token))
+                        .andExpect(status().isOk()))
+                .issuesAtMost(3)
+                .withoutCollectionScans(explainer);
+    }
+
+    private String login() throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of(
+                "login", LOGIN, "password", PASSWORD));
+        String response = mockMvc
+                .perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode json = objectMapper.readTree(response);
+        return json.get("token").asText();
+    }
+}
@@ -0,0 +1,163 @@
+package com.logistics.parcelandcarrier.integration;
+
+import com.logistics.parcelandcarrier.cache.CacheInvalidationBus;
+import com.logistics.parcelandcarrier.cache.PackageCache;
+import com.logistics.parcelandcarrier.cache.TransporterRegistry;
+import com.logistics.parcelandcarrier.entity.Package;
+import com.logistics.parcelandcarrier.entity.User;
+import com.logistics.parcelandcarrier.enums.PackageStatus;
+import com.logistics.parcelandcarrier.enums.PackageType;
+import com.logistics.parcelandcarrier.enums.Role;
+import com.logistics.parcelandcarrier.enums.Specialty;
+import com.logistics.parcelandcarrier.enums.TransporterStatus;
+import com.logistics.parcelandcarrier.repository.PackageRepository;
+import com.logistics.parcelandcarrier.repository.UserRepository;
+import com.logistics.parcelandcarrier.support.MongoReplicaSet;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cache coherence through a change stream, against a local single-member replica set.
+ * Documents are changed directly in Mongo, as another node or a script would, and the package cache
+ * and the transporter registry must drop their stale entries.
+ * Needs the embedded Mongo binaries, so it only runs with -Dtests.replica-set=true.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "tests.replica-set", matches = "true")
+class CacheInvalidationIntegrationTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private static MongoReplicaSet replicaSet;
+
+    @Autowired
+    private CacheInvalidationBus bus;
+
+    @Autowired
+    private PackageCache packageCache;
+
+    @Autowired
+    private TransporterRegistry transporterRegistry;
+
+    @Autowired
+    private PackageRepository packageRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void replicaSet(DynamicPropertyRegistry registry) {
+        replicaSet = MongoReplicaSet.start(1);
+        registry.add("spring.data.mongodb.uri", () -> replicaSet.uri("cache-invalidation-test"));
+        registry.add("spring.data.mongodb.database", () -> "cache-invalidation-test");
+        registry.add("cache.invalidation.enabled", () -> "true");
+    }
+
+    @AfterAll
+    static void stopReplicaSet() {
+        if (replicaSet != null) {
+            replicaSet.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        packageRepository.deleteAll();
+        packageCache.clear();
+    }
+
+    @Test
+    @DisplayName("A replica set is watched through a change stream")
+    void testSource() {
+        assertEquals(CacheInvalidationBus.Source.CHANGE_STREAM, bus.source());
+    }
+
+    @Test
+    @DisplayName("A package changed outside the application is evicted, and the lag recorded")
+    void testPackageInvalidated() {
+        String id = packageRepository.save(Package.builder()
+                .type(PackageType.STANDARD)
+                .weight(1.0)
+                .destinationAddress("1 Rue de Lyon")
+                .status(PackageStatus.PENDING)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build()).getId();
+        assertEquals(PackageStatus.PENDING, cachedStatus(id));
+
+        mongoTemplate.getCollection("packages").updateOne(
+                Filters.eq("_id", new ObjectId(id)), Updates.set("status", PackageStatus.CANCELLED.name()));
+
+        await(() -> cachedStatus(id) == PackageStatus.CANCELLED);
+        await(() -> meterRegistry.get("cache.invalidation.lag").tag("region", "PACKAGES").timer().count() > 0);
+    }
+
+    @Test
+    @DisplayName("A transporter changed outside the application is reloaded into the registry")
+    void testTransporterRefreshed() {
+        userRepository.deleteAll();
+        User transporter = userRepository.save(User.builder()
+                .login("coherent-transporter")
+                .password("hash")
+                .role(Role.TRANSPORTER)
+                .active(true)
+                .specialty(Specialty.STANDARD)
+                .status(TransporterStatus.AVAILABLE)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build());
+        transporterRegistry.reconcile();
+
+        mongoTemplate.getCollection("users").updateOne(
+                Filters.eq("_id", new ObjectId(transporter.getId())),
+                Updates.set("status", TransporterStatus.ON_DELIVERY.name()));
+
+        await(() -> transporterRegistry.activeIds(Specialty.STANDARD, TransporterStatus.ON_DELIVERY)
+                .contains(transporter.getId()));
+    }
+
+    private PackageStatus cachedStatus(String id) {
+        return packageCache.get(id, () -> packageRepository.findById(id)).orElseThrow().getStatus();
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met after " + TIMEOUT);
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("Interrupted");
+            }
+        }
+    }
+}
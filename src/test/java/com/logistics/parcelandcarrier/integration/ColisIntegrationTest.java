@@ -0,0 +1,226 @@
+package com.logistics.parcelandcarrier.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.parcelandcarrier.cache.TransporterRegistry;
+import com.logistics.parcelandcarrier.dto.request.BulkAssignmentRequest;
+import com.logistics.parcelandcarrier.dto.request.BulkStatusChangeRequest;
+import com.logistics.parcelandcarrier.entity.Package;
+import com.logistics.parcelandcarrier.entity.User;
+import com.logistics.parcelandcarrier.enums.PackageStatus;
+import com.logistics.parcelandcarrier.enums.PackageType;
+import com.logistics.parcelandcarrier.enums.Role;
+import com.logistics.parcelandcarrier.enums.Specialty;
+import com.logistics.parcelandcarrier.enums.TransporterStatus;
+import com.logistics.parcelandcarrier.repository.PackageRepository;
+import com.logistics.parcelandcarrier.repository.UserRepository;
+import com.logistics.parcelandcarrier.support.MongoBudget;
+import com.logistics.parcelandcarrier.support.MongoBudgetTestConfig;
+import com.logistics.parcelandcarrier.support.MongoCommandRecorder;
+import com.logistics.parcelandcarrier.support.MongoPlanExplainer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Mongo command budgets of the package endpoints.
+ * Each test declares how many commands an endpoint may issue and that none of them scans a
+ * collection, so a per-row lookup or a lost index fails here rather than in production.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(MongoBudgetTestConfig.class)
+@WithMockUser(roles = "ADMIN")
+class ColisIntegrationTest {
+
+    private static final int BULK_SIZE = 20;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PackageRepository packageRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransporterRegistry transporterRegistry;
+
+    @Autowired
+    private MongoCommandRecorder recorder;
+
+    @Autowired
+    private MongoPlanExplainer explainer;
+
+    @BeforeEach
+    void setUp() {
+        packageRepository.deleteAll();
+        userRepository.deleteAll(userRepository.findByRole(Role.TRANSPORTER));
+        transporterRegistry.reconcile();
+    }
+
+    @Test
+    @DisplayName("Creating a package is a single insert")
+    void testCreateBudget() throws Exception {
+        String body = """
+                { "type": "STANDARD", "weight": 2.5, "destinationAddress": "1 Rue de Paris" }
+                """;
+
+        MongoBudget.record(recorder, () -> mockMvc
+                        .perform(post("/api/admin/packages").contentType(MediaType.APPLICATION_JSON).content(body))
+                        .andExpect(status().isCreated()))
+                .issuesAtMost(1);
+    }
+
+    @Test
+    @DisplayName("Filtered listings issue a find and a count, index-served and without an in-memory sort")
+    void testFilteredListBudget() throws Exception {
+        seedPackages(BULK_SIZE);
+
+        for (String filters : List.of(
+                "status=PENDING,IN_TRANSIT&type=FRAGILE",
+                "assigned=false&createdFrom=2020-01-01T00:00:00",
+                "transporterId=t1&minWeight=1",
+                "assigned=true&updatedFrom=2020-01-01T00:00:00")) {
+            MongoBudget.record(recorder, () -> mockMvc
+                            .perform(get("/api/admin/packages?size=5&" + filters))
+                            .andExpect(status().isOk()))
+                    .issuesAtMost(2)
+                    .withoutCollectionScans(explainer)
+                    .withoutBlockingSorts(explainer);
+        }
+    }
+
+    @Test
+    @DisplayName("Assigning a package reads the transporter from memory")
+    void testAssignBudget() throws Exception {
+        String packageId = seedPackages(1).get(0).getId();
+        String transporterId = seedTransporters(1).get(0).getId();
+
+        MongoBudget.record(recorder, () -> mockMvc
+                        .perform(patch("/api/admin/packages/" + packageId + "/assign/" + transporterId))
+                        .andExpect(status().isOk()))
+                .issuesAtMost(3)
+                .issuesAtMost(1, "find")
+                .withoutCollectionScans(explainer);
+    }
+
+    @Test
+    @DisplayName("PATCH /assign issues at most 4 commands whatever the batch size, none COLLSCAN")
+    void testBulkAssignBudget() throws Exception {
+        List<Package> packages = seedPackages(BULK_SIZE);
+        List<User> transporters = seedTransporters(BULK_SIZE);
+        List<BulkAssignmentRequest.Assignment> assignments = new ArrayList<>();
+        for (int i = 0; i < BULK_SIZE; i++) {
+            assignments.add(new BulkAssignmentRequest.Assignment(packages.get(i).getId(), transporters.get(i).getId()));
+        }
+        String body = objectMapper.writeValueAsString(new BulkAssignmentRequest(assignments));
+
+        MongoBudget.record(recorder, () -> mockMvc
+                        .perform(patch("/api/admin/packages/assign").contentType(MediaType.APPLICATION_JSON).content(body))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.succeeded").value(BULK_SIZE)))
+                .issuesAtMost(4)
+                .withoutCollectionScans(explainer);
+    }
+
+    @Test
+    @DisplayName("PATCH /status issues at most 4 commands whatever the batch size, none COLLSCAN")
+    void testBulkStatusBudget() throws Exception {
+        List<User> transporters = seedTransporters(2);
+        List<String> ids = new ArrayList<>();
+        for (Package pkg : seedPackages(BULK_SIZE)) {
+            pkg.assignToTransporter(transporters.get(ids.size() % 2).getId());
+            ids.add(packageRepository.save(pkg).getId());
+        }
+        String body = objectMapper.writeValueAsString(new BulkStatusChangeRequest(ids, PackageStatus.DELIVERED));
+
+        MongoBudget.record(recorder, () -> mockMvc
+                        .perform(patch("/api/admin/packages/status").contentType(MediaType.APPLICATION_JSON).content(body))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.succeeded").value(BULK_SIZE)))
+                .issuesAtMost(4)
+                .withoutCollectionScans(explainer);
+    }
+
+    @Test
+    @DisplayName("Reading a package by id is served from the cache once loaded")
+    void testGetByIdBudget() throws Exception {
+        String packageId = seedPackages(1).get(0).getId();
+
+        for (int max : new int[] {1, 0}) {
+            MongoBudget.record(recorder, () -> mockMvc
+                            .perform(get("/api/admin/packages/" + packageId))
+                            .andExpect(status().isOk())
+                            .andExpect(jsonPath("$.id").value(packageId)))
+                    .issuesAtMost(max);
+        }
+    }
+
+    @Test
+    @DisplayName("Listing transporters is served from the registry")
+    void testTransporterListBudget() throws Exception {
+        seedTransporters(BULK_SIZE);
+
+        MongoBudget.record(recorder, () -> mockMvc
+                        .perform(get("/api/admin/transporters?size=10"))
+                        .andExpect(status().isOk()))
+                .issuesAtMost(0);
+    }
+
+    private List<Package> seedPackages(int count) {
+        List<Package> packages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            packages.add(Package.builder()
+                    .type(PackageType.STANDARD)
+                    .weight(1.0 + i)
+                    .destinationAddress(i + " Rue de Paris")
+                    .status(PackageStatus.PENDING)
+                    .createdAt(LocalDateTime.now())
+                    .updatedAt(LocalDateTime.now())
+                    .build());
+        }
+        return packageRepository.saveAll(packages);
+    }
+
+    private List<User> seedTransporters(int count) {
+        List<User> transporters = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            transporters.add(User.builder()
+                    .login("budget-transporter-" + i)
+                    .password("hash")
+                    .role(Role.TRANSPORTER)
+                    .active(true)
+                    .specialty(Specialty.STANDARD)
+                    .status(TransporterStatus.AVAILABLE)
+                    .createdAt(LocalDateTime.now())
+                    .updatedAt(LocalDateTime.now())
+                    .build());
+        }
+        List<User> saved = userRepository.saveAll(transporters);
+        transporterRegistry.reconcile();
+        return saved;
+    }
+}
@@ -0,0 +1,183 @@
+package com.logistics.parcelandcarrier.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.parcelandcarrier.cache.TransporterRegistry;
+import com.logistics.parcelandcarrier.entity.Package;
+import com.logistics.parcelandcarrier.entity.User;
+import com.logistics.parcelandcarrier.enums.PackageStatus;
+import com.logistics.parcelandcarrier.enums.PackageType;
+import com.logistics.parcelandcarrier.enums.Role;
+import com.logistics.parcelandcarrier.enums.Specialty;
+import com.logistics.parcelandcarrier.enums.TransporterStatus;
+import com.logistics.parcelandcarrier.repository.PackageRepository;
+import com.logistics.parcelandcarrier.repository.UserRepository;
+import com.logistics.parcelandcarrier.support.MongoBudgetTestConfig;
+import com.logistics.parcelandcarrier.support.MongoCommandRecorder;
+import com.logistics.parcelandcarrier.support.MongoReplicaSet;
+import com.logistics.parcelandcarrier.support.RecordedCommand;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Read routing against a local three-member replica set.
+ * Listings must carry a secondary read preference, and a transporter listing right after its own
+ * status change must wait for that write on the secondary (afterClusterTime) and see it.
+ * Needs the embedded Mongo binaries, so it only runs with -Dtests.replica-set=true.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(MongoBudgetTestConfig.class)
+@EnabledIfSystemProperty(named = "tests.replica-set", matches = "true")
+class ReadRoutingIntegrationTest {
+
+    private static final String LOGIN = "routing-transporter";
+    private static final String PASSWORD = "secret123";
+
+    private static MongoReplicaSet replicaSet;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PackageRepository packageRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private TransporterRegistry transporterRegistry;
+
+    @Autowired
+    private MongoCommandRecorder recorder;
+
+    private String packageId;
+
+    @DynamicPropertySource
+    static void replicaSet(DynamicPropertyRegistry registry) {
+        replicaSet = MongoReplicaSet.start(3);
+        registry.add("spring.data.mongodb.uri", () -> replicaSet.uri("read-routing-test"));
+        registry.add("spring.data.mongodb.database", () -> "read-routing-test");
+        registry.add("mongo.read-routing.enabled", () -> "true");
+        registry.add("mongo.read-routing.read-preference", () -> "secondary");
+    }
+
+    @AfterAll
+    static void stopReplicaSet() {
+        if (replicaSet != null) {
+            replicaSet.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        packageRepository.deleteAll();
+        userRepository.findByLogin(LOGIN).ifPresent(userRepository::delete);
+        User transporter = userRepository.save(User.builder()
+                .login(LOGIN)
+                .password(passwordEncoder.encode(PASSWORD))
+                .role(Role.TRANSPORTER)
+                .active(true)
+                .specialty(Specialty.STANDARD)
+                .status(TransporterStatus.AVAILABLE)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build());
+        transporterRegistry.reconcile();
+        Package pkg = Package.builder()
+                .type(PackageType.STANDARD)
+                .weight(1.0)
+                .destinationAddress("1 Rue de Lyon")
+                .status(PackageStatus.PENDING)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+        pkg.assignToTransporter(transporter.getId());
+        packageId = packageRepository.save(pkg).getId();
+    }
+
+    @Test
+    @DisplayName("Listings read from a secondary")
+    void testListingReadsFromSecondary() throws Exception {
+        String token = login();
+
+        BsonDocument find = listingFind(token);
+
+        assertEquals("secondary", find.getDocument("$readPreference").getString("mode").getValue());
+    }
+
+    @Test
+    @DisplayName("A listing after the caller's own write waits for it on the secondary")
+    void testReadYourWrites() throws Exception {
+        String token = login();
+        mockMvc.perform(patch("/api/transporter/packages/" + packageId + "/status")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("status", "IN_TRANSIT"))))
+                .andExpect(status().isOk());
+
+        recorder.start();
+        mockMvc.perform(get("/api/transporter/packages?status=IN_TRANSIT").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1));
+        BsonDocument find = packageFind(recorder.stop());
+
+        assertEquals("secondary", find.getDocument("$readPreference").getString("mode").getValue());
+        assertTrue(find.getDocument("readConcern").containsKey("afterClusterTime"), find::toJson);
+    }
+
+    private BsonDocument listingFind(String token) throws Exception {
+        recorder.start();
+        mockMvc.perform(get("/api/transporter/packages").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        return packageFind(recorder.stop());
+    }
+
+    private static BsonDocument packageFind(List<RecordedCommand> commands) {
+        return commands.stream()
+                .filter(command -> "find".equals(command.name()) && "packages".equals(command.collection()))
+                .map(RecordedCommand::command)
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No find on packages in " + commands));
+    }
+
+    private String login() throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of("login", LOGIN, "password", PASSWORD));
+        String response = mockMvc
+                .perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("token").asText();
+    }
+}
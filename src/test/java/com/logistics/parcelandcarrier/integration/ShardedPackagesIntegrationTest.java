@@ -0,0 +1,243 @@
+package com.logistics.parcelandcarrier.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.parcelandcarrier.cache.PackageCache;
+import com.logistics.parcelandcarrier.cache.TransporterRegistry;
+import com.logistics.parcelandcarrier.config.PackageSharding;
+import com.logistics.parcelandcarrier.entity.Package;
+import com.logistics.parcelandcarrier.entity.User;
+import com.logistics.parcelandcarrier.enums.PackageStatus;
+import com.logistics.parcelandcarrier.enums.PackageType;
+import com.logistics.parcelandcarrier.enums.Role;
+import com.logistics.parcelandcarrier.enums.Specialty;
+import com.logistics.parcelandcarrier.enums.TransporterStatus;
+import com.logistics.parcelandcarrier.repository.PackageRepository;
+import com.logistics.parcelandcarrier.repository.UserRepository;
+import com.logistics.parcelandcarrier.support.MongoBudget;
+import com.logistics.parcelandcarrier.support.MongoBudgetTestConfig;
+import com.logistics.parcelandcarrier.support.MongoCommandRecorder;
+import com.logistics.parcelandcarrier.support.MongoPlanExplainer;
+import com.logistics.parcelandcarrier.support.MongoShardedCluster;
+import com.logistics.parcelandcarrier.support.RecordedCommand;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Query targeting against a local sharded cluster (two shards behind a mongos).
+ * Reads through mongos are explained: a transporter's listings, searches and status changes must
+ * reach a single shard (SINGLE_SHARD), while admin listings without a transporter merge every shard.
+ * Needs the embedded Mongo binaries, so it only runs with -Dtests.sharded-cluster=true.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(MongoBudgetTestConfig.class)
+@EnabledIfSystemProperty(named = "tests.sharded-cluster", matches = "true")
+class ShardedPackagesIntegrationTest {
+
+    private static final String LOGIN = "sharded-transporter";
+    private static final String PASSWORD = "secret123";
+    private static final int UNASSIGNED = 20;
+
+    private static MongoShardedCluster cluster;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PackageRepository packageRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private TransporterRegistry transporterRegistry;
+
+    @Autowired
+    private PackageCache packageCache;
+
+    @Autowired
+    private PackageSharding packageSharding;
+
+    @Autowired
+    private MongoCommandRecorder recorder;
+
+    @Autowired
+    private MongoPlanExplainer explainer;
+
+    private String transporterId;
+    private String assignedId;
+
+    @DynamicPropertySource
+    static void shardedCluster(DynamicPropertyRegistry registry) {
+        cluster = MongoShardedCluster.start(2);
+        registry.add("spring.data.mongodb.uri", () -> cluster.uri("sharding-test"));
+        registry.add("spring.data.mongodb.database", () -> "sharding-test");
+    }
+
+    @AfterAll
+    static void stopCluster() {
+        if (cluster != null) {
+            cluster.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        assertTrue(packageSharding.shard());
+        packageRepository.deleteAll();
+        packageCache.clear();
+        userRepository.findByLogin(LOGIN).ifPresent(userRepository::delete);
+        transporterId = userRepository.save(User.builder()
+                .login(LOGIN)
+                .password(passwordEncoder.encode(PASSWORD))
+                .role(Role.TRANSPORTER)
+                .active(true)
+                .specialty(Specialty.STANDARD)
+                .status(TransporterStatus.AVAILABLE)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build()).getId();
+        transporterRegistry.reconcile();
+
+        List<Package> packages = new ArrayList<>();
+        for (int i = 0; i < UNASSIGNED; i++) {
+            packages.add(pkg(i + " Rue de Lyon"));
+        }
+        packageRepository.saveAll(packages);
+        Package assigned = pkg("1 Rue de Paris");
+        assigned.assignToTransporter(transporterId);
+        assignedId = packageRepository.save(assigned).getId();
+    }
+
+    @Test
+    @DisplayName("A transporter's listing and search reach a single shard")
+    void testTransporterReadsAreTargeted() throws Exception {
+        String token = login();
+
+        for (String url : List.of("/api/transporter/packages?status=IN_TRANSIT", "/api/transporter/packages/search?address=paris")) {
+            List<RecordedCommand> finds = MongoBudget.record(recorder, () -> mockMvc
+                            .perform(get(url).header("Authorization", "Bearer " + token))
+                            .andExpect(status().isOk())
+                            .andExpect(jsonPath("$.content[0].id").value(assignedId)))
+                    .commands();
+
+            assertRoutedTo("SINGLE_SHARD", packageFind(finds));
+        }
+    }
+
+    @Test
+    @DisplayName("A transporter's status change looks the package up on a single shard")
+    void testTransporterStatusChangeIsTargeted() throws Exception {
+        String token = login();
+
+        List<RecordedCommand> commands = MongoBudget.record(recorder, () -> mockMvc
+                        .perform(patch("/api/transporter/packages/" + assignedId + "/status")
+                                .header("Authorization", "Bearer " + token)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(Map.of("status", "DELIVERED"))))
+                        .andExpect(status().isOk()))
+                .commands();
+
+        assertRoutedTo("SINGLE_SHARD", packageFind(commands));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Assignment moves the package to its transporter's shard")
+    void testAssignmentMovesThePackage() throws Exception {
+        String packageId = packageRepository.findAll().stream()
+                .filter(pkg -> !pkg.isAssigned())
+                .findFirst().orElseThrow().getId();
+        userRepository.findById(transporterId).ifPresent(transporter -> {
+            transporter.setAvailable();
+            userRepository.save(transporter);
+        });
+        transporterRegistry.reconcile();
+
+        mockMvc.perform(patch("/api/admin/packages/" + packageId + "/assign/" + transporterId))
+                .andExpect(status().isOk());
+
+        Package moved = packageRepository.findById(packageId).orElseThrow();
+        assertEquals("t:" + transporterId, moved.getRoutingKey());
+        assertEquals(1, packageRepository.findAll().stream().filter(pkg -> pkg.getId().equals(packageId)).count());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Admin listings without a transporter merge every shard")
+    void testAdminListingFansOut() throws Exception {
+        List<RecordedCommand> commands = MongoBudget.record(recorder, () -> mockMvc
+                        .perform(get("/api/admin/packages?status=PENDING&size=5"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.totalElements").value(UNASSIGNED)))
+                .commands();
+
+        assertRoutedTo("SHARD_MERGE", packageFind(commands));
+    }
+
+    private void assertRoutedTo(String stage, RecordedCommand find) {
+        List<String> stages = explainer.stages(find);
+        assertFalse(stages.isEmpty(), () -> "No plan for " + find.command().toJson());
+        assertTrue(stages.get(0).startsWith(stage), () -> stage + " expected, got " + stages);
+    }
+
+    private static RecordedCommand packageFind(List<RecordedCommand> commands) {
+        return commands.stream()
+                .filter(command -> "find".equals(command.name()) && "packages".equals(command.collection()))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No find on packages in " + commands));
+    }
+
+    private static Package pkg(String address) {
+        return Package.builder()
+                .type(PackageType.STANDARD)
+                .weight(1.0)
+                .destinationAddress(address)
+                .status(PackageStatus.PENDING)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private String login() throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of("login", LOGIN, "password", PASSWORD));
+        String response = mockMvc
+                .perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("token").asText();
+    }
+}
@@ -0,0 +1,67 @@
+package com.logistics.parcelandcarrier.mapper;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.parcelandcarrier.dto.request.PackageRequest;
+import com.logistics.parcelandcarrier.enums.PackageType;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonMergePatchTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final JsonMergePatch mergePatch = new JsonMergePatch(
+            objectMapper, Validation.buildDefaultValidatorFactory().getValidator());
+
+    @Test
+    @DisplayName("Patched fields replace the stored ones, null removes them and the others are kept")
+    void testApply() throws Exception {
+        PackageRequest patched = mergePatch.apply(request(),
+                json("{\"weight\": 3.5, \"handlingInstructions\": null}"), PackageRequest.class);
+
+        assertEquals(3.5, patched.getWeight());
+        assertNull(patched.getHandlingInstructions());
+        assertEquals(PackageType.FRAGILE, patched.getType());
+        assertEquals("12 Rue de la Paix", patched.getDestinationAddress());
+    }
+
+    @Test
+    @DisplayName("RFC 7396 merges nested objects and replaces arrays")
+    void testMerge() throws Exception {
+        JsonNode merged = JsonMergePatch.merge(
+                json("{\"a\": {\"b\": 1, \"c\": 2}, \"d\": [1, 2]}"),
+                json("{\"a\": {\"c\": null, \"e\": 3}, \"d\": [3]}"));
+
+        assertEquals(json("{\"a\": {\"b\": 1, \"e\": 3}, \"d\": [3]}"), merged);
+    }
+
+    @Test
+    @DisplayName("Invalid values, unknown fields and non-object patches are rejected")
+    void testRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> mergePatch.apply(request(), json("{\"weight\": -1}"), PackageRequest.class));
+        assertThrows(IllegalArgumentException.class,
+                () -> mergePatch.apply(request(), json("{\"type\": null}"), PackageRequest.class));
+        assertThrows(IllegalArgumentException.class,
+                () -> mergePatch.apply(request(), json("{\"status\": \"DELIVERED\"}"), PackageRequest.class));
+        assertThrows(IllegalArgumentException.class,
+                () -> mergePatch.apply(request(), json("[]"), PackageRequest.class));
+    }
+
+    private JsonNode json(String content) throws Exception {
+        return objectMapper.readTree(content);
+    }
+
+    private static PackageRequest request() {
+        return PackageRequest.builder()
+                .type(PackageType.FRAGILE)
+                .weight(2.0)
+                .destinationAddress("12 Rue de la Paix")
+                .handlingInstructions("Handle with care")
+                .build();
+    }
+}
@@ -0,0 +1,82 @@
+package com.logistics.parcelandcarrier.monitoring;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.AppenderBase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MeteredAsyncAppenderTest {
+
+    private LoggerContext context;
+    private CountDownLatch received;
+    private CountDownLatch release;
+    private MeteredAsyncAppender appender;
+
+    @BeforeEach
+    void setUp() {
+        context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        received = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+        AppenderBase<ILoggingEvent> slowOutput = new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                received.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        slowOutput.setContext(context);
+        slowOutput.start();
+
+        appender = new MeteredAsyncAppender();
+        appender.setContext(context);
+        appender.setQueueSize(4);
+        appender.setDiscardingThreshold(2);
+        appender.setNeverBlock(true);
+        appender.addAppender(slowOutput);
+        appender.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        appender.stop();
+    }
+
+    @Test
+    @DisplayName("A filling queue drops INFO first, then anything once full, without blocking")
+    void testOverflowDropsLowerLevelsFirst() throws InterruptedException {
+        // The worker holds the first event until released
+        appender.doAppend(event(Level.INFO));
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+
+        appender.doAppend(event(Level.INFO));   // 3 free slots left
+        appender.doAppend(event(Level.INFO));   // 2
+        appender.doAppend(event(Level.INFO));   // 1
+        appender.doAppend(event(Level.INFO));   // under the threshold: dropped
+        appender.doAppend(event(Level.WARN));   // kept, queue full
+        appender.doAppend(event(Level.WARN));   // full: dropped
+
+        assertEquals(1, DroppedLogEvents.of(context).count(DroppedLogEvents.Reason.OVERFLOW, Level.INFO));
+        assertEquals(1, DroppedLogEvents.of(context).count(DroppedLogEvents.Reason.OVERFLOW, Level.WARN));
+    }
+
+    private LoggingEvent event(Level level) {
+        return new LoggingEvent(getClass().getName(), context.getLogger("test"), level, "message", null, null);
+    }
+}
@@ -0,0 +1,59 @@
+package com.logistics.parcelandcarrier.monitoring;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SamplingTurboFilterTest {
+
+    private LoggerContext context;
+    private SamplingTurboFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        context = new LoggerContext();
+        context.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.INFO);
+        filter = new SamplingTurboFilter();
+        filter.setContext(context);
+        filter.addSample("com.example.Hot=0");
+        filter.addSample("com.example.Warm=1");
+        filter.start();
+    }
+
+    @Test
+    @DisplayName("INFO lines of a sampled logger and its children are left out and counted")
+    void testSampledOut() {
+        assertEquals(FilterReply.DENY, decide("com.example.Hot", Level.INFO, "assigned {}"));
+        assertEquals(FilterReply.DENY, decide("com.example.Hot.Inner", Level.INFO, "assigned {}"));
+
+        assertEquals(2, DroppedLogEvents.of(context).count(DroppedLogEvents.Reason.SAMPLED, Level.INFO));
+    }
+
+    @Test
+    @DisplayName("WARN lines, level checks and other loggers are never sampled")
+    void testPassThrough() {
+        assertEquals(FilterReply.NEUTRAL, decide("com.example.Hot", Level.WARN, "failed {}"));
+        assertEquals(FilterReply.NEUTRAL, decide("com.example.Hot", Level.INFO, null));
+        assertEquals(FilterReply.NEUTRAL, decide("com.example.Warm", Level.INFO, "assigned {}"));
+        assertEquals(FilterReply.NEUTRAL, decide("com.example.Cold", Level.INFO, "assigned {}"));
+    }
+
+    @Test
+    @DisplayName("Lines the logger would not write are not counted")
+    void testDisabledLevelNotCounted() {
+        context.getLogger("com.example.Hot").setLevel(Level.WARN);
+        decide("com.example.Hot", Level.INFO, "assigned {}");
+
+        assertEquals(0, DroppedLogEvents.of(context).count(DroppedLogEvents.Reason.SAMPLED, Level.INFO));
+    }
+
+    private FilterReply decide(String logger, Level level, String format) {
+        return filter.decide(null, context.getLogger(logger), level, format, null, null);
+    }
+}
@@ -0,0 +1,59 @@
+package com.logistics.parcelandcarrier.monitoring;
+
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowQueryExplainerTest {
+
+    @Test
+    @DisplayName("The explain command drops session fields and keeps the first batched statement")
+    void testExplainCommand() {
+        BsonDocument command = BsonDocument.parse("""
+                { delete: 'packages', deletes: [ { q: { _id: 'p1' }, limit: 1 }, { q: { _id: 'p2' }, limit: 1 } ],
+                  lsid: { id: 1 }, $db: 'db', maxTimeMS: 100 }
+                """);
+
+        BsonDocument explain = SlowQueryExplainer.explainCommand(command, 5000);
+
+        assertEquals(BsonDocument.parse("""
+                { explain: { delete: 'packages', deletes: [ { q: { _id: 'p1' }, limit: 1 } ] },
+                  verbosity: 'executionStats', maxTimeMS: { $numberLong: '5000' } }
+                """), explain);
+    }
+
+    @Test
+    @DisplayName("The summary reads the winning plan and counters of a find")
+    void testSummarizeFind() {
+        ExplainSummary summary = SlowQueryExplainer.summarize(Document.parse("""
+                { queryPlanner: { winningPlan: { stage: 'LIMIT', inputStage: { stage: 'FETCH',
+                    inputStage: { stage: 'IXSCAN', indexName: 'status_type_created' } } } },
+                  executionStats: { nReturned: 20, totalKeysExamined: 20, totalDocsExamined: 20, executionTimeMillis: 3 } }
+                """));
+
+        assertEquals(List.of("LIMIT", "FETCH", "IXSCAN"), summary.stages());
+        assertEquals(List.of("status_type_created"), summary.indexes());
+        assertEquals(20, summary.docsExamined());
+        assertEquals(3, summary.executionTimeMillis());
+        assertNull(summary.error());
+    }
+
+    @Test
+    @DisplayName("The summary finds the plan nested in an aggregation's first stage")
+    void testSummarizeAggregate() {
+        ExplainSummary summary = SlowQueryExplainer.summarize(Document.parse("""
+                { stages: [ { $cursor: {
+                    queryPlanner: { winningPlan: { queryPlan: { stage: 'COLLSCAN' } } },
+                    executionStats: { nReturned: 1, totalKeysExamined: 0, totalDocsExamined: 5000 } } },
+                  { $group: {} } ] }
+                """));
+
+        assertEquals(List.of("COLLSCAN"), summary.stages());
+        assertEquals(5000, summary.docsExamined());
+    }
+}
@@ -0,0 +1,154 @@
+package com.logistics.parcelandcarrier.monitoring;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SlowQueryListenerTest {
+
+    private static final ConnectionDescription CONNECTION = new ConnectionDescription(
+            new ServerId(new ClusterId(), new ServerAddress())
+    );
+    private static final long SLOW = Duration.ofMillis(300).toNanos();
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+
+    private SimpleMeterRegistry registry;
+    private SlowQueryBuffer buffer;
+    private SlowQueryExplainer explainer;
+    private SlowQueryListener listener;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        buffer = new SlowQueryBuffer(2);
+        explainer = mock(SlowQueryExplainer.class);
+        when(explainer.submit(anyLong(), anyString(), any())).thenReturn(true);
+        SlowQueryProperties properties = new SlowQueryProperties(
+                true, Duration.ofMillis(200), 1.0, 2, Duration.ofSeconds(5), 2);
+        listener = new SlowQueryListener(properties, buffer, explainer, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Commands under the threshold are not reported")
+    void testFastCommandIgnored() {
+        execute(1, "find", "{ find: 'packages', filter: { status: 'PENDING' } }", FAST);
+
+        assertTrue(buffer.snapshot().isEmpty());
+        assertTrue(registry.find(SlowQueryListener.METRIC_NAME).counters().isEmpty());
+        verifyNoInteractions(explainer);
+    }
+
+    @Test
+    @DisplayName("A slow command is buffered with its route, counted and sampled for explain")
+    void testSlowCommandReported() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/admin/packages/42");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/admin/packages/{id}");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        execute(2, "find", "{ find: 'packages', filter: { _id: 'p42' }, limit: 1, $db: 'db' }", SLOW);
+
+        SlowQuery slow = buffer.snapshot().get(0);
+        assertEquals("find", slow.command());
+        assertEquals("packages", slow.collection());
+        assertEquals(300, slow.durationMillis());
+        assertEquals("GET /api/admin/packages/{id}", slow.route());
+        assertTrue(slow.explainSampled());
+        assertFalse(slow.shape().contains("p42"));
+        assertEquals(1.0, registry.get(SlowQueryListener.METRIC_NAME)
+                .tag("command", "find").tag("collection", "packages").counter().count());
+        verify(explainer).submit(eq(slow.sequence()), eq("db"), argThat(command -> command.containsKey("filter")));
+    }
+
+    @Test
+    @DisplayName("Commands explain does not accept are reported without a shape or an explain")
+    void testNonExplainableCommand() {
+        execute(3, "insert", "{ insert: 'packages', documents: [ { a: 1 } ] }", SLOW);
+
+        SlowQuery slow = buffer.snapshot().get(0);
+        assertNull(slow.shape());
+        assertFalse(slow.explainSampled());
+        verifyNoInteractions(explainer);
+    }
+
+    @Test
+    @DisplayName("Commands left out of the sample are reported without being copied, shaped or explained")
+    void testUnsampledCommand() {
+        listener = new SlowQueryListener(new SlowQueryProperties(
+                true, Duration.ofMillis(200), 0.0, 2, Duration.ofSeconds(5), 2), buffer, explainer, registry);
+        BsonDocument command = spy(BsonDocument.parse("{ find: 'packages', filter: { _id: 'p42' } }"));
+
+        listener.commandStarted(new CommandStartedEvent(null, 0L, 7, CONNECTION, "db", "find", command));
+        listener.commandSucceeded(new CommandSucceededEvent(
+                null, 0L, 7, CONNECTION, "db", "find", BsonDocument.parse("{ ok: 1 }"), SLOW
+        ));
+
+        SlowQuery slow = buffer.snapshot().get(0);
+        assertEquals("packages", slow.collection());
+        assertNull(slow.shape());
+        assertFalse(slow.explainSampled());
+        verify(command, never()).clone();
+        verifyNoInteractions(explainer);
+    }
+
+    @Test
+    @DisplayName("The buffer keeps the most recent slow commands, newest first")
+    void testBufferOverwritesOldest() {
+        execute(4, "find", "{ find: 'a' }", SLOW);
+        execute(5, "find", "{ find: 'b' }", SLOW);
+        execute(6, "find", "{ find: 'c' }", SLOW);
+
+        assertEquals(List.of("c", "b"), buffer.snapshot().stream().map(SlowQuery::collection).toList());
+        buffer.attachExplain(0, ExplainSummary.failed("overwritten"));
+        assertTrue(buffer.snapshot().stream().allMatch(slow -> slow.explain() == null));
+    }
+
+    @Test
+    @DisplayName("The shape keeps operators and field names but no values")
+    void testShapeRedactsValues() {
+        String shape = SlowQueryListener.shape(BsonDocument.parse("""
+                { update: 'packages', ordered: true, lsid: { id: 1 },
+                  updates: [ { q: { _id: { $in: ['p1', 'p2'] }, transporter_id: 't1' },
+                               u: { $set: { status: 'DELIVERED' } }, multi: true } ] }
+                """));
+
+        assertEquals(BsonDocument.parse("""
+                { update: 'packages', ordered: true,
+                  updates: [ { q: { _id: { $in: ['?'] }, transporter_id: '?' },
+                               u: { $set: { status: '?' } }, multi: true } ] }
+                """).toJson(), shape);
+    }
+
+    private void execute(int requestId, String commandName, String command, long elapsedNanos) {
+        listener.commandStarted(new CommandStartedEvent(
+                null, 0L, requestId, CONNECTION, "db", commandName, BsonDocument.parse(command)
+        ));
+        listener.commandSucceeded(new CommandSucceededEvent(
+                null, 0L, requestId, CONNECTION, "db", commandName, BsonDocument.parse("{ ok: 1 }"), elapsedNanos
+        ));
+    }
+}
@@ -0,0 +1,85 @@
+package com.logistics.parcelandcarrier.outbox;
+
+import com.logistics.parcelandcarrier.entity.OutboxEvent;
+import com.logistics.parcelandcarrier.entity.Package;
+import com.logistics.parcelandcarrier.enums.OutboxEventType;
+import com.logistics.parcelandcarrier.enums.OutboxStatus;
+import com.logistics.parcelandcarrier.enums.PackageStatus;
+import com.logistics.parcelandcarrier.enums.PackageType;
+import com.logistics.parcelandcarrier.mapper.PackageMapperImpl;
+import com.logistics.parcelandcarrier.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class OutboxWriterTest {
+
+    private final OutboxEventRepository repository = mock(OutboxEventRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("One pending event is written per interested subscriber")
+    void testFanOut() {
+        OutboxWriter writer = writer(true,
+                new WebhookProperties.Subscriber("all", "http://a", null, Set.of()),
+                new WebhookProperties.Subscriber("assign", "http://b", null, Set.of(OutboxEventType.PACKAGE_ASSIGNED)));
+
+        writer.record(OutboxEventType.PACKAGE_STATUS_CHANGED, List.of(pkg("1"), pkg("2")));
+
+        List<OutboxEvent> events = captureInsert();
+        assertEquals(2, events.size());
+        assertTrue(events.stream().allMatch(e -> e.getSubscriber().equals("all")));
+        assertTrue(events.stream().allMatch(e -> e.getStatus() == OutboxStatus.PENDING));
+        assertEquals("2", events.get(1).getPayload().getId());
+    }
+
+    @Test
+    @DisplayName("Nothing is written when webhooks are disabled or nobody subscribed")
+    void testNoSubscriber() {
+        writer(false, new WebhookProperties.Subscriber("all", "http://a", null, Set.of()))
+                .record(OutboxEventType.PACKAGE_CREATED, pkg("1"));
+        writer(true, new WebhookProperties.Subscriber("assign", "http://b", null, Set.of(OutboxEventType.PACKAGE_ASSIGNED)))
+                .record(OutboxEventType.PACKAGE_CREATED, pkg("1"));
+
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("A failed insert is counted and does not fail the package change")
+    void testWriteFailure() {
+        when(repository.insert(anyList())).thenThrow(new DataAccessResourceFailureException("down"));
+
+        writer(true, new WebhookProperties.Subscriber("all", "http://a", null, Set.of()))
+                .record(OutboxEventType.PACKAGE_CREATED, pkg("1"));
+
+        assertEquals(1.0, meterRegistry.counter("webhooks.outbox.write.failures").count());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<OutboxEvent> captureInsert() {
+        ArgumentCaptor<List<OutboxEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(repository).insert(captor.capture());
+        return captor.getValue();
+    }
+
+    private OutboxWriter writer(boolean enabled, WebhookProperties.Subscriber... subscribers) {
+        WebhookProperties properties = new WebhookProperties(enabled, 100, 4, 10, Duration.ofSeconds(1),
+                Duration.ofMinutes(10), Duration.ofMinutes(1), Duration.ofSeconds(5), List.of(subscribers));
+        return new OutboxWriter(repository, new PackageMapperImpl(), properties, meterRegistry);
+    }
+
+    private static Package pkg(String id) {
+        return Package.builder().id(id).type(PackageType.STANDARD).weight(1.0)
+                .destinationAddress("1 Rue de Paris").status(PackageStatus.DELIVERED).build();
+    }
+}
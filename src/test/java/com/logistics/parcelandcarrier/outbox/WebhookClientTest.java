@@ -0,0 +1,125 @@
+package com.logistics.parcelandcarrier.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.logistics.parcelandcarrier.dto.response.PackageResponse;
+import com.logistics.parcelandcarrier.entity.OutboxEvent;
+import com.logistics.parcelandcarrier.enums.OutboxEventType;
+import com.logistics.parcelandcarrier.enums.PackageStatus;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the client against a local HTTP stub
+ */
+class WebhookClientTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final BlockingQueue<Received> received = new LinkedBlockingQueue<>();
+    private final AtomicInteger responseStatus = new AtomicInteger(200);
+
+    private HttpServer server;
+    private WebhookClient client;
+
+    record Received(byte[] body, String signature) {
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/hook", exchange -> {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            received.add(new Received(body, exchange.getRequestHeaders().getFirst(WebhookClient.SIGNATURE_HEADER)));
+            exchange.sendResponseHeaders(responseStatus.get(), -1);
+            exchange.close();
+        });
+        server.start();
+
+        client = new WebhookClient(RestClient.builder(), objectMapper, properties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("A batch is POSTed as one JSON body with all its events")
+    void testBatchBody() throws Exception {
+        client.send(subscriber(null), WebhookPayload.of("n8n", List.of(event("e1"), event("e2"))));
+
+        Received request = received.poll(5, TimeUnit.SECONDS);
+        JsonNode body = objectMapper.readTree(request.body());
+        assertEquals("n8n", body.get("subscriber").asText());
+        assertEquals("e1", body.get("events").get(0).get("id").asText());
+        assertEquals("PACKAGE_STATUS_CHANGED", body.get("events").get(1).get("type").asText());
+        assertEquals("DELIVERED", body.get("events").get(1).get("data").get("status").asText());
+        assertNull(request.signature());
+    }
+
+    @Test
+    @DisplayName("The signature is the HMAC of the exact body sent")
+    void testSignature() throws Exception {
+        client.send(subscriber("s3cret"), WebhookPayload.of("n8n", List.of(event("e1"))));
+
+        Received request = received.poll(5, TimeUnit.SECONDS);
+        assertEquals("sha256=" + WebhookClient.sign("s3cret", request.body()), request.signature());
+    }
+
+    @Test
+    @DisplayName("Non-2xx responses fail the delivery")
+    void testErrorStatus() {
+        responseStatus.set(503);
+
+        assertThrows(RestClientException.class,
+                () -> client.send(subscriber(null), WebhookPayload.of("n8n", List.of(event("e1")))));
+    }
+
+    @Test
+    @DisplayName("Unreachable subscribers fail the delivery")
+    void testUnreachable() {
+        server.stop(0);
+
+        assertThrows(RestClientException.class,
+                () -> client.send(subscriber(null), WebhookPayload.of("n8n", List.of(event("e1")))));
+    }
+
+    private WebhookProperties.Subscriber subscriber(String secret) {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/hook";
+        return new WebhookProperties.Subscriber("n8n", url, secret, Set.of());
+    }
+
+    private static WebhookProperties properties() {
+        return new WebhookProperties(true, 100, 4, 10, Duration.ofSeconds(1), Duration.ofMinutes(10),
+                Duration.ofMinutes(1), Duration.ofSeconds(2), List.of());
+    }
+
+    private static OutboxEvent event(String id) {
+        return OutboxEvent.builder()
+                .id(id)
+                .subscriber("n8n")
+                .type(OutboxEventType.PACKAGE_STATUS_CHANGED)
+                .packageId("p1")
+                .payload(PackageResponse.builder().id("p1").status(PackageStatus.DELIVERED).build())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,35 @@
+package com.logistics.parcelandcarrier.outbox;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebhookDispatcherTest {
+
+    private final Duration initial = Duration.ofSeconds(1);
+    private final Duration max = Duration.ofMinutes(10);
+
+    @Test
+    @DisplayName("The retry delay doubles per attempt, with jitter down to half")
+    void testExponentialBackoff() {
+        for (int attempts = 1; attempts <= 5; attempts++) {
+            long expected = 1000L << (attempts - 1);
+            for (int i = 0; i < 50; i++) {
+                long delay = WebhookDispatcher.backoff(attempts, initial, max).toMillis();
+                assertTrue(delay >= expected / 2 && delay <= expected, "attempt " + attempts + ": " + delay);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("The retry delay is capped, even after many attempts")
+    void testBackoffCap() {
+        for (int attempts : new int[] {15, 40, 1000}) {
+            long delay = WebhookDispatcher.backoff(attempts, initial, max).toMillis();
+            assertTrue(delay >= max.toMillis() / 2 && delay <= max.toMillis());
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.logistics.parcelandcarrier.repository;
+
+import com.logistics.parcelandcarrier.entity.Package;
+import com.logistics.parcelandcarrier.enums.PackageStatus;
+import com.logistics.parcelandcarrier.enums.PackageType;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackageQueriesTest {
+
+    private static final Duration MAX_TIME = Duration.ofSeconds(5);
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 15, 12, 0);
+
+    private static MongoMappingContext mappingContext;
+    private static QueryMapper queryMapper;
+    /** Keys of the indexes declared on the entity, by name */
+    private static Map<String, Document> declaredIndexes;
+
+    @BeforeAll
+    static void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.getPersistentEntity(Package.class);
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        queryMapper = new QueryMapper(converter);
+
+        declaredIndexes = new HashMap<>();
+        for (IndexDefinition index : IndexResolver.create(mappingContext).resolveIndexFor(Package.class)) {
+            declaredIndexes.put(index.getIndexOptions().getString("name"), index.getIndexKeys());
+        }
+    }
+
+    @Test
+    @DisplayName("Every filter combination is served by a declared index without an in-memory sort")
+    void testEveryCombinationUsesAnIndex() {
+        List<PackageFilter> filters = matrix();
+
+        for (PackageFilter filter : filters) {
+            Query query = PackageQueries.listing(filter, PageRequest.of(0, 20), MAX_TIME, true);
+            Document index = declaredIndexes.get(query.getHint());
+            assertNotNull(index, () -> "No declared index for " + filter);
+
+            Document mapped = mapped(query);
+            List<String> keys = new ArrayList<>(index.keySet());
+            String sortKey = keys.get(keys.size() - 1);
+            for (String key : keys.subList(0, keys.size() - 1)) {
+                assertTrue(isPointRange(mapped.get(key)), () -> key + " is not a point range for " + filter);
+            }
+            Object created = mapped.get(sortKey);
+            assertTrue(created == null || isRange(created), () -> sortKey + " is not a range for " + filter);
+            assertEquals(new Document(sortKey, index.get(sortKey)), mappedSort(query), () -> "Blocking sort for " + filter);
+            assertEquals(MAX_TIME.toMillis(), query.getMeta().getMaxTimeMsec());
+        }
+        assertEquals(288, filters.size());
+    }
+
+    @Test
+    @DisplayName("Predicates follow the key order of the chosen index")
+    void testPredicateOrder() {
+        PackageFilter filter = PackageFilter.builder()
+                .maxWeight(10.0)
+                .updatedFrom(NOW)
+                .createdFrom(NOW)
+                .type(PackageType.FRAGILE)
+                .transporterId("t1")
+                .build();
+
+        Query query = PackageQueries.listing(filter, PageRequest.of(0, 20), MAX_TIME, true);
+
+        assertEquals(PackageQueries.TRANSPORTER_STATUS_CREATED, query.getHint());
+        assertEquals(List.of("transporter_id", "status", "created_at", "type", "updated_at", "weight", "routing_key"),
+                new ArrayList<>(mapped(query).keySet()));
+    }
+
+    @Test
+    @DisplayName("Only a transporter filter carries the routing key, so only it targets one shard")
+    void testRoutingKey() {
+        Query byTransporter = PackageQueries.listing(
+                PackageFilter.builder().transporterId("t1").build(), PageRequest.of(0, 20), MAX_TIME, true);
+        Query unassigned = PackageQueries.listing(
+                PackageFilter.builder().assigned(false).build(), PageRequest.of(0, 20), MAX_TIME, true);
+
+        assertEquals("t:t1", mapped(byTransporter).get(PackageShardKey.FIELD));
+        assertFalse(mapped(unassigned).containsKey(PackageShardKey.FIELD));
+        assertEquals(PackageShardKey.KEY, declaredIndexes.get(PackageShardKey.INDEX));
+    }
+
+    @Test
+    @DisplayName("Unassigned packages match a missing or empty transporter through the transporter index")
+    void testUnassigned() {
+        Query query = PackageQueries.listing(
+                PackageFilter.builder().assigned(false).build(), PageRequest.of(0, 20), MAX_TIME, true);
+
+        assertEquals(PackageQueries.TRANSPORTER_STATUS_CREATED, query.getHint());
+        assertEquals(new Document("$in", Arrays.asList(null, "")), mapped(query).get("transporter_id"));
+    }
+
+    @Test
+    @DisplayName("Assigned packages are a residual filter on the status index")
+    void testAssigned() {
+        Query query = PackageQueries.listing(
+                PackageFilter.builder().assigned(true).build(), PageRequest.of(0, 20), MAX_TIME, true);
+
+        assertEquals(PackageQueries.STATUS_TYPE_CREATED, query.getHint());
+        assertTrue(((Document) mapped(query).get("transporter_id")).containsKey("$nin"));
+    }
+
+    @Test
+    @DisplayName("A client sort is kept and hints can be turned off")
+    void testClientSortWithoutHint() {
+        Query query = PackageQueries.listing(
+                PackageFilter.none(), PageRequest.of(0, 20, Sort.by("weight")), MAX_TIME, false);
+
+        assertNull(query.getHint());
+        assertEquals(new Document("weight", 1), mappedSort(query));
+    }
+
+    @Test
+    @DisplayName("Archival candidates are point ranges on the status index, bounded by creation date")
+    void testArchivable() {
+        Document mapped = queryMapper.getMappedObject(new Query(PackageQueries.archivable(NOW)).getQueryObject(),
+                mappingContext.getPersistentEntity(Package.class));
+
+        List<String> keys = new ArrayList<>(declaredIndexes.get(PackageQueries.STATUS_TYPE_CREATED).keySet());
+        assertEquals(keys, new ArrayList<>(mapped.keySet()).subList(0, keys.size()));
+        assertTrue(isPointRange(mapped.get("status")));
+        assertTrue(isPointRange(mapped.get("type")));
+        assertEquals(Set.of("$lt"), ((Document) mapped.get("updated_at")).keySet());
+    }
+
+    @Test
+    @DisplayName("Filters asking for a finished status, or explicitly for archived packages, reach the archive")
+    void testHistorical() {
+        assertFalse(PackageFilter.none().historical());
+        assertFalse(PackageFilter.builder().statuses(Set.of(PackageStatus.PENDING)).build().historical());
+        assertTrue(PackageFilter.builder()
+                .statuses(Set.of(PackageStatus.IN_TRANSIT, PackageStatus.DELIVERED)).build().historical());
+        assertTrue(PackageFilter.builder().includeArchived(true).build().historical());
+        assertFalse(PackageFilter.builder().statuses(Set.of(PackageStatus.PENDING)).includeArchived(true).build().historical());
+        assertFalse(PackageFilter.builder().statuses(Set.of(PackageStatus.DELIVERED)).includeArchived(false).build().historical());
+    }
+
+    @Test
+    @DisplayName("The filter set is normalized and contradictions are rejected")
+    void testNormalization() {
+        PackageFilter filter = PackageFilter.builder().statuses(Set.of()).transporterId(" ").assigned(true).build();
+        assertNull(filter.statuses());
+        assertNull(filter.transporterId());
+        assertEquals(Boolean.TRUE, filter.assigned());
+
+        assertNull(PackageFilter.builder().transporterId("t1").assigned(true).build().assigned());
+        assertThrows(IllegalArgumentException.class,
+                () -> PackageFilter.builder().transporterId("t1").assigned(false).build());
+        assertThrows(IllegalArgumentException.class,
+                () -> PackageFilter.builder().createdFrom(NOW).createdTo(NOW.minusDays(1)).build());
+        assertThrows(IllegalArgumentException.class,
+                () -> PackageFilter.builder().minWeight(5.0).maxWeight(1.0).build());
+    }
+
+    private static List<PackageFilter> matrix() {
+        List<Set<PackageStatus>> statuses = List.of(
+                Set.of(), Set.of(PackageStatus.PENDING), Set.of(PackageStatus.PENDING, PackageStatus.IN_TRANSIT));
+        List<PackageType> types = Arrays.asList(null, PackageType.REFRIGERATED);
+        List<LocalDateTime[]> createdRanges = List.of(
+                new LocalDateTime[]{null, null}, new LocalDateTime[]{NOW, null}, new LocalDateTime[]{NOW.minusDays(7), NOW});
+
+        List<PackageFilter> filters = new ArrayList<>();
+        for (Set<PackageStatus> status : statuses) {
+            for (PackageType type : types) {
+                for (int transporter = 0; transporter < 4; transporter++) {
+                    for (LocalDateTime[] created : createdRanges) {
+                        for (boolean updated : new boolean[]{false, true}) {
+                            for (boolean weight : new boolean[]{false, true}) {
+                                filters.add(PackageFilter.builder()
+                                        .statuses(status)
+                                        .type(type)
+                                        .transporterId(transporter == 1 ? "t1" : null)
+                                        .assigned(transporter == 2 ? Boolean.FALSE : transporter == 3 ? Boolean.TRUE : null)
+                                        .createdFrom(created[0])
+                                        .createdTo(created[1])
+                                        .updatedFrom(updated ? NOW.minusDays(1) : null)
+                                        .minWeight(weight ? 1.0 : null)
+                                        .maxWeight(weight ? 20.0 : null)
+                                        .build());
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return filters;
+    }
+
+    private static Document mapped(Query query) {
+        return queryMapper.getMappedObject(query.getQueryObject(), mappingContext.getPersistentEntity(Package.class));
+    }
+
+    private static Document mappedSort(Query query) {
+        return queryMapper.getMappedSort(query.getSortObject(), mappingContext.getPersistentEntity(Package.class));
+    }
+
+    private static boolean isPointRange(Object predicate) {
+        if (!(predicate instanceof Document document)) {
+            return predicate != null;
+        }
+        return document.size() == 1 && document.containsKey("$in");
+    }
+
+    private static boolean isRange(Object predicate) {
+        return predicate instanceof Document document
+                && document.keySet().stream().allMatch(operator -> operator.equals("$gte") || operator.equals("$lte"));
+    }
+}
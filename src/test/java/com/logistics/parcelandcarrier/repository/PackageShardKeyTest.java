@@ -0,0 +1,62 @@
+package com.logistics.parcelandcarrier.repository;
+
+import com.logistics.parcelandcarrier.entity.Package;
+import com.logistics.parcelandcarrier.enums.PackageStatus;
+import com.logistics.parcelandcarrier.enums.PackageType;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackageShardKeyTest {
+
+    private final PackageShardKeyCallback callback = new PackageShardKeyCallback();
+
+    @Test
+    @DisplayName("Assigned packages are routed by transporter, unassigned ones by their own id")
+    void testRoutingKey() {
+        assertEquals("t:t1", PackageShardKey.of("p1", "t1"));
+        assertEquals("p:p1", PackageShardKey.of("p1", null));
+        assertEquals("p:p1", PackageShardKey.of("p1", ""));
+    }
+
+    @Test
+    @DisplayName("A by-id lookup carries the routing key of the expected assignment")
+    void testById() {
+        Document withTransporter = new Query(PackageShardKey.byId("p1", "t1")).getQueryObject();
+        Document unassigned = new Query(PackageShardKey.byId("p1", null)).getQueryObject();
+
+        assertEquals("p1", withTransporter.get("id"));
+        assertEquals("t:t1", withTransporter.get("routingKey"));
+        assertEquals("p:p1", unassigned.get("routingKey"));
+    }
+
+    @Test
+    @DisplayName("A new package gets its id before conversion and its routing key follows the transporter")
+    void testCallback() {
+        Package pkg = pkg();
+
+        callback.onBeforeConvert(pkg, "packages");
+        assertTrue(ObjectId.isValid(pkg.getId()));
+        assertEquals("p:" + pkg.getId(), pkg.getRoutingKey());
+
+        pkg.assignToTransporter("t1");
+        callback.onBeforeConvert(pkg, "packages");
+        assertEquals("t:t1", pkg.getRoutingKey());
+    }
+
+    private static Package pkg() {
+        return Package.builder()
+                .type(PackageType.STANDARD)
+                .weight(1.0)
+                .destinationAddress("1 Rue de Lyon")
+                .status(PackageStatus.PENDING)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,146 @@
+package com.logistics.parcelandcarrier.repository;
+
+import com.logistics.parcelandcarrier.config.ReadRouting;
+import com.logistics.parcelandcarrier.entity.Package;
+import com.logistics.parcelandcarrier.entity.User;
+import com.logistics.parcelandcarrier.enums.PackageStatus;
+import com.logistics.parcelandcarrier.enums.PackageType;
+import com.logistics.parcelandcarrier.enums.Role;
+import com.logistics.parcelandcarrier.enums.TransporterStatus;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PartialUpdateTest {
+
+    private MappingMongoConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.setInitialEntitySet(Set.of(Package.class, User.class));
+        mappingContext.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+    }
+
+    @Test
+    @DisplayName("A status change sets status and updated_at only")
+    void testStatusChange() {
+        Package before = pkg();
+        Package after = before.toBuilder().build();
+        after.changeStatus(PackageStatus.CANCELLED);
+
+        Document update = PartialUpdate.diff(converter, before, after).getUpdateObject();
+
+        assertEquals(Set.of("$set"), update.keySet());
+        assertEquals(Set.of("status", "updated_at"), update.get("$set", Document.class).keySet());
+        assertEquals("CANCELLED", update.get("$set", Document.class).get("status"));
+    }
+
+    @Test
+    @DisplayName("A field that became null is unset, and an unchanged entity gives an empty update")
+    void testUnsetAndNoChange() {
+        Package before = pkg();
+        Package after = before.toBuilder().handlingInstructions(null).build();
+
+        Document update = PartialUpdate.diff(converter, before, after).getUpdateObject();
+
+        assertEquals(Set.of("handling_instructions"), update.get("$unset", Document.class).keySet());
+        assertFalse(update.containsKey("$set"));
+        assertTrue(PartialUpdate.isEmpty(PartialUpdate.diff(converter, before, before.toBuilder().build())));
+    }
+
+    @Test
+    @DisplayName("An assignment is sent to the package's current shard, moves its routing key, and expects the values read")
+    void testAssignmentUpdate() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Package.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        PackageRepositoryImpl repository = new PackageRepositoryImpl(
+                mock(ReadRouting.class), mongoTemplate, mock(ScatterGather.class), Duration.ofSeconds(5), true);
+        Package before = pkg();
+        Package after = before.toBuilder().build();
+        after.assignToTransporter("t1");
+
+        assertTrue(repository.updateChanged(before, after));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq(Package.class));
+        Document filter = query.getValue().getQueryObject();
+        assertEquals(Set.of("id", "status", "transporter_id", "routing_key", "updated_at"), filter.keySet());
+        assertEquals("p1", filter.get("id"));
+        assertEquals("PENDING", filter.get("status"));
+        assertNull(filter.get("transporter_id"));
+        assertEquals("p:p1", filter.get("routing_key"));
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertEquals(Set.of("status", "transporter_id", "routing_key", "updated_at"), set.keySet());
+        assertEquals("t:t1", set.get("routing_key"));
+    }
+
+    @Test
+    @DisplayName("A user update expects the values read, so a concurrent change makes it miss")
+    void testConcurrentChangeMisses() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(User.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+        UserRepositoryImpl repository = new UserRepositoryImpl(mock(ReadRouting.class), mongoTemplate);
+        User before = User.builder()
+                .id("u1")
+                .login("transporter")
+                .role(Role.TRANSPORTER)
+                .status(TransporterStatus.AVAILABLE)
+                .updatedAt(LocalDateTime.now().minusMinutes(5))
+                .build();
+        User after = before.toBuilder().build();
+        after.setOnDelivery();
+
+        assertFalse(repository.updateChanged(before, after));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).updateFirst(query.capture(), any(Update.class), eq(User.class));
+        Document filter = query.getValue().getQueryObject();
+        assertEquals(Set.of("id", "status", "updated_at"), filter.keySet());
+        assertEquals("AVAILABLE", filter.get("status"));
+    }
+
+    private static Package pkg() {
+        return Package.builder()
+                .id("p1")
+                .type(PackageType.FRAGILE)
+                .weight(2.0)
+                .destinationAddress("1 Rue de Lyon")
+                .handlingInstructions("Handle with care")
+                .status(PackageStatus.PENDING)
+                .routingKey("p:p1")
+                .createdAt(LocalDateTime.now().minusDays(1))
+                .updatedAt(LocalDateTime.now().minusDays(1))
+                .build();
+    }
+}
@@ -0,0 +1,93 @@
+package com.logistics.parcelandcarrier.repository;
+
+import com.logistics.parcelandcarrier.config.ReadRouting;
+import com.logistics.parcelandcarrier.entity.Package;
+import com.logistics.parcelandcarrier.enums.PackageStatus;
+import com.logistics.parcelandcarrier.enums.PackageType;
+import com.mongodb.ReadPreference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ReactivePackageRepositoryImplTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    private ReactiveMongoTemplate template;
+    private ReactivePackageRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        template = mock(ReactiveMongoTemplate.class);
+        ReadRouting readRouting = mock(ReadRouting.class);
+        when(readRouting.streaming()).thenReturn(ReadPreference.secondaryPreferred());
+        repository = new ReactivePackageRepositoryImpl(template, readRouting, true);
+    }
+
+    @Test
+    @DisplayName("A current-only filter streams one hinted, routed listing query")
+    void testStreamCurrentOnly() {
+        PackageFilter filter = PackageFilter.builder()
+                .statuses(Set.of(PackageStatus.PENDING))
+                .type(PackageType.FRAGILE)
+                .build();
+        when(template.find(any(Query.class), eq(Package.class))).thenReturn(Flux.just(pkg("1", 0)));
+
+        List<Package> result = repository.streamWithFilter(filter, PageRequest.of(0, 500)).collectList().block();
+
+        assertEquals(1, result.size());
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(template).find(query.capture(), eq(Package.class));
+        assertEquals(PackageQueries.criteria(filter).getCriteriaObject(), query.getValue().getQueryObject());
+        assertEquals(PackageQueries.STATUS_TYPE_CREATED, query.getValue().getHint());
+        assertEquals(ReadPreference.secondaryPreferred(), query.getValue().getReadPreference());
+        assertNull(query.getValue().getMeta().getMaxTimeMsec());
+        verify(template, never()).find(any(Query.class), eq(Package.class), eq(PackageQueries.ARCHIVE_COLLECTION));
+    }
+
+    @Test
+    @DisplayName("A finished-status filter merges both collections in the listing order, then applies the page")
+    void testStreamMergesArchive() {
+        PackageFilter filter = PackageFilter.builder().statuses(Set.of(PackageStatus.DELIVERED)).build();
+        // Newest first: each collection returns its own window already sorted
+        when(template.find(any(Query.class), eq(Package.class)))
+                .thenReturn(Flux.just(pkg("c1", 1), pkg("c2", 4), pkg("c3", 5)));
+        when(template.find(any(Query.class), eq(Package.class), eq(PackageQueries.ARCHIVE_COLLECTION)))
+                .thenReturn(Flux.just(pkg("a1", 2), pkg("a2", 3), pkg("a3", 6)));
+
+        List<Package> result = repository.streamWithFilter(filter, PageRequest.of(1, 2)).collectList().block();
+
+        assertEquals(List.of("a2", "c2"), result.stream().map(Package::getId).toList());
+        ArgumentCaptor<Query> archived = ArgumentCaptor.forClass(Query.class);
+        verify(template).find(archived.capture(), eq(Package.class), eq(PackageQueries.ARCHIVE_COLLECTION));
+        assertEquals(0, archived.getValue().getSkip());
+        assertEquals(4, archived.getValue().getLimit());
+        assertNull(archived.getValue().getHint());
+        assertEquals(ReadPreference.secondaryPreferred(), archived.getValue().getReadPreference());
+    }
+
+    private Package pkg(String id, int hoursAgo) {
+        return Package.builder()
+                .id(id)
+                .type(PackageType.STANDARD)
+                .weight(1.0)
+                .destinationAddress("Rue de Paris")
+                .status(PackageStatus.DELIVERED)
+                .createdAt(NOW.minusHours(hoursAgo))
+                .build();
+    }
+}
@@ -0,0 +1,80 @@
+package com.logistics.parcelandcarrier.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScatterGatherTest {
+
+    private final SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("fan-out-test-");
+    private final ScatterGather scatterGather = new ScatterGather(executor);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Forked reads run concurrently and see the caller's authentication")
+    void testForkedReadsRunConcurrently() {
+        authenticate("ROLE_ADMIN");
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        CompletableFuture<String> first = scatterGather.fork(() -> awaitOther(bothStarted));
+        CompletableFuture<String> second = scatterGather.fork(() -> awaitOther(bothStarted));
+
+        assertEquals("admin", ScatterGather.join(first));
+        assertEquals("admin", ScatterGather.join(second));
+    }
+
+    @Test
+    @DisplayName("A failed read is rethrown as thrown")
+    void testFailureIsUnwrapped() {
+        CompletableFuture<Long> read = scatterGather.fork(() -> {
+            throw new QueryTimeoutException("too slow");
+        });
+
+        assertThrows(QueryTimeoutException.class, () -> ScatterGather.join(read));
+    }
+
+    @Test
+    @DisplayName("Only admins and background jobs may read across all shards")
+    void testTransportersCannotFanOut() {
+        assertEquals(1, ScatterGather.join(scatterGather.fork(() -> 1)));
+
+        authenticate("ROLE_TRANSPORTER");
+
+        assertThrows(AccessDeniedException.class, () -> scatterGather.fork(() -> 1));
+    }
+
+    private static String awaitOther(CountDownLatch bothStarted) {
+        bothStarted.countDown();
+        try {
+            assertTrue(bothStarted.await(5, TimeUnit.SECONDS), "Reads ran one after the other");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        return SecurityContextHolder.getContext().getAuthentication().getName();
+    }
+
+    private static void authenticate(String authority) {
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                "admin", null, List.of(new SimpleGrantedAuthority(authority)));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+}
@@ -0,0 +1,70 @@
+package com.logistics.parcelandcarrier.repository;
+
+import com.logistics.parcelandcarrier.enums.Role;
+import com.logistics.parcelandcarrier.enums.Specialty;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserQueriesTest {
+
+    @Test
+    @DisplayName("Omitted filters are bound to all their values so the compound index is used")
+    void testOmittedFiltersExpand() {
+        Document criteria = UserQueries.listing(UserFilter.none(), null).getQueryObject();
+
+        assertEquals(List.of(Role.values()), in(criteria, "role"));
+        assertEquals(List.of(true, false), in(criteria, "active"));
+        assertEquals(Specialty.values().length + 1, in(criteria, "specialty").size());
+        assertTrue(in(criteria, "specialty").contains(null));
+        assertFalse(criteria.containsKey("_id"));
+    }
+
+    @Test
+    @DisplayName("Given filters are bound to a single value")
+    void testGivenFilters() {
+        Document criteria = UserQueries
+                .listing(new UserFilter(Role.TRANSPORTER, true, Specialty.FRAGILE), null)
+                .getQueryObject();
+
+        assertEquals(List.of(Role.TRANSPORTER), in(criteria, "role"));
+        assertEquals(List.of(true), in(criteria, "active"));
+        assertEquals(List.of(Specialty.FRAGILE), in(criteria, "specialty"));
+    }
+
+    @Test
+    @DisplayName("The cursor becomes an exclusive lower bound in id order")
+    void testCursor() {
+        ObjectId cursor = new ObjectId();
+
+        Query query = UserQueries.listing(UserFilter.none(), cursor.toHexString());
+
+        assertEquals(new Document("$gt", cursor), query.getQueryObject().get("_id"));
+        assertEquals(new Document("_id", 1), query.getSortObject());
+    }
+
+    @Test
+    @DisplayName("The password hash is not read")
+    void testProjection() {
+        Document fields = UserQueries.listing(UserFilter.none(), null).getFieldsObject();
+
+        assertFalse(fields.containsKey("password"));
+        assertEquals(1, fields.get("login"));
+    }
+
+    @Test
+    @DisplayName("Malformed cursors are rejected")
+    void testInvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> UserQueries.listing(UserFilter.none(), "not-an-id"));
+    }
+
+    private static List<?> in(Document criteria, String field) {
+        return (List<?>) ((Document) criteria.get(field)).get("$in");
+    }
+}
@@ -0,0 +1,108 @@
+package com.logistics.parcelandcarrier.security;
+
+import com.logistics.parcelandcarrier.entity.ApiKey;
+import com.logistics.parcelandcarrier.enums.Role;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ApiKeyAuthenticationFilterTest {
+
+    private ApiKeyRegistry apiKeyRegistry;
+    private RevokedTokenRegistry revokedTokenRegistry;
+    private ApiKeyAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        apiKeyRegistry = mock(ApiKeyRegistry.class);
+        revokedTokenRegistry = mock(RevokedTokenRegistry.class);
+        filter = new ApiKeyAuthenticationFilter(apiKeyRegistry, revokedTokenRegistry);
+        SecurityContextHolder.clearContext();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("An unknown key leaves the request unauthenticated and the chain continues")
+    void testUnknownKey() throws Exception {
+        when(apiKeyRegistry.authenticate("pck_bad")).thenReturn(Optional.empty());
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request("pck_bad"), new MockHttpServletResponse(), chain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    @DisplayName("A key gets one role per scope and nothing more")
+    void testScopes() throws Exception {
+        when(apiKeyRegistry.authenticate("pck_erp")).thenReturn(Optional.of(apiKey(Set.of(Role.TRANSPORTER), "t1")));
+
+        filter.doFilter(request("pck_erp"), new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertEquals("api-key:erp", authentication.getPrincipal());
+        assertEquals(Set.of("ROLE_TRANSPORTER"), authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority).collect(Collectors.toSet()));
+        assertEquals("t1", ((JwtAuthenticationDetails) authentication.getDetails()).getUserId());
+    }
+
+    @Test
+    @DisplayName("A key acting for a deactivated transporter is rejected")
+    void testDeactivatedOwner() throws Exception {
+        when(apiKeyRegistry.authenticate("pck_erp")).thenReturn(Optional.of(apiKey(Set.of(Role.TRANSPORTER), "t1")));
+        when(revokedTokenRegistry.isSubjectRevoked(eq("t1"), any())).thenReturn(true);
+
+        filter.doFilter(request("pck_erp"), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    @DisplayName("A request already authenticated is left as is")
+    void testAlreadyAuthenticated() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(mock(Authentication.class));
+
+        filter.doFilter(request("pck_erp"), new MockHttpServletResponse(), new MockFilterChain());
+
+        verifyNoInteractions(apiKeyRegistry);
+    }
+
+    private static MockHttpServletRequest request(String rawKey) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/transporter/packages");
+        request.addHeader(ApiKeyAuthenticationFilter.API_KEY_HEADER, rawKey);
+        return request;
+    }
+
+    private static ApiKey apiKey(Set<Role> scopes, String userId) {
+        return ApiKey.builder()
+                .id("k1")
+                .name("erp")
+                .scopes(scopes)
+                .userId(userId)
+                .active(true)
+                .createdAt(LocalDateTime.now().minusDays(1))
+                .build();
+    }
+}
@@ -0,0 +1,68 @@
+package com.logistics.parcelandcarrier.security;
+
+import com.logistics.parcelandcarrier.entity.ApiKey;
+import com.logistics.parcelandcarrier.enums.Role;
+import com.logistics.parcelandcarrier.repository.ApiKeyRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ApiKeyRegistryTest {
+
+    private ApiKeyRepository apiKeyRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private ApiKeyRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        apiKeyRepository = mock(ApiKeyRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        registry = new ApiKeyRegistry(apiKeyRepository, meterRegistry);
+        when(apiKeyRepository.findByActiveTrue()).thenReturn(List.of(apiKey("erp-sync", "pck_secret")));
+        registry.refresh();
+    }
+
+    @Test
+    @DisplayName("A known key is found by its hash from memory and counted under its name")
+    void testAuthenticate() {
+        assertEquals("erp-sync", registry.authenticate("pck_secret").orElseThrow().getName());
+        assertTrue(registry.authenticate("pck_other").isEmpty());
+
+        verify(apiKeyRepository, times(1)).findByActiveTrue();
+        assertEquals(1, meterRegistry.counter("api.keys.requests", "key", "erp-sync").count());
+        assertEquals(1, meterRegistry.counter("api.keys.rejected").count());
+        assertEquals(1, meterRegistry.get("api.keys.active").gauge().value());
+    }
+
+    @Test
+    @DisplayName("A revoked key is rejected after refresh, and a failed refresh keeps the previous keys")
+    void testRefresh() {
+        when(apiKeyRepository.findByActiveTrue())
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(List.of());
+
+        registry.refresh();
+        assertTrue(registry.authenticate("pck_secret").isPresent());
+
+        registry.refresh();
+        assertTrue(registry.authenticate("pck_secret").isEmpty());
+    }
+
+    private static ApiKey apiKey(String name, String rawKey) {
+        return ApiKey.builder()
+                .id(name)
+                .name(name)
+                .keyHash(Sha256.hex(rawKey))
+                .scopes(Set.of(Role.ADMIN))
+                .active(true)
+                .build();
+    }
+}
@@ -0,0 +1,99 @@
+package com.logistics.parcelandcarrier.security;
+
+import com.logistics.parcelandcarrier.entity.RevokedToken;
+import com.logistics.parcelandcarrier.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RevokedTokenRegistryTest {
+
+    private static final long TOKEN_LIFETIME_MS = Duration.ofHours(1).toMillis();
+
+    private RevokedTokenRepository revokedTokenRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private RevokedTokenRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        revokedTokenRepository = mock(RevokedTokenRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        registry = new RevokedTokenRegistry(revokedTokenRepository, meterRegistry, TOKEN_LIFETIME_MS, 1000);
+    }
+
+    @Test
+    @DisplayName("A logged out token is rejected at once and the revocation stored for the other nodes")
+    void testRevokeToken() {
+        Instant issuedAt = Instant.now().minusSeconds(60);
+
+        registry.revokeToken("jti-1", issuedAt.plusMillis(TOKEN_LIFETIME_MS));
+
+        assertTrue(registry.isRevoked("jti-1", "u1", issuedAt));
+        assertFalse(registry.isRevoked("jti-2", "u1", issuedAt));
+        verify(revokedTokenRepository).insert(any(RevokedToken.class));
+        assertEquals(1, meterRegistry.counter("jwt.revocations.rejected").count());
+    }
+
+    @Test
+    @DisplayName("A deactivated user's tokens are rejected, and tokens issued after a reactivation accepted")
+    void testRevokeSubject() {
+        registry.revokeSubject("u1");
+
+        assertTrue(registry.isRevoked("jti-1", "u1", Instant.now().minusSeconds(60)));
+        assertFalse(registry.isRevoked("jti-2", "u1", Instant.now().plusSeconds(5)));
+        assertFalse(registry.isRevoked("jti-3", "u2", Instant.now().minusSeconds(60)));
+    }
+
+    @Test
+    @DisplayName("Revocations written by other nodes are loaded at startup, then picked up by later syncs")
+    void testSync() {
+        Instant now = Instant.now();
+        when(revokedTokenRepository.findByExpiresAtAfter(any())).thenReturn(List.of(token("jti-1", now)));
+        when(revokedTokenRepository.findByRevokedAtGreaterThanEqual(any())).thenReturn(List.of(token("jti-2", now)));
+
+        registry.sync();
+        assertTrue(registry.isRevoked("jti-1", null, now));
+        assertFalse(registry.isRevoked("jti-2", null, now));
+
+        registry.sync();
+        assertTrue(registry.isRevoked("jti-2", null, now));
+        verify(revokedTokenRepository, times(1)).findByExpiresAtAfter(any());
+    }
+
+    @Test
+    @DisplayName("The Bloom filter has no false negatives, and a purge drops expired revocations")
+    void testFilterAndPurge() {
+        Instant now = Instant.now();
+        List<String> revoked = IntStream.range(0, 1000).mapToObj(i -> UUID.randomUUID().toString()).toList();
+        revoked.forEach(id -> registry.revokeToken(id, now.plusSeconds(60)));
+        registry.revokeToken("expired", now.minusSeconds(1));
+
+        assertTrue(revoked.stream().allMatch(id -> registry.isRevoked(id, null, now)));
+
+        registry.purge();
+
+        assertFalse(registry.isRevoked("expired", null, now));
+        assertTrue(revoked.stream().allMatch(id -> registry.isRevoked(id, null, now)));
+        assertEquals(1000, meterRegistry.get("jwt.revocations.size").gauge().value());
+    }
+
+    private static RevokedToken token(String tokenId, Instant revokedAt) {
+        return RevokedToken.builder()
+                .kind(RevokedToken.Kind.TOKEN)
+                .key(tokenId)
+                .revokedAt(revokedAt)
+                .expiresAt(revokedAt.plusSeconds(3600))
+                .build();
+    }
+}
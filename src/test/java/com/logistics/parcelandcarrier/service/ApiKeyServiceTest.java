@@ -0,0 +1,96 @@
+package com.logistics.parcelandcarrier.service;
+
+import com.logistics.parcelandcarrier.dto.request.ApiKeyRequest;
+import com.logistics.parcelandcarrier.dto.response.ApiKeyResponse;
+import com.logistics.parcelandcarrier.entity.ApiKey;
+import com.logistics.parcelandcarrier.entity.User;
+import com.logistics.parcelandcarrier.enums.Role;
+import com.logistics.parcelandcarrier.exception.ResourceNotFoundException;
+import com.logistics.parcelandcarrier.mapper.ApiKeyMapperImpl;
+import com.logistics.parcelandcarrier.repository.ApiKeyRepository;
+import com.logistics.parcelandcarrier.repository.UserRepository;
+import com.logistics.parcelandcarrier.security.ApiKeyRegistry;
+import com.logistics.parcelandcarrier.security.Sha256;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ApiKeyServiceTest {
+
+    private ApiKeyRepository apiKeyRepository;
+    private ApiKeyRegistry apiKeyRegistry;
+    private UserRepository userRepository;
+    private ApiKeyService service;
+
+    @BeforeEach
+    void setUp() {
+        apiKeyRepository = mock(ApiKeyRepository.class);
+        apiKeyRegistry = mock(ApiKeyRegistry.class);
+        userRepository = mock(UserRepository.class);
+        service = new ApiKeyService(apiKeyRepository, new ApiKeyMapperImpl(), apiKeyRegistry, userRepository);
+        when(apiKeyRepository.insert(any(ApiKey.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    @DisplayName("A created key is returned once, and only its hash is stored")
+    void testCreate() {
+        ApiKeyResponse response = service.createApiKey(new ApiKeyRequest("erp", Set.of(Role.ADMIN), null));
+
+        ArgumentCaptor<ApiKey> stored = ArgumentCaptor.forClass(ApiKey.class);
+        verify(apiKeyRepository).insert(stored.capture());
+        assertTrue(response.getKey().startsWith("pck_"));
+        assertEquals(Sha256.hex(response.getKey()), stored.getValue().getKeyHash());
+        assertTrue(response.getKey().startsWith(stored.getValue().getPrefix()));
+        verify(apiKeyRegistry).refresh();
+    }
+
+    @Test
+    @DisplayName("The TRANSPORTER scope needs an active transporter, and only that scope acts for a user")
+    void testScopeValidation() {
+        when(userRepository.findById("admin")).thenReturn(Optional.of(
+                User.builder().id("admin").role(Role.ADMIN).active(true).build()));
+        when(userRepository.findById("inactive")).thenReturn(Optional.of(
+                User.builder().id("inactive").role(Role.TRANSPORTER).active(false).build()));
+        when(userRepository.findById("t1")).thenReturn(Optional.of(
+                User.builder().id("t1").role(Role.TRANSPORTER).active(true).build()));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.createApiKey(new ApiKeyRequest("k", Set.of(Role.TRANSPORTER), null)));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.createApiKey(new ApiKeyRequest("k", Set.of(Role.ADMIN), "t1")));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.createApiKey(new ApiKeyRequest("k", Set.of(Role.TRANSPORTER), "admin")));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.createApiKey(new ApiKeyRequest("k", Set.of(Role.TRANSPORTER), "inactive")));
+        assertThrows(ResourceNotFoundException.class,
+                () -> service.createApiKey(new ApiKeyRequest("k", Set.of(Role.TRANSPORTER), "missing")));
+        verify(apiKeyRepository, never()).insert(any(ApiKey.class));
+
+        assertEquals("t1", service.createApiKey(new ApiKeyRequest("k", Set.of(Role.TRANSPORTER), "t1")).getUserId());
+    }
+
+    @Test
+    @DisplayName("Deactivating a user revokes its active keys and refreshes the registry")
+    void testRevokeUserApiKeys() {
+        ApiKey first = ApiKey.builder().id("k1").userId("t1").active(true).build();
+        ApiKey second = ApiKey.builder().id("k2").userId("t1").active(true).build();
+        when(apiKeyRepository.findByUserIdAndActiveTrue("t1")).thenReturn(List.of(first, second));
+
+        assertEquals(2, service.revokeUserApiKeys("t1"));
+        assertEquals(0, service.revokeUserApiKeys("t2"));
+
+        assertFalse(first.isActive());
+        assertFalse(second.isActive());
+        verify(apiKeyRepository).saveAll(List.of(first, second));
+        verify(apiKeyRegistry, times(1)).refresh();
+    }
+}
@@ -0,0 +1,324 @@
+package com.logistics.parcelandcarrier.service;
+
+import com.logistics.parcelandcarrier.cache.PackageCache;
+import com.logistics.parcelandcarrier.cache.TransporterRegistry;
+import com.logistics.parcelandcarrier.dto.request.BulkAssignmentRequest.Assignment;
+import com.logistics.parcelandcarrier.dto.response.BulkOperationResponse;
+import com.logistics.parcelandcarrier.entity.Package;
+import com.logistics.parcelandcarrier.entity.User;
+import com.logistics.parcelandcarrier.enums.OutboxEventType;
+import com.logistics.parcelandcarrier.enums.PackageStatus;
+import com.logistics.parcelandcarrier.enums.PackageType;
+import com.logistics.parcelandcarrier.enums.Role;
+import com.logistics.parcelandcarrier.enums.Specialty;
+import com.logistics.parcelandcarrier.enums.TransporterStatus;
+import com.logistics.parcelandcarrier.outbox.OutboxWriter;
+import com.logistics.parcelandcarrier.repository.PackageRepository;
+import com.logistics.parcelandcarrier.repository.UserRepository;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BulkPackageServiceTest {
+
+    private PackageRepository packageRepository;
+    private UserRepository userRepository;
+    private MongoTemplate mongoTemplate;
+    private BulkOperations transporterOps;
+    private BulkOperations packageOps;
+    private TransporterRegistry registry;
+    private OutboxWriter outboxWriter;
+    private BulkPackageService service;
+
+    @BeforeEach
+    void setUp() {
+        packageRepository = mock(PackageRepository.class);
+        userRepository = mock(UserRepository.class);
+        mongoTemplate = mock(MongoTemplate.class);
+        transporterOps = mock(BulkOperations.class);
+        packageOps = mock(BulkOperations.class);
+        registry = mock(TransporterRegistry.class);
+        outboxWriter = mock(OutboxWriter.class);
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(User.class))).thenReturn(transporterOps);
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(Package.class))).thenReturn(packageOps);
+
+        service = new BulkPackageService(packageRepository, userRepository, mongoTemplate,
+                mock(PackageCache.class), registry, outboxWriter);
+    }
+
+    @Test
+    @DisplayName("Valid assignments are prefetched and applied with one bulk write per collection")
+    void testAllAssigned() {
+        prefetch(List.of(pkg("p1", PackageType.STANDARD), pkg("p2", PackageType.FRAGILE)),
+                List.of(transporter("t1", Specialty.STANDARD), transporter("t2", Specialty.FRAGILE)));
+        matched(transporterOps, 2);
+        matched(packageOps, 2);
+
+        BulkOperationResponse response = service.assignPackages(List.of(
+                new Assignment("p1", "t1"), new Assignment("p2", "t2")));
+
+        assertEquals(2, response.getSucceeded());
+        assertEquals(PackageStatus.IN_TRANSIT, response.getResults().get(0).getStatus());
+        verify(transporterOps, times(2)).updateOne(any(Query.class), any(Update.class));
+        verify(packageOps, times(2)).updateOne(any(Query.class), any(Update.class));
+        verify(mongoTemplate, never()).find(any(Query.class), any());
+        verify(outboxWriter).record(eq(OutboxEventType.PACKAGE_ASSIGNED), argThat((List<Package> packages) -> packages.size() == 2));
+    }
+
+    @Test
+    @DisplayName("Business rules are checked per item, in request order")
+    void testPerItemValidation() {
+        Package assigned = pkg("p4", PackageType.STANDARD);
+        assigned.setStatus(PackageStatus.IN_TRANSIT);
+        prefetch(List.of(pkg("p1", PackageType.STANDARD), pkg("p2", PackageType.REFRIGERATED),
+                        pkg("p3", PackageType.STANDARD), assigned),
+                List.of(transporter("t1", Specialty.STANDARD)));
+        matched(transporterOps, 1);
+        matched(packageOps, 1);
+
+        BulkOperationResponse response = service.assignPackages(List.of(
+                new Assignment("p1", "t1"),
+                new Assignment("p2", "t1"),
+                new Assignment("p3", "t1"),
+                new Assignment("p4", "t1"),
+                new Assignment("missing", "t1"),
+                new Assignment("p1", "t1")));
+
+        List<BulkOperationResponse.ItemResult> results = response.getResults();
+        assertTrue(results.get(0).isSuccess());
+        assertTrue(results.get(1).getError().contains("REFRIGERATED"));
+        assertTrue(results.get(2).getError().contains("not available"));
+        assertTrue(results.get(3).getError().contains("cannot be assigned"));
+        assertTrue(results.get(4).getError().contains("not found"));
+        assertTrue(results.get(5).getError().contains("more than once"));
+        assertEquals(1, response.getSucceeded());
+        assertEquals(5, response.getFailed());
+    }
+
+    @Test
+    @DisplayName("A transporter claimed concurrently by another request fails its item without touching the package")
+    void testTransporterLostRace() {
+        prefetch(List.of(pkg("p1", PackageType.STANDARD), pkg("p2", PackageType.STANDARD)),
+                List.of(transporter("t1", Specialty.STANDARD), transporter("t2", Specialty.STANDARD)));
+        matched(transporterOps, 1);
+        matched(packageOps, 1);
+        // t2 is ON_DELIVERY as well, but under the other request's token: only t1 is read back
+        when(mongoTemplate.find(any(Query.class), eq(User.class)))
+                .thenReturn(List.of(User.builder().id("t1").build()));
+
+        BulkOperationResponse response = service.assignPackages(List.of(
+                new Assignment("p1", "t1"), new Assignment("p2", "t2")));
+
+        assertTrue(response.getResults().get(0).isSuccess());
+        assertFalse(response.getResults().get(1).isSuccess());
+        verify(packageOps, times(1)).updateOne(any(Query.class), any(Update.class));
+
+        ArgumentCaptor<Update> claim = ArgumentCaptor.forClass(Update.class);
+        verify(transporterOps, times(2)).updateOne(any(Query.class), claim.capture());
+        Object token = claim.getValue().getUpdateObject().get("$set", Document.class).get(BulkPackageService.CLAIM_TOKEN);
+        assertNotNull(token);
+        ArgumentCaptor<Query> readBack = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(readBack.capture(), eq(User.class));
+        assertEquals(token, readBack.getValue().getQueryObject().get(BulkPackageService.CLAIM_TOKEN));
+    }
+
+    @Test
+    @DisplayName("A package changed concurrently fails its item and releases the claimed transporter")
+    void testPackageLostRace() {
+        prefetch(List.of(pkg("p1", PackageType.STANDARD), pkg("p2", PackageType.STANDARD)),
+                List.of(transporter("t1", Specialty.STANDARD), transporter("t2", Specialty.STANDARD)));
+        // Both claims, then the release of t2
+        matched(transporterOps, 2, 1);
+        matched(packageOps, 1);
+        Package p1 = pkg("p1", PackageType.STANDARD);
+        p1.setTransporterId("t1");
+        Package p2 = pkg("p2", PackageType.STANDARD);
+        p2.setTransporterId("someone-else");
+        when(mongoTemplate.find(any(Query.class), eq(Package.class))).thenReturn(List.of(p1, p2));
+
+        BulkOperationResponse response = service.assignPackages(List.of(
+                new Assignment("p1", "t1"), new Assignment("p2", "t2")));
+
+        assertTrue(response.getResults().get(0).isSuccess());
+        assertTrue(response.getResults().get(1).getError().contains("concurrently"));
+        ArgumentCaptor<Query> release = ArgumentCaptor.forClass(Query.class);
+        verify(transporterOps, times(3)).updateOne(release.capture(), any(Update.class));
+        Document expected = release.getValue().getQueryObject();
+        assertEquals("t2", expected.get("id"));
+        // Compare-and-set on the updatedAt this request's claim wrote
+        assertNotNull(expected.get("updatedAt"));
+        verify(registry).put(argThat(user -> user.getId().equals("t2") && user.getStatus() == TransporterStatus.AVAILABLE));
+    }
+
+    @Test
+    @DisplayName("Status changes are applied with one update and release each idle transporter once")
+    void testBulkStatusChange() {
+        Package p1 = assignedTo("p1", "t1");
+        Package p2 = assignedTo("p2", "t1");
+        Package p3 = assignedTo("p3", "t2");
+        when(packageRepository.findAllById(any())).thenReturn(List.of(p1, p2, p3));
+        updated(3);
+        when(mongoTemplate.findDistinct(any(Query.class), eq("transporterId"), eq(Package.class), eq(String.class)))
+                .thenReturn(List.of("t2"));
+        User t1 = transporter("t1", Specialty.STANDARD);
+        t1.setOnDelivery();
+        when(userRepository.findAllById(any())).thenReturn(List.of(t1));
+        matched(transporterOps, 1);
+
+        BulkOperationResponse response = service.changeStatus(List.of("p1", "p2", "p3"), PackageStatus.DELIVERED);
+
+        assertEquals(3, response.getSucceeded());
+        verify(mongoTemplate, times(1)).updateMulti(any(Query.class), any(Update.class), eq(Package.class));
+        verify(transporterOps, times(1)).updateOne(any(Query.class), any(Update.class));
+        verify(userRepository).findAllById(List.of("t1"));
+        verify(registry).put(argThat(user -> user.getStatus() == TransporterStatus.AVAILABLE));
+        verify(outboxWriter).record(eq(OutboxEventType.PACKAGE_STATUS_CHANGED), argThat((List<Package> packages) -> packages.size() == 3));
+    }
+
+    @Test
+    @DisplayName("A transporter's bulk status change rejects packages it does not own")
+    void testBulkStatusChangeOwnership() {
+        when(packageRepository.findAllById(any())).thenReturn(List.of(assignedTo("p1", "t1"), assignedTo("p2", "t2")));
+        updated(1);
+
+        BulkOperationResponse response = service.changeStatusMyPackages(
+                List.of("p1", "p2", "missing"), "t1", PackageStatus.IN_TRANSIT);
+
+        List<BulkOperationResponse.ItemResult> results = response.getResults();
+        assertTrue(results.get(0).isSuccess());
+        assertTrue(results.get(1).getError().contains("does not belong"));
+        assertTrue(results.get(2).getError().contains("not found"));
+        verify(mongoTemplate, never()).findDistinct(any(Query.class), anyString(), any(Class.class), any(Class.class));
+    }
+
+    @Test
+    @DisplayName("A package reassigned after the prefetch fails its item")
+    void testBulkStatusChangeLostOwnership() {
+        when(packageRepository.findAllById(any())).thenReturn(List.of(assignedTo("p1", "t1"), assignedTo("p2", "t1")));
+        updated(1);
+        readBack(List.of(assignedTo("p1", "t1")), List.of(assignedTo("p2", "t2")));
+
+        BulkOperationResponse response = service.changeStatusMyPackages(
+                List.of("p1", "p2"), "t1", PackageStatus.IN_TRANSIT);
+
+        assertTrue(response.getResults().get(0).isSuccess());
+        assertTrue(response.getResults().get(1).getError().contains("does not belong"));
+    }
+
+    @Test
+    @DisplayName("An admin's status change reports and releases only the packages it actually updated")
+    void testBulkStatusChangeLostRace() {
+        when(packageRepository.findAllById(any())).thenReturn(List.of(assignedTo("p1", "t1"), assignedTo("p2", "t1")));
+        updated(1);
+        // p2 was reassigned after the prefetch, so its routing key no longer matched
+        readBack(List.of(assignedTo("p1", "t1")), List.of(assignedTo("p2", "t2")));
+        when(mongoTemplate.findDistinct(any(Query.class), eq("transporterId"), eq(Package.class), eq(String.class)))
+                .thenReturn(List.of());
+        User t1 = transporter("t1", Specialty.STANDARD);
+        t1.setOnDelivery();
+        when(userRepository.findAllById(any())).thenReturn(List.of(t1));
+        matched(transporterOps, 1);
+
+        BulkOperationResponse response = service.changeStatus(List.of("p1", "p2"), PackageStatus.DELIVERED);
+
+        assertTrue(response.getResults().get(0).isSuccess());
+        assertTrue(response.getResults().get(1).getError().contains("concurrently"));
+        verify(outboxWriter).record(eq(OutboxEventType.PACKAGE_STATUS_CHANGED), argThat((List<Package> packages) ->
+                packages.size() == 1 && packages.get(0).getId().equals("p1")));
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateMulti(any(Query.class), update.capture(), eq(Package.class));
+        assertNotNull(update.getValue().getUpdateObject().get("$set", Document.class).get(BulkPackageService.CLAIM_TOKEN));
+        verify(userRepository).findAllById(List.of("t1"));
+    }
+
+    @Test
+    @DisplayName("An idle transporter claimed again after it was read is neither released nor indexed as available")
+    void testReleaseLostRace() {
+        when(packageRepository.findAllById(any())).thenReturn(List.of(assignedTo("p1", "t1")));
+        updated(1);
+        when(mongoTemplate.findDistinct(any(Query.class), eq("transporterId"), eq(Package.class), eq(String.class)))
+                .thenReturn(List.of());
+        User t1 = transporter("t1", Specialty.STANDARD);
+        t1.setOnDelivery();
+        t1.setUpdatedAt(LocalDateTime.of(2025, 6, 1, 12, 0));
+        when(userRepository.findAllById(any())).thenReturn(List.of(t1));
+        // Another request assigned t1 a new package between the read and the release
+        matched(transporterOps, 0);
+        when(mongoTemplate.find(any(Query.class), eq(User.class))).thenReturn(List.of());
+
+        BulkOperationResponse response = service.changeStatus(List.of("p1"), PackageStatus.DELIVERED);
+
+        assertTrue(response.getResults().get(0).isSuccess());
+        ArgumentCaptor<Query> release = ArgumentCaptor.forClass(Query.class);
+        verify(transporterOps).updateOne(release.capture(), any(Update.class));
+        Document expected = release.getValue().getQueryObject();
+        assertEquals(TransporterStatus.ON_DELIVERY, expected.get("status"));
+        assertEquals(t1.getUpdatedAt(), expected.get("updatedAt"));
+        verify(registry, never()).put(any());
+        verify(registry).refreshLocal("t1");
+    }
+
+    private void prefetch(List<Package> packages, List<User> transporters) {
+        when(packageRepository.findAllById(any())).thenReturn(packages);
+        when(userRepository.findAllById(any())).thenReturn(transporters);
+    }
+
+    /**
+     * Matched counts of the successive executions of a bulk write
+     */
+    private static void matched(BulkOperations ops, int... counts) {
+        BulkWriteResult[] results = new BulkWriteResult[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            results[i] = mock(BulkWriteResult.class);
+            when(results[i].getMatchedCount()).thenReturn(counts[i]);
+        }
+        when(ops.execute()).thenReturn(results[0], Arrays.copyOfRange(results, 1, results.length));
+    }
+
+    private void updated(long matched) {
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(Package.class)))
+                .thenReturn(UpdateResult.acknowledged(matched, matched, null));
+    }
+
+    /**
+     * Packages carrying the update's token, then the current state of the others
+     */
+    private void readBack(List<Package> written, List<Package> others) {
+        when(mongoTemplate.find(any(Query.class), eq(Package.class))).thenAnswer(invocation ->
+                invocation.getArgument(0, Query.class).getQueryObject().containsKey(BulkPackageService.CLAIM_TOKEN)
+                        ? written
+                        : others);
+    }
+
+    private static Package assignedTo(String id, String transporterId) {
+        Package pkg = pkg(id, PackageType.STANDARD);
+        pkg.assignToTransporter(transporterId);
+        return pkg;
+    }
+
+    private static Package pkg(String id, PackageType type) {
+        return Package.builder().id(id).type(type).weight(1.0)
+                .destinationAddress("1 Rue de Paris").status(PackageStatus.PENDING).build();
+    }
+
+    private static User transporter(String id, Specialty specialty) {
+        return User.builder().id(id).login(id).role(Role.TRANSPORTER).active(true)
+                .specialty(specialty).status(TransporterStatus.AVAILABLE).build();
+    }
+}
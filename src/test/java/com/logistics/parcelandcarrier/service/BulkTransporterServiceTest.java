@@ -0,0 +1,107 @@
+package com.logistics.parcelandcarrier.service;
+
+import com.logistics.parcelandcarrier.cache.TransporterRegistry;
+import com.logistics.parcelandcarrier.dto.request.TransporterRequest;
+import com.logistics.parcelandcarrier.dto.response.BulkTransporterResponse;
+import com.logistics.parcelandcarrier.entity.User;
+import com.logistics.parcelandcarrier.enums.Specialty;
+import com.logistics.parcelandcarrier.mapper.UserMapperImpl;
+import com.logistics.parcelandcarrier.repository.UserRepository;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BulkTransporterServiceTest {
+
+    private UserRepository userRepository;
+    private PasswordEncoder passwordEncoder;
+    private BulkOperations userOps;
+    private TransporterRegistry registry;
+    private BulkTransporterService service;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        passwordEncoder = mock(PasswordEncoder.class);
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        userOps = mock(BulkOperations.class);
+        registry = mock(TransporterRegistry.class);
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(User.class))).thenReturn(userOps);
+        when(userOps.insert(anyList())).thenReturn(userOps);
+        when(userRepository.findLoginsIn(anyCollection())).thenReturn(List.of());
+
+        service = new BulkTransporterService(userRepository, new UserMapperImpl(), passwordEncoder, mongoTemplate,
+                registry, new SimpleAsyncTaskExecutorBuilder(), 2);
+    }
+
+    @Test
+    @DisplayName("Passwords are hashed concurrently and the transporters inserted with one bulk write")
+    void testAllCreated() throws Exception {
+        CyclicBarrier bothHashing = new CyclicBarrier(2);
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> {
+            // Only returns if two hashes run at the same time
+            bothHashing.await(5, TimeUnit.SECONDS);
+            return "hash-" + invocation.getArgument(0);
+        });
+        when(userOps.execute()).thenReturn(mock(BulkWriteResult.class));
+
+        BulkTransporterResponse response = service.createTransporters(List.of(
+                request("driver_1", "secret1"), request("driver_2", "secret2")));
+
+        assertEquals(2, response.getSucceeded());
+        verify(userRepository, times(1)).findLoginsIn(anyCollection());
+        verify(userRepository, never()).existsByLogin(anyString());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<User>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(userOps, times(1)).insert(inserted.capture());
+        assertEquals(List.of("hash-secret1", "hash-secret2"),
+                inserted.getValue().stream().map(User::getPassword).toList());
+        assertNotNull(response.getResults().get(0).getTransporter().getId());
+        verify(registry, times(2)).put(any(User.class));
+    }
+
+    @Test
+    @DisplayName("Taken, repeated and concurrently taken logins fail on their own item, in request order")
+    void testPerItemResults() {
+        when(passwordEncoder.encode(anyString())).thenReturn("hash");
+        when(userRepository.findLoginsIn(anyCollection()))
+                .thenReturn(List.of(User.builder().id("u1").login("taken").build()));
+        BulkOperationException raced = mock(BulkOperationException.class);
+        when(raced.getErrors()).thenReturn(List.of(new BulkWriteError(11000, "E11000", new BsonDocument(), 1)));
+        when(userOps.execute()).thenThrow(raced);
+
+        BulkTransporterResponse response = service.createTransporters(List.of(
+                request("driver_1", "secret1"), request("taken", "secret2"),
+                request("driver_1", "secret3"), request("raced", "secret4")));
+
+        assertEquals(1, response.getSucceeded());
+        assertEquals(3, response.getFailed());
+        assertTrue(response.getResults().get(0).isSuccess());
+        assertEquals("Login already exists: taken", response.getResults().get(1).getError());
+        assertEquals("Login appears more than once in the request", response.getResults().get(2).getError());
+        assertEquals("Login already exists: raced", response.getResults().get(3).getError());
+        verify(passwordEncoder, times(2)).encode(anyString());
+        verify(registry, times(1)).put(any(User.class));
+    }
+
+    private static TransporterRequest request(String login, String password) {
+        return new TransporterRequest(login, password, Specialty.STANDARD);
+    }
+}
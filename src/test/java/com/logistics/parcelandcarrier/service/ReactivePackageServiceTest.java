@@ -0,0 +1,98 @@
+package com.logistics.parcelandcarrier.service;
+
+import com.logistics.parcelandcarrier.dto.response.PackageResponse;
+import com.logistics.parcelandcarrier.entity.Package;
+import com.logistics.parcelandcarrier.enums.PackageStatus;
+import com.logistics.parcelandcarrier.enums.PackageType;
+import com.logistics.parcelandcarrier.mapper.PackageMapperImpl;
+import com.logistics.parcelandcarrier.repository.PackageFilter;
+import com.logistics.parcelandcarrier.repository.ReactivePackageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReactivePackageServiceTest {
+
+    private final Pageable pageable = PageRequest.of(0, 500);
+
+    private ReactivePackageRepository repository;
+    private ReactivePackageService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ReactivePackageRepository.class);
+        service = new ReactivePackageService(repository, new PackageMapperImpl());
+        ReflectionTestUtils.setField(service, "prefetch", 4);
+    }
+
+    @Test
+    @DisplayName("The admin stream passes the listing filter to the repository")
+    void testStreamAllWithFilter() {
+        PackageFilter filter = PackageFilter.builder()
+                .statuses(Set.of(PackageStatus.PENDING, PackageStatus.IN_TRANSIT))
+                .type(PackageType.FRAGILE)
+                .minWeight(2.0)
+                .build();
+        when(repository.streamWithFilter(filter, pageable)).thenReturn(Flux.just(pkg("1"), pkg("2")));
+
+        List<PackageResponse> result = service.streamAllWithFilters(filter, pageable)
+                .collectList().block();
+
+        assertEquals(List.of("1", "2"), result.stream().map(PackageResponse::getId).toList());
+        verify(repository).streamWithFilter(filter, pageable);
+    }
+
+    @Test
+    @DisplayName("Transporter stream uses the status filter when present")
+    void testStreamMyPackagesWithStatus() {
+        when(repository.findByTransporterIdAndRoutingKeyAndStatus("t1", "t:t1", PackageStatus.IN_TRANSIT, pageable))
+                .thenReturn(Flux.just(pkg("1")));
+
+        service.streamMyPackagesWithFilters("t1", PackageStatus.IN_TRANSIT, pageable)
+                .collectList().block();
+
+        verify(repository).findByTransporterIdAndRoutingKeyAndStatus("t1", "t:t1", PackageStatus.IN_TRANSIT, pageable);
+        verify(repository, never()).findByTransporterIdAndRoutingKey(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Demand on the cursor is batched by the prefetch, not one document at a time")
+    void testStreamRequestsInPrefetchBatches() {
+        AtomicLong largestRequest = new AtomicLong();
+        Flux<Package> source = Flux.range(0, 10)
+                .map(i -> pkg(String.valueOf(i)))
+                .doOnRequest(n -> largestRequest.accumulateAndGet(n, Math::max));
+        when(repository.findByDestinationAddressContainingIgnoreCase("paris", pageable)).thenReturn(source);
+
+        // Downstream asks for one element at a time, like the HTTP response writer
+        List<PackageResponse> received = service.streamByAddress("paris", pageable)
+                .limitRate(1)
+                .collectList().block();
+
+        assertEquals(10, received.size());
+        assertEquals(4, largestRequest.get());
+    }
+
+    private Package pkg(String id) {
+        return Package.builder()
+                .id(id)
+                .type(PackageType.STANDARD)
+                .weight(1.0)
+                .destinationAddress(id + " Rue de Paris")
+                .status(PackageStatus.PENDING)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
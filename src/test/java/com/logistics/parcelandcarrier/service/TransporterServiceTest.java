@@ -0,0 +1,152 @@
+package com.logistics.parcelandcarrier.service;
+
+import com.logistics.parcelandcarrier.cache.TransporterRegistry;
+import com.logistics.parcelandcarrier.dto.request.TransporterRequest;
+import com.logistics.parcelandcarrier.dto.response.CursorPageResponse;
+import com.logistics.parcelandcarrier.dto.response.UserResponse;
+import com.logistics.parcelandcarrier.entity.User;
+import com.logistics.parcelandcarrier.enums.PackageType;
+import com.logistics.parcelandcarrier.enums.Role;
+import com.logistics.parcelandcarrier.enums.Specialty;
+import com.logistics.parcelandcarrier.enums.TransporterStatus;
+import com.logistics.parcelandcarrier.mapper.JsonMergePatch;
+import com.logistics.parcelandcarrier.mapper.UserMapperImpl;
+import com.logistics.parcelandcarrier.repository.UserFilter;
+import com.logistics.parcelandcarrier.repository.UserRepository;
+import com.logistics.parcelandcarrier.security.RevokedTokenRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TransporterServiceTest {
+
+    private final UserFilter filter = new UserFilter(Role.TRANSPORTER, null, null);
+
+    private UserRepository userRepository;
+    private TransporterRegistry transporterRegistry;
+    private RevokedTokenRegistry revokedTokenRegistry;
+    private ApiKeyService apiKeyService;
+    private TransporterService service;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        transporterRegistry = mock(TransporterRegistry.class);
+        revokedTokenRegistry = mock(RevokedTokenRegistry.class);
+        apiKeyService = mock(ApiKeyService.class);
+        service = new TransporterService(
+                userRepository, new UserMapperImpl(), mock(PasswordEncoder.class), transporterRegistry,
+                mock(JsonMergePatch.class), revokedTokenRegistry, apiKeyService
+        );
+    }
+
+    @Test
+    @DisplayName("A full page returns the cursor of its last user")
+    void testNextCursor() {
+        when(userRepository.findPageAfter(filter, null, 3)).thenReturn(users(3));
+
+        CursorPageResponse<UserResponse> page = service.findUsers(filter, null, 2);
+
+        assertEquals(List.of("u0", "u1"), page.getContent().stream().map(UserResponse::getId).toList());
+        assertEquals("u1", page.getNextCursor());
+        assertFalse(page.isLast());
+    }
+
+    @Test
+    @DisplayName("The last page has no cursor")
+    void testLastPage() {
+        when(userRepository.findPageAfter(filter, "u1", 3)).thenReturn(users(2));
+
+        CursorPageResponse<UserResponse> page = service.findUsers(filter, "u1", 2);
+
+        assertEquals(2, page.getContent().size());
+        assertNull(page.getNextCursor());
+        assertTrue(page.isLast());
+    }
+
+    @Test
+    @DisplayName("Page sizes outside the bounds are rejected")
+    void testPageSizeBounds() {
+        assertThrows(IllegalArgumentException.class, () -> service.findUsers(filter, null, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.findUsers(filter, null, TransporterService.MAX_PAGE_SIZE + 1));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Deactivation writes the changed fields of the stored transporter and revokes its tokens and API keys")
+    void testDeactivateWritesChanges() {
+        User stored = users(1).get(0).toBuilder().active(true).password("hash").build();
+        when(userRepository.findById("u0")).thenReturn(Optional.of(stored));
+        when(userRepository.updateChanged(any(), any())).thenReturn(true);
+
+        service.deactivateTransporter("u0");
+
+        ArgumentCaptor<User> changed = ArgumentCaptor.forClass(User.class);
+        verify(userRepository).updateChanged(eq(stored), changed.capture());
+        verify(userRepository, never()).save(any());
+        assertTrue(stored.isActive());
+        assertFalse(changed.getValue().isActive());
+        assertEquals("hash", changed.getValue().getPassword());
+        verify(transporterRegistry).put(changed.getValue());
+        verify(revokedTokenRegistry).revokeSubject("u0");
+        verify(apiKeyService).revokeUserApiKeys("u0");
+    }
+
+    @Test
+    @DisplayName("An update without password keeps the stored hash")
+    void testUpdateKeepsPassword() {
+        User stored = users(1).get(0).toBuilder().password("hash").specialty(Specialty.STANDARD).build();
+        when(userRepository.findById("u0")).thenReturn(Optional.of(stored));
+        when(userRepository.updateChanged(any(), any())).thenReturn(true);
+
+        service.updateTransporter("u0", new TransporterRequest("login0", null, Specialty.FRAGILE));
+
+        ArgumentCaptor<User> changed = ArgumentCaptor.forClass(User.class);
+        verify(userRepository).updateChanged(eq(stored), changed.capture());
+        assertEquals("hash", changed.getValue().getPassword());
+        assertEquals(Specialty.FRAGILE, changed.getValue().getSpecialty());
+    }
+
+    @Test
+    @DisplayName("Available transporters come from the registry index once it is loaded")
+    void testAvailableFromRegistry() {
+        when(transporterRegistry.isReady()).thenReturn(true);
+        when(transporterRegistry.findActive(Specialty.FRAGILE, TransporterStatus.AVAILABLE)).thenReturn(users(2));
+
+        List<UserResponse> available = service.findAvailableTransporters(PackageType.FRAGILE);
+
+        assertEquals(List.of("u0", "u1"), available.stream().map(UserResponse::getId).toList());
+        verify(transporterRegistry, never()).findActive(eq(Specialty.STANDARD), any());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Available transporters are read from Mongo while the registry loads")
+    void testAvailableBeforeRegistryReady() {
+        when(userRepository.findAvailableTransportersForPackageType(Role.TRANSPORTER, TransporterStatus.AVAILABLE, Specialty.FRAGILE))
+                .thenReturn(users(1));
+
+        List<UserResponse> available = service.findAvailableTransporters(PackageType.FRAGILE);
+
+        assertEquals(1, available.size());
+        verify(transporterRegistry, never()).findActive(any(), any());
+    }
+
+    private static List<User> users(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> User.builder().id("u" + i).login("login" + i).role(Role.TRANSPORTER).build())
+                .toList();
+    }
+}
@@ -0,0 +1,119 @@
+package com.logistics.parcelandcarrier.support;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Assertions on the Mongo commands an action issues, for integration tests:
+ * <pre>
+ * MongoBudget.record(recorder, () -&gt; mockMvc.perform(patch("/api/admin/packages/assign")...))
+ *         .issuesAtMost(4)
+ *         .issuesAtMost(1, "find")
+ *         .withoutCollectionScans(explainer);
+ * </pre>
+ * Command budgets catch N+1 regressions (one lookup per row); plan checks catch queries that lost
+ * their index.
+ */
+public final class MongoBudget {
+
+    private final List<RecordedCommand> commands;
+
+    private MongoBudget(List<RecordedCommand> commands) {
+        this.commands = commands;
+    }
+
+    /**
+     * An action that may throw, such as a MockMvc request
+     */
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    /**
+     * Run an action and record the Mongo commands it issues on the current thread
+     * @param recorder recorder registered on the Mongo client
+     * @param action action under test
+     * @return assertions on the recorded commands
+     */
+    public static MongoBudget record(MongoCommandRecorder recorder, Action action) throws Exception {
+        List<RecordedCommand> commands;
+        recorder.start();
+        try {
+            action.run();
+        } finally {
+            commands = recorder.stop();
+        }
+        return new MongoBudget(commands);
+    }
+
+    /**
+     * Wrap commands recorded elsewhere
+     */
+    public static MongoBudget of(List<RecordedCommand> commands) {
+        return new MongoBudget(List.copyOf(commands));
+    }
+
+    /**
+     * The action issues at most this many commands
+     */
+    public MongoBudget issuesAtMost(int max) {
+        if (commands.size() > max) {
+            fail("Expected at most " + max + " Mongo commands but " + commands.size() + " were issued:" + list(commands));
+        }
+        return this;
+    }
+
+    /**
+     * The action issues at most this many commands with the given name (find, update, ...)
+     */
+    public MongoBudget issuesAtMost(int max, String commandName) {
+        List<RecordedCommand> named = commands.stream().filter(command -> command.name().equals(commandName)).toList();
+        if (named.size() > max) {
+            fail("Expected at most " + max + " '" + commandName + "' commands but " + named.size()
+                    + " were issued:" + list(named));
+        }
+        return this;
+    }
+
+    /**
+     * No command's winning plan scans a whole collection
+     */
+    public MongoBudget withoutCollectionScans(MongoPlanExplainer explainer) {
+        return withoutStage(explainer, "COLLSCAN");
+    }
+
+    /**
+     * No command's winning plan sorts in memory
+     */
+    public MongoBudget withoutBlockingSorts(MongoPlanExplainer explainer) {
+        return withoutStage(explainer, "SORT");
+    }
+
+    /**
+     * The recorded commands, in order
+     */
+    public List<RecordedCommand> commands() {
+        return commands;
+    }
+
+    // =========================================================================
+    // Private helper methods
+    // =========================================================================
+
+    private MongoBudget withoutStage(MongoPlanExplainer explainer, String stage) {
+        for (RecordedCommand command : commands) {
+            List<String> stages = explainer.stages(command);
+            if (stages.contains(stage)) {
+                fail("Plan of " + command + " uses " + stage + ": " + stages);
+            }
+        }
+        return this;
+    }
+
+    private static String list(List<RecordedCommand> commands) {
+        return commands.stream().map(command -> "\n  " + command).collect(Collectors.joining());
+    }
+}
@@ -0,0 +1,100 @@
+package com.logistics.parcelandcarrier.support;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.opentest4j.AssertionFailedError;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MongoBudgetTest {
+
+    private static final ConnectionDescription CONNECTION = new ConnectionDescription(
+            new ServerId(new ClusterId(), new ServerAddress())
+    );
+
+    private final MongoCommandRecorder recorder = new MongoCommandRecorder();
+
+    @Test
+    @DisplayName("Only the commands of the recording thread are recorded, handshakes excluded")
+    void testRecordsCurrentThreadOnly() throws Exception {
+        MongoBudget budget = MongoBudget.record(recorder, () -> {
+            start(1, "find", "{ find: 'packages', filter: {}, $db: 'test' }");
+            start(2, "hello", "{ hello: 1, $db: 'admin' }");
+            Thread other = new Thread(() -> start(3, "find", "{ find: 'users', $db: 'test' }"));
+            other.start();
+            other.join();
+        });
+
+        assertEquals(1, budget.commands().size());
+        assertEquals("packages", budget.commands().get(0).collection());
+        start(4, "find", "{ find: 'packages', $db: 'test' }");
+        assertTrue(recorder.stop().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Budgets fail with the list of issued commands")
+    void testBudgetExceeded() throws Exception {
+        MongoBudget budget = MongoBudget.record(recorder, () -> {
+            for (int i = 0; i < 3; i++) {
+                start(i, "find", "{ find: 'users', filter: { _id: " + i + " }, $db: 'test' }");
+            }
+            start(3, "update", "{ update: 'packages', updates: [], $db: 'test' }");
+        });
+
+        budget.issuesAtMost(4).issuesAtMost(1, "update");
+        AssertionFailedError error = assertThrows(AssertionFailedError.class, () -> budget.issuesAtMost(1, "find"));
+        assertTrue(error.getMessage().contains("find users"));
+        assertThrows(AssertionFailedError.class, () -> budget.issuesAtMost(3));
+    }
+
+    @Test
+    @DisplayName("Multi-statement updates are explained one statement at a time, without driver fields")
+    void testExplainCommands() {
+        RecordedCommand update = new RecordedCommand("update", "users", "test", BsonDocument.parse(
+                "{ update: 'users', ordered: false, updates: [ { q: { _id: 1 }, u: {} }, { q: { _id: 2 }, u: {} } ],"
+                        + " writeConcern: { w: 1 }, lsid: { id: 1 }, $db: 'test' }"));
+        RecordedCommand insert = new RecordedCommand("insert", "users", "test", BsonDocument.parse(
+                "{ insert: 'users', documents: [ {} ], $db: 'test' }"));
+
+        List<BsonDocument> explains = MongoPlanExplainer.explainCommands(update);
+
+        assertEquals(2, explains.size());
+        BsonDocument first = explains.get(0).getDocument("explain");
+        assertEquals(1, first.getArray("updates").size());
+        assertFalse(first.containsKey("writeConcern"));
+        assertFalse(first.containsKey("$db"));
+        assertEquals("queryPlanner", explains.get(0).getString("verbosity").getValue());
+        assertTrue(MongoPlanExplainer.explainCommands(insert).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Stages are read from winning plans only, in every explain layout")
+    void testWinningPlanStages() {
+        BsonDocument find = BsonDocument.parse("{ queryPlanner: {"
+                + " winningPlan: { stage: 'FETCH', inputStage: { stage: 'IXSCAN', indexName: 'login' } },"
+                + " rejectedPlans: [ { stage: 'COLLSCAN' } ] } }");
+        BsonDocument sbe = BsonDocument.parse("{ queryPlanner: { winningPlan: {"
+                + " queryPlan: { stage: 'SORT', inputStage: { stage: 'COLLSCAN' } }, slotBasedPlan: {} } } }");
+        BsonDocument aggregate = BsonDocument.parse("{ stages: [ { $cursor: { queryPlanner: {"
+                + " winningPlan: { stage: 'SORT_MERGE', inputStages: [ { stage: 'IXSCAN' }, { stage: 'IXSCAN' } ] } } } },"
+                + " { $group: {} } ] }");
+
+        assertEquals(List.of("FETCH", "IXSCAN"), MongoPlanExplainer.winningPlanStages(find));
+        assertEquals(List.of("SORT", "COLLSCAN"), MongoPlanExplainer.winningPlanStages(sbe));
+        assertEquals(List.of("SORT_MERGE", "IXSCAN", "IXSCAN"), MongoPlanExplainer.winningPlanStages(aggregate));
+    }
+
+    private void start(int requestId, String name, String command) {
+        BsonDocument document = BsonDocument.parse(command);
+        recorder.commandStarted(new CommandStartedEvent(
+                null, 1L, requestId, CONNECTION, document.getString("$db").getValue(), name, document));
+    }
+}
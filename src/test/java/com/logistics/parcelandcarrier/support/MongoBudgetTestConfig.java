@@ -0,0 +1,49 @@
+package com.logistics.parcelandcarrier.support;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+
+/**
+ * Test configuration for {@link MongoBudget}: registers a {@link MongoCommandRecorder} on the Mongo
+ * client (and, as the only task decorator, on the application's executors) and exposes a
+ * {@link MongoPlanExplainer}.
+ * The test profile disables automatic index creation, so the indexes declared on the entities are
+ * created here; plan assertions would otherwise report collection scans that production does not have.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class MongoBudgetTestConfig {
+
+    @Bean
+    public MongoCommandRecorder mongoCommandRecorder() {
+        return new MongoCommandRecorder();
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoCommandRecorderCustomizer(MongoCommandRecorder recorder) {
+        return builder -> builder.addCommandListener(recorder);
+    }
+
+    @Bean
+    public MongoPlanExplainer mongoPlanExplainer(MongoTemplate mongoTemplate) {
+        return new MongoPlanExplainer(mongoTemplate);
+    }
+
+    @Bean
+    public InitializingBean declaredIndexes(MongoTemplate mongoTemplate) {
+        return () -> {
+            IndexResolver resolver = IndexResolver.create(mongoTemplate.getConverter().getMappingContext());
+            for (MongoPersistentEntity<?> entity : mongoTemplate.getConverter().getMappingContext().getPersistentEntities()) {
+                if (entity.isAnnotationPresent(Document.class)) {
+                    resolver.resolveIndexFor(entity.getType())
+                            .forEach(index -> mongoTemplate.indexOps(entity.getType()).createIndex(index));
+                }
+            }
+        };
+    }
+}
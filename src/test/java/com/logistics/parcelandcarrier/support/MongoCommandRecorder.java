@@ -0,0 +1,85 @@
+package com.logistics.parcelandcarrier.support;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.BsonValue;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Command listener recording the Mongo commands issued by one thread between {@link #start()}
+ * and {@link #stop()}.
+ * The blocking driver notifies listeners on the calling thread, so a MockMvc request is recorded
+ * while scheduled jobs (registry reconciliation, webhook polling) running meanwhile are not. As a
+ * {@link TaskDecorator} of the application's executors, it also records the tasks the recording
+ * thread submits, such as the fan-out of untargeted package reads.
+ * Connection handshakes, authentication and session housekeeping are ignored.
+ */
+public class MongoCommandRecorder implements CommandListener, TaskDecorator {
+
+    private static final Set<String> IGNORED = Set.of(
+            "hello", "ismaster", "isMaster", "ping", "buildinfo", "buildInfo",
+            "saslStart", "saslContinue", "endSessions", "killCursors"
+    );
+
+    private final List<RecordedCommand> commands = new CopyOnWriteArrayList<>();
+    /** Recording a thread belongs to, passed on to the tasks it submits */
+    private final ThreadLocal<Object> recordingOfThread = new ThreadLocal<>();
+    private volatile Object recording;
+
+    /**
+     * Start recording the commands of the current thread, discarding earlier ones
+     */
+    public void start() {
+        commands.clear();
+        recording = new Object();
+        recordingOfThread.set(recording);
+    }
+
+    /**
+     * Stop recording
+     * @return the commands recorded since {@link #start()}, in order
+     */
+    public List<RecordedCommand> stop() {
+        recording = null;
+        recordingOfThread.remove();
+        List<RecordedCommand> recorded = new ArrayList<>(commands);
+        commands.clear();
+        return recorded;
+    }
+
+    @Override
+    public Runnable decorate(Runnable task) {
+        Object submitter = recordingOfThread.get();
+        if (submitter == null) {
+            return task;
+        }
+        return () -> {
+            recordingOfThread.set(submitter);
+            try {
+                task.run();
+            } finally {
+                recordingOfThread.remove();
+            }
+        };
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        Object current = recording;
+        if (current == null || recordingOfThread.get() != current || IGNORED.contains(event.getCommandName())) {
+            return;
+        }
+        BsonValue target = event.getCommand().get(event.getCommandName());
+        String collection = target != null && target.isString() ? target.asString().getValue() : null;
+        if ("getMore".equals(event.getCommandName()) && event.getCommand().containsKey("collection")) {
+            collection = event.getCommand().getString("collection").getValue();
+        }
+        commands.add(new RecordedCommand(
+                event.getCommandName(), collection, event.getDatabaseName(), event.getCommand().clone()));
+    }
+}
@@ -0,0 +1,125 @@
+package com.logistics.parcelandcarrier.support;
+
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Runs {@code explain} (queryPlanner verbosity) on recorded commands and returns the stages of the
+ * winning plans. Multi-statement updates and deletes are explained one statement at a time;
+ * commands without a query plan (insert, getMore, ...) have no stages.
+ */
+public class MongoPlanExplainer {
+
+    private static final Set<String> QUERIES = Set.of("find", "aggregate", "count", "distinct", "findAndModify");
+    private static final Map<String, String> STATEMENTS = Map.of("update", "updates", "delete", "deletes");
+
+    /** Fields added by the driver that explain rejects or does not need */
+    private static final Set<String> GENERIC_FIELDS = Set.of(
+            "$db", "lsid", "$clusterTime", "txnNumber", "$readPreference", "writeConcern",
+            "apiVersion", "apiStrict", "apiDeprecationErrors", "maxTimeMS"
+    );
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoPlanExplainer(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Stages of the winning plans of a command, in plan tree order
+     * @param command recorded command
+     * @return stage names (COLLSCAN, IXSCAN, FETCH, SORT, ...), empty if the command has no plan
+     */
+    public List<String> stages(RecordedCommand command) {
+        List<String> stages = new ArrayList<>();
+        for (BsonDocument explain : explainCommands(command)) {
+            BsonDocument result = mongoTemplate.getMongoDatabaseFactory()
+                    .getMongoDatabase(command.database())
+                    .runCommand(explain, BsonDocument.class);
+            stages.addAll(winningPlanStages(result));
+        }
+        return stages;
+    }
+
+    /**
+     * Explain commands for one recorded command, one per statement
+     */
+    static List<BsonDocument> explainCommands(RecordedCommand command) {
+        BsonDocument body = new BsonDocument();
+        command.command().forEach((key, value) -> {
+            if (!GENERIC_FIELDS.contains(key)) {
+                body.put(key, value);
+            }
+        });
+
+        if (QUERIES.contains(command.name())) {
+            return List.of(explain(body));
+        }
+        String statementsField = STATEMENTS.get(command.name());
+        if (statementsField == null || !body.containsKey(statementsField)) {
+            return List.of();
+        }
+
+        List<BsonDocument> explains = new ArrayList<>();
+        for (BsonValue statement : body.getArray(statementsField)) {
+            BsonDocument single = body.clone();
+            single.put(statementsField, new BsonArray(List.of(statement)));
+            explains.add(explain(single));
+        }
+        return explains;
+    }
+
+    /**
+     * Stage names under every winning plan of an explain result (plain, aggregate and sharded layouts)
+     */
+    static List<String> winningPlanStages(BsonDocument explain) {
+        List<String> stages = new ArrayList<>();
+        collectWinningPlans(explain, stages);
+        return stages;
+    }
+
+    private static BsonDocument explain(BsonDocument body) {
+        return new BsonDocument("explain", body).append("verbosity", new BsonString("queryPlanner"));
+    }
+
+    private static void collectWinningPlans(BsonValue value, List<String> stages) {
+        if (value.isArray()) {
+            value.asArray().forEach(item -> collectWinningPlans(item, stages));
+        } else if (value.isDocument()) {
+            for (Map.Entry<String, BsonValue> entry : value.asDocument().entrySet()) {
+                if (entry.getKey().equals("rejectedPlans")) {
+                    continue;
+                }
+                if (entry.getKey().equals("winningPlan")) {
+                    collectStages(entry.getValue(), stages);
+                } else {
+                    collectWinningPlans(entry.getValue(), stages);
+                }
+            }
+        }
+    }
+
+    private static void collectStages(BsonValue value, List<String> stages) {
+        if (value.isArray()) {
+            value.asArray().forEach(item -> collectStages(item, stages));
+        } else if (value.isDocument()) {
+            BsonDocument document = value.asDocument();
+            if (document.isString("stage")) {
+                stages.add(document.getString("stage").getValue());
+            }
+            for (Map.Entry<String, BsonValue> entry : document.entrySet()) {
+                if (!entry.getKey().equals("stage")) {
+                    collectStages(entry.getValue(), stages);
+                }
+            }
+        }
+    }
+}
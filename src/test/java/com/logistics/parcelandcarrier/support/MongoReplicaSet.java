@@ -0,0 +1,170 @@
+package com.logistics.parcelandcarrier.support;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.flapdoodle.embed.mongo.commands.MongodArguments;
+import de.flapdoodle.embed.mongo.config.Net;
+import de.flapdoodle.embed.mongo.config.Storage;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import de.flapdoodle.reverse.transitions.Start;
+import org.bson.Document;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Local replica set started with the embedded Mongo support, for tests that need secondaries.
+ * Every member listens on a free localhost port; the first one has the highest priority and is
+ * elected primary, so the test knows which member serves writes. The members can also be started as
+ * config servers or shards of a {@link MongoShardedCluster}.
+ */
+public final class MongoReplicaSet implements AutoCloseable {
+
+    private static final String NAME = "rs0";
+    private static final Duration ELECTION_TIMEOUT = Duration.ofSeconds(60);
+
+    private final String name;
+    private final List<TransitionWalker.ReachedState<RunningMongodProcess>> members;
+    private final List<String> hosts;
+
+    private MongoReplicaSet(
+            String name,
+            List<TransitionWalker.ReachedState<RunningMongodProcess>> members,
+            List<String> hosts
+    ) {
+        this.name = name;
+        this.members = members;
+        this.hosts = hosts;
+    }
+
+    /**
+     * Start the members, initiate the set and wait until every member is primary or secondary
+     * @param size number of members
+     * @return the running replica set
+     */
+    public static MongoReplicaSet start(int size) {
+        return start(NAME, size, Role.REPLICA);
+    }
+
+    /**
+     * Start the members in a cluster role, initiate the set and wait until every member is primary or secondary
+     * @param name replica set name
+     * @param size number of members
+     * @param role role of the members in a sharded cluster
+     * @return the running replica set
+     */
+    public static MongoReplicaSet start(String name, int size, Role role) {
+        List<TransitionWalker.ReachedState<RunningMongodProcess>> members = new ArrayList<>();
+        List<String> hosts = new ArrayList<>();
+        try {
+            for (int i = 0; i < size; i++) {
+                int port = freePort();
+                members.add(Mongod.instance()
+                        .withNet(Start.to(Net.class).initializedWith(Net.of("localhost", port, false)))
+                        .withMongodArguments(Start.to(MongodArguments.class)
+                                .initializedWith(MongodArguments.defaults()
+                                        .withReplication(Storage.of(name, 0))
+                                        .withIsConfigServer(role == Role.CONFIG_SERVER)
+                                        .withIsShardServer(role == Role.SHARD)))
+                        .start(Version.Main.V7_0));
+                hosts.add("localhost:" + port);
+            }
+            MongoReplicaSet replicaSet = new MongoReplicaSet(name, members, hosts);
+            replicaSet.initiate(role == Role.CONFIG_SERVER);
+            return replicaSet;
+        } catch (RuntimeException e) {
+            members.forEach(TransitionWalker.ReachedState::close);
+            throw e;
+        }
+    }
+
+    /**
+     * @param database database name
+     * @return connection string to the whole set
+     */
+    public String uri(String database) {
+        return "mongodb://" + String.join(",", hosts) + "/" + database + "?replicaSet=" + name;
+    }
+
+    /**
+     * @return seed list in the {@code name/host,host} form of {@code addShard} and {@code --configdb}
+     */
+    public String seedList() {
+        return name + "/" + String.join(",", hosts);
+    }
+
+    /**
+     * @return address of the member elected primary
+     */
+    public String primary() {
+        return hosts.get(0);
+    }
+
+    /**
+     * Role of the members
+     */
+    public enum Role {
+        /** Plain replica set */
+        REPLICA,
+        /** Config server replica set of a sharded cluster */
+        CONFIG_SERVER,
+        /** Shard of a sharded cluster */
+        SHARD
+    }
+
+    @Override
+    public void close() {
+        members.forEach(TransitionWalker.ReachedState::close);
+    }
+
+    // =========================================================================
+    // Private helper methods
+    // =========================================================================
+
+    private void initiate(boolean configServer) {
+        List<Document> config = new ArrayList<>();
+        for (int i = 0; i < hosts.size(); i++) {
+            config.add(new Document("_id", i).append("host", hosts.get(i)).append("priority", i == 0 ? 2 : 1));
+        }
+        try (MongoClient client = MongoClients.create("mongodb://" + primary() + "/?directConnection=true")) {
+            client.getDatabase("admin").runCommand(new Document("replSetInitiate",
+                    new Document("_id", name).append("configsvr", configServer).append("members", config)));
+            long deadline = System.nanoTime() + ELECTION_TIMEOUT.toNanos();
+            while (!ready(client)) {
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("Replica set " + name + " not ready after " + ELECTION_TIMEOUT);
+                }
+                Thread.sleep(200);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while initiating " + name, e);
+        }
+    }
+
+    private boolean ready(MongoClient client) {
+        Document status = client.getDatabase("admin").runCommand(new Document("replSetGetStatus", 1));
+        List<String> states = status.getList("members", Document.class).stream()
+                .map(member -> member.getString("stateStr"))
+                .collect(Collectors.toList());
+        return states.size() == hosts.size()
+                && "PRIMARY".equals(states.get(0))
+                && states.subList(1, states.size()).stream().allMatch("SECONDARY"::equals);
+    }
+
+    static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
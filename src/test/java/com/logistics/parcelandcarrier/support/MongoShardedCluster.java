@@ -0,0 +1,99 @@
+package com.logistics.parcelandcarrier.support;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.flapdoodle.embed.mongo.commands.MongosArguments;
+import de.flapdoodle.embed.mongo.config.Net;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongos;
+import de.flapdoodle.embed.mongo.transitions.RunningMongosProcess;
+import de.flapdoodle.reverse.StateID;
+import de.flapdoodle.reverse.TransitionWalker;
+import de.flapdoodle.reverse.transitions.Start;
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local sharded cluster started with the embedded Mongo support: a single-member config server
+ * replica set, single-member shards and one mongos, for tests that check query targeting.
+ * Clients connect to the mongos only.
+ */
+public final class MongoShardedCluster implements AutoCloseable {
+
+    private final MongoReplicaSet configServer;
+    private final List<MongoReplicaSet> shards;
+    private final TransitionWalker.ReachedState<RunningMongosProcess> router;
+    private final String routerHost;
+
+    private MongoShardedCluster(
+            MongoReplicaSet configServer,
+            List<MongoReplicaSet> shards,
+            TransitionWalker.ReachedState<RunningMongosProcess> router,
+            String routerHost
+    ) {
+        this.configServer = configServer;
+        this.shards = shards;
+        this.router = router;
+        this.routerHost = routerHost;
+    }
+
+    /**
+     * Start the config server, the shards and the mongos, then add the shards to the cluster
+     * @param shardCount number of shards
+     * @return the running cluster
+     */
+    public static MongoShardedCluster start(int shardCount) {
+        List<MongoReplicaSet> shards = new ArrayList<>();
+        MongoReplicaSet configServer = MongoReplicaSet.start("cfg", 1, MongoReplicaSet.Role.CONFIG_SERVER);
+        try {
+            for (int i = 0; i < shardCount; i++) {
+                shards.add(MongoReplicaSet.start("shard" + i, 1, MongoReplicaSet.Role.SHARD));
+            }
+            int port = MongoReplicaSet.freePort();
+            // Mongos has no withNet/withMongosArguments: its net and arguments are replaced in its transitions
+            TransitionWalker.ReachedState<RunningMongosProcess> router = Mongos.instance()
+                    .transitions(Version.Main.V7_0)
+                    .replace(Start.to(Net.class).initializedWith(Net.of("localhost", port, false)))
+                    .replace(Start.to(MongosArguments.class)
+                            .initializedWith(MongosArguments.defaults().withConfigDB(configServer.seedList())))
+                    .walker()
+                    .initState(StateID.of(RunningMongosProcess.class));
+            MongoShardedCluster cluster = new MongoShardedCluster(configServer, shards, router, "localhost:" + port);
+            cluster.addShards();
+            return cluster;
+        } catch (RuntimeException e) {
+            shards.forEach(MongoReplicaSet::close);
+            configServer.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @param database database name
+     * @return connection string to the mongos
+     */
+    public String uri(String database) {
+        return "mongodb://" + routerHost + "/" + database;
+    }
+
+    @Override
+    public void close() {
+        router.close();
+        shards.forEach(MongoReplicaSet::close);
+        configServer.close();
+    }
+
+    // =========================================================================
+    // Private helper methods
+    // =========================================================================
+
+    private void addShards() {
+        try (MongoClient client = MongoClients.create("mongodb://" + routerHost)) {
+            for (MongoReplicaSet shard : shards) {
+                client.getDatabase("admin").runCommand(new Document("addShard", shard.seedList()));
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.logistics.parcelandcarrier.support;
+
+import org.bson.BsonDocument;
+
+/**
+ * A Mongo command sent by the code under test
+ * @param name command name (find, update, insert, ...)
+ * @param collection target collection, or null for database commands
+ * @param database database name
+ * @param command the command document as sent
+ */
+public record RecordedCommand(String name, String collection, String database, BsonDocument command) {
+
+    @Override
+    public String toString() {
+        return name + " " + collection + " " + command.toJson();
+    }
+}
@@ -0,0 +1,82 @@
+package com.logistics.parcelandcarrier.warmup;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultApplicationArguments;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class JitWarmupTest {
+
+    private static final WarmupProperties PROPERTIES =
+            new WarmupProperties(true, 10, Duration.ofMillis(5), 3, 1000, Duration.ofMinutes(1));
+
+    private WarmupWorkload workload;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        workload = mock(WarmupWorkload.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("The warm-up ends after consecutive batches without compilation")
+    void testSettles() {
+        // 100 ms of compilation per batch for the first 5 batches, then 1 ms
+        AtomicLong compiled = new AtomicLong();
+        AtomicLong batches = new AtomicLong();
+        JitWarmup warmup = new JitWarmup(PROPERTIES, workload, meterRegistry,
+                () -> compiled.addAndGet(batches.getAndIncrement() <= 5 ? 100 : 1));
+
+        JitWarmup.Result result = warmup.warmUp();
+
+        assertEquals("settled", result.outcome());
+        assertEquals(80, result.iterations());
+        verify(workload, times(80)).run(anyInt());
+    }
+
+    @Test
+    @DisplayName("A JIT that keeps compiling stops at the iteration limit")
+    void testIterationLimit() {
+        AtomicLong compiled = new AtomicLong();
+        JitWarmup warmup = new JitWarmup(PROPERTIES, workload, meterRegistry, () -> compiled.addAndGet(50));
+
+        JitWarmup.Result result = warmup.warmUp();
+
+        assertEquals("iteration-limit", result.outcome());
+        assertEquals(1000, result.iterations());
+    }
+
+    @Test
+    @DisplayName("Without compilation time monitoring the warm-up runs to the iteration limit")
+    void testNoCompilationMonitoring() {
+        JitWarmup warmup = new JitWarmup(PROPERTIES, workload, meterRegistry, () -> -1);
+
+        JitWarmup.Result result = warmup.warmUp();
+
+        assertEquals("iteration-limit", result.outcome());
+        assertEquals(0, result.compilationMillis());
+    }
+
+    @Test
+    @DisplayName("A failing workload ends the warm-up without failing the startup, and is reported")
+    void testFailure() {
+        when(workload.run(anyInt())).thenReturn(1).thenThrow(new IllegalStateException("boom"));
+        JitWarmup warmup = new JitWarmup(PROPERTIES, workload, meterRegistry, () -> 0);
+
+        assertDoesNotThrow(() -> warmup.run(new DefaultApplicationArguments()));
+
+        assertEquals(1, meterRegistry.get("startup.warmup.iterations").tag("outcome", "failed").gauge().value());
+        assertTrue(meterRegistry.get("startup.warmup.duration").tag("outcome", "failed").timeGauge()
+                .value(TimeUnit.NANOSECONDS) > 0);
+    }
+}